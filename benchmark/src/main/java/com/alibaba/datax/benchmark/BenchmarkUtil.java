@@ -0,0 +1,100 @@
+package com.alibaba.datax.benchmark;
+
+import com.alibaba.datax.common.element.BoolColumn;
+import com.alibaba.datax.common.element.BytesColumn;
+import com.alibaba.datax.common.element.Column;
+import com.alibaba.datax.common.element.ColumnCast;
+import com.alibaba.datax.common.element.DateColumn;
+import com.alibaba.datax.common.element.DoubleColumn;
+import com.alibaba.datax.common.element.LongColumn;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.element.StringColumn;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.core.statistics.communication.Communication;
+import com.alibaba.datax.core.transport.channel.Channel;
+import com.alibaba.datax.core.transport.record.DefaultRecord;
+import com.alibaba.datax.core.util.ClassUtil;
+
+import java.util.Date;
+
+/**
+ * benchmark公用的配置和数据构造方法
+ * <p/>
+ * 配置与core.json的默认值一致，不限速，可以通过参数覆盖channel的实现类
+ */
+public final class BenchmarkUtil {
+
+    public static final String MEMORY_CHANNEL = "com.alibaba.datax.core.transport.channel.memory.MemoryChannel";
+
+    public static final String RING_BUFFER_CHANNEL = "com.alibaba.datax.core.transport.channel.memory.RingBufferChannel";
+
+    private static final String CORE_CONFIG = "{"
+            + "\"common\":{\"column\":{"
+            + "\"datetimeFormat\":\"yyyy-MM-dd HH:mm:ss\","
+            + "\"timeFormat\":\"HH:mm:ss\","
+            + "\"dateFormat\":\"yyyy-MM-dd\","
+            + "\"extraFormats\":[\"yyyyMMdd\"],"
+            + "\"timeZone\":\"GMT+8\","
+            + "\"encoding\":\"utf-8\"}},"
+            + "\"core\":{"
+            + "\"container\":{\"taskGroup\":{\"id\":0}},"
+            + "\"transport\":{"
+            + "\"channel\":{"
+            + "\"speed\":{\"byte\":-1,\"record\":-1},"
+            + "\"flowControlInterval\":20,"
+            + "\"capacity\":%d,"
+            + "\"byteCapacity\":67108864,"
+            + "\"waitStrategy\":\"%s\"},"
+            + "\"exchanger\":{\"bufferSize\":%d}}}}";
+
+    private BenchmarkUtil() {
+    }
+
+    public static Configuration newConfiguration(int capacity, int bufferSize, String waitStrategy) {
+        Configuration configuration = Configuration.from(
+                String.format(CORE_CONFIG, capacity, waitStrategy, bufferSize));
+        ColumnCast.bind(configuration);
+        return configuration;
+    }
+
+    public static Configuration newConfiguration() {
+        return newConfiguration(512, 32, "park");
+    }
+
+    public static Channel newChannel(String channelClass, Configuration configuration) {
+        Channel channel = ClassUtil.instantiate(channelClass, Channel.class, configuration);
+        channel.setCommunication(new Communication());
+        return channel;
+    }
+
+    /**
+     * 构造一条各类型Column各一列的record，模拟常见的宽表数据
+     */
+    public static Record newMixedRecord(long seed) {
+        Record record = new DefaultRecord();
+        record.addColumn(new LongColumn(seed));
+        record.addColumn(new DoubleColumn(seed * 1.5d));
+        record.addColumn(new StringColumn("datax-benchmark-" + seed));
+        record.addColumn(new DateColumn(new Date(1500000000000L + seed)));
+        record.addColumn(new BoolColumn((seed & 1) == 0));
+        record.addColumn(new BytesColumn(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+        return record;
+    }
+
+    public static Column newColumn(String type, long seed) {
+        if ("long".equals(type)) {
+            return new LongColumn(seed);
+        } else if ("double".equals(type)) {
+            return new DoubleColumn(seed * 1.5d);
+        } else if ("string".equals(type)) {
+            return new StringColumn("datax-benchmark-" + seed);
+        } else if ("date".equals(type)) {
+            return new DateColumn(new Date(1500000000000L + seed));
+        } else if ("bool".equals(type)) {
+            return new BoolColumn((seed & 1) == 0);
+        } else if ("bytes".equals(type)) {
+            return new BytesColumn(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        }
+        throw new IllegalArgumentException("不支持的column类型: " + type);
+    }
+}
@@ -0,0 +1,121 @@
+package com.alibaba.datax.benchmark;
+
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.core.transport.channel.Channel;
+import com.alibaba.datax.core.transport.record.TerminateRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * channel的push/pull吞吐，单位为每秒record数
+ * <p/>
+ * roundTrip: 单线程先pushAll一批再pullAll，衡量channel自身的开销；
+ * pushWithConsumer: 另起一个线程持续pullAll，衡量reader/writer并发时的吞吐，对应实际运行时的场景。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChannelBenchmark {
+
+    private static final int BATCH_SIZE = 32;
+
+    @Param({BenchmarkUtil.MEMORY_CHANNEL, BenchmarkUtil.RING_BUFFER_CHANNEL})
+    public String channelClass;
+
+    @Param({"park"})
+    public String waitStrategy;
+
+    private Configuration configuration;
+
+    private Channel channel;
+
+    private List<Record> batch;
+
+    private List<Record> pulled;
+
+    private Thread consumer;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        this.configuration = BenchmarkUtil.newConfiguration(512, BATCH_SIZE, this.waitStrategy);
+        this.batch = new ArrayList<Record>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            this.batch.add(BenchmarkUtil.newMixedRecord(i));
+        }
+        this.pulled = new ArrayList<Record>(BATCH_SIZE);
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        this.channel = BenchmarkUtil.newChannel(this.channelClass, this.configuration);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() throws InterruptedException {
+        if (this.consumer != null) {
+            this.channel.pushTerminate(TerminateRecord.get());
+            this.consumer.join();
+            this.consumer = null;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void roundTrip(Blackhole blackhole) {
+        this.channel.pushAll(this.batch);
+        this.channel.pullAll(this.pulled);
+        blackhole.consume(this.pulled);
+        this.pulled.clear();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void pushWithConsumer() {
+        if (this.consumer == null) {
+            this.consumer = startConsumer(this.channel);
+        }
+        this.channel.pushAll(this.batch);
+    }
+
+    private static Thread startConsumer(final Channel channel) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                List<Record> records = new ArrayList<Record>(BATCH_SIZE);
+                while (true) {
+                    channel.pullAll(records);
+                    for (Record record : records) {
+                        if (record instanceof TerminateRecord) {
+                            return;
+                        }
+                    }
+                    records.clear();
+                }
+            }
+        }, "channel-benchmark-consumer");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,90 @@
+package com.alibaba.datax.benchmark;
+
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.core.transport.channel.Channel;
+import com.alibaba.datax.core.transport.record.TerminateRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * channel的单条record传递延迟，单位为纳秒，输出p50/p90/p99等分位数
+ * <p/>
+ * pingPong: 本线程向request channel push一条record，echo线程pull后push到response channel，
+ * 本线程再从response channel pull回来，一次调用为两次跨线程传递的往返时间。
+ * 等待策略对延迟影响最大，因此对各个waitStrategy分别测试(MemoryChannel不受该参数影响)。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChannelLatencyBenchmark {
+
+    @Param({BenchmarkUtil.MEMORY_CHANNEL, BenchmarkUtil.RING_BUFFER_CHANNEL})
+    public String channelClass;
+
+    @Param({"busy_spin", "yield", "park"})
+    public String waitStrategy;
+
+    private Channel request;
+
+    private Channel response;
+
+    private Record record;
+
+    private Thread echo;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Configuration configuration = BenchmarkUtil.newConfiguration(512, 32, this.waitStrategy);
+        this.request = BenchmarkUtil.newChannel(this.channelClass, configuration);
+        this.response = BenchmarkUtil.newChannel(this.channelClass, configuration);
+        this.record = BenchmarkUtil.newMixedRecord(1L);
+        this.echo = startEcho(this.request, this.response);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        this.request.pushTerminate(TerminateRecord.get());
+        this.echo.join();
+    }
+
+    @Benchmark
+    public Record pingPong() {
+        this.request.push(this.record);
+        return this.response.pull();
+    }
+
+    private static Thread startEcho(final Channel request, final Channel response) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    Record record = request.pull();
+                    if (record instanceof TerminateRecord) {
+                        return;
+                    }
+                    response.push(record);
+                }
+            }
+        }, "channel-latency-benchmark-echo");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,70 @@
+package com.alibaba.datax.benchmark;
+
+import com.alibaba.datax.common.element.Column;
+import com.alibaba.datax.common.element.DateColumn;
+import com.alibaba.datax.common.element.StringColumn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ColumnCast中字符串与日期之间的转换，格式取core.json中的默认配置
+ * <p/>
+ * stringToDateExtraFormat 使用只有extraFormats才能解析的值，覆盖逐个尝试格式的慢路径。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnCastBenchmark {
+
+    private Column datetimeString;
+
+    private Column dateString;
+
+    private Column extraFormatString;
+
+    private Column dateColumn;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.newConfiguration();
+        this.datetimeString = new StringColumn("2017-07-14 10:40:00");
+        this.dateString = new StringColumn("2017-07-14");
+        this.extraFormatString = new StringColumn("20170714");
+        this.dateColumn = new DateColumn(new Date(1500000000000L));
+    }
+
+    @Benchmark
+    public Date stringToDatetime() {
+        return this.datetimeString.asDate();
+    }
+
+    @Benchmark
+    public Date stringToDate() {
+        return this.dateString.asDate();
+    }
+
+    @Benchmark
+    public Date stringToDateExtraFormat() {
+        return this.extraFormatString.asDate();
+    }
+
+    @Benchmark
+    public String dateToString() {
+        return this.dateColumn.asString();
+    }
+}
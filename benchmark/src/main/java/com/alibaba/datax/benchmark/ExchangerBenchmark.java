@@ -0,0 +1,115 @@
+package com.alibaba.datax.benchmark;
+
+import com.alibaba.datax.common.constant.PluginType;
+import com.alibaba.datax.common.element.BytesColumn;
+import com.alibaba.datax.common.element.DateColumn;
+import com.alibaba.datax.common.element.DoubleColumn;
+import com.alibaba.datax.common.element.LongColumn;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.element.StringColumn;
+import com.alibaba.datax.common.plugin.RecordReceiver;
+import com.alibaba.datax.common.plugin.RecordSender;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.core.statistics.communication.Communication;
+import com.alibaba.datax.core.statistics.plugin.task.StdoutPluginCollector;
+import com.alibaba.datax.core.transport.channel.Channel;
+import com.alibaba.datax.core.transport.exchanger.BufferedRecordExchanger;
+import com.alibaba.datax.core.transport.exchanger.BufferedRecordTransformerExchanger;
+import com.alibaba.datax.core.transport.transformer.TransformerExecution;
+import com.alibaba.datax.core.util.TransformerUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reader端exchanger发送到Writer端exchanger的往返吞吐，单位为每秒record数
+ * <p/>
+ * 包含createRecord、sendToWriter、flush、getFromReader以及Writer端release的完整路径；
+ * transformer模式下Reader端为BufferedRecordTransformerExchanger，并对字符串列执行一次dx_substr。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExchangerBenchmark {
+
+    private static final int BATCH_SIZE = 32;
+
+    private static final String TRANSFORMER_CONFIG = "{\"transformer\":[{\"name\":\"dx_substr\","
+            + "\"parameter\":{\"columnIndex\":2,\"paras\":[\"1\",\"8\"]}}]}";
+
+    @Param({"buffered", "transformer"})
+    public String exchanger;
+
+    @Param({BenchmarkUtil.MEMORY_CHANNEL, BenchmarkUtil.RING_BUFFER_CHANNEL})
+    public String channelClass;
+
+    private RecordSender sender;
+
+    private RecordReceiver receiver;
+
+    private Date date;
+
+    private byte[] bytes;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        Configuration configuration = BenchmarkUtil.newConfiguration(512, BATCH_SIZE, "park");
+        Channel channel = BenchmarkUtil.newChannel(this.channelClass, configuration);
+        Communication communication = new Communication();
+
+        if ("transformer".equals(this.exchanger)) {
+            List<TransformerExecution> transformerExecutions =
+                    TransformerUtil.buildTransformerInfo(Configuration.from(TRANSFORMER_CONFIG));
+            this.sender = new BufferedRecordTransformerExchanger(0, 0, channel, communication,
+                    new StdoutPluginCollector(configuration, communication, PluginType.READER),
+                    transformerExecutions);
+        } else {
+            this.sender = new BufferedRecordExchanger(channel,
+                    new StdoutPluginCollector(configuration, communication, PluginType.READER));
+        }
+        this.receiver = new BufferedRecordExchanger(channel,
+                new StdoutPluginCollector(configuration, communication, PluginType.WRITER));
+
+        this.date = new Date(1500000000000L);
+        this.bytes = new byte[]{1, 2, 3, 4, 5, 6, 7, 8};
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void roundTrip(Blackhole blackhole) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Record record = this.sender.createRecord();
+            record.addColumn(new LongColumn(i));
+            record.addColumn(new DoubleColumn(i * 1.5d));
+            record.addColumn(new StringColumn("datax-benchmark"));
+            record.addColumn(new DateColumn(this.date));
+            record.addColumn(new BytesColumn(this.bytes));
+            this.sender.sendToWriter(record);
+        }
+        this.sender.flush();
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Record record = this.receiver.getFromReader();
+            blackhole.consume(record.getColumn(2).asString());
+            record.release();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.alibaba.datax.benchmark;
+
+import com.alibaba.datax.common.element.BoolColumn;
+import com.alibaba.datax.common.element.BytesColumn;
+import com.alibaba.datax.common.element.Column;
+import com.alibaba.datax.common.element.DateColumn;
+import com.alibaba.datax.common.element.DoubleColumn;
+import com.alibaba.datax.common.element.LongColumn;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.element.StringColumn;
+import com.alibaba.datax.core.transport.record.DefaultRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按Column类型构造DefaultRecord的开销，每条record包含columnNumber个同类型的列
+ * <p/>
+ * 包含Column自身的构造(如LongColumn/DoubleColumn的数值解析与byteSize计算)以及record的内存统计。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordBenchmark {
+
+    @Param({"long", "double", "string", "date", "bool", "bytes"})
+    public String type;
+
+    @Param({"10"})
+    public int columnNumber;
+
+    private long seed;
+
+    private String stringValue;
+
+    private Date dateValue;
+
+    private byte[] bytesValue;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.newConfiguration();
+        this.stringValue = "datax-benchmark-string";
+        this.dateValue = new Date(1500000000000L);
+        this.bytesValue = new byte[]{1, 2, 3, 4, 5, 6, 7, 8};
+    }
+
+    @Benchmark
+    public Record newRecord() {
+        Record record = new DefaultRecord();
+        long value = this.seed++;
+        for (int i = 0; i < this.columnNumber; i++) {
+            record.addColumn(newColumn(value + i));
+        }
+        return record;
+    }
+
+    @Benchmark
+    public Column newColumnFromString() {
+        if ("long".equals(this.type)) {
+            return new LongColumn("1234567890");
+        } else if ("double".equals(this.type)) {
+            return new DoubleColumn("12345.6789");
+        }
+        return new StringColumn(this.stringValue);
+    }
+
+    private Column newColumn(long value) {
+        if ("long".equals(this.type)) {
+            return new LongColumn(value);
+        } else if ("double".equals(this.type)) {
+            return new DoubleColumn(value * 1.5d);
+        } else if ("string".equals(this.type)) {
+            return new StringColumn(this.stringValue);
+        } else if ("date".equals(this.type)) {
+            return new DateColumn(this.dateValue);
+        } else if ("bool".equals(this.type)) {
+            return new BoolColumn((value & 1) == 0);
+        }
+        return new BytesColumn(this.bytesValue);
+    }
+}
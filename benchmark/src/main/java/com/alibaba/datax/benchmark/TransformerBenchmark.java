@@ -0,0 +1,81 @@
+package com.alibaba.datax.benchmark;
+
+import com.alibaba.datax.common.element.Column;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.core.transport.transformer.TransformerRegistry;
+import com.alibaba.datax.transformer.ComplexTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 内置transformer单条record的处理耗时，参数与job配置中的transformer.parameter一致
+ * <p/>
+ * groovy脚本在setup中先执行一次，编译耗时不计入结果。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransformerBenchmark {
+
+    private static final String GROOVY_CODE = "Column column = record.getColumn(0);"
+            + "record.setColumn(0, new LongColumn(column.asLong() + 1));"
+            + "return record;";
+
+    private ComplexTransformer substr;
+
+    private ComplexTransformer filter;
+
+    private ComplexTransformer groovy;
+
+    private Record record;
+
+    private Column stringColumn;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.newConfiguration();
+        this.substr = TransformerRegistry.getTransformer("dx_substr").getTransformer();
+        this.filter = TransformerRegistry.getTransformer("dx_filter").getTransformer();
+        this.groovy = TransformerRegistry.getTransformer("dx_groovy").getTransformer();
+
+        this.record = BenchmarkUtil.newMixedRecord(1);
+        this.stringColumn = this.record.getColumn(2);
+        this.groovy.evaluate(this.record, null, GROOVY_CODE);
+    }
+
+    @Benchmark
+    public Record substr() {
+        // dx_substr会替换原来的列，每次恢复为原始值
+        this.record.setColumn(2, this.stringColumn);
+        return this.substr.evaluate(this.record, null, 2, "1", "8");
+    }
+
+    @Benchmark
+    public Record filterLike() {
+        return this.filter.evaluate(this.record, null, 2, "like", "datax.*");
+    }
+
+    @Benchmark
+    public Record filterGreat() {
+        return this.filter.evaluate(this.record, null, 0, ">", "100");
+    }
+
+    @Benchmark
+    public Record groovy() {
+        return this.groovy.evaluate(this.record, null, GROOVY_CODE);
+    }
+}
@@ -67,6 +67,11 @@ public class ClickhouseWriter extends Writer {
 			this.writerSliceConfig = super.getPluginJobConf();
 
 			this.commonRdbmsWriterSlave = new CommonRdbmsWriter.Task(DATABASE_TYPE) {
+				@Override
+				protected boolean usePrecompiledSetters() {
+					return false;
+				}
+
 				@Override
 				protected PreparedStatement fillPreparedStatementColumnType(PreparedStatement preparedStatement, int columnIndex, int columnSqltype, Column column) throws SQLException {
 					try {
@@ -312,6 +317,7 @@ public class ClickhouseWriter extends Writer {
 
 		@Override
 		public void startWrite(RecordReceiver recordReceiver) {
+			this.commonRdbmsWriterSlave.setTaskCheckpoint(super.getTaskCheckpoint());
 			this.commonRdbmsWriterSlave.startWrite(recordReceiver, this.writerSliceConfig, super.getTaskPluginCollector());
 		}
 
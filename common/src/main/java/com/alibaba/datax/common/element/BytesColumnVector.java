@@ -0,0 +1,138 @@
+package com.alibaba.datax.common.element;
+
+import com.alibaba.datax.common.exception.CommonErrorCode;
+import com.alibaba.datax.common.exception.DataXException;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * 使用 offsets + byte[] 保存的变长列，适用于STRING(UTF-8编码)和BYTES类型
+ * <p/>
+ * 第row行的数据为 data[offsets[row], offsets[row + 1])
+ * <p/>
+ * byteSize与单条记录的计算方式一致：STRING按StringColumn计为字符串的length()，BYTES计为字节数
+ */
+public class BytesColumnVector extends ColumnVector {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private int[] offsets;
+
+	private byte[] data;
+
+	public BytesColumnVector() {
+		this(Column.Type.STRING, DEFAULT_CAPACITY);
+	}
+
+	public BytesColumnVector(final Column.Type type, int capacity) {
+		super(type, capacity);
+		if (type != Column.Type.STRING && type != Column.Type.BYTES) {
+			throw DataXException.asDataXException(
+					CommonErrorCode.CONVERT_NOT_SUPPORT,
+					String.format("BytesColumnVector不支持[%s]类型 .", type));
+		}
+		this.offsets = new int[this.capacity + 1];
+		this.data = new byte[this.capacity * 16];
+	}
+
+	public void appendBytes(final byte[] src, int offset, int length) {
+		this.append(src, offset, length, this.getType() == Column.Type.STRING
+				? utf16Length(src, offset, length) : length);
+	}
+
+	public void appendBytes(final byte[] src) {
+		this.appendBytes(src, 0, src.length);
+	}
+
+	public void appendString(final String value) {
+		byte[] bytes = value.getBytes(UTF_8);
+		this.append(bytes, 0, bytes.length, value.length());
+	}
+
+	private void append(final byte[] src, int offset, int length, int valueByteSize) {
+		this.reserve(this.size + 1);
+		int start = this.offsets[this.size];
+		if (start + length > this.data.length) {
+			this.data = Arrays.copyOf(this.data,
+					Math.max(start + length, this.data.length + (this.data.length >> 1)));
+		}
+		System.arraycopy(src, offset, this.data, start, length);
+		this.offsets[++this.size] = start + length;
+		this.byteSize += valueByteSize;
+	}
+
+	/**
+	 * UTF-8字节解码后的String.length()：每个字符的首字节计1，4字节字符对应代理对计2，不实际解码
+	 */
+	private static int utf16Length(final byte[] src, int offset, int length) {
+		int chars = 0;
+		for (int i = offset, end = offset + length; i < end; i++) {
+			int b = src[i] & 0xFF;
+			if ((b & 0xC0) != 0x80) {
+				chars += b >= 0xF0 ? 2 : 1;
+			}
+		}
+		return chars;
+	}
+
+	@Override
+	public void appendNull() {
+		super.appendNull();
+		this.offsets[this.size] = this.offsets[this.size - 1];
+	}
+
+	public byte[] getBytes(int row) {
+		return Arrays.copyOfRange(this.data, this.offsets[row], this.offsets[row + 1]);
+	}
+
+	public String getString(int row) {
+		return new String(this.data, this.offsets[row], this.getLength(row), UTF_8);
+	}
+
+	/**
+	 * 直接访问底层数组，配合getOffset/getLength使用，避免复制
+	 */
+	public byte[] getData() {
+		return this.data;
+	}
+
+	public int getOffset(int row) {
+		return this.offsets[row];
+	}
+
+	public int getLength(int row) {
+		return this.offsets[row + 1] - this.offsets[row];
+	}
+
+	@Override
+	public Column getColumn(int row) {
+		if (this.getType() == Column.Type.BYTES) {
+			return this.isNull(row) ? new BytesColumn() : new BytesColumn(this.getBytes(row));
+		}
+		return this.isNull(row) ? new StringColumn() : new StringColumn(this.getString(row));
+	}
+
+	@Override
+	public void appendColumn(final Column column) {
+		if (isNullColumn(column)) {
+			this.appendNull();
+			return;
+		}
+		if (this.getType() == Column.Type.BYTES) {
+			this.appendBytes(column.asBytes());
+		} else {
+			this.appendString(column.asString());
+		}
+	}
+
+	@Override
+	public int getMemorySize() {
+		return this.data.length + this.offsets.length * 4 + this.getNullsMemorySize();
+	}
+
+	@Override
+	protected void growValues(int newCapacity) {
+		this.offsets = Arrays.copyOf(this.offsets, newCapacity + 1);
+	}
+}
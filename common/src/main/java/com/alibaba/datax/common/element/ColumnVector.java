@@ -0,0 +1,93 @@
+package com.alibaba.datax.common.element;
+
+import java.util.Arrays;
+
+/**
+ * RecordBatch中的一列数据，按行号顺序追加
+ * <p/>
+ * null值使用位图记录，具体取值由子类使用原始类型数组保存，避免为每个单元格创建Column对象
+ */
+public abstract class ColumnVector {
+
+	protected static final int DEFAULT_CAPACITY = 1024;
+
+	private final Column.Type type;
+
+	private long[] nulls;
+
+	private boolean hasNull = false;
+
+	protected int size = 0;
+
+	protected int capacity;
+
+	protected int byteSize = 0;
+
+	protected ColumnVector(final Column.Type type, int capacity) {
+		this.type = type;
+		this.capacity = capacity > 0 ? capacity : DEFAULT_CAPACITY;
+		this.nulls = new long[(this.capacity + 63) >>> 6];
+	}
+
+	/**
+	 * 列类型，ObjectColumnVector中各行类型可能不同，此时返回null
+	 */
+	public Column.Type getType() {
+		return this.type;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public boolean isNull(int row) {
+		return this.hasNull && (this.nulls[row >>> 6] & (1L << row)) != 0;
+	}
+
+	public boolean hasNull() {
+		return this.hasNull;
+	}
+
+	public void appendNull() {
+		this.reserve(this.size + 1);
+		this.nulls[this.size >>> 6] |= 1L << this.size;
+		this.hasNull = true;
+		this.size++;
+	}
+
+	public int getByteSize() {
+		return this.byteSize;
+	}
+
+	/**
+	 * 按行构造Column对象，供不支持列式处理的插件使用
+	 */
+	public abstract Column getColumn(int row);
+
+	/**
+	 * 追加一个Column，供行式数据转换为列式时使用
+	 */
+	public abstract void appendColumn(Column column);
+
+	public abstract int getMemorySize();
+
+	protected abstract void growValues(int newCapacity);
+
+	protected int getNullsMemorySize() {
+		return this.nulls.length * 8;
+	}
+
+	protected void reserve(int required) {
+		if (required <= this.capacity) {
+			return;
+		}
+		int newCapacity = Math.max(required, this.capacity + (this.capacity >> 1));
+		this.nulls = Arrays.copyOf(this.nulls, (newCapacity + 63) >>> 6);
+		this.growValues(newCapacity);
+		this.capacity = newCapacity;
+	}
+
+	protected static boolean isNullColumn(final Column column) {
+		return null == column || null == column.getRawData();
+	}
+}
@@ -9,6 +9,16 @@ import java.util.Date;
 
 public class DoubleColumn extends Column {
 
+	// 绝对值小于2^53的double可以精确转换为long
+	private static final double EXACT_LONG_BOUND = (double) (1L << 53);
+
+	/**
+	 * 由Double构造时直接保存double值，字符串表示只在asString/getRawData等需要时才生成
+	 */
+	private double doubleValue;
+
+	private boolean isPrimitive = false;
+
 	public DoubleColumn(final String data) {
 		this(data, null == data ? 0 : data.length());
 		this.validate(data);
@@ -27,8 +37,23 @@ public class DoubleColumn extends Column {
 	 * 
 	 * */
 	public DoubleColumn(final Double data) {
-		this(data == null ? (String) null
-				: new BigDecimal(String.valueOf(data)).toPlainString());
+		super(null, Column.Type.DOUBLE, 0);
+		if (null == data) {
+			return;
+		}
+
+		double value = data;
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			// 保持原有行为: NaN/Infinity 无法构造BigDecimal
+			String plain = new BigDecimal(String.valueOf(data)).toPlainString();
+			super.setRawData(plain);
+			super.setByteSize(plain.length());
+			return;
+		}
+
+		this.doubleValue = value;
+		this.isPrimitive = true;
+		super.setByteSize(plainStringLength(String.valueOf(value)));
 	}
 
 	/**
@@ -56,6 +81,17 @@ public class DoubleColumn extends Column {
 		super(data, Column.Type.DOUBLE, byteSize);
 	}
 
+	/**
+	 * 字符串表示与原来保持一致，生成后缓存下来，兼容直接读取rawData的插件
+	 */
+	@Override
+	public Object getRawData() {
+		if (this.isPrimitive && null == super.getRawData()) {
+			super.setRawData(new BigDecimal(String.valueOf(this.doubleValue)).toPlainString());
+		}
+		return super.getRawData();
+	}
+
 	@Override
 	public BigDecimal asBigDecimal() {
 		if (null == this.getRawData()) {
@@ -74,6 +110,10 @@ public class DoubleColumn extends Column {
 
 	@Override
 	public Double asDouble() {
+		if (this.isPrimitive) {
+			return this.doubleValue;
+		}
+
 		if (null == this.getRawData()) {
 			return null;
 		}
@@ -94,6 +134,11 @@ public class DoubleColumn extends Column {
 
 	@Override
 	public Long asLong() {
+		// 2^53以内的double截断结果与其十进制表示截断结果一致，且不会溢出
+		if (this.isPrimitive && Math.abs(this.doubleValue) < EXACT_LONG_BOUND) {
+			return (long) this.doubleValue;
+		}
+
 		if (null == this.getRawData()) {
 			return null;
 		}
@@ -139,6 +184,62 @@ public class DoubleColumn extends Column {
 				CommonErrorCode.CONVERT_NOT_SUPPORT, "Double类型无法转为Bytes类型 .");
 	}
 
+	/**
+	 * 计算 new BigDecimal(doubleString).toPlainString() 的长度，不实际生成该字符串
+	 *
+	 * @param doubleString Double.toString的结果，形如 123.45 或者 1.2345E-10
+	 */
+	private static int plainStringLength(final String doubleString) {
+		int length = doubleString.length();
+		int index = 0;
+		boolean negative = false;
+		if (doubleString.charAt(0) == '-') {
+			negative = true;
+			index = 1;
+		}
+
+		int digits = 0;
+		int fractionDigits = 0;
+		boolean inFraction = false;
+		boolean leadingZero = true;
+		int exponent = 0;
+		for (; index < length; index++) {
+			char c = doubleString.charAt(index);
+			if (c == '.') {
+				inFraction = true;
+			} else if (c == 'E') {
+				exponent = Integer.parseInt(doubleString.substring(index + 1));
+				break;
+			} else {
+				if (inFraction) {
+					fractionDigits++;
+				}
+				if (leadingZero && c == '0') {
+					continue;
+				}
+				leadingZero = false;
+				digits++;
+			}
+		}
+
+		// BigDecimal的unscaledValue为0时不带符号
+		if (digits == 0) {
+			digits = 1;
+			negative = false;
+		}
+
+		int scale = fractionDigits - exponent;
+		int plainLength;
+		if (scale <= 0) {
+			plainLength = digits - scale;
+		} else if (digits > scale) {
+			plainLength = digits + 1;
+		} else {
+			plainLength = scale + 2;
+		}
+		return negative ? plainLength + 1 : plainLength;
+	}
+
 	private void validate(final String data) {
 		if (null == data) {
 			return;
@@ -0,0 +1,64 @@
+package com.alibaba.datax.common.element;
+
+import java.util.Arrays;
+
+/**
+ * 使用double[]保存的DOUBLE列
+ * <p/>
+ * NOTE: 高精度的DECIMAL数据请不要放入本列，使用BytesColumnVector保存其字符串表示
+ */
+public class DoubleColumnVector extends ColumnVector {
+
+	private double[] values;
+
+	public DoubleColumnVector() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public DoubleColumnVector(int capacity) {
+		super(Column.Type.DOUBLE, capacity);
+		this.values = new double[this.capacity];
+	}
+
+	public void appendDouble(double value) {
+		this.reserve(this.size + 1);
+		this.values[this.size++] = value;
+		this.byteSize += 8;
+	}
+
+	public double getDouble(int row) {
+		return this.values[row];
+	}
+
+	/**
+	 * 直接访问底层数组，只有前size()个元素有效
+	 */
+	public double[] getValues() {
+		return this.values;
+	}
+
+	@Override
+	public Column getColumn(int row) {
+		return this.isNull(row) ? new DoubleColumn()
+				: new DoubleColumn(this.values[row]);
+	}
+
+	@Override
+	public void appendColumn(final Column column) {
+		if (isNullColumn(column)) {
+			this.appendNull();
+			return;
+		}
+		this.appendDouble(column.asDouble());
+	}
+
+	@Override
+	public int getMemorySize() {
+		return this.values.length * 8 + this.getNullsMemorySize();
+	}
+
+	@Override
+	protected void growValues(int newCapacity) {
+		this.values = Arrays.copyOf(this.values, newCapacity);
+	}
+}
@@ -10,6 +10,14 @@ import java.util.Date;
 
 public class LongColumn extends Column {
 
+	/**
+	 * 值能用long表示时直接保存在longValue中，不再创建BigInteger；
+	 * 只有溢出long或者调用方需要BigInteger(getRawData/asBigInteger)时才会提升为BigInteger
+	 */
+	private long longValue;
+
+	private boolean isPrimitive = false;
+
 	/**
 	 * 从整形字符串表示转为LongColumn，支持Java科学计数法
 	 * 
@@ -23,6 +31,12 @@ public class LongColumn extends Column {
 			return;
 		}
 
+		// 绝大多数整形字符串不超过18位，可以直接解析，不需要经过BigDecimal
+		if (this.parsePlainLong(data)) {
+			super.setByteSize(data.length());
+			return;
+		}
+
 		try {
 			BigInteger rawData = NumberUtils.createBigDecimal(data)
 					.toBigInteger();
@@ -38,12 +52,35 @@ public class LongColumn extends Column {
 		}
 	}
 
+	public LongColumn(final long data) {
+		super(null, Column.Type.LONG, 8);
+		this.longValue = data;
+		this.isPrimitive = true;
+	}
+
+	/**
+	 * 调用方已经从原始文本解析出long时使用，byteSize与LongColumn(String)一样记为原始文本的长度
+	 */
+	public LongColumn(final long data, final int byteSize) {
+		super(null, Column.Type.LONG, byteSize);
+		this.longValue = data;
+		this.isPrimitive = true;
+	}
+
 	public LongColumn(Long data) {
-		this(null == data ? (BigInteger) null : BigInteger.valueOf(data));
+		super(null, Column.Type.LONG, null == data ? 0 : 8);
+		if (null != data) {
+			this.longValue = data;
+			this.isPrimitive = true;
+		}
 	}
 
 	public LongColumn(Integer data) {
-		this(null == data ? (BigInteger) null : BigInteger.valueOf(data));
+		super(null, Column.Type.LONG, null == data ? 0 : 8);
+		if (null != data) {
+			this.longValue = data;
+			this.isPrimitive = true;
+		}
 	}
 
 	public LongColumn(BigInteger data) {
@@ -58,6 +95,17 @@ public class LongColumn extends Column {
 		this((BigInteger) null);
 	}
 
+	/**
+	 * 提升为BigInteger后缓存下来，兼容直接读取rawData的插件
+	 */
+	@Override
+	public Object getRawData() {
+		if (this.isPrimitive && null == super.getRawData()) {
+			super.setRawData(BigInteger.valueOf(this.longValue));
+		}
+		return super.getRawData();
+	}
+
 	@Override
 	public BigInteger asBigInteger() {
 		if (null == this.getRawData()) {
@@ -69,6 +117,10 @@ public class LongColumn extends Column {
 
 	@Override
 	public Long asLong() {
+		if (this.isPrimitive) {
+			return this.longValue;
+		}
+
 		BigInteger rawData = (BigInteger) this.getRawData();
 		if (null == rawData) {
 			return null;
@@ -81,6 +133,10 @@ public class LongColumn extends Column {
 
 	@Override
 	public Double asDouble() {
+		if (this.isPrimitive) {
+			return (double) this.longValue;
+		}
+
 		if (null == this.getRawData()) {
 			return null;
 		}
@@ -93,6 +149,10 @@ public class LongColumn extends Column {
 
 	@Override
 	public Boolean asBoolean() {
+		if (this.isPrimitive) {
+			return this.longValue != 0;
+		}
+
 		if (null == this.getRawData()) {
 			return null;
 		}
@@ -103,6 +163,10 @@ public class LongColumn extends Column {
 
 	@Override
 	public BigDecimal asBigDecimal() {
+		if (this.isPrimitive) {
+			return BigDecimal.valueOf(this.longValue);
+		}
+
 		if (null == this.getRawData()) {
 			return null;
 		}
@@ -112,6 +176,10 @@ public class LongColumn extends Column {
 
 	@Override
 	public String asString() {
+		if (this.isPrimitive) {
+			return String.valueOf(this.longValue);
+		}
+
 		if (null == this.getRawData()) {
 			return null;
 		}
@@ -120,6 +188,10 @@ public class LongColumn extends Column {
 
 	@Override
 	public Date asDate() {
+		if (this.isPrimitive) {
+			return new Date(this.longValue);
+		}
+
 		if (null == this.getRawData()) {
 			return null;
 		}
@@ -132,4 +204,39 @@ public class LongColumn extends Column {
 				CommonErrorCode.CONVERT_NOT_SUPPORT, "Long类型不能转为Bytes .");
 	}
 
+	/**
+	 * 只处理 [+-]数字 且不超过18位数字的字符串，这个范围内不可能溢出long；
+	 * 其他格式(科学计数法、小数、超长数字等)返回false，交给BigDecimal处理
+	 */
+	private boolean parsePlainLong(final String data) {
+		int length = data.length();
+		int start = 0;
+		boolean negative = false;
+		if (length > 0) {
+			char first = data.charAt(0);
+			if (first == '-' || first == '+') {
+				negative = first == '-';
+				start = 1;
+			}
+		}
+
+		int digits = length - start;
+		if (digits <= 0 || digits > 18) {
+			return false;
+		}
+
+		long result = 0;
+		for (int i = start; i < length; i++) {
+			char c = data.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+			result = result * 10 + (c - '0');
+		}
+
+		this.longValue = negative ? -result : result;
+		this.isPrimitive = true;
+		return true;
+	}
+
 }
@@ -0,0 +1,100 @@
+package com.alibaba.datax.common.element;
+
+import com.alibaba.datax.common.exception.CommonErrorCode;
+import com.alibaba.datax.common.exception.DataXException;
+
+import java.util.Arrays;
+
+/**
+ * 使用long[]保存的列，适用于LONG，DATE(毫秒时间戳)，BOOL(0/1)三种类型
+ */
+public class LongColumnVector extends ColumnVector {
+
+	private long[] values;
+
+	private DateColumn.DateType dateType = DateColumn.DateType.DATETIME;
+
+	public LongColumnVector() {
+		this(Column.Type.LONG, DEFAULT_CAPACITY);
+	}
+
+	public LongColumnVector(final Column.Type type, int capacity) {
+		super(type, capacity);
+		if (type != Column.Type.LONG && type != Column.Type.DATE
+				&& type != Column.Type.BOOL) {
+			throw DataXException.asDataXException(
+					CommonErrorCode.CONVERT_NOT_SUPPORT,
+					String.format("LongColumnVector不支持[%s]类型 .", type));
+		}
+		this.values = new long[this.capacity];
+	}
+
+	public DateColumn.DateType getDateType() {
+		return this.dateType;
+	}
+
+	public void setDateType(DateColumn.DateType dateType) {
+		this.dateType = dateType;
+	}
+
+	public void appendLong(long value) {
+		this.reserve(this.size + 1);
+		this.values[this.size++] = value;
+		this.byteSize += this.getType() == Column.Type.BOOL ? 1 : 8;
+	}
+
+	public void appendBoolean(boolean value) {
+		this.appendLong(value ? 1L : 0L);
+	}
+
+	public long getLong(int row) {
+		return this.values[row];
+	}
+
+	/**
+	 * 直接访问底层数组，只有前size()个元素有效
+	 */
+	public long[] getValues() {
+		return this.values;
+	}
+
+	@Override
+	public Column getColumn(int row) {
+		switch (this.getType()) {
+			case DATE:
+				DateColumn dateColumn = this.isNull(row) ? new DateColumn()
+						: new DateColumn(this.values[row]);
+				dateColumn.setSubType(this.dateType);
+				return dateColumn;
+			case BOOL:
+				return this.isNull(row) ? new BoolColumn()
+						: new BoolColumn(this.values[row] != 0);
+			default:
+				return this.isNull(row) ? new LongColumn()
+						: new LongColumn(this.values[row]);
+		}
+	}
+
+	@Override
+	public void appendColumn(final Column column) {
+		if (isNullColumn(column)) {
+			this.appendNull();
+			return;
+		}
+		if (this.getType() == Column.Type.BOOL) {
+			this.appendBoolean(column.asBoolean());
+		} else {
+			this.appendLong(column.asLong());
+		}
+	}
+
+	@Override
+	public int getMemorySize() {
+		return this.values.length * 8 + this.getNullsMemorySize();
+	}
+
+	@Override
+	protected void growValues(int newCapacity) {
+		this.values = Arrays.copyOf(this.values, newCapacity);
+	}
+}
@@ -0,0 +1,55 @@
+package com.alibaba.datax.common.element;
+
+import java.util.Arrays;
+
+/**
+ * 直接保存Column对象的列，用于把行式Record转换为RecordBatch，各行的Column类型可以不同
+ */
+public class ObjectColumnVector extends ColumnVector {
+
+	private Column[] values;
+
+	public ObjectColumnVector() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public ObjectColumnVector(int capacity) {
+		super(null, capacity);
+		this.values = new Column[this.capacity];
+	}
+
+	@Override
+	public boolean isNull(int row) {
+		return isNullColumn(this.values[row]);
+	}
+
+	@Override
+	public void appendNull() {
+		super.appendNull();
+		this.values[this.size - 1] = null;
+	}
+
+	@Override
+	public Column getColumn(int row) {
+		return this.values[row];
+	}
+
+	@Override
+	public void appendColumn(final Column column) {
+		this.reserve(this.size + 1);
+		this.values[this.size++] = column;
+		if (null != column) {
+			this.byteSize += column.getByteSize();
+		}
+	}
+
+	@Override
+	public int getMemorySize() {
+		return this.values.length * 8 + this.getNullsMemorySize() + this.byteSize;
+	}
+
+	@Override
+	protected void growValues(int newCapacity) {
+		this.values = Arrays.copyOf(this.values, newCapacity);
+	}
+}
@@ -20,4 +20,11 @@ public interface Record {
 
 	public int getMemorySize();
 
+	/**
+	 * Writer确认不再引用该record(包括其中的Column)后调用，框架可以回收复用该对象。
+	 * 调用后不能再访问该record，默认不做任何事情。
+	 */
+	public default void release() {
+	}
+
 }
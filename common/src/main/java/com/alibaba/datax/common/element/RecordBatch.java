@@ -0,0 +1,185 @@
+package com.alibaba.datax.common.element;
+
+import com.alibaba.datax.common.exception.CommonErrorCode;
+import com.alibaba.datax.common.exception.DataXException;
+
+import java.util.Arrays;
+
+/**
+ * 列式的一批数据，作为Reader与Writer之间Record之外的另一种传输单元
+ * <p/>
+ * 每一列是一个ColumnVector，各列的行数必须一致。
+ * 通过RecordSender.sendBatchToWriter发送后，batch即归下游所有，Reader不能再修改或复用。
+ * 不支持列式处理的Writer通过getRecord(row)按行访问，不需要任何改动。
+ */
+public class RecordBatch {
+
+	private final ColumnVector[] vectors;
+
+	public RecordBatch(final ColumnVector... vectors) {
+		if (null == vectors || vectors.length == 0) {
+			throw DataXException.asDataXException(CommonErrorCode.RUNTIME_ERROR,
+					"RecordBatch至少需要一列 .");
+		}
+		this.vectors = vectors;
+	}
+
+	/**
+	 * 构建用于承载行式Record的batch，每一列都是ObjectColumnVector
+	 */
+	public static RecordBatch rowBased(int columnNumber, int capacity) {
+		ColumnVector[] vectors = new ColumnVector[columnNumber];
+		for (int i = 0; i < columnNumber; i++) {
+			vectors[i] = new ObjectColumnVector(capacity);
+		}
+		return new RecordBatch(vectors);
+	}
+
+	public int getColumnNumber() {
+		return this.vectors.length;
+	}
+
+	public ColumnVector getColumnVector(int i) {
+		return this.vectors[i];
+	}
+
+	public int getRowCount() {
+		return this.vectors[0].size();
+	}
+
+	/**
+	 * 校验各列行数一致，Reader在发送前调用
+	 */
+	public void validate() {
+		int rowCount = this.getRowCount();
+		for (int i = 1; i < this.vectors.length; i++) {
+			if (this.vectors[i].size() != rowCount) {
+				throw DataXException.asDataXException(CommonErrorCode.RUNTIME_ERROR,
+						String.format("RecordBatch第[%d]列的行数[%d]与第0列的行数[%d]不一致 .",
+								i, this.vectors[i].size(), rowCount));
+			}
+		}
+	}
+
+	/**
+	 * 追加一行，多余的列被忽略，缺少的列补null
+	 */
+	public void appendRecord(final Record record) {
+		for (int i = 0; i < this.vectors.length; i++) {
+			this.vectors[i].appendColumn(record.getColumn(i));
+		}
+	}
+
+	/**
+	 * 第row行的只读视图，Column在访问时才创建
+	 */
+	public Record getRecord(int row) {
+		return new RowRecord(row);
+	}
+
+	/**
+	 * 把第row行的数据复制到record中
+	 */
+	public Record fillRecord(int row, final Record record) {
+		for (ColumnVector vector : this.vectors) {
+			record.addColumn(vector.getColumn(row));
+		}
+		return record;
+	}
+
+	public int getByteSize() {
+		int byteSize = 0;
+		for (ColumnVector vector : this.vectors) {
+			byteSize += vector.getByteSize();
+		}
+		return byteSize;
+	}
+
+	public int getMemorySize() {
+		int memorySize = 0;
+		for (ColumnVector vector : this.vectors) {
+			memorySize += vector.getMemorySize();
+		}
+		return memorySize;
+	}
+
+	private class RowRecord implements Record {
+
+		private final int row;
+
+		private Column[] columns;
+
+		private boolean[] loaded;
+
+		RowRecord(int row) {
+			this.row = row;
+			this.columns = new Column[vectors.length];
+			this.loaded = new boolean[vectors.length];
+		}
+
+		@Override
+		public void addColumn(Column column) {
+			this.setColumn(this.columns.length, column);
+		}
+
+		@Override
+		public void setColumn(int i, Column column) {
+			if (i < 0) {
+				throw DataXException.asDataXException(CommonErrorCode.RUNTIME_ERROR,
+						"不能给index小于0的column设置值");
+			}
+			if (i >= this.columns.length) {
+				this.columns = Arrays.copyOf(this.columns, i + 1);
+				this.loaded = Arrays.copyOf(this.loaded, i + 1);
+			}
+			this.columns[i] = column;
+			this.loaded[i] = true;
+		}
+
+		@Override
+		public Column getColumn(int i) {
+			if (i < 0 || i >= this.columns.length) {
+				return null;
+			}
+			if (!this.loaded[i]) {
+				this.columns[i] = i < vectors.length ? vectors[i].getColumn(this.row) : null;
+				this.loaded[i] = true;
+			}
+			return this.columns[i];
+		}
+
+		@Override
+		public int getColumnNumber() {
+			return this.columns.length;
+		}
+
+		@Override
+		public int getByteSize() {
+			int byteSize = 0;
+			for (int i = 0; i < this.columns.length; i++) {
+				Column column = this.getColumn(i);
+				if (null != column) {
+					byteSize += column.getByteSize();
+				}
+			}
+			return byteSize;
+		}
+
+		@Override
+		public int getMemorySize() {
+			return this.getByteSize();
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder("{\"size\":").append(this.columns.length).append(",\"data\":[");
+			for (int i = 0; i < this.columns.length; i++) {
+				if (i > 0) {
+					sb.append(',');
+				}
+				sb.append(this.getColumn(i));
+			}
+			return sb.append("]}").toString();
+		}
+	}
+}
@@ -9,6 +9,7 @@ public abstract class AbstractTaskPlugin extends AbstractPlugin {
     private int taskGroupId;
     private int taskId;
     private TaskPluginCollector taskPluginCollector;
+    private TaskCheckpoint taskCheckpoint;
 
     public TaskPluginCollector getTaskPluginCollector() {
         return taskPluginCollector;
@@ -19,6 +20,17 @@ public abstract class AbstractTaskPlugin extends AbstractPlugin {
         this.taskPluginCollector = taskPluginCollector;
     }
 
+    /**
+     * 同一个 task 的 reader 和 writer 共享，在 failover 重试之间保留，可能为 null
+     */
+    public TaskCheckpoint getTaskCheckpoint() {
+        return taskCheckpoint;
+    }
+
+    public void setTaskCheckpoint(TaskCheckpoint taskCheckpoint) {
+        this.taskCheckpoint = taskCheckpoint;
+    }
+
     public int getTaskId() {
         return taskId;
     }
@@ -17,10 +17,30 @@
 package com.alibaba.datax.common.plugin;
 
 import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.element.RecordBatch;
 
 public interface RecordReceiver {
 
 	public Record getFromReader();
 
+	/**
+	 * 列式读取最多maxRows行，返回null表示Reader已经结束。
+	 * 默认实现逐行读取后拼成batch，支持列式传输的实现会直接返回Reader整批下发的数据。
+	 */
+	public default RecordBatch getBatchFromReader(int maxRows) {
+		RecordBatch batch = null;
+		for (int i = 0; i < maxRows; i++) {
+			Record record = this.getFromReader();
+			if (null == record) {
+				break;
+			}
+			if (null == batch) {
+				batch = RecordBatch.rowBased(record.getColumnNumber(), maxRows);
+			}
+			batch.appendRecord(record);
+		}
+		return batch;
+	}
+
 	public void shutdown();
 }
@@ -17,6 +17,7 @@
 package com.alibaba.datax.common.plugin;
 
 import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.element.RecordBatch;
 
 public interface RecordSender {
 
@@ -24,6 +25,16 @@ public interface RecordSender {
 
 	public void sendToWriter(Record record);
 
+	/**
+	 * 列式发送一批数据，发送后batch归下游所有，不能再修改或复用。
+	 * 默认实现逐行转换为Record发送，支持列式传输的实现会整批下发。
+	 */
+	public default void sendBatchToWriter(RecordBatch batch) {
+		for (int row = 0; row < batch.getRowCount(); row++) {
+			this.sendToWriter(batch.fillRecord(row, this.createRecord()));
+		}
+	}
+
 	public void flush();
 
 	public void terminate();
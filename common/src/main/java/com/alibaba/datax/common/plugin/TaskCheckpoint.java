@@ -0,0 +1,90 @@
+package com.alibaba.datax.common.plugin;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 同一个 task 的 reader 与 writer 之间协调断点位置，在 task 的多次重试(failover)之间保留。
+ * <p/>
+ * 框架在 reader 端按进入 channel 的顺序对 record 计数(被 transformer 过滤或超过大小限制的 record 不计入)，
+ * writer 收到的第 n 条 record 即 reader 端计数的第 n 条。
+ * reader 确认某个位置及之前的数据都已发送后调用 mark(position)，
+ * writer 确认本次收到的前 n 条 record 都已提交后调用 commit(n)，此前 mark 的位置随之成为 committedPosition。
+ * task 重试时 reader 通过 getCommittedPosition 从该位置之后继续读取，而不是从头读取整个切片。
+ * <p/>
+ * position 的格式由 reader 自己约定，框架不做解析。
+ */
+public class TaskCheckpoint {
+
+    // 以下计数只在当前这一次执行内有效，重试前由框架调用 restart 清零
+
+    // 只由 reader 线程读写
+    private long sentRecords;
+
+    // 已 mark 但还没有被 writer 确认的位置，按 sentRecords 递增
+    private final Deque<Mark> pendingMarks = new ArrayDeque<Mark>();
+
+    private long committedRecords;
+
+    private volatile String committedPosition;
+
+    /**
+     * 框架在 record 进入 channel 时调用
+     */
+    public void recordSent(int recordNumber) {
+        this.sentRecords += recordNumber;
+    }
+
+    /**
+     * reader 调用：到目前为止已发送的 record 覆盖了 position 及之前的全部数据
+     */
+    public synchronized void mark(String position) {
+        Mark last = this.pendingMarks.peekLast();
+        if (null != last && last.sentRecords == this.sentRecords) {
+            last.position = position;
+            return;
+        }
+        this.pendingMarks.addLast(new Mark(this.sentRecords, position));
+    }
+
+    /**
+     * writer 调用：本次执行收到的前 committedRecords 条 record 都已提交
+     */
+    public synchronized void commit(long committedRecords) {
+        if (committedRecords <= this.committedRecords) {
+            return;
+        }
+        this.committedRecords = committedRecords;
+        Mark mark;
+        while (null != (mark = this.pendingMarks.peekFirst()) && mark.sentRecords <= committedRecords) {
+            this.committedPosition = mark.position;
+            this.pendingMarks.pollFirst();
+        }
+    }
+
+    /**
+     * 之前各次执行中已被 writer 确认的最大位置，没有时返回 null
+     */
+    public String getCommittedPosition() {
+        return this.committedPosition;
+    }
+
+    /**
+     * 框架在每次(重新)执行 task 前调用，保留 committedPosition，清空本次执行的计数
+     */
+    public synchronized void restart() {
+        this.sentRecords = 0;
+        this.committedRecords = 0;
+        this.pendingMarks.clear();
+    }
+
+    private static class Mark {
+        private final long sentRecords;
+        private String position;
+
+        Mark(long sentRecords, String position) {
+            this.sentRecords = sentRecords;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.alibaba.datax.common.element;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class DoubleColumnTest {
+
+    // 原来由Double构造时保存的字符串
+    private static String plain(double value) {
+        return new BigDecimal(String.valueOf(value)).toPlainString();
+    }
+
+    @Test
+    public void testPrimitiveStringMatchesBigDecimalPlainString() {
+        double[] values = {0.1, -2.5, 1.0E10, 1.2345E-10, 123456789.123, 0.0, -0.0};
+        for (double value : values) {
+            DoubleColumn column = new DoubleColumn(value);
+            assertEquals(plain(value), column.asString());
+            assertEquals(plain(value), column.getRawData());
+            assertEquals(plain(value).length(), column.getByteSize());
+            assertEquals(Double.valueOf(value), column.asDouble());
+            assertEquals(new BigDecimal(plain(value)), column.asBigDecimal());
+        }
+    }
+
+    @Test
+    public void testAsLongTruncates() {
+        assertEquals(Long.valueOf(3), new DoubleColumn(3.9).asLong());
+        assertEquals(Long.valueOf(-3), new DoubleColumn(-3.9).asLong());
+        // 超过2^53时按十进制表示截断
+        assertEquals(Long.valueOf(new BigDecimal(plain(1.0E17)).longValue()), new DoubleColumn(1.0E17).asLong());
+    }
+
+    @Test
+    public void testNaNAndInfinityStillFail() {
+        // 与原来一样，NaN/Infinity无法构造BigDecimal
+        double[] values = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (double value : values) {
+            try {
+                new DoubleColumn(value);
+                fail();
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testStringIsKeptAsIs() {
+        DoubleColumn column = new DoubleColumn("1.0E10");
+        assertEquals("1.0E10", column.asString());
+        assertEquals(Double.valueOf(1.0E10), column.asDouble());
+    }
+
+    @Test
+    public void testNull() {
+        DoubleColumn column = new DoubleColumn((Double) null);
+        assertNull(column.getRawData());
+        assertNull(column.asDouble());
+        assertNull(column.asLong());
+        assertEquals(0, column.getByteSize());
+    }
+}
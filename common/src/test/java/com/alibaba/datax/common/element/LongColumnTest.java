@@ -0,0 +1,75 @@
+package com.alibaba.datax.common.element;
+
+import com.alibaba.datax.common.exception.DataXException;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class LongColumnTest {
+
+    @Test
+    public void testPrimitiveValue() {
+        LongColumn column = new LongColumn(-42L);
+        assertEquals(Long.valueOf(-42), column.asLong());
+        assertEquals("-42", column.asString());
+        assertEquals(Double.valueOf(-42), column.asDouble());
+        assertEquals(BigDecimal.valueOf(-42), column.asBigDecimal());
+        assertEquals(Boolean.TRUE, column.asBoolean());
+        assertEquals(8, column.getByteSize());
+        // 直接读取rawData的插件仍然得到BigInteger
+        assertEquals(BigInteger.valueOf(-42), column.getRawData());
+    }
+
+    @Test
+    public void testPlainStringIsParsedWithoutBigInteger() {
+        assertEquals(Long.valueOf(123456789012345678L), new LongColumn("123456789012345678").asLong());
+        assertEquals(Long.valueOf(-7), new LongColumn("-7").asLong());
+        assertEquals(Long.valueOf(7), new LongColumn("+7").asLong());
+        // byteSize仍然按原始文本长度计算
+        assertEquals(2, new LongColumn("+7").getByteSize());
+    }
+
+    @Test
+    public void testOtherStringsKeepBigIntegerSemantics() {
+        assertEquals(Long.valueOf(1200), new LongColumn("1.2E3").asLong());
+        assertEquals(Long.valueOf(3), new LongColumn("3.9").asLong());
+        assertEquals(new BigInteger("123456789012345678901234567890"),
+                new LongColumn("123456789012345678901234567890").asBigInteger());
+        assertEquals(Long.valueOf(Long.MAX_VALUE), new LongColumn(String.valueOf(Long.MAX_VALUE)).asLong());
+    }
+
+    @Test
+    public void testOverflowStillFails() {
+        try {
+            new LongColumn("123456789012345678901234567890").asLong();
+            fail();
+        } catch (DataXException e) {
+            // 与原来一样溢出时报错
+        }
+    }
+
+    @Test
+    public void testIllegalString() {
+        try {
+            new LongColumn("abc");
+            fail();
+        } catch (DataXException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testNull() {
+        LongColumn column = new LongColumn((Long) null);
+        assertNull(column.getRawData());
+        assertNull(column.asLong());
+        assertNull(column.asString());
+        assertNull(new LongColumn((String) null).asLong());
+        assertEquals(0, column.getByteSize());
+    }
+}
@@ -0,0 +1,193 @@
+package com.alibaba.datax.common.element;
+
+import com.alibaba.datax.common.exception.DataXException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RecordBatchTest {
+
+    @Test
+    public void testVectorsGrowAndTrackNullsAcrossWords() {
+        // 初始容量为1，追加过程中多次扩容，null位图跨过64位边界
+        LongColumnVector longs = new LongColumnVector(Column.Type.LONG, 1);
+        BytesColumnVector strings = new BytesColumnVector(Column.Type.STRING, 1);
+        DoubleColumnVector doubles = new DoubleColumnVector(1);
+        for (int i = 0; i < 200; i++) {
+            if (i % 65 == 0) {
+                longs.appendNull();
+                strings.appendNull();
+                doubles.appendNull();
+            } else {
+                longs.appendLong(i);
+                strings.appendString("s" + i);
+                doubles.appendDouble(i + 0.5);
+            }
+        }
+        RecordBatch batch = new RecordBatch(longs, strings, doubles);
+        batch.validate();
+        assertEquals(200, batch.getRowCount());
+        for (int i = 0; i < 200; i++) {
+            boolean isNull = i % 65 == 0;
+            assertEquals(isNull, longs.isNull(i));
+            assertEquals(isNull, strings.isNull(i));
+            assertEquals(isNull, doubles.isNull(i));
+            if (isNull) {
+                assertNull(longs.getColumn(i).getRawData());
+                assertNull(strings.getColumn(i).getRawData());
+                assertEquals(0, strings.getLength(i));
+            } else {
+                assertEquals(Long.valueOf(i), longs.getColumn(i).asLong());
+                assertEquals("s" + i, strings.getColumn(i).asString());
+                assertEquals(Double.valueOf(i + 0.5), doubles.getColumn(i).asDouble());
+            }
+        }
+    }
+
+    @Test
+    public void testDateAndBoolVectors() {
+        LongColumnVector dates = new LongColumnVector(Column.Type.DATE, 2);
+        dates.setDateType(DateColumn.DateType.DATE);
+        dates.appendLong(86400000L);
+        LongColumnVector bools = new LongColumnVector(Column.Type.BOOL, 2);
+        bools.appendBoolean(true);
+
+        Column date = dates.getColumn(0);
+        assertEquals(Column.Type.DATE, date.getType());
+        assertEquals(DateColumn.DateType.DATE, ((DateColumn) date).getSubType());
+        assertEquals(86400000L, date.asDate().getTime());
+        assertEquals(Boolean.TRUE, bools.getColumn(0).asBoolean());
+        assertEquals(1, bools.getByteSize());
+    }
+
+    @Test
+    public void testUnsupportedVectorType() {
+        try {
+            new BytesColumnVector(Column.Type.LONG, 1);
+            fail();
+        } catch (DataXException e) {
+            // expected
+        }
+        try {
+            new LongColumnVector(Column.Type.STRING, 1);
+            fail();
+        } catch (DataXException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testValidateRejectsDifferentRowCounts() {
+        LongColumnVector first = new LongColumnVector();
+        first.appendLong(1);
+        first.appendLong(2);
+        LongColumnVector second = new LongColumnVector();
+        second.appendLong(1);
+        try {
+            new RecordBatch(first, second).validate();
+            fail();
+        } catch (DataXException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testRowViewsAndFillRecord() {
+        LongColumnVector ids = new LongColumnVector();
+        BytesColumnVector names = new BytesColumnVector();
+        ids.appendLong(1);
+        names.appendString("中文");
+        ids.appendLong(2);
+        names.appendNull();
+        RecordBatch batch = new RecordBatch(ids, names);
+
+        Record row = batch.getRecord(0);
+        assertEquals(2, row.getColumnNumber());
+        assertEquals(Long.valueOf(1), row.getColumn(0).asLong());
+        assertEquals("中文", row.getColumn(1).asString());
+        assertNull(row.getColumn(2));
+        // 行视图可以被修改，不影响batch本身
+        row.setColumn(1, new StringColumn("changed"));
+        assertEquals("changed", row.getColumn(1).asString());
+        assertEquals("中文", batch.getRecord(0).getColumn(1).asString());
+
+        Record filled = batch.fillRecord(1, new ListRecord());
+        assertEquals(Long.valueOf(2), filled.getColumn(0).asLong());
+        assertNull(filled.getColumn(1).getRawData());
+        // 两个long各8字节，字符串与StringColumn一样计为length()
+        assertEquals(2 * 8 + new StringColumn("中文").getByteSize(), batch.getByteSize());
+    }
+
+    @Test
+    public void testStringByteSizeMatchesStringColumn() throws Exception {
+        String value = "a中\uD83D\uDE00";
+        BytesColumnVector strings = new BytesColumnVector();
+        strings.appendString(value);
+        strings.appendBytes(value.getBytes("UTF-8"));
+        assertEquals(2 * new StringColumn(value).getByteSize(), strings.getByteSize());
+
+        BytesColumnVector bytes = new BytesColumnVector(Column.Type.BYTES, 4);
+        bytes.appendBytes(value.getBytes("UTF-8"));
+        assertEquals(8, bytes.getByteSize());
+    }
+
+    @Test
+    public void testRowBasedBatch() {
+        RecordBatch batch = RecordBatch.rowBased(2, 1);
+        ListRecord first = new ListRecord();
+        first.addColumn(new LongColumn(1L));
+        first.addColumn(new StringColumn("a"));
+        ListRecord second = new ListRecord();
+        second.addColumn(new DoubleColumn(2.5));
+        // 缺少的列补null
+        batch.appendRecord(first);
+        batch.appendRecord(second);
+
+        assertEquals(2, batch.getRowCount());
+        assertEquals(Column.Type.LONG, batch.getRecord(0).getColumn(0).getType());
+        assertEquals(Column.Type.DOUBLE, batch.getRecord(1).getColumn(0).getType());
+        assertTrue(batch.getColumnVector(1).isNull(1));
+        assertFalse(batch.getColumnVector(1).isNull(0));
+    }
+
+    private static class ListRecord implements Record {
+        private final List<Column> columns = new ArrayList<Column>();
+
+        @Override
+        public void addColumn(Column column) {
+            this.columns.add(column);
+        }
+
+        @Override
+        public void setColumn(int i, Column column) {
+            this.columns.set(i, column);
+        }
+
+        @Override
+        public Column getColumn(int i) {
+            return i < this.columns.size() ? this.columns.get(i) : null;
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return this.columns.size();
+        }
+
+        @Override
+        public int getByteSize() {
+            return 0;
+        }
+
+        @Override
+        public int getMemorySize() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.alibaba.datax.common.plugin;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TaskCheckpointTest {
+
+    @Test
+    public void testNothingCommittedInitially() {
+        TaskCheckpoint checkpoint = new TaskCheckpoint();
+        checkpoint.recordSent(10);
+        checkpoint.mark("10");
+        assertNull(checkpoint.getCommittedPosition());
+    }
+
+    @Test
+    public void testCommitAdvancesToLastCoveredMark() {
+        TaskCheckpoint checkpoint = new TaskCheckpoint();
+        checkpoint.recordSent(100);
+        checkpoint.mark("100");
+        checkpoint.recordSent(100);
+        checkpoint.mark("200");
+        checkpoint.recordSent(100);
+        checkpoint.mark("300");
+
+        // writer 只提交了前150条，位置"200"对应的前200条还没有全部提交
+        checkpoint.commit(150);
+        assertEquals("100", checkpoint.getCommittedPosition());
+
+        checkpoint.commit(200);
+        assertEquals("200", checkpoint.getCommittedPosition());
+
+        checkpoint.commit(1000);
+        assertEquals("300", checkpoint.getCommittedPosition());
+    }
+
+    @Test
+    public void testStaleCommitIsIgnored() {
+        TaskCheckpoint checkpoint = new TaskCheckpoint();
+        checkpoint.recordSent(10);
+        checkpoint.mark("a");
+        checkpoint.recordSent(10);
+        checkpoint.mark("b");
+
+        checkpoint.commit(20);
+        checkpoint.commit(10);
+        assertEquals("b", checkpoint.getCommittedPosition());
+    }
+
+    @Test
+    public void testMarkWithoutNewRecordsReplacesPosition() {
+        TaskCheckpoint checkpoint = new TaskCheckpoint();
+        checkpoint.recordSent(5);
+        checkpoint.mark("5");
+        checkpoint.mark("6");
+
+        checkpoint.commit(5);
+        assertEquals("6", checkpoint.getCommittedPosition());
+    }
+
+    @Test
+    public void testRestartKeepsCommittedPositionAndResetsCounts() {
+        TaskCheckpoint checkpoint = new TaskCheckpoint();
+        checkpoint.recordSent(100);
+        checkpoint.mark("100");
+        checkpoint.recordSent(100);
+        checkpoint.mark("200");
+        checkpoint.commit(100);
+
+        // 重试前清空本次执行的计数，未提交的位置"200"不再有效
+        checkpoint.restart();
+        assertEquals("100", checkpoint.getCommittedPosition());
+
+        // 重试从"100"开始读取，计数从0开始
+        checkpoint.recordSent(50);
+        checkpoint.commit(50);
+        assertEquals("100", checkpoint.getCommittedPosition());
+        checkpoint.mark("150");
+        checkpoint.recordSent(10);
+        checkpoint.commit(60);
+        assertEquals("150", checkpoint.getCommittedPosition());
+    }
+}
@@ -0,0 +1,205 @@
+package com.alibaba.datax.core.container.util;
+
+import com.alibaba.datax.common.constant.CommonConstant;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.core.statistics.container.communicator.AbstractContainerCommunicator;
+import com.alibaba.datax.core.util.container.CoreConstant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * job级别共享的待运行task队列，用于taskGroup之间的work stealing
+ * <p/>
+ * JobAssignUtil.assignFairly 分配的结果仍然作为每个taskGroup的自有队列，taskGroup优先运行自己的task(从队头取)；
+ * 自有队列为空且还有空闲channel时，从待运行task最多的taskGroup的队尾窃取一个task。
+ * <p/>
+ * 资源约束：按 loadBalanceResourceMark(reader、writer分别统计)，每个资源同时运行的task数不超过其份额
+ * ceil(channel总数 * 该资源task数 / task总数)。只有窃取会检查份额，自有task的运行方式与原来一致。
+ * <p/>
+ * 被窃取的task，其Communication从原taskGroup移到窃取方，保证两边的状态收集和进度(按communication数计算)都正确。
+ * 只有已经attach(完成Communication注册)的taskGroup之间才会互相窃取。
+ */
+public final class JobTaskQueue {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JobTaskQueue.class);
+
+    private static final ConcurrentMap<Long, JobTaskQueue> JOB_TASK_QUEUES =
+            new ConcurrentHashMap<Long, JobTaskQueue>();
+
+    private static final String READER_RESOURCE_MARK = CoreConstant.JOB_READER_PARAMETER + "." +
+            CommonConstant.LOAD_BALANCE_RESOURCE_MARK;
+
+    private static final String WRITER_RESOURCE_MARK = CoreConstant.JOB_WRITER_PARAMETER + "." +
+            CommonConstant.LOAD_BALANCE_RESOURCE_MARK;
+
+    /**
+     * taskGroupId与其待运行task
+     */
+    private final Map<Integer, LinkedList<Configuration>> pendingTasks = new HashMap<Integer, LinkedList<Configuration>>();
+
+    private final Map<Integer, AbstractContainerCommunicator> communicators =
+            new HashMap<Integer, AbstractContainerCommunicator>();
+
+    private final Map<String, Integer> resourceShares = new HashMap<String, Integer>();
+
+    private final Map<String, Integer> runningResources = new HashMap<String, Integer>();
+
+    private int pendingCount;
+
+    private JobTaskQueue(List<Configuration> taskGroupConfigs, int channelNumber) {
+        Map<String, Integer> resourceTaskCounts = new HashMap<String, Integer>();
+        int taskCount = 0;
+        for (Configuration taskGroupConfig : taskGroupConfigs) {
+            int taskGroupId = taskGroupConfig.getInt(CoreConstant.DATAX_CORE_CONTAINER_TASKGROUP_ID);
+            LinkedList<Configuration> tasks = new LinkedList<Configuration>(
+                    taskGroupConfig.getListConfiguration(CoreConstant.DATAX_JOB_CONTENT));
+            this.pendingTasks.put(taskGroupId, tasks);
+
+            for (Configuration taskConfig : tasks) {
+                for (String resource : getResources(taskConfig)) {
+                    Integer count = resourceTaskCounts.get(resource);
+                    resourceTaskCounts.put(resource, count == null ? 1 : count + 1);
+                }
+            }
+            taskCount += tasks.size();
+        }
+        this.pendingCount = taskCount;
+
+        for (Map.Entry<String, Integer> entry : resourceTaskCounts.entrySet()) {
+            int share = (int) Math.ceil(1.0 * channelNumber * entry.getValue() / taskCount);
+            this.resourceShares.put(entry.getKey(), Math.max(1, share));
+        }
+    }
+
+    /**
+     * 由JobContainer在分配taskGroup后调用，创建job级别的队列
+     */
+    public static void register(long jobId, List<Configuration> taskGroupConfigs, int channelNumber) {
+        JOB_TASK_QUEUES.put(jobId, new JobTaskQueue(taskGroupConfigs, channelNumber));
+        LOG.info("job[{}] enables work stealing among [{}] taskGroups.", jobId, taskGroupConfigs.size());
+    }
+
+    /**
+     * 由JobContainer在job结束时调用，移除job级别的队列
+     */
+    public static void unregister(long jobId) {
+        JOB_TASK_QUEUES.remove(jobId);
+    }
+
+    /**
+     * 未开启work stealing时返回null
+     */
+    public static JobTaskQueue get(long jobId) {
+        return JOB_TASK_QUEUES.get(jobId);
+    }
+
+    /**
+     * taskGroup完成自身task的Communication注册后调用，之后才允许与其他taskGroup之间互相窃取
+     */
+    public synchronized void attach(int taskGroupId, AbstractContainerCommunicator communicator) {
+        this.communicators.put(taskGroupId, communicator);
+    }
+
+    /**
+     * 获取taskGroup下一个要运行的task，自有队列为空时尝试窃取，没有可运行的task时返回null
+     */
+    public synchronized Configuration poll(int taskGroupId) {
+        LinkedList<Configuration> ownTasks = this.pendingTasks.get(taskGroupId);
+        if (ownTasks != null && !ownTasks.isEmpty()) {
+            return this.take(ownTasks.removeFirst());
+        }
+        if (!this.communicators.containsKey(taskGroupId)) {
+            return null;
+        }
+
+        for (Integer victimId : this.getVictims(taskGroupId)) {
+            ListIterator<Configuration> iterator = this.pendingTasks.get(victimId).listIterator(
+                    this.pendingTasks.get(victimId).size());
+            while (iterator.hasPrevious()) {
+                Configuration taskConfig = iterator.previous();
+                if (!this.hasResourceShare(taskConfig)) {
+                    continue;
+                }
+                iterator.remove();
+
+                Integer taskId = taskConfig.getInt(CoreConstant.TASK_ID);
+                this.communicators.get(victimId).getCommunicationMap().remove(taskId);
+                this.communicators.get(taskGroupId).registerCommunication(Collections.singletonList(taskConfig));
+                LOG.info("taskGroup[{}] steals taskId[{}] from taskGroup[{}].", taskGroupId, taskId, victimId);
+                return this.take(taskConfig);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * task运行成功后释放其占用的资源份额
+     */
+    public synchronized void release(Configuration taskConfig) {
+        for (String resource : getResources(taskConfig)) {
+            Integer running = this.runningResources.get(resource);
+            if (running != null && running > 0) {
+                this.runningResources.put(resource, running - 1);
+            }
+        }
+    }
+
+    public synchronized boolean hasPending() {
+        return this.pendingCount > 0;
+    }
+
+    private Configuration take(Configuration taskConfig) {
+        this.pendingCount--;
+        for (String resource : getResources(taskConfig)) {
+            Integer running = this.runningResources.get(resource);
+            this.runningResources.put(resource, running == null ? 1 : running + 1);
+        }
+        return taskConfig;
+    }
+
+    private boolean hasResourceShare(Configuration taskConfig) {
+        for (String resource : getResources(taskConfig)) {
+            Integer running = this.runningResources.get(resource);
+            if (running != null && running >= this.resourceShares.get(resource)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 已attach的其他taskGroup，按待运行task数从多到少排列
+     */
+    private List<Integer> getVictims(int taskGroupId) {
+        List<Integer> victims = new ArrayList<Integer>();
+        for (Integer id : this.communicators.keySet()) {
+            if (id != taskGroupId && !this.pendingTasks.get(id).isEmpty()) {
+                victims.add(id);
+            }
+        }
+        Collections.sort(victims, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer left, Integer right) {
+                return pendingTasks.get(right).size() - pendingTasks.get(left).size();
+            }
+        });
+        return victims;
+    }
+
+    private static List<String> getResources(Configuration taskConfig) {
+        List<String> resources = new ArrayList<String>(2);
+        String readerResourceMark = taskConfig.getString(READER_RESOURCE_MARK);
+        if (readerResourceMark != null) {
+            resources.add("reader:" + readerResourceMark);
+        }
+        String writerResourceMark = taskConfig.getString(WRITER_RESOURCE_MARK);
+        if (writerResourceMark != null) {
+            resources.add("writer:" + writerResourceMark);
+        }
+        return resources;
+    }
+}
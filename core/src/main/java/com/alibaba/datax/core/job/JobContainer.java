@@ -14,6 +14,7 @@ import com.alibaba.datax.core.AbstractContainer;
 import com.alibaba.datax.core.Engine;
 import com.alibaba.datax.core.container.util.HookInvoker;
 import com.alibaba.datax.core.container.util.JobAssignUtil;
+import com.alibaba.datax.core.container.util.JobTaskQueue;
 import com.alibaba.datax.core.job.scheduler.AbstractScheduler;
 import com.alibaba.datax.core.job.scheduler.processinner.StandAloneScheduler;
 import com.alibaba.datax.core.statistics.communication.Communication;
@@ -21,6 +22,7 @@ import com.alibaba.datax.core.statistics.communication.CommunicationTool;
 import com.alibaba.datax.core.statistics.container.communicator.AbstractContainerCommunicator;
 import com.alibaba.datax.core.statistics.container.communicator.job.StandAloneJobContainerCommunicator;
 import com.alibaba.datax.core.statistics.plugin.DefaultJobPluginCollector;
+import com.alibaba.datax.core.transport.channel.TokenBucket;
 import com.alibaba.datax.core.util.ErrorRecordChecker;
 import com.alibaba.datax.core.util.FrameworkErrorCode;
 import com.alibaba.datax.core.util.container.ClassLoaderSwapper;
@@ -508,6 +510,10 @@ public class JobContainer extends AbstractContainer {
         List<Configuration> taskGroupConfigs = JobAssignUtil.assignFairly(this.configuration,
                 this.needChannelNumber, channelsPerTaskGroup);
 
+        if (this.configuration.getBool(CoreConstant.DATAX_CORE_CONTAINER_JOB_WORKSTEALING, false)) {
+            JobTaskQueue.register(this.jobId, taskGroupConfigs, this.needChannelNumber);
+        }
+
         LOG.info("Scheduler starts [{}] taskGroups.", taskGroupConfigs.size());
 
         ExecuteMode executeMode = null;
@@ -570,6 +576,8 @@ public class JobContainer extends AbstractContainer {
             this.jobReader.destroy();
             this.jobReader = null;
         }
+        TokenBucket.release(this.jobId);
+        JobTaskQueue.unregister(this.jobId);
     }
 
     private void logStatistics() {
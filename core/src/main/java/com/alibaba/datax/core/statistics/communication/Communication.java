@@ -6,10 +6,14 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.Validate;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * DataX所有的状态及统计信息交互类，job、taskGroup、task等的消息汇报都走该类
@@ -17,8 +21,10 @@ import java.util.concurrent.ConcurrentHashMap;
 public class Communication extends BaseObject implements Cloneable {
     /**
      * 所有的数值key-value对 *
+     * 只累加的long类型counter保存为LongAdder，reader与writer线程并发累加时不需要加锁；
+     * 通过setLongCounter设置过的counter保存为AtomicLong，保证设置与读取、累加之间的原子性；double类型的counter保存为Double
      */
-    private Map<String, Number> counter;
+    private final ConcurrentMap<String, Number> counter = new ConcurrentHashMap<String, Number>();
 
     /**
      * 运行状态 *
@@ -49,15 +55,22 @@ public class Communication extends BaseObject implements Cloneable {
     }
 
     private void init() {
-        this.counter = new ConcurrentHashMap<String, Number>();
+        this.counter.clear();
         this.state = State.RUNNING;
         this.throwable = null;
         this.message = new ConcurrentHashMap<String, List<String>>();
         this.timestamp = System.currentTimeMillis();
     }
 
+    /**
+     * 返回counter的快照，long类型的值为Long，double类型的值为Double
+     */
     public Map<String, Number> getCounter() {
-        return this.counter;
+        Map<String, Number> snapshot = new HashMap<String, Number>(this.counter.size() * 2);
+        for (Map.Entry<String, Number> entry : this.counter.entrySet()) {
+            snapshot.put(entry.getKey(), snapshotValue(entry.getValue()));
+        }
+        return snapshot;
     }
 
     public State getState() {
@@ -123,34 +136,79 @@ public class Communication extends BaseObject implements Cloneable {
         valueList.add(value);
     }
 
-    public synchronized Long getLongCounter(final String key) {
+    public Long getLongCounter(final String key) {
         Number value = this.counter.get(key);
 
         return value == null ? 0 : value.longValue();
     }
 
-    public synchronized void setLongCounter(final String key, final long value) {
+    public void setLongCounter(final String key, final long value) {
         Validate.isTrue(StringUtils.isNotBlank(key), "设置counter的key不能为空");
-        this.counter.put(key, value);
+        while (true) {
+            Number current = this.counter.get(key);
+            if (current instanceof AtomicLong) {
+                ((AtomicLong) current).set(value);
+                return;
+            }
+
+            // LongAdder不能原子地重置，整体替换为AtomicLong
+            AtomicLong atomic = new AtomicLong(value);
+            if (current == null ? this.counter.putIfAbsent(key, atomic) == null
+                    : this.counter.replace(key, current, atomic)) {
+                return;
+            }
+        }
     }
 
-    public synchronized Double getDoubleCounter(final String key) {
+    public Double getDoubleCounter(final String key) {
         Number value = this.counter.get(key);
 
         return value == null ? 0.0d : value.doubleValue();
     }
 
-    public synchronized void setDoubleCounter(final String key, final double value) {
+    public void setDoubleCounter(final String key, final double value) {
         Validate.isTrue(StringUtils.isNotBlank(key), "设置counter的key不能为空");
         this.counter.put(key, value);
     }
 
-    public synchronized void increaseCounter(final String key, final long deltaValue) {
+    /**
+     * 累加key对应的long counter，不存在时创建LongAdder；原来是double类型的counter则按long值转换为LongAdder
+     */
+    public void increaseCounter(final String key, final long deltaValue) {
         Validate.isTrue(StringUtils.isNotBlank(key), "增加counter的key不能为空");
 
-        long value = this.getLongCounter(key);
+        while (true) {
+            Number value = this.counter.get(key);
+            if (value instanceof LongAdder) {
+                ((LongAdder) value).add(deltaValue);
+                return;
+            }
+            if (value instanceof AtomicLong) {
+                ((AtomicLong) value).addAndGet(deltaValue);
+                return;
+            }
+
+            LongAdder adder = new LongAdder();
+            if (value == null) {
+                adder.add(deltaValue);
+                if (this.counter.putIfAbsent(key, adder) == null) {
+                    return;
+                }
+            } else {
+                adder.add(value.longValue() + deltaValue);
+                if (this.counter.replace(key, value, adder)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean isLongCounter(final Number value) {
+        return value instanceof LongAdder || value instanceof AtomicLong;
+    }
 
-        this.counter.put(key, value + deltaValue);
+    private static Number snapshotValue(final Number value) {
+        return isLongCounter(value) ? Long.valueOf(value.longValue()) : value;
     }
 
     @Override
@@ -163,7 +221,7 @@ public class Communication extends BaseObject implements Cloneable {
         if (this.counter != null) {
             for (Map.Entry<String, Number> entry : this.counter.entrySet()) {
                 String key = entry.getKey();
-                Number value = entry.getValue();
+                Number value = snapshotValue(entry.getValue());
                 if (value instanceof Long) {
                     communication.setLongCounter(key, (Long) value);
                 } else if (value instanceof Double) {
@@ -201,25 +259,21 @@ public class Communication extends BaseObject implements Cloneable {
          * counter的合并，将otherComm的值累加到this中，不存在的则创建
          * 同为long
          */
-        for (Entry<String, Number> entry : otherComm.getCounter().entrySet()) {
+        for (Entry<String, Number> entry : otherComm.counter.entrySet()) {
             String key = entry.getKey();
-            Number otherValue = entry.getValue();
+            Number otherValue = snapshotValue(entry.getValue());
             if (otherValue == null) {
                 continue;
             }
 
             Number value = this.counter.get(key);
-            if (value == null) {
-                value = otherValue;
+            if (otherValue instanceof Long && (value == null || isLongCounter(value))) {
+                this.increaseCounter(key, otherValue.longValue());
+            } else if (value == null) {
+                this.counter.put(key, otherValue);
             } else {
-                if (value instanceof Long && otherValue instanceof Long) {
-                    value = value.longValue() + otherValue.longValue();
-                } else {
-                    value = value.doubleValue() + value.doubleValue();
-                }
+                this.counter.put(key, value.doubleValue() + otherValue.doubleValue());
             }
-
-            this.counter.put(key, value);
         }
 
         // 合并state
@@ -4,12 +4,14 @@ import com.alibaba.datax.common.constant.PluginType;
 import com.alibaba.datax.common.exception.CommonErrorCode;
 import com.alibaba.datax.common.exception.DataXException;
 import com.alibaba.datax.common.plugin.RecordSender;
+import com.alibaba.datax.common.plugin.TaskCheckpoint;
 import com.alibaba.datax.common.plugin.TaskPluginCollector;
 import com.alibaba.datax.common.statistics.PerfRecord;
 import com.alibaba.datax.common.statistics.PerfTrace;
 import com.alibaba.datax.common.statistics.VMInfo;
 import com.alibaba.datax.common.util.Configuration;
 import com.alibaba.datax.core.AbstractContainer;
+import com.alibaba.datax.core.container.util.JobTaskQueue;
 import com.alibaba.datax.core.statistics.communication.Communication;
 import com.alibaba.datax.core.statistics.communication.CommunicationTool;
 import com.alibaba.datax.core.statistics.container.communicator.taskgroup.StandaloneTGContainerCommunicator;
@@ -18,11 +20,13 @@ import com.alibaba.datax.core.taskgroup.runner.AbstractRunner;
 import com.alibaba.datax.core.taskgroup.runner.ReaderRunner;
 import com.alibaba.datax.core.taskgroup.runner.WriterRunner;
 import com.alibaba.datax.core.transport.channel.Channel;
+import com.alibaba.datax.core.transport.channel.TokenBucket;
 import com.alibaba.datax.core.transport.exchanger.BufferedRecordExchanger;
 import com.alibaba.datax.core.transport.exchanger.BufferedRecordTransformerExchanger;
 import com.alibaba.datax.core.transport.transformer.TransformerExecution;
 import com.alibaba.datax.core.util.ClassUtil;
 import com.alibaba.datax.core.util.FrameworkErrorCode;
+import com.alibaba.datax.core.util.ThreadUtil;
 import com.alibaba.datax.core.util.TransformerUtil;
 import com.alibaba.datax.core.util.container.CoreConstant;
 import com.alibaba.datax.core.util.container.LoadUtil;
@@ -33,6 +37,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 public class TaskGroupContainer extends AbstractContainer {
     private static final Logger LOG = LoggerFactory
@@ -58,8 +69,35 @@ public class TaskGroupContainer extends AbstractContainer {
      */
     private String taskCollectorClass;
 
+    /**
+     * taskGroup内所有channel共享的限速器，父限速器为整个job共享的限速器，为null表示不限速
+     */
+    private TokenBucket byteLimiter;
+
+    private TokenBucket recordLimiter;
+
+    /**
+     * reader/writer是否运行在虚拟线程上
+     */
+    private boolean virtualThread;
+
+    /**
+     * task的reader/writer结束时放入taskId，调度循环被唤醒后立即处理结束的task并启动等待中的task
+     */
+    private final BlockingQueue<Integer> taskEventQueue = new LinkedBlockingQueue<Integer>();
+
+    /**
+     * 最近一次汇报的communication，汇报定时器和调度循环都会更新
+     */
+    private Communication lastTaskGroupContainerCommunication = new Communication();
+
     private TaskMonitor taskMonitor = TaskMonitor.getInstance();
 
+    /**
+     * taskId与task的断点，在failover重试之间保留，只在调度线程中访问
+     */
+    private final Map<Integer, TaskCheckpoint> taskCheckpointMap = new HashMap<Integer, TaskCheckpoint>();
+
     public TaskGroupContainer(Configuration configuration) {
         super(configuration);
 
@@ -74,6 +112,29 @@ public class TaskGroupContainer extends AbstractContainer {
                 CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_CLASS);
         this.taskCollectorClass = this.configuration.getString(
                 CoreConstant.DATAX_CORE_STATISTICS_COLLECTOR_PLUGIN_TASKCLASS);
+
+        this.virtualThread = ThreadUtil.isVirtualThreadEnabled(this.configuration);
+
+        initLimiters();
+    }
+
+    private void initLimiters() {
+        long flowControlInterval = this.configuration.getLong(
+                CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_FLOWCONTROLINTERVAL, 1000);
+
+        TokenBucket jobByteLimiter = TokenBucket.shared(this.jobId, "byte",
+                this.configuration.getLong(CoreConstant.DATAX_JOB_SETTING_SPEED_BYTE, -1),
+                flowControlInterval, null);
+        TokenBucket jobRecordLimiter = TokenBucket.shared(this.jobId, "record",
+                this.configuration.getLong(CoreConstant.DATAX_JOB_SETTING_SPEED_RECORD, -1),
+                flowControlInterval, null);
+
+        this.byteLimiter = TokenBucket.create(
+                this.configuration.getLong(CoreConstant.DATAX_CORE_CONTAINER_TASKGROUP_SPEED_BYTE, -1),
+                flowControlInterval, jobByteLimiter);
+        this.recordLimiter = TokenBucket.create(
+                this.configuration.getLong(CoreConstant.DATAX_CORE_CONTAINER_TASKGROUP_SPEED_RECORD, -1),
+                flowControlInterval, jobRecordLimiter);
     }
 
     private void initCommunicator(Configuration configuration) {
@@ -91,9 +152,10 @@ public class TaskGroupContainer extends AbstractContainer {
 
     @Override
     public void start() {
+        ScheduledExecutorService reporter = null;
         try {
             /**
-             * 状态check时间间隔，较短，可以把任务及时分发到对应channel中
+             * 有失败task等待重试时的状态check时间间隔，其余情况由task结束事件驱动
              */
             int sleepIntervalInMillSec = this.configuration.getInt(
                     CoreConstant.DATAX_CORE_CONTAINER_TASKGROUP_SLEEPINTERVAL, 100);
@@ -134,14 +196,20 @@ public class TaskGroupContainer extends AbstractContainer {
             
             this.containerCommunicator.registerCommunication(taskConfigs);
 
+            // 开启work stealing时，新task从job级别的队列中获取，本地队列只保存failover重试的task
+            JobTaskQueue jobTaskQueue = JobTaskQueue.get(this.jobId);
+            if (jobTaskQueue != null) {
+                jobTaskQueue.attach(this.taskGroupId, this.containerCommunicator);
+            }
+
             Map<Integer, Configuration> taskConfigMap = buildTaskConfigMap(taskConfigs); //taskId与task配置
-            List<Configuration> taskQueue = buildRemainTasks(taskConfigs); //待运行task列表
+            List<Configuration> taskQueue = jobTaskQueue != null ? new LinkedList<Configuration>()
+                    : buildRemainTasks(taskConfigs); //待运行task列表
             Map<Integer, TaskExecutor> taskFailedExecutorMap = new HashMap<Integer, TaskExecutor>(); //taskId与上次失败实例
-            List<TaskExecutor> runTasks = new ArrayList<TaskExecutor>(channelNumber); //正在运行task
+            List<TaskExecutor> runTasks = new CopyOnWriteArrayList<TaskExecutor>(); //正在运行task，汇报定时器也会读取
             Map<Integer, Long> taskStartTimeMap = new HashMap<Integer, Long>(); //任务开始时间
 
-            long lastReportTimeStamp = 0;
-            Communication lastTaskGroupContainerCommunication = new Communication();
+            reporter = startReporter(runTasks, reportIntervalInMillSec);
 
             while (true) {
             	//1.判断task状态
@@ -182,18 +250,21 @@ public class TaskGroupContainer extends AbstractContainer {
                             //usedTime*1000*1000 转换成PerfRecord记录的ns，这里主要是简单登记，进行最长任务的打印。因此增加特定静态方法
                             PerfRecord.addPerfRecord(taskGroupId, taskId, PerfRecord.PHASE.TASK_TOTAL,taskStartTime, usedTime * 1000L * 1000L);
                             taskStartTimeMap.remove(taskId);
-                            taskConfigMap.remove(taskId);
+                            taskCheckpointMap.remove(taskId);
+                            Configuration taskConfig = taskConfigMap.remove(taskId);
+                            if (jobTaskQueue != null && taskConfig != null) {
+                                jobTaskQueue.release(taskConfig);
+                            }
                         }
                     }
             	}
             	
                 // 2.发现该taskGroup下taskExecutor的总状态失败则汇报错误
                 if (failedOrKilled) {
-                    lastTaskGroupContainerCommunication = reportTaskGroupCommunication(
-                            lastTaskGroupContainerCommunication, taskCountInThisTaskGroup);
+                    Communication reportCommunication = reportTaskGroupCommunication();
 
                     throw DataXException.asDataXException(
-                            FrameworkErrorCode.PLUGIN_RUNTIME_ERROR, lastTaskGroupContainerCommunication.getThrowable());
+                            FrameworkErrorCode.PLUGIN_RUNTIME_ERROR, reportCommunication.getThrowable());
                 }
                 
                 //3.有任务未执行，且正在运行的任务数小于最大通道限制
@@ -213,7 +284,7 @@ public class TaskGroupContainer extends AbstractContainer {
                         if(!lastExecutor.isShutdown()){ //上次失败的task仍未结束
                             if(now - failedTime > taskMaxWaitInMsec){
                                 markCommunicationFailed(taskId);
-                                reportTaskGroupCommunication(lastTaskGroupContainerCommunication, taskCountInThisTaskGroup);
+                                reportTaskGroupCommunication();
                                 throw DataXException.asDataXException(CommonErrorCode.WAIT_TIME_EXCEED, "task failover等待超时");
                             }else{
                                 lastExecutor.shutdown(); //再次尝试关闭
@@ -225,51 +296,45 @@ public class TaskGroupContainer extends AbstractContainer {
                         }
                     }
                     Configuration taskConfigForRun = taskMaxRetryTimes > 1 ? taskConfig.clone() : taskConfig;
-                	TaskExecutor taskExecutor = new TaskExecutor(taskConfigForRun, attemptCount);
-                    taskStartTimeMap.put(taskId, System.currentTimeMillis());
-                	taskExecutor.doStart();
-
                     iterator.remove();
-                    runTasks.add(taskExecutor);
-
-                    //上面，增加task到runTasks列表，因此在monitor里注册。
-                    taskMonitor.registerTask(taskId, this.containerCommunicator.getCommunication(taskId));
-
+                    startTask(taskConfigForRun, attemptCount, runTasks, taskStartTimeMap);
                     taskFailedExecutorMap.remove(taskId);
-                    LOG.info("taskGroup[{}] taskId[{}] attemptCount[{}] is started",
-                            this.taskGroupId, taskId, attemptCount);
+                }
+
+                //3.1 开启work stealing时，空闲的channel从job级别的队列获取task，自有task为空时从其他taskGroup窃取
+                while (jobTaskQueue != null && runTasks.size() < channelNumber) {
+                    Configuration taskConfig = jobTaskQueue.poll(this.taskGroupId);
+                    if (taskConfig == null) {
+                        break;
+                    }
+                    taskConfigMap.put(taskConfig.getInt(CoreConstant.TASK_ID), taskConfig);
+                    startTask(taskMaxRetryTimes > 1 ? taskConfig.clone() : taskConfig, 1, runTasks, taskStartTimeMap);
                 }
 
                 //4.任务列表为空，executor已结束, 搜集状态为success--->成功
-                if (taskQueue.isEmpty() && isAllTaskDone(runTasks) && containerCommunicator.collectState() == State.SUCCEEDED) {
+                if (taskQueue.isEmpty() && (jobTaskQueue == null || !jobTaskQueue.hasPending())
+                        && isAllTaskDone(runTasks) && containerCommunicator.collectState() == State.SUCCEEDED) {
                 	// 成功的情况下，也需要汇报一次。否则在任务结束非常快的情况下，采集的信息将会不准确
-                    lastTaskGroupContainerCommunication = reportTaskGroupCommunication(
-                            lastTaskGroupContainerCommunication, taskCountInThisTaskGroup);
+                    reportTaskGroupCommunication();
 
                     LOG.info("taskGroup[{}] completed it's tasks.", this.taskGroupId);
                     break;
                 }
 
-                // 5.如果当前时间已经超出汇报时间的interval，那么我们需要马上汇报
-                long now = System.currentTimeMillis();
-                if (now - lastReportTimeStamp > reportIntervalInMillSec) {
-                    lastTaskGroupContainerCommunication = reportTaskGroupCommunication(
-                            lastTaskGroupContainerCommunication, taskCountInThisTaskGroup);
-
-                    lastReportTimeStamp = now;
-
-                    //taskMonitor对于正在运行的task，每reportIntervalInMillSec进行检查
-                    for(TaskExecutor taskExecutor:runTasks){
-                        taskMonitor.report(taskExecutor.getTaskId(),this.containerCommunicator.getCommunication(taskExecutor.getTaskId()));
-                    }
-
+                // 5.等待task结束事件；有失败task等待重试，或者有空闲channel而job队列中的task暂时不能窃取时，
+                // 最多等待sleepInterval后重新检查
+                boolean waitForStealing = jobTaskQueue != null && runTasks.size() < channelNumber
+                        && jobTaskQueue.hasPending();
+                long waitInMillSec = taskFailedExecutorMap.isEmpty() && !waitForStealing
+                        ? reportIntervalInMillSec : sleepIntervalInMillSec;
+                if (taskEventQueue.poll(waitInMillSec, TimeUnit.MILLISECONDS) != null) {
+                    // 下一轮会检查所有task的状态，积压的事件不需要逐个处理
+                    taskEventQueue.clear();
                 }
-
-                Thread.sleep(sleepIntervalInMillSec);
             }
 
             //6.最后还要汇报一次
-            reportTaskGroupCommunication(lastTaskGroupContainerCommunication, taskCountInThisTaskGroup);
+            reportTaskGroupCommunication();
 
 
         } catch (Throwable e) {
@@ -284,6 +349,9 @@ public class TaskGroupContainer extends AbstractContainer {
             throw DataXException.asDataXException(
                     FrameworkErrorCode.RUNTIME_ERROR, e);
         }finally {
+            if (reporter != null) {
+                reporter.shutdownNow();
+            }
             if(!PerfTrace.getInstance().isJob()){
                 //最后打印cpu的平均消耗，GC的统计
                 VMInfo vmInfo = VMInfo.getVmInfo();
@@ -315,17 +383,31 @@ public class TaskGroupContainer extends AbstractContainer {
     }
     
     private TaskExecutor removeTask(List<TaskExecutor> taskList, int taskId){
-    	Iterator<TaskExecutor> iterator = taskList.iterator();
-    	while(iterator.hasNext()){
-    		TaskExecutor taskExecutor = iterator.next();
+    	for(TaskExecutor taskExecutor : taskList){
     		if(taskExecutor.getTaskId() == taskId){
-    			iterator.remove();
+    			taskList.remove(taskExecutor);
     			return taskExecutor;
     		}
     	}
     	return null;
     }
     
+    private void startTask(Configuration taskConfig, int attemptCount, List<TaskExecutor> runTasks,
+                           Map<Integer, Long> taskStartTimeMap) {
+        Integer taskId = taskConfig.getInt(CoreConstant.TASK_ID);
+        TaskExecutor taskExecutor = new TaskExecutor(taskConfig, attemptCount);
+        taskStartTimeMap.put(taskId, System.currentTimeMillis());
+        taskExecutor.doStart();
+
+        runTasks.add(taskExecutor);
+
+        //上面，增加task到runTasks列表，因此在monitor里注册。
+        taskMonitor.registerTask(taskId, this.containerCommunicator.getCommunication(taskId));
+
+        LOG.info("taskGroup[{}] taskId[{}] attemptCount[{}] is started",
+                this.taskGroupId, taskId, attemptCount);
+    }
+
     private boolean isAllTaskDone(List<TaskExecutor> taskList){
     	for(TaskExecutor taskExecutor : taskList){
     		if(!taskExecutor.isTaskFinished()){
@@ -335,15 +417,56 @@ public class TaskGroupContainer extends AbstractContainer {
     	return true;
     }
 
-    private Communication reportTaskGroupCommunication(Communication lastTaskGroupContainerCommunication, int taskCount){
+    /**
+     * 按当前归属本taskGroup的task数计算进度；开启work stealing时被其他taskGroup窃取的task已从communicationMap移除，
+     * 窃取来的task已注册进来
+     */
+    private synchronized Communication reportTaskGroupCommunication(){
+        int taskCount = this.containerCommunicator.getCommunicationMap().size();
         Communication nowTaskGroupContainerCommunication = this.containerCommunicator.collect();
         nowTaskGroupContainerCommunication.setTimestamp(System.currentTimeMillis());
         Communication reportCommunication = CommunicationTool.getReportCommunication(nowTaskGroupContainerCommunication,
-                lastTaskGroupContainerCommunication, taskCount);
+                this.lastTaskGroupContainerCommunication, taskCount);
         this.containerCommunicator.report(reportCommunication);
+        this.lastTaskGroupContainerCommunication = reportCommunication;
         return reportCommunication;
     }
 
+    /**
+     * 状态汇报与task hung检查放在单独的定时器中，不占用调度循环
+     * taskMonitor把hung住的task标记为失败后，通过taskEventQueue唤醒调度循环
+     */
+    private ScheduledExecutorService startReporter(final List<TaskExecutor> runTasks, long reportIntervalInMillSec) {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, String.format("%d-%d-reporter", jobId, taskGroupId));
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        reporter.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    reportTaskGroupCommunication();
+
+                    //taskMonitor对于正在运行的task，每reportIntervalInMillSec进行检查
+                    for (TaskExecutor taskExecutor : runTasks) {
+                        Communication taskCommunication = containerCommunicator.getCommunication(taskExecutor.getTaskId());
+                        taskMonitor.report(taskExecutor.getTaskId(), taskCommunication);
+                        if (taskCommunication.isFinished()) {
+                            taskEventQueue.offer(taskExecutor.getTaskId());
+                        }
+                    }
+                } catch (Throwable e) {
+                    LOG.warn(String.format("taskGroup[%d] report communication failed.", taskGroupId), e);
+                }
+            }
+        }, 0, reportIntervalInMillSec, TimeUnit.MILLISECONDS);
+        return reporter;
+    }
+
     private void markCommunicationFailed(Integer taskId){
         Communication communication = containerCommunicator.getCommunication(taskId);
         communication.setState(State.FAILED);
@@ -362,6 +485,8 @@ public class TaskGroupContainer extends AbstractContainer {
 
         private Channel channel;
 
+        private TaskCheckpoint taskCheckpoint;
+
         private Thread readerThread;
 
         private Thread writerThread;
@@ -370,6 +495,13 @@ public class TaskGroupContainer extends AbstractContainer {
         
         private WriterRunner writerRunner;
 
+        /**
+         * runner的run()执行完毕(包括destroy)，比thread.isAlive()更早可见
+         */
+        private volatile boolean readerFinished;
+
+        private volatile boolean writerFinished;
+
         /**
          * 该处的taskCommunication在多处用到：
          * 1. channel
@@ -389,6 +521,15 @@ public class TaskGroupContainer extends AbstractContainer {
             this.taskId = this.taskConfig.getInt(CoreConstant.TASK_ID);
             this.attemptCount = attemptCount;
 
+            // 首次执行创建断点，重试时沿用上次执行已确认的断点
+            this.taskCheckpoint = taskCheckpointMap.get(this.taskId);
+            if (null == this.taskCheckpoint || attemptCount == 1) {
+                this.taskCheckpoint = new TaskCheckpoint();
+                taskCheckpointMap.put(this.taskId, this.taskCheckpoint);
+            } else {
+                this.taskCheckpoint.restart();
+            }
+
             /**
              * 由taskId得到该taskExecutor的Communication
              * 要传给readerRunner和writerRunner，同时要传给channel作统计用
@@ -400,6 +541,7 @@ public class TaskGroupContainer extends AbstractContainer {
             this.channel = ClassUtil.instantiate(channelClazz,
                     Channel.class, configuration);
             this.channel.setCommunication(this.taskCommunication);
+            this.channel.setParentLimiters(byteLimiter, recordLimiter);
 
             /**
              * 获取transformer的参数
@@ -411,9 +553,9 @@ public class TaskGroupContainer extends AbstractContainer {
              * 生成writerThread
              */
             writerRunner = (WriterRunner) generateRunner(PluginType.WRITER);
-            this.writerThread = new Thread(writerRunner,
+            this.writerThread = ThreadUtil.newThread(notifyOnFinish(writerRunner, PluginType.WRITER),
                     String.format("%d-%d-%d-writer",
-                            jobId, taskGroupId, this.taskId));
+                            jobId, taskGroupId, this.taskId), virtualThread);
             //通过设置thread的contextClassLoader，即可实现同步和主程序不通的加载器
             this.writerThread.setContextClassLoader(LoadUtil.getJarLoader(
                     PluginType.WRITER, this.taskConfig.getString(
@@ -423,9 +565,9 @@ public class TaskGroupContainer extends AbstractContainer {
              * 生成readerThread
              */
             readerRunner = (ReaderRunner) generateRunner(PluginType.READER,transformerInfoExecs);
-            this.readerThread = new Thread(readerRunner,
+            this.readerThread = ThreadUtil.newThread(notifyOnFinish(readerRunner, PluginType.READER),
                     String.format("%d-%d-%d-reader",
-                            jobId, taskGroupId, this.taskId));
+                            jobId, taskGroupId, this.taskId), virtualThread);
             /**
              * 通过设置thread的contextClassLoader，即可实现同步和主程序不通的加载器
              */
@@ -457,6 +599,27 @@ public class TaskGroupContainer extends AbstractContainer {
         }
 
 
+        /**
+         * runner结束后通知调度循环，使空出的channel立即被等待中的task使用
+         */
+        private Runnable notifyOnFinish(final Runnable runner, final PluginType pluginType) {
+            return new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        runner.run();
+                    } finally {
+                        if (pluginType == PluginType.READER) {
+                            readerFinished = true;
+                        } else {
+                            writerFinished = true;
+                        }
+                        taskEventQueue.offer(taskId);
+                    }
+                }
+            };
+        }
+
         private AbstractRunner generateRunner(PluginType pluginType) {
             return generateRunner(pluginType, null);
         }
@@ -479,9 +642,13 @@ public class TaskGroupContainer extends AbstractContainer {
 
                     RecordSender recordSender;
                     if (transformerInfoExecs != null && transformerInfoExecs.size() > 0) {
-                        recordSender = new BufferedRecordTransformerExchanger(taskGroupId, this.taskId, this.channel,this.taskCommunication ,pluginCollector, transformerInfoExecs);
+                        BufferedRecordTransformerExchanger transformerExchanger = new BufferedRecordTransformerExchanger(taskGroupId, this.taskId, this.channel,this.taskCommunication ,pluginCollector, transformerInfoExecs);
+                        transformerExchanger.setTaskCheckpoint(this.taskCheckpoint);
+                        recordSender = transformerExchanger;
                     } else {
-                        recordSender = new BufferedRecordExchanger(this.channel, pluginCollector);
+                        BufferedRecordExchanger exchanger = new BufferedRecordExchanger(this.channel, pluginCollector);
+                        exchanger.setTaskCheckpoint(this.taskCheckpoint);
+                        recordSender = exchanger;
                     }
 
                     ((ReaderRunner) newRunner).setRecordSender(recordSender);
@@ -514,6 +681,7 @@ public class TaskGroupContainer extends AbstractContainer {
 
             newRunner.setTaskGroupId(taskGroupId);
             newRunner.setTaskId(this.taskId);
+            newRunner.setTaskCheckpoint(this.taskCheckpoint);
             newRunner.setRunnerCommunication(this.taskCommunication);
 
             return newRunner;
@@ -522,7 +690,7 @@ public class TaskGroupContainer extends AbstractContainer {
         // 检查任务是否结束
         private boolean isTaskFinished() {
             // 如果reader 或 writer没有完成工作，那么直接返回工作没有完成
-            if (readerThread.isAlive() || writerThread.isAlive()) {
+            if (!readerFinished || !writerFinished) {
                 return false;
             }
 
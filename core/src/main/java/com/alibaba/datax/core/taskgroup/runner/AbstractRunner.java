@@ -1,6 +1,7 @@
 package com.alibaba.datax.core.taskgroup.runner;
 
 import com.alibaba.datax.common.plugin.AbstractTaskPlugin;
+import com.alibaba.datax.common.plugin.TaskCheckpoint;
 import com.alibaba.datax.common.plugin.TaskPluginCollector;
 import com.alibaba.datax.common.util.Configuration;
 import com.alibaba.datax.core.statistics.communication.Communication;
@@ -54,6 +55,10 @@ public abstract class AbstractRunner {
         this.plugin.setTaskPluginCollector(pluginCollector);
     }
 
+    public void setTaskCheckpoint(TaskCheckpoint taskCheckpoint) {
+        this.plugin.setTaskCheckpoint(taskCheckpoint);
+    }
+
     private void mark(State state) {
         this.runnerCommunication.setState(state);
         if (state == State.SUCCEEDED) {
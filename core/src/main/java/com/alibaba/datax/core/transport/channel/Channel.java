@@ -4,6 +4,7 @@ import com.alibaba.datax.common.element.Record;
 import com.alibaba.datax.common.util.Configuration;
 import com.alibaba.datax.core.statistics.communication.Communication;
 import com.alibaba.datax.core.statistics.communication.CommunicationTool;
+import com.alibaba.datax.core.transport.record.BatchRecord;
 import com.alibaba.datax.core.transport.record.TerminateRecord;
 import com.alibaba.datax.core.util.container.CoreConstant;
 import org.apache.commons.lang.Validate;
@@ -45,7 +46,12 @@ public abstract class Channel {
 
     private Communication currentCommunication;
 
-    private Communication lastCommunication = new Communication();
+    /**
+     * 为null表示不限速；本channel不限速但上层(taskGroup/job)限速时为上层的限速器
+     */
+    private TokenBucket byteLimiter;
+
+    private TokenBucket recordLimiter;
 
     public Channel(final Configuration configuration) {
         //channel的queue里默认record为1万条。原来为512条
@@ -82,6 +88,7 @@ public abstract class Channel {
         this.byteCapacity = configuration.getInt(
                 CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_CAPACITY_BYTE, 8 * 1024 * 1024);
         this.configuration = configuration;
+        this.setParentLimiters(null, null);
     }
 
     public void close() {
@@ -114,13 +121,21 @@ public abstract class Channel {
 
     public void setCommunication(final Communication communication) {
         this.currentCommunication = communication;
-        this.lastCommunication.reset();
+    }
+
+    /**
+     * 设置taskGroup/job级别的共享限速器，需要在reader启动前调用
+     * 令牌桶允许的突发量为 flowControlInterval 毫秒内的令牌数
+     */
+    public void setParentLimiters(final TokenBucket byteParent, final TokenBucket recordParent) {
+        this.byteLimiter = TokenBucket.create(this.byteSpeed, this.flowControlInterval, byteParent);
+        this.recordLimiter = TokenBucket.create(this.recordSpeed, this.flowControlInterval, recordParent);
     }
 
     public void push(final Record r) {
         Validate.notNull(r, "record不能为空.");
         this.doPush(r);
-        this.statPush(1L, r.getByteSize());
+        this.statPush(this.getRecordCount(r), r.getByteSize());
     }
 
     public void pushTerminate(final TerminateRecord r) {
@@ -136,19 +151,19 @@ public abstract class Channel {
         Validate.notNull(rs);
         Validate.noNullElements(rs);
         this.doPushAll(rs);
-        this.statPush(rs.size(), this.getByteSize(rs));
+        this.statPush(this.getRecordCount(rs), this.getByteSize(rs));
     }
 
     public Record pull() {
         Record record = this.doPull();
-        this.statPull(1L, record.getByteSize());
+        this.statPull(this.getRecordCount(record), record.getByteSize());
         return record;
     }
 
     public void pullAll(final Collection<Record> rs) {
         Validate.notNull(rs);
         this.doPullAll(rs);
-        this.statPull(rs.size(), this.getByteSize(rs));
+        this.statPull(this.getRecordCount(rs), this.getByteSize(rs));
     }
 
     protected abstract void doPush(Record r);
@@ -173,6 +188,24 @@ public abstract class Channel {
         return size;
     }
 
+    /**
+     * BatchRecord承载了多行数据，统计时按实际行数计算
+     */
+    private long getRecordCount(final Record r) {
+        if (r instanceof BatchRecord) {
+            return ((BatchRecord) r).getRowCount();
+        }
+        return 1L;
+    }
+
+    private long getRecordCount(final Collection<Record> rs) {
+        long count = 0;
+        for (final Record each : rs) {
+            count += this.getRecordCount(each);
+        }
+        return count;
+    }
+
     private void statPush(long recordSize, long byteSize) {
         currentCommunication.increaseCounter(CommunicationTool.READ_SUCCEED_RECORDS,
                 recordSize);
@@ -183,59 +216,19 @@ public abstract class Channel {
         currentCommunication.setLongCounter(CommunicationTool.WAIT_READER_TIME, waitReaderTime);
         currentCommunication.setLongCounter(CommunicationTool.WAIT_WRITER_TIME, waitWriterTime);
 
-        boolean isChannelByteSpeedLimit = (this.byteSpeed > 0);
-        boolean isChannelRecordSpeedLimit = (this.recordSpeed > 0);
-        if (!isChannelByteSpeedLimit && !isChannelRecordSpeedLimit) {
+        if (this.byteLimiter == null && this.recordLimiter == null) {
             return;
         }
 
-        long lastTimestamp = lastCommunication.getTimestamp();
-        long nowTimestamp = System.currentTimeMillis();
-        long interval = nowTimestamp - lastTimestamp;
-        if (interval - this.flowControlInterval >= 0) {
-            long byteLimitSleepTime = 0;
-            long recordLimitSleepTime = 0;
-            if (isChannelByteSpeedLimit) {
-                long currentByteSpeed = (CommunicationTool.getTotalReadBytes(currentCommunication) -
-                        CommunicationTool.getTotalReadBytes(lastCommunication)) * 1000 / interval;
-                if (currentByteSpeed > this.byteSpeed) {
-                    // 计算根据byteLimit得到的休眠时间
-                    byteLimitSleepTime = currentByteSpeed * interval / this.byteSpeed
-                            - interval;
-                }
-            }
-
-            if (isChannelRecordSpeedLimit) {
-                long currentRecordSpeed = (CommunicationTool.getTotalReadRecords(currentCommunication) -
-                        CommunicationTool.getTotalReadRecords(lastCommunication)) * 1000 / interval;
-                if (currentRecordSpeed > this.recordSpeed) {
-                    // 计算根据recordLimit得到的休眠时间
-                    recordLimitSleepTime = currentRecordSpeed * interval / this.recordSpeed
-                            - interval;
-                }
-            }
-
-            // 休眠时间取较大值
-            long sleepTime = byteLimitSleepTime < recordLimitSleepTime ?
-                    recordLimitSleepTime : byteLimitSleepTime;
-            if (sleepTime > 0) {
-                try {
-                    Thread.sleep(sleepTime);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-
-            lastCommunication.setLongCounter(CommunicationTool.READ_SUCCEED_BYTES,
-                    currentCommunication.getLongCounter(CommunicationTool.READ_SUCCEED_BYTES));
-            lastCommunication.setLongCounter(CommunicationTool.READ_FAILED_BYTES,
-                    currentCommunication.getLongCounter(CommunicationTool.READ_FAILED_BYTES));
-            lastCommunication.setLongCounter(CommunicationTool.READ_SUCCEED_RECORDS,
-                    currentCommunication.getLongCounter(CommunicationTool.READ_SUCCEED_RECORDS));
-            lastCommunication.setLongCounter(CommunicationTool.READ_FAILED_RECORDS,
-                    currentCommunication.getLongCounter(CommunicationTool.READ_FAILED_RECORDS));
-            lastCommunication.setTimestamp(nowTimestamp);
+        long waitNanos = 0;
+        if (this.byteLimiter != null) {
+            waitNanos = this.byteLimiter.reserve(byteSize);
+        }
+        if (this.recordLimiter != null) {
+            waitNanos = Math.max(waitNanos, this.recordLimiter.reserve(recordSize));
         }
+        // 休眠时间取各个限速器的较大值
+        TokenBucket.sleep(waitNanos);
     }
 
     private void statPull(long recordSize, long byteSize) {
@@ -0,0 +1,138 @@
+package com.alibaba.datax.core.transport.channel;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 令牌桶限速器，用于channel的bps/tps限速
+ * <p/>
+ * 按纳秒连续补充令牌(GCRA实现)：记录令牌被消费到的理论时间点，每次获取permits将其向后推进
+ * permits / rate 秒，超出桶容量(burst)的部分需要等待。相比按固定窗口统计后sleep，吞吐更平滑，也不会出现窗口开始时的突发。
+ * <p/>
+ * 可以设置父限速器，形成 channel -> taskGroup -> job 的层级，每一层都会扣减令牌，等待时间取各层的最大值。
+ * 共享的限速器(taskGroup、job级别)只在一个AtomicLong上做CAS，每批record调用一次。
+ * <p/>
+ * job级别共享的限速器按jobId登记，job结束时需要调用release(jobId)移除，避免常驻进程中跨job泄漏和沿用旧的速率。
+ */
+public class TokenBucket {
+
+    private static final ConcurrentMap<Long, ConcurrentMap<String, TokenBucket>> JOB_SHARED_BUCKETS =
+            new ConcurrentHashMap<Long, ConcurrentMap<String, TokenBucket>>();
+
+    private final long rate;
+
+    private final long burstNanos;
+
+    private final TokenBucket parent;
+
+    /**
+     * 令牌已被消费到的理论时间点
+     */
+    private final AtomicLong theoreticalTime = new AtomicLong(System.nanoTime());
+
+    private TokenBucket(long rate, long burstMillis, TokenBucket parent) {
+        this.rate = rate;
+        this.burstNanos = TimeUnit.MILLISECONDS.toNanos(burstMillis > 0 ? burstMillis : 1);
+        this.parent = parent;
+    }
+
+    /**
+     * 创建限速器，rate<=0表示本层不限速，直接返回parent(可能为null)
+     *
+     * @param rate        每秒允许的permits数量(bytes或records)
+     * @param burstMillis 允许的突发量，以rate下多少毫秒的令牌计
+     * @param parent      上一层限速器，可以为null
+     */
+    public static TokenBucket create(long rate, long burstMillis, TokenBucket parent) {
+        if (rate <= 0) {
+            return parent;
+        }
+        return new TokenBucket(rate, burstMillis, parent);
+    }
+
+    /**
+     * 获取同一个job内以name共享的限速器，同一个jobId、name只会创建一次
+     */
+    public static TokenBucket shared(long jobId, String name, long rate, long burstMillis, TokenBucket parent) {
+        if (rate <= 0) {
+            return parent;
+        }
+        ConcurrentMap<String, TokenBucket> jobBuckets = JOB_SHARED_BUCKETS.get(jobId);
+        if (jobBuckets == null) {
+            ConcurrentMap<String, TokenBucket> newJobBuckets = new ConcurrentHashMap<String, TokenBucket>();
+            jobBuckets = JOB_SHARED_BUCKETS.putIfAbsent(jobId, newJobBuckets);
+            if (jobBuckets == null) {
+                jobBuckets = newJobBuckets;
+            }
+        }
+        TokenBucket bucket = jobBuckets.get(name);
+        if (bucket == null) {
+            TokenBucket newBucket = new TokenBucket(rate, burstMillis, parent);
+            bucket = jobBuckets.putIfAbsent(name, newBucket);
+            if (bucket == null) {
+                bucket = newBucket;
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * job结束时移除该job共享的限速器，已经持有限速器的channel不受影响
+     */
+    public static void release(long jobId) {
+        JOB_SHARED_BUCKETS.remove(jobId);
+    }
+
+    public long getRate() {
+        return this.rate;
+    }
+
+    /**
+     * 扣减permits个令牌，返回需要等待的纳秒数(各层取最大值)，不阻塞
+     */
+    public long reserve(long permits) {
+        long now = System.nanoTime();
+        long waitNanos = this.reserve(permits, now);
+        return waitNanos > 0 ? waitNanos : 0;
+    }
+
+    /**
+     * 扣减permits个令牌，令牌不足时阻塞等待
+     */
+    public void acquire(long permits) {
+        sleep(this.reserve(permits));
+    }
+
+    private long reserve(long permits, long now) {
+        long cost = permits * TimeUnit.SECONDS.toNanos(1) / this.rate;
+        long waitNanos;
+        while (true) {
+            long current = this.theoreticalTime.get();
+            long next = Math.max(current, now) + cost;
+            if (this.theoreticalTime.compareAndSet(current, next)) {
+                waitNanos = next - now - this.burstNanos;
+                break;
+            }
+        }
+
+        if (this.parent != null) {
+            waitNanos = Math.max(waitNanos, this.parent.reserve(permits, now));
+        }
+        return waitNanos;
+    }
+
+    public static void sleep(long waitNanos) {
+        long deadline = System.nanoTime() + waitNanos;
+        long remaining = waitNanos;
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            remaining = deadline - System.nanoTime();
+        }
+    }
+}
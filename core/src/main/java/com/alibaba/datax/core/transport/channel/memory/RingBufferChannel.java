@@ -0,0 +1,294 @@
+package com.alibaba.datax.core.transport.channel.memory;
+
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.core.transport.channel.Channel;
+import com.alibaba.datax.core.transport.record.TerminateRecord;
+import com.alibaba.datax.core.util.FrameworkErrorCode;
+import com.alibaba.datax.core.util.container.CoreConstant;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * 基于单生产者/单消费者环形数组的内存Channel实现
+ * <p/>
+ * 每个Channel只有一个reader线程push，一个writer线程pull，因此不需要加锁：
+ * 生产者只写tail，消费者只写head，两者通过volatile序号交换进度，
+ * 一批record写入数组后只发布一次tail，消费者一次最多取走bufferSize条后只发布一次head。
+ * 环形数组的长度向上取整为2的幂以便用位运算取下标，但未读取的record数量仍然不超过配置的capacity。
+ * <p/>
+ * 队列满或空时按照 core.transport.channel.waitStrategy 配置的策略等待，
+ * 使用方式：core.transport.channel.class 配置为本类即可
+ * <p/>
+ * close()/clear()可能由reader/writer之外的线程调用，它们只设置volatile标记，不直接修改环形数组和序号：
+ * close后消费者取完已有数据即得到TerminateRecord，clear后由消费者在下一次pull时丢弃未读取的数据。
+ */
+public class RingBufferChannel extends Channel {
+
+    private final int bufferSize;
+
+    private final Record[] ring;
+
+    private final int mask;
+
+    private final WaitStrategy waitStrategy;
+
+    private final AtomicInteger memoryBytes = new AtomicInteger(0);
+
+    /**
+     * 下一个待写入位置，只由生产者更新
+     */
+    private final Sequence tail = new Sequence();
+
+    /**
+     * 下一个待读取位置，只由消费者更新
+     */
+    private final Sequence head = new Sequence();
+
+    /**
+     * 生产者缓存的head，避免每次都读取volatile变量
+     */
+    private long cachedHead = 0L;
+
+    /**
+     * 消费者缓存的tail
+     */
+    private long cachedTail = 0L;
+
+    /**
+     * clear()设置，消费者下一次pull时丢弃未读取的数据
+     */
+    private volatile boolean clearRequested = false;
+
+    public RingBufferChannel(final Configuration configuration) {
+        super(configuration);
+        this.bufferSize = configuration.getInt(CoreConstant.DATAX_CORE_TRANSPORT_EXCHANGER_BUFFERSIZE);
+        this.waitStrategy = WaitStrategy.parse(configuration.getString(
+                CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_WAITSTRATEGY));
+
+        int ringSize = 1;
+        while (ringSize < this.getCapacity()) {
+            ringSize <<= 1;
+        }
+        this.ring = new Record[ringSize];
+        this.mask = ringSize - 1;
+    }
+
+    /**
+     * 在task shutdown时由其他线程调用，只设置标记，由消费者线程丢弃数据，避免与生产者/消费者竞争序号
+     */
+    @Override
+    public void clear() {
+        this.clearRequested = true;
+    }
+
+    @Override
+    protected void doPush(Record r) {
+        long startTime = System.nanoTime();
+        this.waitForByteCapacity(r.getMemorySize());
+        long t = this.tail.get();
+        this.waitForFreeSlots(t);
+        waitWriterTime += System.nanoTime() - startTime;
+
+        this.memoryBytes.addAndGet(r.getMemorySize());
+        this.ring[(int) t & this.mask] = r;
+        this.tail.lazySet(t + 1);
+    }
+
+    @Override
+    protected void doPushAll(Collection<Record> rs) {
+        long startTime = System.nanoTime();
+        int bytes = getRecordBytes(rs);
+        this.waitForByteCapacity(bytes);
+        this.memoryBytes.addAndGet(bytes);
+
+        Iterator<Record> iterator = rs.iterator();
+        int remaining = rs.size();
+        long t = this.tail.get();
+        while (remaining > 0) {
+            int claimed = Math.min(this.waitForFreeSlots(t), remaining);
+            for (int i = 0; i < claimed; i++) {
+                this.ring[(int) (t + i) & this.mask] = iterator.next();
+            }
+            t += claimed;
+            remaining -= claimed;
+            // 整批发布
+            this.tail.lazySet(t);
+        }
+        waitWriterTime += System.nanoTime() - startTime;
+    }
+
+    @Override
+    protected Record doPull() {
+        long startTime = System.nanoTime();
+        this.discardIfCleared();
+        long h = this.head.get();
+        int available = this.waitForAvailable(h);
+        waitReaderTime += System.nanoTime() - startTime;
+        if (available <= 0) {
+            return TerminateRecord.get();
+        }
+
+        int index = (int) h & this.mask;
+        Record r = this.ring[index];
+        this.ring[index] = null;
+        this.head.lazySet(h + 1);
+        this.memoryBytes.addAndGet(-r.getMemorySize());
+        return r;
+    }
+
+    @Override
+    protected void doPullAll(Collection<Record> rs) {
+        assert rs != null;
+        rs.clear();
+        long startTime = System.nanoTime();
+        this.discardIfCleared();
+        long h = this.head.get();
+        int available = Math.min(this.waitForAvailable(h), this.bufferSize);
+        waitReaderTime += System.nanoTime() - startTime;
+        if (available <= 0) {
+            rs.add(TerminateRecord.get());
+            return;
+        }
+
+        int bytes = 0;
+        for (int i = 0; i < available; i++) {
+            int index = (int) (h + i) & this.mask;
+            Record r = this.ring[index];
+            this.ring[index] = null;
+            bytes += r.getMemorySize();
+            rs.add(r);
+        }
+        this.head.lazySet(h + available);
+        this.memoryBytes.addAndGet(-bytes);
+    }
+
+    @Override
+    public int size() {
+        return (int) (this.tail.get() - this.head.get());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size() <= 0;
+    }
+
+    /**
+     * 已有数据时才按字节容量等待，避免单条/单批超过byteCapacity时永远等待
+     */
+    private void waitForByteCapacity(int bytes) {
+        int idleCounter = 0;
+        while (this.memoryBytes.get() > 0 && this.memoryBytes.get() + bytes > this.byteCapacity) {
+            idleCounter = this.idle(idleCounter);
+        }
+    }
+
+    /**
+     * 消费者线程执行clear()请求：丢弃当前已发布的所有数据
+     */
+    private void discardIfCleared() {
+        if (!this.clearRequested) {
+            return;
+        }
+        this.clearRequested = false;
+        long h = this.head.get();
+        long t = this.tail.get();
+        int bytes = 0;
+        for (long i = h; i < t; i++) {
+            int index = (int) i & this.mask;
+            bytes += this.ring[index].getMemorySize();
+            this.ring[index] = null;
+        }
+        this.head.lazySet(t);
+        this.memoryBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * 生产者等待直到至少有一个空位，返回可连续写入的空位数；按配置的capacity而不是环形数组长度计算
+     */
+    private int waitForFreeSlots(long t) {
+        int idleCounter = 0;
+        while (true) {
+            long free = this.capacity - (t - this.cachedHead);
+            if (free > 0) {
+                return (int) free;
+            }
+            this.cachedHead = this.head.get();
+            free = this.capacity - (t - this.cachedHead);
+            if (free > 0) {
+                return (int) free;
+            }
+            idleCounter = this.idle(idleCounter);
+        }
+    }
+
+    /**
+     * 消费者等待直到至少有一条record，返回可连续读取的条数；channel已关闭且没有数据时返回0
+     */
+    private int waitForAvailable(long h) {
+        int idleCounter = 0;
+        while (true) {
+            long available = this.cachedTail - h;
+            if (available > 0) {
+                return (int) available;
+            }
+            // 先读isClosed再读tail，保证close之前发布的数据都能被读到
+            boolean closed = this.isClosed;
+            this.cachedTail = this.tail.get();
+            available = this.cachedTail - h;
+            if (available > 0) {
+                return (int) available;
+            }
+            if (closed) {
+                return 0;
+            }
+            idleCounter = this.idle(idleCounter);
+        }
+    }
+
+    private int idle(int idleCounter) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw DataXException.asDataXException(
+                    FrameworkErrorCode.RUNTIME_ERROR, new InterruptedException());
+        }
+        return this.waitStrategy.idle(idleCounter);
+    }
+
+    private int getRecordBytes(Collection<Record> rs) {
+        int bytes = 0;
+        for (Record r : rs) {
+            bytes += r.getMemorySize();
+        }
+        return bytes;
+    }
+
+    /**
+     * 前后各填充7个long，避免head/tail与其他字段落在同一cache line上产生伪共享
+     */
+    static class LhsPadding {
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    static class Value extends LhsPadding {
+        volatile long value;
+    }
+
+    static class Sequence extends Value {
+        long p9, p10, p11, p12, p13, p14, p15;
+
+        private static final AtomicLongFieldUpdater<Value> UPDATER =
+                AtomicLongFieldUpdater.newUpdater(Value.class, "value");
+
+        long get() {
+            return this.value;
+        }
+
+        void lazySet(long newValue) {
+            UPDATER.lazySet(this, newValue);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.alibaba.datax.core.transport.channel.memory;
+
+import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.core.util.FrameworkErrorCode;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * RingBufferChannel 在队列满/空时的等待策略
+ * <p/>
+ * busy_spin: 一直自旋，延迟最低，但会独占一个cpu
+ * yield: 自旋一段时间后让出cpu
+ * park: 自旋、让出cpu之后短暂park，cpu占用最低（默认）
+ */
+public enum WaitStrategy {
+
+    BUSY_SPIN {
+        @Override
+        public int idle(int idleCounter) {
+            return idleCounter + 1;
+        }
+    },
+
+    YIELD {
+        @Override
+        public int idle(int idleCounter) {
+            if (idleCounter >= SPIN_TRIES) {
+                Thread.yield();
+            }
+            return idleCounter + 1;
+        }
+    },
+
+    PARK {
+        @Override
+        public int idle(int idleCounter) {
+            if (idleCounter >= SPIN_TRIES + YIELD_TRIES) {
+                LockSupport.parkNanos(PARK_NANOS);
+            } else if (idleCounter >= SPIN_TRIES) {
+                Thread.yield();
+            }
+            return idleCounter + 1;
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+
+    private static final int YIELD_TRIES = 100;
+
+    private static final long PARK_NANOS = 50 * 1000L;
+
+    /**
+     * 执行一次等待
+     *
+     * @param idleCounter 本次等待之前已经连续空转的次数
+     * @return 新的空转次数，调用方在下一次等待时传回
+     */
+    public abstract int idle(int idleCounter);
+
+    public static WaitStrategy parse(String name) {
+        if (StringUtils.isBlank(name)) {
+            return PARK;
+        }
+        try {
+            return WaitStrategy.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw DataXException.asDataXException(FrameworkErrorCode.CONFIG_ERROR,
+                    String.format("不支持的channel等待策略[%s], 仅支持 busy_spin, yield, park .", name));
+        }
+    }
+}
@@ -1,15 +1,18 @@
 package com.alibaba.datax.core.transport.exchanger;
 
 import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.element.RecordBatch;
 import com.alibaba.datax.common.exception.CommonErrorCode;
 import com.alibaba.datax.common.exception.DataXException;
 import com.alibaba.datax.common.plugin.RecordReceiver;
 import com.alibaba.datax.common.plugin.RecordSender;
+import com.alibaba.datax.common.plugin.TaskCheckpoint;
 import com.alibaba.datax.common.plugin.TaskPluginCollector;
 import com.alibaba.datax.common.util.Configuration;
 import com.alibaba.datax.core.transport.channel.Channel;
+import com.alibaba.datax.core.transport.record.BatchRecord;
+import com.alibaba.datax.core.transport.record.RecordFactory;
 import com.alibaba.datax.core.transport.record.TerminateRecord;
-import com.alibaba.datax.core.util.FrameworkErrorCode;
 import com.alibaba.datax.core.util.container.CoreConstant;
 import org.apache.commons.lang.Validate;
 
@@ -33,13 +36,26 @@ public class BufferedRecordExchanger implements RecordSender, RecordReceiver {
 
 	private int bufferIndex = 0;
 
-	private static Class<? extends Record> RECORD_CLASS;
+	private final RecordFactory recordFactory;
 
 	private volatile boolean shutdown = false;
 
+	/**
+	 * reader端对进入channel的record计数，用于和writer确认断点
+	 */
+	private TaskCheckpoint taskCheckpoint;
+
 	private final TaskPluginCollector pluginCollector;
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * writer端正在按行消费的batch
+	 */
+	private RecordBatch currentBatch = null;
+
+	private int currentBatchRow = 0;
+
+	private boolean terminated = false;
+
 	public BufferedRecordExchanger(final Channel channel, final TaskPluginCollector pluginCollector) {
 		assert null != channel;
 		assert null != channel.getConfiguration();
@@ -56,25 +72,16 @@ public class BufferedRecordExchanger implements RecordSender, RecordReceiver {
 		this.byteCapacity = configuration.getInt(
 				CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_CAPACITY_BYTE, 8 * 1024 * 1024);
 
-		try {
-			BufferedRecordExchanger.RECORD_CLASS = ((Class<? extends Record>) Class
-					.forName(configuration.getString(
-                            CoreConstant.DATAX_CORE_TRANSPORT_RECORD_CLASS,
-                            "com.alibaba.datax.core.transport.record.DefaultRecord")));
-		} catch (Exception e) {
-			throw DataXException.asDataXException(
-					FrameworkErrorCode.CONFIG_ERROR, e);
-		}
+		this.recordFactory = new RecordFactory(configuration);
+	}
+
+	public void setTaskCheckpoint(TaskCheckpoint taskCheckpoint) {
+		this.taskCheckpoint = taskCheckpoint;
 	}
 
 	@Override
 	public Record createRecord() {
-		try {
-			return BufferedRecordExchanger.RECORD_CLASS.newInstance();
-		} catch (Exception e) {
-			throw DataXException.asDataXException(
-					FrameworkErrorCode.CONFIG_ERROR, e);
-		}
+		return this.recordFactory.createRecord();
 	}
 
 	@Override
@@ -98,6 +105,43 @@ public class BufferedRecordExchanger implements RecordSender, RecordReceiver {
 		this.buffer.add(record);
 		this.bufferIndex++;
 		memoryBytes.addAndGet(record.getMemorySize());
+		if (null != this.taskCheckpoint) {
+			this.taskCheckpoint.recordSent(1);
+		}
+	}
+
+	/**
+	 * batch整体作为一个元素放入channel，超过byteCapacity时退化为逐行发送
+	 */
+	@Override
+	public void sendBatchToWriter(RecordBatch batch) {
+		if(shutdown){
+			throw DataXException.asDataXException(CommonErrorCode.SHUT_DOWN_TASK, "");
+		}
+
+		Validate.notNull(batch, "batch不能为空.");
+		batch.validate();
+		if (batch.getRowCount() == 0) {
+			return;
+		}
+
+		BatchRecord batchRecord = new BatchRecord(batch);
+		if (batchRecord.getMemorySize() > this.byteCapacity) {
+			RecordSender.super.sendBatchToWriter(batch);
+			return;
+		}
+
+		// 先发送已缓存的行，保证顺序
+		if (this.bufferIndex > 0) {
+			flush();
+		}
+		this.buffer.add(batchRecord);
+		this.bufferIndex++;
+		memoryBytes.addAndGet(batchRecord.getMemorySize());
+		if (null != this.taskCheckpoint) {
+			this.taskCheckpoint.recordSent(batch.getRowCount());
+		}
+		flush();
 	}
 
 	@Override
@@ -125,16 +169,56 @@ public class BufferedRecordExchanger implements RecordSender, RecordReceiver {
 		if(shutdown){
 			throw DataXException.asDataXException(CommonErrorCode.SHUT_DOWN_TASK, "");
 		}
-		boolean isEmpty = (this.bufferIndex >= this.buffer.size());
-		if (isEmpty) {
-			receive();
+		while (true) {
+			if (null != this.currentBatch) {
+				if (this.currentBatchRow < this.currentBatch.getRowCount()) {
+					return this.currentBatch.getRecord(this.currentBatchRow++);
+				}
+				this.currentBatch = null;
+			}
+
+			if (this.terminated) {
+				return null;
+			}
+
+			boolean isEmpty = (this.bufferIndex >= this.buffer.size());
+			if (isEmpty) {
+				receive();
+			}
+
+			Record record = this.buffer.get(this.bufferIndex++);
+			if (record instanceof TerminateRecord) {
+				this.terminated = true;
+				return null;
+			}
+			if (record instanceof BatchRecord) {
+				this.currentBatch = ((BatchRecord) record).getBatch();
+				this.currentBatchRow = 0;
+				continue;
+			}
+			return record;
 		}
+	}
 
-		Record record = this.buffer.get(this.bufferIndex++);
-		if (record instanceof TerminateRecord) {
-			record = null;
+	/**
+	 * reader整批下发的数据直接返回，行式数据按maxRows拼成batch
+	 */
+	@Override
+	public RecordBatch getBatchFromReader(int maxRows) {
+		if(shutdown){
+			throw DataXException.asDataXException(CommonErrorCode.SHUT_DOWN_TASK, "");
+		}
+		if (null == this.currentBatch && !this.terminated) {
+			if (this.bufferIndex >= this.buffer.size()) {
+				receive();
+			}
+			Record record = this.buffer.get(this.bufferIndex);
+			if (record instanceof BatchRecord) {
+				this.bufferIndex++;
+				return ((BatchRecord) record).getBatch();
+			}
 		}
-		return record;
+		return RecordReceiver.super.getBatchFromReader(maxRows);
 	}
 
 	@Override
@@ -5,13 +5,14 @@ import com.alibaba.datax.common.exception.CommonErrorCode;
 import com.alibaba.datax.common.exception.DataXException;
 import com.alibaba.datax.common.plugin.RecordReceiver;
 import com.alibaba.datax.common.plugin.RecordSender;
+import com.alibaba.datax.common.plugin.TaskCheckpoint;
 import com.alibaba.datax.common.plugin.TaskPluginCollector;
 import com.alibaba.datax.common.util.Configuration;
 import com.alibaba.datax.core.statistics.communication.Communication;
 import com.alibaba.datax.core.transport.channel.Channel;
+import com.alibaba.datax.core.transport.record.RecordFactory;
 import com.alibaba.datax.core.transport.record.TerminateRecord;
 import com.alibaba.datax.core.transport.transformer.TransformerExecution;
-import com.alibaba.datax.core.util.FrameworkErrorCode;
 import com.alibaba.datax.core.util.container.CoreConstant;
 import org.apache.commons.lang.Validate;
 
@@ -35,12 +36,16 @@ public class BufferedRecordTransformerExchanger extends TransformerExchanger imp
 
     private int bufferIndex = 0;
 
-    private static Class<? extends Record> RECORD_CLASS;
+    private final RecordFactory recordFactory;
 
     private volatile boolean shutdown = false;
 
+    /**
+     * reader端对进入channel的record计数，用于和writer确认断点
+     */
+    private TaskCheckpoint taskCheckpoint;
+
 
-    @SuppressWarnings("unchecked")
     public BufferedRecordTransformerExchanger(final int taskGroupId, final int taskId,
                                               final Channel channel, final Communication communication,
                                               final TaskPluginCollector pluginCollector,
@@ -60,25 +65,16 @@ public class BufferedRecordTransformerExchanger extends TransformerExchanger imp
         this.byteCapacity = configuration.getInt(
                 CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_CAPACITY_BYTE, 8 * 1024 * 1024);
 
-        try {
-            BufferedRecordTransformerExchanger.RECORD_CLASS = ((Class<? extends Record>) Class
-                    .forName(configuration.getString(
-                            CoreConstant.DATAX_CORE_TRANSPORT_RECORD_CLASS,
-                            "com.alibaba.datax.core.transport.record.DefaultRecord")));
-        } catch (Exception e) {
-            throw DataXException.asDataXException(
-                    FrameworkErrorCode.CONFIG_ERROR, e);
-        }
+        this.recordFactory = new RecordFactory(configuration);
+    }
+
+    public void setTaskCheckpoint(TaskCheckpoint taskCheckpoint) {
+        this.taskCheckpoint = taskCheckpoint;
     }
 
     @Override
     public Record createRecord() {
-        try {
-            return BufferedRecordTransformerExchanger.RECORD_CLASS.newInstance();
-        } catch (Exception e) {
-            throw DataXException.asDataXException(
-                    FrameworkErrorCode.CONFIG_ERROR, e);
-        }
+        return this.recordFactory.createRecord();
     }
 
     @Override
@@ -108,6 +104,9 @@ public class BufferedRecordTransformerExchanger extends TransformerExchanger imp
         this.buffer.add(record);
         this.bufferIndex++;
         memoryBytes.addAndGet(record.getMemorySize());
+        if (null != this.taskCheckpoint) {
+            this.taskCheckpoint.recordSent(1);
+        }
     }
 
     @Override
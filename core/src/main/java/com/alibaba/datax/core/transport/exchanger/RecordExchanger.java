@@ -25,9 +25,9 @@ import com.alibaba.datax.common.plugin.TaskPluginCollector;
 import com.alibaba.datax.common.util.Configuration;
 import com.alibaba.datax.core.statistics.communication.Communication;
 import com.alibaba.datax.core.transport.channel.Channel;
+import com.alibaba.datax.core.transport.record.RecordFactory;
 import com.alibaba.datax.core.transport.record.TerminateRecord;
 import com.alibaba.datax.core.transport.transformer.TransformerExecution;
-import com.alibaba.datax.core.util.FrameworkErrorCode;
 import com.alibaba.datax.core.util.container.CoreConstant;
 
 import java.util.List;
@@ -38,25 +38,16 @@ public class RecordExchanger extends TransformerExchanger implements RecordSende
 
 	private Configuration configuration;
 
-	private static Class<? extends Record> RECORD_CLASS;
+	private final RecordFactory recordFactory;
 
 	private volatile boolean shutdown = false;
 
-	@SuppressWarnings("unchecked")
 	public RecordExchanger(final int taskGroupId, final int taskId,final Channel channel, final Communication communication,List<TransformerExecution> transformerExecs, final TaskPluginCollector pluginCollector) {
 		super(taskGroupId,taskId,communication,transformerExecs, pluginCollector);
 		assert channel != null;
 		this.channel = channel;
 		this.configuration = channel.getConfiguration();
-		try {
-			RecordExchanger.RECORD_CLASS = (Class<? extends Record>) Class
-					.forName(configuration.getString(
-                            CoreConstant.DATAX_CORE_TRANSPORT_RECORD_CLASS,
-                            "com.alibaba.datax.core.transport.record.DefaultRecord"));
-		} catch (ClassNotFoundException e) {
-			throw DataXException.asDataXException(
-					FrameworkErrorCode.CONFIG_ERROR, e);
-		}
+		this.recordFactory = new RecordFactory(configuration);
 	}
 
 	@Override
@@ -70,12 +61,7 @@ public class RecordExchanger extends TransformerExchanger implements RecordSende
 
 	@Override
 	public Record createRecord() {
-		try {
-			return RECORD_CLASS.newInstance();
-		} catch (Exception e) {
-			throw DataXException.asDataXException(
-					FrameworkErrorCode.CONFIG_ERROR, e);
-		}
+		return this.recordFactory.createRecord();
 	}
 
 	@Override
@@ -0,0 +1,62 @@
+package com.alibaba.datax.core.transport.record;
+
+import com.alibaba.datax.common.element.Column;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.element.RecordBatch;
+import com.alibaba.datax.core.util.ClassSize;
+
+/**
+ * 在Channel中承载一个RecordBatch，使列式数据可以和行式Record走同一个Channel
+ * <p/>
+ * 只在exchanger内部使用，不会交给Writer
+ */
+public class BatchRecord implements Record {
+
+	private final RecordBatch batch;
+
+	private final int byteSize;
+
+	private final int memorySize;
+
+	public BatchRecord(final RecordBatch batch) {
+		this.batch = batch;
+		this.byteSize = batch.getByteSize();
+		this.memorySize = ClassSize.DefaultRecordHead + batch.getMemorySize();
+	}
+
+	public RecordBatch getBatch() {
+		return this.batch;
+	}
+
+	public int getRowCount() {
+		return this.batch.getRowCount();
+	}
+
+	@Override
+	public void addColumn(Column column) {
+	}
+
+	@Override
+	public void setColumn(int i, Column column) {
+	}
+
+	@Override
+	public Column getColumn(int i) {
+		return null;
+	}
+
+	@Override
+	public int getColumnNumber() {
+		return this.batch.getColumnNumber();
+	}
+
+	@Override
+	public int getByteSize() {
+		return this.byteSize;
+	}
+
+	@Override
+	public int getMemorySize() {
+		return this.memorySize;
+	}
+}
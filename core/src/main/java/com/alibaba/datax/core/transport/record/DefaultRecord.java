@@ -27,6 +27,13 @@ public class DefaultRecord implements Record {
 	// 首先是Record本身需要的内存
 	private int memorySize = ClassSize.DefaultRecordHead;
 
+	/**
+	 * 创建本record的factory，非null时release会把本record回收到其中
+	 */
+	private RecordFactory recordFactory;
+
+	private boolean released = false;
+
 	public DefaultRecord() {
 		this.columns = new ArrayList<Column>(RECORD_AVERGAE_COLUMN_NUMBER);
 	}
@@ -83,6 +90,26 @@ public class DefaultRecord implements Record {
 		return memorySize;
 	}
 
+	/**
+	 * 清空column，保留column列表的容量，回收给reader端复用；重复调用只生效一次
+	 */
+	@Override
+	public void release() {
+		if (null == this.recordFactory || this.released) {
+			return;
+		}
+		this.released = true;
+		this.columns.clear();
+		this.byteSize = 0;
+		this.memorySize = ClassSize.DefaultRecordHead;
+		this.recordFactory.recycle(this);
+	}
+
+	void reuse(final RecordFactory recordFactory) {
+		this.recordFactory = recordFactory;
+		this.released = false;
+	}
+
 	private void decrByteSize(final Column column) {
 		if (null == column) {
 			return;
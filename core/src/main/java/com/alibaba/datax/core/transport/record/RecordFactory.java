@@ -0,0 +1,119 @@
+package com.alibaba.datax.core.transport.record;
+
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.core.util.FrameworkErrorCode;
+import com.alibaba.datax.core.util.container.CoreConstant;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 负责为reader创建Record
+ * <p/>
+ * 1. 构造器只在初始化时反射查找一次，DefaultRecord直接new，不再每条record都走Class.newInstance
+ * 2. 每个reader端exchanger(即每个channel)持有一个回收池，writer对DefaultRecord调用release()后，
+ * record清空后回到池中，reader再次createRecord时优先复用，池满时直接丢弃交给GC
+ * <p/>
+ * 回收池是有界的多生产者(writer可能多线程release)/单消费者(reader线程)队列
+ */
+public class RecordFactory {
+
+    private static final String DEFAULT_RECORD_CLASS = DefaultRecord.class.getName();
+
+    private final Constructor<? extends Record> constructor;
+
+    private final boolean isDefaultRecord;
+
+    private final AtomicReferenceArray<DefaultRecord> pool;
+
+    private final int mask;
+
+    private final AtomicLong head = new AtomicLong(0);
+
+    private final AtomicLong tail = new AtomicLong(0);
+
+    @SuppressWarnings("unchecked")
+    public RecordFactory(final Configuration configuration) {
+        String recordClass = configuration.getString(
+                CoreConstant.DATAX_CORE_TRANSPORT_RECORD_CLASS, DEFAULT_RECORD_CLASS);
+        this.isDefaultRecord = DEFAULT_RECORD_CLASS.equals(recordClass);
+        try {
+            this.constructor = ((Class<? extends Record>) Class.forName(recordClass)).getConstructor();
+        } catch (Exception e) {
+            throw DataXException.asDataXException(
+                    FrameworkErrorCode.CONFIG_ERROR, e);
+        }
+
+        int poolSize = configuration.getInt(CoreConstant.DATAX_CORE_TRANSPORT_RECORD_POOLSIZE,
+                configuration.getInt(CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_CAPACITY, 2048));
+        if (this.isDefaultRecord && poolSize > 0) {
+            int size = 1;
+            while (size < poolSize) {
+                size <<= 1;
+            }
+            this.pool = new AtomicReferenceArray<DefaultRecord>(size);
+            this.mask = size - 1;
+        } else {
+            this.pool = null;
+            this.mask = 0;
+        }
+    }
+
+    public Record createRecord() {
+        if (null != this.pool) {
+            DefaultRecord record = this.poll();
+            if (null == record) {
+                record = new DefaultRecord();
+            }
+            record.reuse(this);
+            return record;
+        }
+
+        if (this.isDefaultRecord) {
+            return new DefaultRecord();
+        }
+
+        try {
+            return this.constructor.newInstance();
+        } catch (Exception e) {
+            throw DataXException.asDataXException(
+                    FrameworkErrorCode.CONFIG_ERROR, e);
+        }
+    }
+
+    /**
+     * 由DefaultRecord.release调用，record此时已经清空
+     */
+    void recycle(final DefaultRecord record) {
+        while (true) {
+            long t = this.tail.get();
+            if (t - this.head.get() >= this.pool.length()) {
+                // 池已满，交给GC
+                return;
+            }
+            if (this.tail.compareAndSet(t, t + 1)) {
+                this.pool.lazySet((int) t & this.mask, record);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 只由reader线程调用
+     */
+    private DefaultRecord poll() {
+        long h = this.head.get();
+        int index = (int) h & this.mask;
+        DefaultRecord record = this.pool.get(index);
+        if (null == record) {
+            // 池为空，或者生产者已占位但还没写入
+            return null;
+        }
+        this.pool.lazySet(index, null);
+        this.head.lazySet(h + 1);
+        return record;
+    }
+}
@@ -0,0 +1,119 @@
+package com.alibaba.datax.core.util;
+
+import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.core.util.container.CoreConstant;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * reader/writer线程以及taskGroup线程的创建
+ * <p/>
+ * core.container.taskGroup.threadMode 为 virtual 且JVM支持虚拟线程(JDK 21+)时使用虚拟线程，
+ * 否则(包括Java 8)退回到原来的平台线程。虚拟线程通过反射创建，编译目标仍为Java 8。
+ * <p/>
+ * NOTE: 插件在synchronized块内做阻塞IO时(如部分JDBC驱动)会占住载体线程，
+ * 此时可以调大 jdk.virtualThreadScheduler.parallelism 或者继续使用 platform 模式。
+ */
+public final class ThreadUtil {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThreadUtil.class);
+
+    public static final String THREAD_MODE_PLATFORM = "platform";
+
+    public static final String THREAD_MODE_VIRTUAL = "virtual";
+
+    private static final Method OF_VIRTUAL;
+
+    private static final Method BUILDER_NAME;
+
+    private static final Method BUILDER_UNSTARTED;
+
+    private static final Method NEW_VIRTUAL_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderUnstarted = null;
+        Method newVirtualExecutor = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builderClass.getMethod("name", String.class);
+            builderUnstarted = builderClass.getMethod("unstarted", Runnable.class);
+            newVirtualExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (Exception e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_UNSTARTED = builderUnstarted;
+        NEW_VIRTUAL_EXECUTOR = newVirtualExecutor;
+    }
+
+    private ThreadUtil() {
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * 根据配置判断是否使用虚拟线程，配置为virtual但JVM不支持时打印告警并退回平台线程
+     */
+    public static boolean isVirtualThreadEnabled(final Configuration configuration) {
+        String threadMode = configuration.getString(
+                CoreConstant.DATAX_CORE_CONTAINER_TASKGROUP_THREADMODE, THREAD_MODE_PLATFORM);
+
+        if (StringUtils.equalsIgnoreCase(THREAD_MODE_PLATFORM, threadMode)) {
+            return false;
+        }
+        if (!StringUtils.equalsIgnoreCase(THREAD_MODE_VIRTUAL, threadMode)) {
+            throw DataXException.asDataXException(FrameworkErrorCode.CONFIG_ERROR,
+                    String.format("不支持的线程模式[%s], 仅支持 platform, virtual .", threadMode));
+        }
+        if (!isVirtualThreadSupported()) {
+            LOG.warn("当前JVM[{}]不支持虚拟线程, threadMode退回为 platform .",
+                    System.getProperty("java.version"));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 创建一个未启动的线程
+     */
+    public static Thread newThread(final Runnable runnable, final String name, boolean virtual) {
+        if (virtual && isVirtualThreadSupported()) {
+            try {
+                Object builder = OF_VIRTUAL.invoke(null);
+                builder = BUILDER_NAME.invoke(builder, name);
+                return (Thread) BUILDER_UNSTARTED.invoke(builder, runnable);
+            } catch (Exception e) {
+                throw DataXException.asDataXException(FrameworkErrorCode.RUNTIME_ERROR,
+                        "创建虚拟线程失败.", e);
+            }
+        }
+        return new Thread(runnable, name);
+    }
+
+    /**
+     * 创建执行nThreads个长期任务的线程池，虚拟线程模式下每个任务一个虚拟线程
+     */
+    public static ExecutorService newExecutor(int nThreads, boolean virtual) {
+        if (virtual && isVirtualThreadSupported()) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+            } catch (Exception e) {
+                throw DataXException.asDataXException(FrameworkErrorCode.RUNTIME_ERROR,
+                        "创建虚拟线程池失败.", e);
+            }
+        }
+        return Executors.newFixedThreadPool(nThreads);
+    }
+}
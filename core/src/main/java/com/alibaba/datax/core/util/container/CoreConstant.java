@@ -25,12 +25,20 @@ public class CoreConstant {
 
 	public static final String DATAX_CORE_CONTAINER_JOB_SLEEPINTERVAL = "core.container.job.sleepInterval";
 
+	public static final String DATAX_CORE_CONTAINER_JOB_WORKSTEALING = "core.container.job.workStealing";
+
     public static final String DATAX_CORE_CONTAINER_TASKGROUP_ID = "core.container.taskGroup.id";
 
 	public static final String DATAX_CORE_CONTAINER_TASKGROUP_SLEEPINTERVAL = "core.container.taskGroup.sleepInterval";
 
 	public static final String DATAX_CORE_CONTAINER_TASKGROUP_REPORTINTERVAL = "core.container.taskGroup.reportInterval";
 
+	public static final String DATAX_CORE_CONTAINER_TASKGROUP_SPEED_BYTE = "core.container.taskGroup.speed.byte";
+
+	public static final String DATAX_CORE_CONTAINER_TASKGROUP_SPEED_RECORD = "core.container.taskGroup.speed.record";
+
+	public static final String DATAX_CORE_CONTAINER_TASKGROUP_THREADMODE = "core.container.taskGroup.threadMode";
+
 	public static final String DATAX_CORE_CONTAINER_TASK_FAILOVER_MAXRETRYTIMES = "core.container.task.failOver.maxRetryTimes";
 
 	public static final String DATAX_CORE_CONTAINER_TASK_FAILOVER_RETRYINTERVALINMSEC = "core.container.task.failOver.retryIntervalInMsec";
@@ -59,10 +67,14 @@ public class CoreConstant {
 
 	public static final String DATAX_CORE_TRANSPORT_CHANNEL_FLOWCONTROLINTERVAL = "core.transport.channel.flowControlInterval";
 
+	public static final String DATAX_CORE_TRANSPORT_CHANNEL_WAITSTRATEGY = "core.transport.channel.waitStrategy";
+
 	public static final String DATAX_CORE_TRANSPORT_EXCHANGER_BUFFERSIZE = "core.transport.exchanger.bufferSize";
 
     public static final String DATAX_CORE_TRANSPORT_RECORD_CLASS = "core.transport.record.class";
 
+	public static final String DATAX_CORE_TRANSPORT_RECORD_POOLSIZE = "core.transport.record.poolSize";
+
 	public static final String DATAX_CORE_STATISTICS_COLLECTOR_PLUGIN_TASKCLASS = "core.statistics.collector.plugin.taskClass";
 
 	public static final String DATAX_CORE_STATISTICS_COLLECTOR_PLUGIN_MAXDIRTYNUM = "core.statistics.collector.plugin.maxDirtyNumber";
@@ -0,0 +1,127 @@
+package com.alibaba.datax.core.container.util;
+
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.core.statistics.container.communicator.AbstractContainerCommunicator;
+import com.alibaba.datax.core.statistics.container.communicator.taskgroup.StandaloneTGContainerCommunicator;
+import com.alibaba.datax.core.util.container.CoreConstant;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class JobTaskQueueTest {
+
+    private static final long JOB_ID = 20L;
+
+    @After
+    public void tearDown() {
+        JobTaskQueue.unregister(JOB_ID);
+    }
+
+    private static Configuration newTask(int taskId, String readerResourceMark) {
+        Configuration taskConfig = Configuration.newDefault();
+        taskConfig.set(CoreConstant.TASK_ID, taskId);
+        if (readerResourceMark != null) {
+            taskConfig.set(CoreConstant.JOB_READER_PARAMETER + ".loadBalanceResourceMark", readerResourceMark);
+        }
+        return taskConfig;
+    }
+
+    private static Configuration newTaskGroup(int taskGroupId, List<Configuration> tasks) {
+        Configuration taskGroupConfig = Configuration.newDefault();
+        taskGroupConfig.set(CoreConstant.DATAX_CORE_CONTAINER_JOB_ID, JOB_ID);
+        taskGroupConfig.set(CoreConstant.DATAX_CORE_CONTAINER_TASKGROUP_ID, taskGroupId);
+        taskGroupConfig.set(CoreConstant.DATAX_JOB_CONTENT, tasks);
+        return taskGroupConfig;
+    }
+
+    private static AbstractContainerCommunicator attach(JobTaskQueue queue, Configuration taskGroupConfig) {
+        AbstractContainerCommunicator communicator = new StandaloneTGContainerCommunicator(taskGroupConfig);
+        communicator.registerCommunication(taskGroupConfig.getListConfiguration(CoreConstant.DATAX_JOB_CONTENT));
+        queue.attach(taskGroupConfig.getInt(CoreConstant.DATAX_CORE_CONTAINER_TASKGROUP_ID), communicator);
+        return communicator;
+    }
+
+    private static int taskIdOf(Configuration taskConfig) {
+        return taskConfig.getInt(CoreConstant.TASK_ID);
+    }
+
+    @Test
+    public void testStealMovesTaskCommunicationToThief() {
+        List<Configuration> busyTasks = new ArrayList<Configuration>();
+        for (int i = 0; i < 4; i++) {
+            busyTasks.add(newTask(i, null));
+        }
+        Configuration busyGroup = newTaskGroup(0, busyTasks);
+        Configuration idleGroup = newTaskGroup(1, Arrays.asList(newTask(4, null)));
+        JobTaskQueue.register(JOB_ID, Arrays.asList(busyGroup, idleGroup), 4);
+        JobTaskQueue queue = JobTaskQueue.get(JOB_ID);
+
+        AbstractContainerCommunicator busy = attach(queue, busyGroup);
+        AbstractContainerCommunicator idle = attach(queue, idleGroup);
+
+        // 自有task从队头取
+        assertEquals(4, taskIdOf(queue.poll(1)));
+        assertEquals(0, taskIdOf(queue.poll(0)));
+        // 自有task为空后从队尾窃取
+        assertEquals(3, taskIdOf(queue.poll(1)));
+
+        assertEquals(3, busy.getCommunicationMap().size());
+        assertFalse(busy.getCommunicationMap().containsKey(3));
+        assertEquals(2, idle.getCommunicationMap().size());
+        assertNotNull(idle.getCommunication(3));
+
+        assertEquals(1, taskIdOf(queue.poll(0)));
+        assertEquals(2, taskIdOf(queue.poll(0)));
+        assertFalse(queue.hasPending());
+        assertNull(queue.poll(1));
+    }
+
+    @Test
+    public void testUnattachedTaskGroupIsNeitherThiefNorVictim() {
+        Configuration first = newTaskGroup(0, Arrays.asList(newTask(0, null), newTask(1, null)));
+        Configuration second = newTaskGroup(1, new ArrayList<Configuration>());
+        JobTaskQueue.register(JOB_ID, Arrays.asList(first, second), 2);
+        JobTaskQueue queue = JobTaskQueue.get(JOB_ID);
+
+        attach(queue, second);
+        assertNull(queue.poll(1));
+
+        attach(queue, first);
+        assertEquals(1, taskIdOf(queue.poll(1)));
+    }
+
+    @Test
+    public void testStealRespectsResourceShare() {
+        Configuration first = newTaskGroup(0, Arrays.asList(newTask(0, "db1"), newTask(1, "db1")));
+        Configuration second = newTaskGroup(1, new ArrayList<Configuration>());
+        // 1个channel，db1的份额为1
+        JobTaskQueue.register(JOB_ID, Arrays.asList(first, second), 1);
+        JobTaskQueue queue = JobTaskQueue.get(JOB_ID);
+        attach(queue, first);
+        attach(queue, second);
+
+        Configuration running = queue.poll(0);
+        assertEquals(0, taskIdOf(running));
+        assertNull(queue.poll(1));
+
+        queue.release(running);
+        assertEquals(1, taskIdOf(queue.poll(1)));
+    }
+
+    @Test
+    public void testUnregisterRemovesQueue() {
+        JobTaskQueue.register(JOB_ID, Arrays.asList(newTaskGroup(0, Arrays.asList(newTask(0, null)))), 1);
+        assertNotNull(JobTaskQueue.get(JOB_ID));
+
+        JobTaskQueue.unregister(JOB_ID);
+        assertNull(JobTaskQueue.get(JOB_ID));
+    }
+}
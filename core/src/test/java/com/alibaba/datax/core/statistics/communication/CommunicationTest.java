@@ -0,0 +1,116 @@
+package com.alibaba.datax.core.statistics.communication;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CommunicationTest {
+
+    @Test
+    public void testIncreaseAndSetLongCounter() {
+        Communication communication = new Communication();
+        communication.increaseCounter("records", 3);
+        communication.increaseCounter("records", 4);
+        assertEquals(7L, communication.getLongCounter("records").longValue());
+
+        communication.setLongCounter("records", 100);
+        assertEquals(100L, communication.getLongCounter("records").longValue());
+
+        communication.increaseCounter("records", 1);
+        assertEquals(101L, communication.getLongCounter("records").longValue());
+        assertEquals(0L, communication.getLongCounter("missing").longValue());
+    }
+
+    @Test
+    public void testIncreaseDoubleCounterConvertsToLong() {
+        Communication communication = new Communication();
+        communication.setDoubleCounter("percentage", 2.0d);
+        communication.increaseCounter("percentage", 3);
+        assertEquals(5L, communication.getLongCounter("percentage").longValue());
+    }
+
+    @Test
+    public void testSetLongCounterNeverExposesIntermediateValue() throws Exception {
+        final Communication communication = new Communication();
+        communication.setLongCounter("waitWriterTime", 1);
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicLong badReads = new AtomicLong();
+        final CountDownLatch started = new CountDownLatch(1);
+        Thread reporter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                while (running.get()) {
+                    if (communication.getLongCounter("waitWriterTime") <= 0
+                            || ((Long) communication.getCounter().get("waitWriterTime")) <= 0) {
+                        badReads.incrementAndGet();
+                    }
+                }
+            }
+        });
+        reporter.start();
+        started.await();
+
+        for (long i = 1; i <= 200000; i++) {
+            communication.setLongCounter("waitWriterTime", i);
+        }
+        running.set(false);
+        reporter.join();
+
+        assertEquals(0L, badReads.get());
+        assertEquals(200000L, communication.getLongCounter("waitWriterTime").longValue());
+    }
+
+    @Test
+    public void testConcurrentIncreaseIsNotLost() throws Exception {
+        final Communication communication = new Communication();
+        final int threads = 4;
+        final int perThread = 100000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perThread; i++) {
+                        communication.increaseCounter("readSucceedRecords", 1);
+                        communication.setLongCounter("waitReaderTime", i);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals((long) threads * perThread, communication.getLongCounter("readSucceedRecords").longValue());
+    }
+
+    @Test
+    public void testCloneAndMergeKeepCounters() {
+        Communication first = new Communication();
+        first.increaseCounter("records", 5);
+        first.setLongCounter("waitTime", 7);
+        first.setDoubleCounter("percentage", 0.5d);
+
+        Communication copy = first.clone();
+        assertEquals(5L, copy.getLongCounter("records").longValue());
+        assertEquals(7L, copy.getLongCounter("waitTime").longValue());
+        assertEquals(0.5d, copy.getDoubleCounter("percentage"), 0.0d);
+
+        Communication merged = new Communication();
+        merged.mergeFrom(first);
+        merged.mergeFrom(copy);
+        assertEquals(10L, merged.getLongCounter("records").longValue());
+        assertEquals(14L, merged.getLongCounter("waitTime").longValue());
+        assertEquals(1.0d, merged.getDoubleCounter("percentage"), 0.0d);
+        assertTrue(merged.getCounter().get("records") instanceof Long);
+        assertFalse(merged.isFinished());
+    }
+}
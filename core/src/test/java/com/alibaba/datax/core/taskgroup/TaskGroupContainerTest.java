@@ -0,0 +1,208 @@
+package com.alibaba.datax.core.taskgroup;
+
+import com.alibaba.datax.common.element.LongColumn;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.plugin.RecordReceiver;
+import com.alibaba.datax.common.plugin.RecordSender;
+import com.alibaba.datax.common.spi.Reader;
+import com.alibaba.datax.common.spi.Writer;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.core.statistics.communication.Communication;
+import com.alibaba.datax.core.statistics.communication.LocalTGCommunicationManager;
+import com.alibaba.datax.core.util.container.CoreConstant;
+import com.alibaba.datax.core.util.container.LoadUtil;
+import com.alibaba.datax.dataxservice.face.domain.enums.State;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TaskGroupContainerTest {
+
+    private static final int TASK_GROUP_ID = 0;
+
+    private static final int RECORD_PER_TASK = 10;
+
+    /**
+     * 汇报间隔足够长，调度循环如果仍按时间轮询，用例会明显超时
+     */
+    private static final long REPORT_INTERVAL = 60000;
+
+    private static final AtomicLong WRITTEN_RECORDS = new AtomicLong();
+
+    private static final AtomicInteger READER_ATTEMPTS = new AtomicInteger();
+
+    @Rule
+    public TemporaryFolder pluginDir = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        WRITTEN_RECORDS.set(0);
+        READER_ATTEMPTS.set(0);
+        LocalTGCommunicationManager.registerTaskGroupCommunication(TASK_GROUP_ID, new Communication());
+
+        String path = this.pluginDir.getRoot().getAbsolutePath();
+        Configuration plugins = Configuration.newDefault();
+        plugins.set("plugin.reader.testreader.name", "testreader");
+        plugins.set("plugin.reader.testreader.class", TestReader.class.getName());
+        plugins.set("plugin.reader.testreader.path", path);
+        plugins.set("plugin.writer.testwriter.name", "testwriter");
+        plugins.set("plugin.writer.testwriter.class", TestWriter.class.getName());
+        plugins.set("plugin.writer.testwriter.path", path);
+        LoadUtil.bind(plugins);
+    }
+
+    @After
+    public void tearDown() {
+        LocalTGCommunicationManager.clear();
+    }
+
+    private static Configuration taskGroupConfig(int taskCount, int failTimes) {
+        Configuration configuration = Configuration.from(new File("src/main/conf/core.json"));
+        configuration.set(CoreConstant.DATAX_CORE_CONTAINER_JOB_ID, 1);
+        configuration.set(CoreConstant.DATAX_CORE_CONTAINER_TASKGROUP_ID, TASK_GROUP_ID);
+        configuration.set(CoreConstant.DATAX_CORE_CONTAINER_TASKGROUP_CHANNEL, 1);
+        configuration.set(CoreConstant.DATAX_CORE_CONTAINER_TASKGROUP_REPORTINTERVAL, REPORT_INTERVAL);
+
+        List<Configuration> tasks = new ArrayList<Configuration>();
+        for (int i = 0; i < taskCount; i++) {
+            Configuration task = Configuration.newDefault();
+            task.set(CoreConstant.TASK_ID, i);
+            task.set(CoreConstant.JOB_READER_NAME, "testreader");
+            task.set(CoreConstant.JOB_READER_PARAMETER, Collections.singletonMap("failTimes", failTimes));
+            task.set(CoreConstant.JOB_WRITER_NAME, "testwriter");
+            task.set(CoreConstant.JOB_WRITER_PARAMETER, Collections.singletonMap("failOver", failTimes > 0));
+            tasks.add(task);
+        }
+        configuration.set(CoreConstant.DATAX_JOB_CONTENT, tasks);
+        return configuration;
+    }
+
+    @Test
+    public void testFinishedTaskFreesChannelImmediately() {
+        // 1个channel串行执行3个task，sleepInterval很长，只有task结束事件能及时启动下一个task
+        Configuration configuration = taskGroupConfig(3, 0);
+        configuration.set(CoreConstant.DATAX_CORE_CONTAINER_TASKGROUP_SLEEPINTERVAL, REPORT_INTERVAL);
+
+        long start = System.currentTimeMillis();
+        new TaskGroupContainer(configuration).start();
+        long used = System.currentTimeMillis() - start;
+
+        assertTrue("used " + used + "ms", used < REPORT_INTERVAL / 3);
+        assertEquals(3L * RECORD_PER_TASK, WRITTEN_RECORDS.get());
+        assertEquals(State.SUCCEEDED,
+                LocalTGCommunicationManager.getTaskGroupCommunication(TASK_GROUP_ID).getState());
+    }
+
+    @Test
+    public void testFailedTaskIsRetriedAfterSleepInterval() {
+        // 失败的task等待重试间隔时，调度循环按sleepInterval重新检查，而不是等待汇报间隔
+        Configuration configuration = taskGroupConfig(1, 1);
+        configuration.set(CoreConstant.DATAX_CORE_CONTAINER_TASKGROUP_SLEEPINTERVAL, 100);
+        configuration.set(CoreConstant.DATAX_CORE_CONTAINER_TASK_FAILOVER_MAXRETRYTIMES, 2);
+        configuration.set(CoreConstant.DATAX_CORE_CONTAINER_TASK_FAILOVER_RETRYINTERVALINMSEC, 200);
+
+        long start = System.currentTimeMillis();
+        new TaskGroupContainer(configuration).start();
+        long used = System.currentTimeMillis() - start;
+
+        assertTrue("used " + used + "ms", used < REPORT_INTERVAL / 3);
+        assertEquals(2, READER_ATTEMPTS.get());
+        assertEquals((long) RECORD_PER_TASK, WRITTEN_RECORDS.get());
+    }
+
+    public static class TestReader extends Reader {
+
+        public static class Job extends Reader.Job {
+            @Override
+            public List<Configuration> split(int adviceNumber) {
+                return Collections.singletonList(super.getPluginJobConf());
+            }
+
+            @Override
+            public void init() {
+            }
+
+            @Override
+            public void destroy() {
+            }
+        }
+
+        public static class Task extends Reader.Task {
+            private int failTimes;
+
+            @Override
+            public void init() {
+                this.failTimes = super.getPluginJobConf().getInt("failTimes", 0);
+            }
+
+            @Override
+            public void startRead(RecordSender recordSender) {
+                if (READER_ATTEMPTS.incrementAndGet() <= this.failTimes) {
+                    throw new IllegalStateException("reader failed on purpose");
+                }
+                for (int i = 0; i < RECORD_PER_TASK; i++) {
+                    Record record = recordSender.createRecord();
+                    record.addColumn(new LongColumn(i));
+                    recordSender.sendToWriter(record);
+                }
+                recordSender.flush();
+            }
+
+            @Override
+            public void destroy() {
+            }
+        }
+    }
+
+    public static class TestWriter extends Writer {
+
+        public static class Job extends Writer.Job {
+            @Override
+            public List<Configuration> split(int mandatoryNumber) {
+                return Collections.singletonList(super.getPluginJobConf());
+            }
+
+            @Override
+            public void init() {
+            }
+
+            @Override
+            public void destroy() {
+            }
+        }
+
+        public static class Task extends Writer.Task {
+            @Override
+            public void init() {
+            }
+
+            @Override
+            public void startWrite(RecordReceiver lineReceiver) {
+                while (lineReceiver.getFromReader() != null) {
+                    WRITTEN_RECORDS.incrementAndGet();
+                }
+            }
+
+            @Override
+            public boolean supportFailOver() {
+                return super.getPluginJobConf().getBool("failOver", false);
+            }
+
+            @Override
+            public void destroy() {
+            }
+        }
+    }
+}
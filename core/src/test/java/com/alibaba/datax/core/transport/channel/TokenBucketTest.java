@@ -0,0 +1,69 @@
+package com.alibaba.datax.core.transport.channel;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TokenBucketTest {
+
+    @After
+    public void tearDown() {
+        TokenBucket.release(1L);
+        TokenBucket.release(2L);
+    }
+
+    @Test
+    public void testCreateWithoutRateReturnsParent() {
+        TokenBucket parent = TokenBucket.create(100, 1000, null);
+        assertSame(parent, TokenBucket.create(-1, 1000, parent));
+        assertNull(TokenBucket.create(0, 1000, null));
+    }
+
+    @Test
+    public void testReserveWithinBurstDoesNotWait() {
+        TokenBucket bucket = TokenBucket.create(1000, 1000, null);
+        assertEquals(0L, bucket.reserve(500));
+        assertEquals(0L, bucket.reserve(500));
+    }
+
+    @Test
+    public void testReserveBeyondBurstWaitsForMissingTokens() {
+        TokenBucket bucket = TokenBucket.create(1000, 100, null);
+        long waitNanos = bucket.reserve(1100);
+        // 1100个令牌需要1.1s，允许100ms的突发
+        long expected = TimeUnit.SECONDS.toNanos(1);
+        assertTrue(waitNanos > expected - TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(waitNanos <= expected);
+    }
+
+    @Test
+    public void testParentLimitsChild() {
+        TokenBucket parent = TokenBucket.create(100, 100, null);
+        TokenBucket child = TokenBucket.create(1000000, 100, parent);
+        assertTrue(child.reserve(110) > TimeUnit.MILLISECONDS.toNanos(900));
+    }
+
+    @Test
+    public void testSharedBucketsAreScopedByJob() {
+        TokenBucket job1 = TokenBucket.shared(1L, "byte", 100, 1000, null);
+        assertSame(job1, TokenBucket.shared(1L, "byte", 200, 1000, null));
+        assertNotSame(job1, TokenBucket.shared(1L, "record", 100, 1000, null));
+        assertNotSame(job1, TokenBucket.shared(2L, "byte", 100, 1000, null));
+    }
+
+    @Test
+    public void testReleaseDropsStaleRate() {
+        TokenBucket before = TokenBucket.shared(1L, "byte", 100, 1000, null);
+        TokenBucket.release(1L);
+        TokenBucket after = TokenBucket.shared(1L, "byte", 200, 1000, null);
+        assertNotSame(before, after);
+        assertEquals(200L, after.getRate());
+    }
+}
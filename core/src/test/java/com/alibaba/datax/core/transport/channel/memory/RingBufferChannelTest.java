@@ -0,0 +1,198 @@
+package com.alibaba.datax.core.transport.channel.memory;
+
+import com.alibaba.datax.common.element.LongColumn;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.element.StringColumn;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.core.statistics.communication.Communication;
+import com.alibaba.datax.core.transport.record.DefaultRecord;
+import com.alibaba.datax.core.transport.record.TerminateRecord;
+import com.alibaba.datax.core.util.container.CoreConstant;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RingBufferChannelTest {
+
+    private static RingBufferChannel newChannel(int capacity, int byteCapacity) {
+        Configuration configuration = Configuration.newDefault();
+        configuration.set(CoreConstant.DATAX_CORE_CONTAINER_TASKGROUP_ID, 0);
+        configuration.set(CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_CAPACITY, capacity);
+        configuration.set(CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_CAPACITY_BYTE, byteCapacity);
+        configuration.set(CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_SPEED_BYTE, -1);
+        configuration.set(CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_SPEED_RECORD, -1);
+        configuration.set(CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_WAITSTRATEGY, "yield");
+        configuration.set(CoreConstant.DATAX_CORE_TRANSPORT_EXCHANGER_BUFFERSIZE, 4);
+        RingBufferChannel channel = new RingBufferChannel(configuration);
+        channel.setCommunication(new Communication());
+        return channel;
+    }
+
+    private static Record newRecord(long value) {
+        Record record = new DefaultRecord();
+        record.addColumn(new LongColumn(value));
+        record.addColumn(new StringColumn("ring-" + value));
+        return record;
+    }
+
+    @Test
+    public void testPushAllAndPullAllKeepOrderAcrossWrapAround() throws Exception {
+        final RingBufferChannel channel = newChannel(4, 64 * 1024 * 1024);
+        final int total = 1000;
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < total; i += 3) {
+                    List<Record> batch = new ArrayList<Record>();
+                    for (int j = i; j < Math.min(i + 3, total); j++) {
+                        batch.add(newRecord(j));
+                    }
+                    channel.pushAll(batch);
+                }
+                channel.pushTerminate(TerminateRecord.get());
+            }
+        });
+        producer.start();
+
+        long expected = 0;
+        List<Record> pulled = new ArrayList<Record>();
+        outer:
+        while (true) {
+            channel.pullAll(pulled);
+            assertTrue(pulled.size() <= 4);
+            for (Record record : pulled) {
+                if (record instanceof TerminateRecord) {
+                    break outer;
+                }
+                assertEquals(expected++, record.getColumn(0).asLong().longValue());
+            }
+        }
+        producer.join();
+        assertEquals(total, expected);
+        assertTrue(channel.isEmpty());
+    }
+
+    @Test
+    public void testCloseFromOtherThreadDeliversPublishedRecordsThenTerminate() throws Exception {
+        final RingBufferChannel channel = newChannel(8, 64 * 1024 * 1024);
+        channel.pushAll(Arrays.asList(newRecord(1), newRecord(2), newRecord(3)));
+
+        Thread closer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                channel.close();
+            }
+        });
+        closer.start();
+        closer.join();
+        // close不写入环形数组
+        assertEquals(3, channel.size());
+
+        List<Record> pulled = new ArrayList<Record>();
+        channel.pullAll(pulled);
+        assertEquals(3, pulled.size());
+        assertEquals(1L, pulled.get(0).getColumn(0).asLong().longValue());
+
+        channel.pullAll(pulled);
+        assertEquals(1, pulled.size());
+        assertTrue(pulled.get(0) instanceof TerminateRecord);
+        assertSame(TerminateRecord.get(), channel.pull());
+    }
+
+    @Test
+    public void testCloseWakesUpWaitingConsumer() throws Exception {
+        final RingBufferChannel channel = newChannel(8, 64 * 1024 * 1024);
+        final AtomicReference<Record> pulled = new AtomicReference<Record>();
+        Thread consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                pulled.set(channel.pull());
+            }
+        });
+        consumer.start();
+        Thread.sleep(50);
+        assertTrue(consumer.isAlive());
+
+        channel.close();
+        consumer.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(consumer.isAlive());
+        assertTrue(pulled.get() instanceof TerminateRecord);
+    }
+
+    @Test
+    public void testClearIsAppliedByConsumer() {
+        RingBufferChannel channel = newChannel(8, 64 * 1024 * 1024);
+        channel.pushAll(Arrays.asList(newRecord(1), newRecord(2), newRecord(3)));
+
+        channel.clear();
+        // clear只设置标记，由消费者在下一次pull时丢弃
+        assertEquals(3, channel.size());
+
+        channel.close();
+        List<Record> pulled = new ArrayList<Record>();
+        channel.pullAll(pulled);
+        assertEquals(1, pulled.size());
+        assertTrue(pulled.get(0) instanceof TerminateRecord);
+        assertTrue(channel.isEmpty());
+    }
+
+    @Test
+    public void testPushWaitsAtConfiguredCapacity() throws Exception {
+        // capacity为5时环形数组长度为8，但只能放入5条
+        final RingBufferChannel channel = newChannel(5, 64 * 1024 * 1024);
+        final CountDownLatch pushed = new CountDownLatch(1);
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                List<Record> batch = new ArrayList<Record>();
+                for (int i = 0; i < 6; i++) {
+                    batch.add(newRecord(i));
+                }
+                channel.pushAll(batch);
+                pushed.countDown();
+            }
+        });
+        producer.start();
+        assertFalse(pushed.await(100, TimeUnit.MILLISECONDS));
+        assertEquals(5, channel.size());
+
+        assertEquals(0L, channel.pull().getColumn(0).asLong().longValue());
+        assertTrue(pushed.await(5, TimeUnit.SECONDS));
+        assertEquals(5, channel.size());
+        producer.join();
+    }
+
+    @Test
+    public void testSinglePushWaitsForByteCapacity() throws Exception {
+        // 已有一条数据时，任何新数据都会超过byteCapacity
+        final RingBufferChannel channel = newChannel(8, 1);
+        channel.push(newRecord(1));
+
+        final CountDownLatch pushed = new CountDownLatch(1);
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                channel.push(newRecord(2));
+                pushed.countDown();
+            }
+        });
+        producer.start();
+        assertFalse(pushed.await(100, TimeUnit.MILLISECONDS));
+        assertEquals(1, channel.size());
+
+        assertEquals(1L, channel.pull().getColumn(0).asLong().longValue());
+        assertTrue(pushed.await(5, TimeUnit.SECONDS));
+        assertEquals(2L, channel.pull().getColumn(0).asLong().longValue());
+        producer.join();
+    }
+}
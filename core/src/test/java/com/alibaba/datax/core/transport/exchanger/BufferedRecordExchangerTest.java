@@ -0,0 +1,123 @@
+package com.alibaba.datax.core.transport.exchanger;
+
+import com.alibaba.datax.common.element.BytesColumnVector;
+import com.alibaba.datax.common.element.LongColumn;
+import com.alibaba.datax.common.element.LongColumnVector;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.element.RecordBatch;
+import com.alibaba.datax.common.plugin.TaskPluginCollector;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.core.statistics.communication.Communication;
+import com.alibaba.datax.core.transport.channel.memory.MemoryChannel;
+import com.alibaba.datax.core.util.container.CoreConstant;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class BufferedRecordExchangerTest {
+
+    private static BufferedRecordExchanger newExchanger(int byteCapacity, List<Record> dirtyRecords) {
+        Configuration configuration = Configuration.newDefault();
+        configuration.set(CoreConstant.DATAX_CORE_CONTAINER_TASKGROUP_ID, 0);
+        configuration.set(CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_CAPACITY, 64);
+        configuration.set(CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_CAPACITY_BYTE, byteCapacity);
+        configuration.set(CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_SPEED_BYTE, -1);
+        configuration.set(CoreConstant.DATAX_CORE_TRANSPORT_CHANNEL_SPEED_RECORD, -1);
+        configuration.set(CoreConstant.DATAX_CORE_TRANSPORT_EXCHANGER_BUFFERSIZE, 4);
+        MemoryChannel channel = new MemoryChannel(configuration);
+        channel.setCommunication(new Communication());
+        return new BufferedRecordExchanger(channel, new CollectingCollector(dirtyRecords));
+    }
+
+    private static RecordBatch newBatch(long... ids) {
+        LongColumnVector idVector = new LongColumnVector();
+        BytesColumnVector nameVector = new BytesColumnVector();
+        for (long id : ids) {
+            idVector.appendLong(id);
+            nameVector.appendString("name-" + id);
+        }
+        return new RecordBatch(idVector, nameVector);
+    }
+
+    private static Record newRecord(BufferedRecordExchanger exchanger, long id) {
+        Record record = exchanger.createRecord();
+        record.addColumn(new LongColumn(id));
+        return record;
+    }
+
+    @Test
+    public void testBatchIsReadRowByRowInOrder() {
+        BufferedRecordExchanger exchanger = newExchanger(8 * 1024 * 1024, new ArrayList<Record>());
+        exchanger.sendToWriter(newRecord(exchanger, 0));
+        exchanger.sendBatchToWriter(newBatch(1, 2, 3));
+        exchanger.sendToWriter(newRecord(exchanger, 4));
+        exchanger.terminate();
+
+        for (long i = 0; i <= 4; i++) {
+            Record record = exchanger.getFromReader();
+            assertEquals(Long.valueOf(i), record.getColumn(0).asLong());
+            if (i >= 1 && i <= 3) {
+                assertEquals("name-" + i, record.getColumn(1).asString());
+            }
+        }
+        assertNull(exchanger.getFromReader());
+    }
+
+    @Test
+    public void testColumnarWriterReceivesSameBatch() {
+        BufferedRecordExchanger exchanger = newExchanger(8 * 1024 * 1024, new ArrayList<Record>());
+        RecordBatch batch = newBatch(1, 2);
+        exchanger.sendBatchToWriter(batch);
+        exchanger.sendToWriter(newRecord(exchanger, 3));
+        exchanger.terminate();
+
+        assertSame(batch, exchanger.getBatchFromReader(16));
+        // 行式数据按行拼成batch
+        RecordBatch rows = exchanger.getBatchFromReader(16);
+        assertEquals(1, rows.getRowCount());
+        assertEquals(Long.valueOf(3), rows.getRecord(0).getColumn(0).asLong());
+        assertNull(exchanger.getBatchFromReader(16));
+    }
+
+    @Test
+    public void testOversizedBatchFallsBackToRows() {
+        List<Record> dirtyRecords = new ArrayList<Record>();
+        // 默认容量的列向量占用的内存超过byteCapacity，逐行发送时每一行都不超过
+        BufferedRecordExchanger exchanger = newExchanger(4096, dirtyRecords);
+        long[] ids = new long[10];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        RecordBatch batch = newBatch(ids);
+        exchanger.sendBatchToWriter(batch);
+        exchanger.terminate();
+
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(Long.valueOf(i), exchanger.getFromReader().getColumn(0).asLong());
+        }
+        assertNull(exchanger.getFromReader());
+        assertEquals(0, dirtyRecords.size());
+    }
+
+    private static class CollectingCollector extends TaskPluginCollector {
+        private final List<Record> dirtyRecords;
+
+        CollectingCollector(List<Record> dirtyRecords) {
+            this.dirtyRecords = dirtyRecords;
+        }
+
+        @Override
+        public void collectDirtyRecord(Record dirtyRecord, Throwable t, String errorMessage) {
+            this.dirtyRecords.add(dirtyRecord);
+        }
+
+        @Override
+        public void collectMessage(String key, String value) {
+        }
+    }
+}
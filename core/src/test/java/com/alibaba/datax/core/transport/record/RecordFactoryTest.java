@@ -0,0 +1,184 @@
+package com.alibaba.datax.core.transport.record;
+
+import com.alibaba.datax.common.element.Column;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.element.StringColumn;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.core.util.ClassSize;
+import com.alibaba.datax.core.util.container.CoreConstant;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RecordFactoryTest {
+
+    private static RecordFactory newFactory(int poolSize) {
+        Configuration configuration = Configuration.newDefault();
+        configuration.set(CoreConstant.DATAX_CORE_TRANSPORT_RECORD_POOLSIZE, poolSize);
+        return new RecordFactory(configuration);
+    }
+
+    @Test
+    public void testReleasedRecordIsClearedAndReused() {
+        RecordFactory factory = newFactory(4);
+        Record record = factory.createRecord();
+        record.addColumn(new StringColumn("abc"));
+        record.release();
+
+        assertEquals(0, record.getColumnNumber());
+        assertEquals(0, record.getByteSize());
+        assertEquals(ClassSize.DefaultRecordHead, record.getMemorySize());
+
+        Record reused = factory.createRecord();
+        assertSame(record, reused);
+        reused.addColumn(new StringColumn("d"));
+        assertEquals(1, reused.getColumnNumber());
+        assertEquals("d", reused.getColumn(0).asString());
+    }
+
+    @Test
+    public void testReleaseTwiceRecyclesOnce() {
+        RecordFactory factory = newFactory(4);
+        Record record = factory.createRecord();
+        record.release();
+        record.release();
+
+        assertSame(record, factory.createRecord());
+        assertNotSame(record, factory.createRecord());
+    }
+
+    @Test
+    public void testPoolIsBounded() {
+        RecordFactory factory = newFactory(2);
+        List<Record> records = new ArrayList<Record>();
+        for (int i = 0; i < 5; i++) {
+            records.add(factory.createRecord());
+        }
+        for (Record record : records) {
+            record.release();
+        }
+
+        // 池满后释放的record被丢弃
+        Set<Record> reused = Collections.newSetFromMap(new IdentityHashMap<Record, Boolean>());
+        for (int i = 0; i < 5; i++) {
+            Record record = factory.createRecord();
+            if (records.contains(record)) {
+                reused.add(record);
+            }
+        }
+        assertEquals(2, reused.size());
+    }
+
+    @Test
+    public void testZeroPoolSizeDisablesRecycling() {
+        RecordFactory factory = newFactory(0);
+        Record record = factory.createRecord();
+        record.addColumn(new StringColumn("abc"));
+        record.release();
+
+        // 没有回收池时release不清空record
+        assertEquals(1, record.getColumnNumber());
+        assertNotSame(record, factory.createRecord());
+    }
+
+    @Test
+    public void testCustomRecordClassIsNotPooled() {
+        Configuration configuration = Configuration.newDefault();
+        configuration.set(CoreConstant.DATAX_CORE_TRANSPORT_RECORD_CLASS, PlainRecord.class.getName());
+        RecordFactory factory = new RecordFactory(configuration);
+
+        Record record = factory.createRecord();
+        assertTrue(record instanceof PlainRecord);
+        record.release();
+        assertNotSame(record, factory.createRecord());
+    }
+
+    @Test
+    public void testConcurrentReleaseHandsOutEachRecordOnce() throws Exception {
+        final RecordFactory factory = newFactory(1024);
+        final List<Record> records = new ArrayList<Record>();
+        for (int i = 0; i < 800; i++) {
+            records.add(factory.createRecord());
+        }
+
+        // 多个writer线程同时release
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            final int offset = t;
+            Thread writer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = offset; i < records.size(); i += 4) {
+                        records.get(i).release();
+                    }
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        Set<Record> reused = Collections.newSetFromMap(new IdentityHashMap<Record, Boolean>());
+        for (int i = 0; i < records.size(); i++) {
+            Record record = factory.createRecord();
+            assertTrue("record被重复取出", reused.add(record));
+        }
+        assertEquals(records.size(), reused.size());
+        for (Record record : records) {
+            assertTrue(reused.contains(record));
+        }
+    }
+
+    public static class PlainRecord implements Record {
+        private final List<Column> columns = new ArrayList<Column>();
+
+        @Override
+        public void addColumn(Column column) {
+            this.columns.add(column);
+        }
+
+        @Override
+        public void setColumn(int i, Column column) {
+            this.columns.set(i, column);
+        }
+
+        @Override
+        public Column getColumn(int i) {
+            return i < this.columns.size() ? this.columns.get(i) : null;
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return this.columns.size();
+        }
+
+        @Override
+        public int getByteSize() {
+            return 0;
+        }
+
+        @Override
+        public int getMemorySize() {
+            return 0;
+        }
+    }
+}
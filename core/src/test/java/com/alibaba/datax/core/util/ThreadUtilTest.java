@@ -0,0 +1,98 @@
+package com.alibaba.datax.core.util;
+
+import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.core.util.container.CoreConstant;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ThreadUtilTest {
+
+    private static Configuration withThreadMode(String threadMode) {
+        Configuration configuration = Configuration.newDefault();
+        if (null != threadMode) {
+            configuration.set(CoreConstant.DATAX_CORE_CONTAINER_TASKGROUP_THREADMODE, threadMode);
+        }
+        return configuration;
+    }
+
+    // Java 8下没有Thread.isVirtual，一律为平台线程
+    private static boolean isVirtual(Thread thread) throws Exception {
+        try {
+            Method isVirtual = Thread.class.getMethod("isVirtual");
+            return (Boolean) isVirtual.invoke(thread);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    @Test
+    public void testPlatformIsDefault() {
+        assertFalse(ThreadUtil.isVirtualThreadEnabled(withThreadMode(null)));
+        assertFalse(ThreadUtil.isVirtualThreadEnabled(withThreadMode("Platform")));
+    }
+
+    @Test
+    public void testVirtualFallsBackWhenUnsupported() {
+        assertEquals(ThreadUtil.isVirtualThreadSupported(),
+                ThreadUtil.isVirtualThreadEnabled(withThreadMode("virtual")));
+    }
+
+    @Test
+    public void testUnknownThreadMode() {
+        try {
+            ThreadUtil.isVirtualThreadEnabled(withThreadMode("green"));
+            fail();
+        } catch (DataXException e) {
+            assertEquals(FrameworkErrorCode.CONFIG_ERROR, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void testNewThreadIsUnstartedAndNamed() throws Exception {
+        for (boolean virtual : new boolean[]{false, true}) {
+            final AtomicReference<String> ranIn = new AtomicReference<String>();
+            Thread thread = ThreadUtil.newThread(new Runnable() {
+                @Override
+                public void run() {
+                    ranIn.set(Thread.currentThread().getName());
+                }
+            }, "taskGroup-0-reader", virtual);
+
+            assertEquals(Thread.State.NEW, thread.getState());
+            assertEquals(virtual && ThreadUtil.isVirtualThreadSupported(), isVirtual(thread));
+            thread.start();
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+            assertEquals("taskGroup-0-reader", ranIn.get());
+        }
+    }
+
+    @Test
+    public void testNewExecutor() throws Exception {
+        for (boolean virtual : new boolean[]{false, true}) {
+            ExecutorService executor = ThreadUtil.newExecutor(2, virtual);
+            try {
+                boolean ranVirtual = executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        return isVirtual(Thread.currentThread());
+                    }
+                }).get(10, TimeUnit.SECONDS);
+                assertEquals(virtual && ThreadUtil.isVirtualThreadSupported(), ranVirtual);
+            } finally {
+                executor.shutdown();
+            }
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -10,4 +10,8 @@ public class Constant {
     public static final String CSV = "CSV";
     public static final String SEQ = "SEQ";
     public static final String RC = "RC";
+    public static final String PARQUET = "PARQUET";
+    // 按row group切分parquet文件时，slice读取的字节范围
+    public static final String RANGE_START = "rangeStart";
+    public static final String RANGE_END = "rangeEnd";
 }
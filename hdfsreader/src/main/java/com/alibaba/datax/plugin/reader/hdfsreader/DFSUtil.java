@@ -18,9 +18,9 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.ql.io.RCFile;
 import org.apache.hadoop.hive.ql.io.RCFileRecordReader;
 import org.apache.hadoop.hive.ql.io.orc.OrcFile;
-import org.apache.hadoop.hive.ql.io.orc.OrcInputFormat;
-import org.apache.hadoop.hive.ql.io.orc.OrcSerde;
+import org.apache.hadoop.hive.ql.io.orc.OrcProto;
 import org.apache.hadoop.hive.ql.io.orc.Reader;
+import org.apache.hadoop.hive.ql.io.orc.StripeInformation;
 import org.apache.hadoop.hive.serde2.columnar.BytesRefArrayWritable;
 import org.apache.hadoop.hive.serde2.columnar.BytesRefWritable;
 import org.apache.hadoop.hive.serde2.objectinspector.StructField;
@@ -29,12 +29,31 @@ import org.apache.hadoop.io.*;
 import org.apache.hadoop.mapred.*;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.util.ReflectionUtils;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.compat.RowGroupFilter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.util.*;
 
@@ -53,6 +72,10 @@ public class DFSUtil {
 
     private static final int DIRECTORY_SIZE_GUESS = 16 * 1024;
 
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    // 1970-01-01对应的儒略日
+    private static final long JULIAN_DAY_OF_EPOCH = 2440588L;
+
     public static final String HDFS_DEFAULTFS_KEY = "fs.defaultFS";
     public static final String HADOOP_SECURITY_AUTHENTICATION_KEY = "hadoop.security.authentication";
 
@@ -289,58 +312,88 @@ public class DFSUtil {
 
     }
 
+    /**
+     * 获取orcfile中各个stripe在文件中的范围[offset, offset + length)，用于按stripe切分
+     */
+    public List<long[]> getOrcStripeRanges(String sourceOrcFilePath) {
+        try {
+            Reader reader = OrcFile.createReader(new Path(sourceOrcFilePath), OrcFile.readerOptions(hadoopConf));
+            List<long[]> stripeRanges = new ArrayList<long[]>();
+            for (StripeInformation stripe : reader.getStripes()) {
+                stripeRanges.add(new long[]{stripe.getOffset(), stripe.getOffset() + stripe.getLength()});
+            }
+            return stripeRanges;
+        } catch (IOException e) {
+            String message = String.format("读取orcfile[%s]的stripe信息失败，请联系系统管理员", sourceOrcFilePath);
+            LOG.error(message);
+            throw DataXException.asDataXException(HdfsReaderErrorCode.READ_FILE_ERROR, message, e);
+        }
+    }
+
+    /**
+     * 读取orcfile，只读取column中配置的index对应的列。
+     * 切分时按stripe设置了rangeStart/rangeEnd的，只读取起始位置落在[rangeStart, rangeEnd)内的stripe
+     */
     public void orcFileStartRead(String sourceOrcFilePath, Configuration readerSliceConfig,
                                  RecordSender recordSender, TaskPluginCollector taskPluginCollector) {
         LOG.info(String.format("Start Read orcfile [%s].", sourceOrcFilePath));
         List<ColumnEntry> column = UnstructuredStorageReaderUtil
                 .getListColumnEntry(readerSliceConfig, com.alibaba.datax.plugin.unstructuredstorage.reader.Key.COLUMN);
         String nullFormat = readerSliceConfig.getString(com.alibaba.datax.plugin.unstructuredstorage.reader.Key.NULL_FORMAT);
-        StringBuilder allColumns = new StringBuilder();
-        StringBuilder allColumnTypes = new StringBuilder();
-        boolean isReadAllColumns = false;
-        int columnIndexMax = -1;
+        Long rangeStart = readerSliceConfig.getLong(Constant.RANGE_START);
+        Long rangeEnd = readerSliceConfig.getLong(Constant.RANGE_END);
         // 判断是否读取所有列
-        if (null == column || column.size() == 0) {
-            int allColumnsCount = getAllColumnsCount(sourceOrcFilePath);
-            columnIndexMax = allColumnsCount - 1;
-            isReadAllColumns = true;
-        } else {
-            columnIndexMax = getMaxIndex(column);
-        }
-        for (int i = 0; i <= columnIndexMax; i++) {
-            allColumns.append("col");
-            allColumnTypes.append("string");
-            if (i != columnIndexMax) {
-                allColumns.append(",");
-                allColumnTypes.append(":");
-            }
-        }
-        if (columnIndexMax >= 0) {
-            JobConf conf = new JobConf(hadoopConf);
-            Path orcFilePath = new Path(sourceOrcFilePath);
-            Properties p = new Properties();
-            p.setProperty("columns", allColumns.toString());
-            p.setProperty("columns.types", allColumnTypes.toString());
-            try {
-                OrcSerde serde = new OrcSerde();
-                serde.initialize(conf, p);
-                StructObjectInspector inspector = (StructObjectInspector) serde.getObjectInspector();
-                InputFormat<?, ?> in = new OrcInputFormat();
-                FileInputFormat.setInputPaths(conf, orcFilePath.toString());
-
-                //If the network disconnected, will retry 45 times, each time the retry interval for 20 seconds
-                //Each file as a split
-                //TODO multy threads
-                InputSplit[] splits = in.getSplits(conf, 1);
-
-                RecordReader reader = in.getRecordReader(splits[0], conf, Reporter.NULL);
-                Object key = reader.createKey();
-                Object value = reader.createValue();
-                // 获取列信息
-                List<? extends StructField> fields = inspector.getAllStructFieldRefs();
+        boolean isReadAllColumns = null == column || column.size() == 0;
+
+        org.apache.hadoop.hive.ql.io.orc.RecordReader rows = null;
+        try {
+            Reader reader = OrcFile.createReader(new Path(sourceOrcFilePath), OrcFile.readerOptions(hadoopConf));
+            List<OrcProto.Type> types = reader.getTypes();
+            OrcProto.Type rootType = types.get(0);
+            int fieldCount = rootType.getSubtypesCount();
+            int columnIndexMax = isReadAllColumns ? fieldCount - 1 : getMaxIndex(column);
+            if (columnIndexMax < 0) {
+                String message = String.format("请确认您所读取的列配置正确！columnIndexMax 小于0,column:%s", JSON.toJSONString(column));
+                throw DataXException.asDataXException(HdfsReaderErrorCode.BAD_CONFIG_VALUE, message);
+            }
+            if (columnIndexMax >= fieldCount) {
+                String message = String.format("您column中配置的index[%s]超出了orcfile[%s]的列数[%s]",
+                        columnIndexMax, sourceOrcFilePath, fieldCount);
+                throw DataXException.asDataXException(HdfsReaderErrorCode.CONFIG_INVALID_EXCEPTION, message);
+            }
+
+            // include[0]为顶层struct，需要读取的字段连同其子类型(复杂类型)一起标记，其余列不读取
+            boolean[] include = new boolean[types.size()];
+            include[0] = true;
+            boolean vectorizable = true;
+            for (int i = 0; i <= columnIndexMax; i++) {
+                if (!isReadAllColumns && !containsIndex(column, i)) {
+                    continue;
+                }
+                int typeStart = rootType.getSubtypes(i);
+                int typeEnd = i + 1 < fieldCount ? rootType.getSubtypes(i + 1) : types.size();
+                Arrays.fill(include, typeStart, typeEnd, true);
+                vectorizable &= OrcVectorizedReader.isSupported(types.get(typeStart).getKind());
+            }
+            Reader.Options options = new Reader.Options().include(include);
+            if (null != rangeStart && null != rangeEnd) {
+                options.range(rangeStart, rangeEnd - rangeStart);
+            }
+            rows = reader.rowsOptions(options);
 
+            if (vectorizable) {
+                OrcVectorizedReader vectorizedReader = new OrcVectorizedReader(types, column, isReadAllColumns,
+                        columnIndexMax, nullFormat);
+                LOG.info(String.format("使用向量化接口读取orcfile, 按%s发送", vectorizedReader.isBatchMode() ? "列" : "行"));
+                vectorizedReader.read(rows, recordSender, taskPluginCollector);
+            } else {
+                // 复杂类型和binary不支持向量化读取，按行读取
+                StructObjectInspector inspector = (StructObjectInspector) reader.getObjectInspector();
+                List<? extends StructField> fields = inspector.getAllStructFieldRefs();
+                Object value = null;
                 List<Object> recordFields;
-                while (reader.next(key, value)) {
+                while (rows.hasNext()) {
+                    value = rows.next(value);
                     recordFields = new ArrayList<Object>();
 
                     for (int i = 0; i <= columnIndexMax; i++) {
@@ -350,19 +403,344 @@ public class DFSUtil {
                     transportOneRecord(column, recordFields, recordSender,
                             taskPluginCollector, isReadAllColumns, nullFormat);
                 }
-                reader.close();
-            } catch (Exception e) {
-                String message = String.format("从orcfile文件路径[%s]中读取数据发生异常，请联系系统管理员。"
-                        , sourceOrcFilePath);
-                LOG.error(message);
-                throw DataXException.asDataXException(HdfsReaderErrorCode.READ_FILE_ERROR, message);
             }
-        } else {
-            String message = String.format("请确认您所读取的列配置正确！columnIndexMax 小于0,column:%s", JSON.toJSONString(column));
-            throw DataXException.asDataXException(HdfsReaderErrorCode.BAD_CONFIG_VALUE, message);
+        } catch (DataXException e) {
+            throw e;
+        } catch (Exception e) {
+            String message = String.format("从orcfile文件路径[%s]中读取数据发生异常，请联系系统管理员。"
+                    , sourceOrcFilePath);
+            LOG.error(message);
+            throw DataXException.asDataXException(HdfsReaderErrorCode.READ_FILE_ERROR, message, e);
+        } finally {
+            try {
+                if (rows != null) {
+                    rows.close();
+                    LOG.info("Finally, Close orcfile RecordReader.");
+                }
+            } catch (IOException e) {
+                LOG.warn(String.format("finally: 关闭orcfile RecordReader失败, %s", e.getMessage()));
+            }
+        }
+    }
+
+    private boolean containsIndex(List<ColumnEntry> columnConfigs, int index) {
+        for (ColumnEntry columnConfig : columnConfigs) {
+            if (null != columnConfig.getIndex() && columnConfig.getIndex() == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取parquet文件中需要读取的row group在文件中的范围[startingPos, startingPos + compressedSize)，配置了where时用row group的统计信息跳过不可能有满足条件的行的row group
+     *
+     * @param sourceParquetFilePath parquet文件路径
+     * @param filter                where过滤条件，可以为null
+     */
+    public List<long[]> getParquetRowGroupRanges(String sourceParquetFilePath, ParquetFilter filter) {
+        Path parquetFilePath = new Path(sourceParquetFilePath);
+        try {
+            ParquetMetadata footer = readParquetFooter(parquetFilePath);
+            List<BlockMetaData> rowGroups = footer.getBlocks();
+            if (null != filter) {
+                MessageType schema = footer.getFileMetaData().getSchema();
+                List<BlockMetaData> filtered = RowGroupFilter.filterRowGroups(
+                        FilterCompat.get(filter.toPredicate(schema)), rowGroups, schema);
+                LOG.info(String.format("parquet文件[%s]共有[%s]个row group, 按where条件过滤后需要读取[%s]个",
+                        sourceParquetFilePath, rowGroups.size(), filtered.size()));
+                rowGroups = filtered;
+            }
+            List<long[]> rowGroupRanges = new ArrayList<long[]>();
+            for (BlockMetaData rowGroup : rowGroups) {
+                rowGroupRanges.add(new long[]{rowGroup.getStartingPos(),
+                        rowGroup.getStartingPos() + rowGroup.getCompressedSize()});
+            }
+            return rowGroupRanges;
+        } catch (IOException e) {
+            String message = String.format("读取parquet文件[%s]的footer时出错", sourceParquetFilePath);
+            LOG.error(message);
+            throw DataXException.asDataXException(HdfsReaderErrorCode.READ_PARQUET_ERROR, message, e);
+        }
+    }
+
+    /**
+     * 读取parquet文件，只投影出column中配置的index(以及where中用到的列)。
+     * 切分时按row group设置了rangeStart/rangeEnd的，只读取中点落在[rangeStart, rangeEnd)内的row group
+     */
+    public void parquetFileStartRead(String sourceParquetFilePath, Configuration readerSliceConfig,
+                                     RecordSender recordSender, TaskPluginCollector taskPluginCollector) {
+        LOG.info(String.format("Start Read parquet file [%s].", sourceParquetFilePath));
+        List<ColumnEntry> column = UnstructuredStorageReaderUtil
+                .getListColumnEntry(readerSliceConfig, com.alibaba.datax.plugin.unstructuredstorage.reader.Key.COLUMN);
+        String nullFormat = readerSliceConfig.getString(com.alibaba.datax.plugin.unstructuredstorage.reader.Key.NULL_FORMAT);
+        String where = readerSliceConfig.getString(Key.WHERE);
+        Long rangeStart = readerSliceConfig.getLong(Constant.RANGE_START);
+        Long rangeEnd = readerSliceConfig.getLong(Constant.RANGE_END);
+        boolean isReadAllColumns = null == column || column.size() == 0;
+
+        Path parquetFilePath = new Path(sourceParquetFilePath);
+        ParquetReader<Group> reader = null;
+        try {
+            MessageType fileSchema = readParquetFooter(parquetFilePath).getFileMetaData().getSchema();
+            int fieldCount = fileSchema.getFieldCount();
+
+            // 需要读取的顶层字段在文件schema中的下标
+            TreeSet<Integer> fieldIndexes = new TreeSet<Integer>();
+            if (isReadAllColumns) {
+                for (int i = 0; i < fieldCount; i++) {
+                    fieldIndexes.add(i);
+                }
+            } else {
+                for (ColumnEntry columnConfig : column) {
+                    Integer columnIndex = columnConfig.getIndex();
+                    if (null == columnIndex) {
+                        continue;
+                    }
+                    if (columnIndex < 0 || columnIndex >= fieldCount) {
+                        String message = String.format("您column中配置的index[%s]超出了parquet文件[%s]的列数[%s]",
+                                columnIndex, sourceParquetFilePath, fieldCount);
+                        throw DataXException.asDataXException(HdfsReaderErrorCode.CONFIG_INVALID_EXCEPTION, message);
+                    }
+                    fieldIndexes.add(columnIndex);
+                }
+            }
+            FilterCompat.Filter filter = FilterCompat.NOOP;
+            if (StringUtils.isNotBlank(where)) {
+                ParquetFilter parquetFilter = ParquetFilter.parse(where);
+                filter = FilterCompat.get(parquetFilter.toPredicate(fileSchema));
+                // 逐行过滤需要读出条件中的列
+                for (String name : parquetFilter.getColumnNames()) {
+                    fieldIndexes.add(fileSchema.getFieldIndex(name));
+                }
+            }
+
+            // fieldPositions[文件中的下标] = 投影后的下标
+            int[] fieldPositions = new int[fieldCount];
+            List<org.apache.parquet.schema.Type> projectedFields = new ArrayList<org.apache.parquet.schema.Type>();
+            for (Integer fieldIndex : fieldIndexes) {
+                fieldPositions[fieldIndex] = projectedFields.size();
+                projectedFields.add(fileSchema.getType(fieldIndex));
+            }
+            final MessageType requestedSchema = new MessageType(fileSchema.getName(), projectedFields);
+
+            ParquetReader.Builder<Group> builder = ParquetReader.builder(new GroupReadSupport() {
+                @Override
+                public ReadContext init(InitContext context) {
+                    return new ReadContext(requestedSchema);
+                }
+            }, parquetFilePath).withConf(hadoopConf).withFilter(filter);
+            if (null != rangeStart && null != rangeEnd) {
+                builder.withFileRange(rangeStart, rangeEnd);
+            }
+            reader = builder.build();
+
+            Group group;
+            while ((group = reader.read()) != null) {
+                transportOneParquetRecord(group, column, fieldIndexes, fieldPositions, recordSender,
+                        taskPluginCollector, isReadAllColumns, nullFormat);
+            }
+        } catch (DataXException e) {
+            throw e;
+        } catch (Exception e) {
+            String message = String.format("从parquet文件路径[%s]中读取数据发生异常，请联系系统管理员。",
+                    sourceParquetFilePath);
+            LOG.error(message);
+            throw DataXException.asDataXException(HdfsReaderErrorCode.READ_PARQUET_ERROR, message, e);
+        } finally {
+            try {
+                if (reader != null) {
+                    reader.close();
+                    LOG.info("Finally, Close ParquetReader.");
+                }
+            } catch (IOException e) {
+                LOG.warn(String.format("finally: 关闭ParquetReader失败, %s", e.getMessage()));
+            }
         }
     }
 
+    private ParquetMetadata readParquetFooter(Path parquetFilePath) throws IOException {
+        ParquetFileReader fileReader = ParquetFileReader.open(HadoopInputFile.fromPath(parquetFilePath, hadoopConf));
+        try {
+            return fileReader.getFooter();
+        } finally {
+            fileReader.close();
+        }
+    }
+
+    private Record transportOneParquetRecord(Group group, List<ColumnEntry> columnConfigs, Set<Integer> fieldIndexes,
+                                             int[] fieldPositions, RecordSender recordSender,
+                                             TaskPluginCollector taskPluginCollector, boolean isReadAllColumns,
+                                             String nullFormat) {
+        Record record = recordSender.createRecord();
+        try {
+            if (isReadAllColumns) {
+                // 读取所有列，与orcfile一样创建都为String类型的column
+                for (Integer fieldIndex : fieldIndexes) {
+                    Object value = readParquetValue(group, fieldPositions[fieldIndex]);
+                    record.addColumn(new StringColumn(parquetValueToString(value)));
+                }
+            } else {
+                for (ColumnEntry columnConfig : columnConfigs) {
+                    Integer columnIndex = columnConfig.getIndex();
+                    Object value = null != columnIndex
+                            ? readParquetValue(group, fieldPositions[columnIndex]) : columnConfig.getValue();
+                    record.addColumn(parquetValueToColumn(columnConfig, value, nullFormat));
+                }
+            }
+            recordSender.sendToWriter(record);
+        } catch (IllegalArgumentException iae) {
+            taskPluginCollector.collectDirtyRecord(record, iae.getMessage());
+        } catch (Exception e) {
+            if (e instanceof DataXException) {
+                throw (DataXException) e;
+            }
+            taskPluginCollector.collectDirtyRecord(record, e.getMessage());
+        }
+        return record;
+    }
+
+    /**
+     * parquet中已经带类型的值直接转为对应的DataX Column，字符串以及类型不匹配时按字符串转换
+     */
+    private Column parquetValueToColumn(ColumnEntry columnConfig, Object value, String nullFormat) {
+        if (null == value || value instanceof String) {
+            String columnValue = (String) value;
+            // it's all ok if nullFormat is null
+            if (StringUtils.equals(columnValue, nullFormat)) {
+                columnValue = null;
+            }
+            return convertColumn(columnConfig, columnValue);
+        }
+        switch (Type.valueOf(columnConfig.getType().toUpperCase())) {
+            case LONG:
+                if (value instanceof Integer || value instanceof Long) {
+                    return new LongColumn(((Number) value).longValue());
+                }
+                break;
+            case DOUBLE:
+                if (value instanceof Double) {
+                    return new DoubleColumn((Double) value);
+                } else if (value instanceof Float) {
+                    return new DoubleColumn((Float) value);
+                } else if (value instanceof BigDecimal) {
+                    return new DoubleColumn((BigDecimal) value);
+                } else if (value instanceof Integer || value instanceof Long) {
+                    return new DoubleColumn(((Number) value).longValue());
+                }
+                break;
+            case BOOLEAN:
+                if (value instanceof Boolean) {
+                    return new BoolColumn((Boolean) value);
+                }
+                break;
+            case DATE:
+                if (value instanceof Date) {
+                    return new DateColumn((Date) value);
+                }
+                break;
+            default:
+                break;
+        }
+        return convertColumn(columnConfig, parquetValueToString(value));
+    }
+
+    private String parquetValueToString(Object value) {
+        if (null == value) {
+            return null;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        return value.toString();
+    }
+
+    /**
+     * 读取group中第fieldPosition个字段的值，为空时返回null；
+     * 嵌套类型以及重复字段(array)转为字符串
+     */
+    private Object readParquetValue(Group group, int fieldPosition) {
+        int repetitionCount = group.getFieldRepetitionCount(fieldPosition);
+        if (0 == repetitionCount) {
+            return null;
+        }
+        org.apache.parquet.schema.Type fieldType = group.getType().getType(fieldPosition);
+        if (fieldType.isPrimitive() && !fieldType.isRepetition(org.apache.parquet.schema.Type.Repetition.REPEATED)) {
+            return readParquetPrimitive(group, fieldPosition, 0, fieldType.asPrimitiveType());
+        }
+        List<Object> values = new ArrayList<Object>(repetitionCount);
+        for (int i = 0; i < repetitionCount; i++) {
+            if (fieldType.isPrimitive()) {
+                values.add(parquetValueToString(readParquetPrimitive(group, fieldPosition, i, fieldType.asPrimitiveType())));
+            } else {
+                values.add(group.getGroup(fieldPosition, i).toString().trim());
+            }
+        }
+        if (!fieldType.isRepetition(org.apache.parquet.schema.Type.Repetition.REPEATED)) {
+            return values.get(0);
+        }
+        return values.toString();
+    }
+
+    private Object readParquetPrimitive(Group group, int fieldPosition, int index, PrimitiveType primitiveType) {
+        OriginalType originalType = primitiveType.getOriginalType();
+        switch (primitiveType.getPrimitiveTypeName()) {
+            case BOOLEAN:
+                return group.getBoolean(fieldPosition, index);
+            case INT32:
+                int intValue = group.getInteger(fieldPosition, index);
+                if (OriginalType.DATE == originalType) {
+                    // 1970-01-01以来的天数，转为本地时区当天零点
+                    long utcMillis = intValue * MILLIS_PER_DAY;
+                    return new java.sql.Date(utcMillis - TimeZone.getDefault().getOffset(utcMillis));
+                } else if (OriginalType.DECIMAL == originalType) {
+                    return BigDecimal.valueOf(intValue, primitiveType.getDecimalMetadata().getScale());
+                }
+                return intValue;
+            case INT64:
+                long longValue = group.getLong(fieldPosition, index);
+                if (OriginalType.TIMESTAMP_MILLIS == originalType) {
+                    return new Timestamp(longValue);
+                } else if (OriginalType.TIMESTAMP_MICROS == originalType) {
+                    Timestamp timestamp = new Timestamp(Math.floorDiv(longValue, 1000000L) * 1000L);
+                    timestamp.setNanos((int) Math.floorMod(longValue, 1000000L) * 1000);
+                    return timestamp;
+                } else if (OriginalType.DECIMAL == originalType) {
+                    return BigDecimal.valueOf(longValue, primitiveType.getDecimalMetadata().getScale());
+                }
+                return longValue;
+            case FLOAT:
+                return group.getFloat(fieldPosition, index);
+            case DOUBLE:
+                return group.getDouble(fieldPosition, index);
+            case INT96:
+                return int96ToTimestamp(group.getInt96(fieldPosition, index));
+            case BINARY:
+            case FIXED_LEN_BYTE_ARRAY:
+                Binary binary = group.getBinary(fieldPosition, index);
+                if (OriginalType.DECIMAL == originalType) {
+                    return new BigDecimal(new BigInteger(binary.getBytes()),
+                            primitiveType.getDecimalMetadata().getScale());
+                }
+                return binary.toStringUsingUTF8();
+            default:
+                return group.getValueToString(fieldPosition, index);
+        }
+    }
+
+    /**
+     * Hive/Impala写入的INT96时间戳：前8字节为当天的纳秒数，后4字节为儒略日，均为小端序
+     */
+    private Timestamp int96ToTimestamp(Binary binary) {
+        ByteBuffer buffer = binary.toByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        long nanosOfDay = buffer.getLong();
+        int julianDay = buffer.getInt();
+        long millis = (julianDay - JULIAN_DAY_OF_EPOCH) * MILLIS_PER_DAY + nanosOfDay / 1000000L;
+        Timestamp timestamp = new Timestamp(millis);
+        timestamp.setNanos((int) (nanosOfDay % 1000000000L));
+        return timestamp;
+    }
+
     private Record transportOneRecord(List<ColumnEntry> columnConfigs, List<Object> recordFields
             , RecordSender recordSender, TaskPluginCollector taskPluginCollector, boolean isReadAllColumns, String nullFormat) {
         Record record = recordSender.createRecord();
@@ -380,7 +758,6 @@ public class DFSUtil {
                 }
             } else {
                 for (ColumnEntry columnConfig : columnConfigs) {
-                    String columnType = columnConfig.getType();
                     Integer columnIndex = columnConfig.getIndex();
                     String columnConst = columnConfig.getValue();
 
@@ -392,77 +769,11 @@ public class DFSUtil {
                     } else {
                         columnValue = columnConst;
                     }
-                    Type type = Type.valueOf(columnType.toUpperCase());
                     // it's all ok if nullFormat is null
                     if (StringUtils.equals(columnValue, nullFormat)) {
                         columnValue = null;
                     }
-                    switch (type) {
-                        case STRING:
-                            columnGenerated = new StringColumn(columnValue);
-                            break;
-                        case LONG:
-                            try {
-                                columnGenerated = new LongColumn(columnValue);
-                            } catch (Exception e) {
-                                throw new IllegalArgumentException(String.format(
-                                        "类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
-                                        "LONG"));
-                            }
-                            break;
-                        case DOUBLE:
-                            try {
-                                columnGenerated = new DoubleColumn(columnValue);
-                            } catch (Exception e) {
-                                throw new IllegalArgumentException(String.format(
-                                        "类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
-                                        "DOUBLE"));
-                            }
-                            break;
-                        case BOOLEAN:
-                            try {
-                                columnGenerated = new BoolColumn(columnValue);
-                            } catch (Exception e) {
-                                throw new IllegalArgumentException(String.format(
-                                        "类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
-                                        "BOOLEAN"));
-                            }
-
-                            break;
-                        case DATE:
-                            try {
-                                if (columnValue == null) {
-                                    columnGenerated = new DateColumn((Date) null);
-                                } else {
-                                    String formatString = columnConfig.getFormat();
-                                    if (StringUtils.isNotBlank(formatString)) {
-                                        // 用户自己配置的格式转换
-                                        SimpleDateFormat format = new SimpleDateFormat(
-                                                formatString);
-                                        columnGenerated = new DateColumn(
-                                                format.parse(columnValue));
-                                    } else {
-                                        // 框架尝试转换
-                                        columnGenerated = new DateColumn(
-                                                new StringColumn(columnValue)
-                                                        .asDate());
-                                    }
-                                }
-                            } catch (Exception e) {
-                                throw new IllegalArgumentException(String.format(
-                                        "类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
-                                        "DATE"));
-                            }
-                            break;
-                        default:
-                            String errorMessage = String.format(
-                                    "您配置的列类型暂不支持 : [%s]", columnType);
-                            LOG.error(errorMessage);
-                            throw DataXException
-                                    .asDataXException(
-                                            UnstructuredStorageReaderErrorCode.NOT_SUPPORT_TYPE,
-                                            errorMessage);
-                    }
+                    columnGenerated = convertColumn(columnConfig, columnValue);
 
                     record.addColumn(columnGenerated);
                 }
@@ -485,15 +796,77 @@ public class DFSUtil {
         return record;
     }
 
-    private int getAllColumnsCount(String filePath) {
-        Path path = new Path(filePath);
-        try {
-            Reader reader = OrcFile.createReader(path, OrcFile.readerOptions(hadoopConf));
-            return reader.getTypes().get(0).getSubtypesCount();
-        } catch (IOException e) {
-            String message = "读取orcfile column列数失败，请联系系统管理员";
-            throw DataXException.asDataXException(HdfsReaderErrorCode.READ_FILE_ERROR, message);
+    static Column convertColumn(ColumnEntry columnConfig, String columnValue) {
+        String columnType = columnConfig.getType();
+        Column columnGenerated;
+        Type type = Type.valueOf(columnType.toUpperCase());
+        switch (type) {
+            case STRING:
+                columnGenerated = new StringColumn(columnValue);
+                break;
+            case LONG:
+                try {
+                    columnGenerated = new LongColumn(columnValue);
+                } catch (Exception e) {
+                    throw new IllegalArgumentException(String.format(
+                            "类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
+                            "LONG"));
+                }
+                break;
+            case DOUBLE:
+                try {
+                    columnGenerated = new DoubleColumn(columnValue);
+                } catch (Exception e) {
+                    throw new IllegalArgumentException(String.format(
+                            "类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
+                            "DOUBLE"));
+                }
+                break;
+            case BOOLEAN:
+                try {
+                    columnGenerated = new BoolColumn(columnValue);
+                } catch (Exception e) {
+                    throw new IllegalArgumentException(String.format(
+                            "类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
+                            "BOOLEAN"));
+                }
+
+                break;
+            case DATE:
+                try {
+                    if (columnValue == null) {
+                        columnGenerated = new DateColumn((Date) null);
+                    } else {
+                        String formatString = columnConfig.getFormat();
+                        if (StringUtils.isNotBlank(formatString)) {
+                            // 用户自己配置的格式转换
+                            SimpleDateFormat format = new SimpleDateFormat(
+                                    formatString);
+                            columnGenerated = new DateColumn(
+                                    format.parse(columnValue));
+                        } else {
+                            // 框架尝试转换
+                            columnGenerated = new DateColumn(
+                                    new StringColumn(columnValue)
+                                            .asDate());
+                        }
+                    }
+                } catch (Exception e) {
+                    throw new IllegalArgumentException(String.format(
+                            "类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
+                            "DATE"));
+                }
+                break;
+            default:
+                String errorMessage = String.format(
+                        "您配置的列类型暂不支持 : [%s]", columnType);
+                LOG.error(errorMessage);
+                throw DataXException
+                        .asDataXException(
+                                UnstructuredStorageReaderErrorCode.NOT_SUPPORT_TYPE,
+                                errorMessage);
         }
+        return columnGenerated;
     }
 
     private int getMaxIndex(List<ColumnEntry> columnConfigs) {
@@ -539,8 +912,12 @@ public class DFSUtil {
                 if (isSEQ) {
                     return false;
                 }
-                // 如果不是ORC,RC和SEQ,则默认为是TEXT或CSV类型
-                return !isORC && !isRC && !isSEQ;
+                boolean isPARQUET = isParquetFile(file, fs, in);// 判断是否是 Parquet File
+                if (isPARQUET) {
+                    return false;
+                }
+                // 如果不是ORC,RC,SEQ和PARQUET,则默认为是TEXT或CSV类型
+                return !isORC && !isRC && !isSEQ && !isPARQUET;
 
             } else if (StringUtils.equalsIgnoreCase(specifiedFileType, Constant.ORC)) {
 
@@ -551,10 +928,13 @@ public class DFSUtil {
             } else if (StringUtils.equalsIgnoreCase(specifiedFileType, Constant.SEQ)) {
 
                 return isSequenceFile(filepath, in);
+            } else if (StringUtils.equalsIgnoreCase(specifiedFileType, Constant.PARQUET)) {
+
+                return isParquetFile(file, fs, in);
             }
 
         } catch (Exception e) {
-            String message = String.format("检查文件[%s]类型失败，目前支持ORC,SEQUENCE,RCFile,TEXT,CSV五种格式的文件," +
+            String message = String.format("检查文件[%s]类型失败，目前支持ORC,SEQUENCE,RCFile,TEXT,CSV,PARQUET六种格式的文件," +
                     "请检查您文件类型和文件是否正确。", filepath);
             LOG.error(message);
             throw DataXException.asDataXException(HdfsReaderErrorCode.READ_FILE_ERROR, message, e);
@@ -605,6 +985,28 @@ public class DFSUtil {
         return false;
     }
 
+    // 判断file是否是Parquet file，文件头和文件尾都是magic "PAR1"
+    private boolean isParquetFile(Path file, FileSystem fs, FSDataInputStream in) {
+        byte[] magic = ParquetFileWriter.MAGIC;
+        try {
+            long size = fs.getFileStatus(file).getLen();
+            // 文件头magic + footer长度(4字节) + 文件尾magic
+            if (size < magic.length * 2 + 4) {
+                return false;
+            }
+            byte[] header = new byte[magic.length];
+            in.seek(0);
+            in.readFully(header);
+            byte[] tail = new byte[magic.length];
+            in.seek(size - magic.length);
+            in.readFully(tail);
+            return Arrays.equals(header, magic) && Arrays.equals(tail, magic);
+        } catch (IOException e) {
+            LOG.info(String.format("检查文件类型: [%s] 不是Parquet File.", file.toString()));
+        }
+        return false;
+    }
+
     // 判断file是否是RC file
     private boolean isRCFile(String filepath, FSDataInputStream in) {
 
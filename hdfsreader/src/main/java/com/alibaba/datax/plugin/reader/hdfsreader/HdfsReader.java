@@ -13,8 +13,11 @@ import org.slf4j.LoggerFactory;
 import java.io.InputStream;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class HdfsReader extends Reader {
 
@@ -41,6 +44,7 @@ public class HdfsReader extends Reader {
         private String specifiedFileType = null;
         private DFSUtil dfsUtil = null;
         private List<String> path = null;
+        private ParquetFilter parquetFilter = null;
 
         @Override
         public void init() {
@@ -81,9 +85,10 @@ public class HdfsReader extends Reader {
                     !specifiedFileType.equalsIgnoreCase(Constant.TEXT) &&
                     !specifiedFileType.equalsIgnoreCase(Constant.CSV) &&
                     !specifiedFileType.equalsIgnoreCase(Constant.SEQ) &&
-                    !specifiedFileType.equalsIgnoreCase(Constant.RC)){
-                String message = "HdfsReader插件目前支持ORC, TEXT, CSV, SEQUENCE, RC五种格式的文件," +
-                        "请将fileType选项的值配置为ORC, TEXT, CSV, SEQUENCE 或者 RC";
+                    !specifiedFileType.equalsIgnoreCase(Constant.RC) &&
+                    !specifiedFileType.equalsIgnoreCase(Constant.PARQUET)){
+                String message = "HdfsReader插件目前支持ORC, TEXT, CSV, SEQUENCE, RC, PARQUET六种格式的文件," +
+                        "请将fileType选项的值配置为ORC, TEXT, CSV, SEQUENCE, RC 或者 PARQUET";
                 throw DataXException.asDataXException(HdfsReaderErrorCode.FILE_TYPE_ERROR, message);
             }
 
@@ -116,6 +121,16 @@ public class HdfsReader extends Reader {
                 UnstructuredStorageReaderUtil.validateCsvReaderConfig(this.readerOriginConfig);
             }
 
+            // where check, 只有parquet文件能够利用row group统计信息过滤
+            String where = this.readerOriginConfig.getString(Key.WHERE);
+            if (StringUtils.isNotBlank(where)) {
+                if (!this.specifiedFileType.equalsIgnoreCase(Constant.PARQUET)) {
+                    throw DataXException.asDataXException(HdfsReaderErrorCode.BAD_CONFIG_VALUE,
+                            String.format("where仅在fileType为PARQUET时支持, 您配置的fileType为[%s]", this.specifiedFileType));
+                }
+                this.parquetFilter = ParquetFilter.parse(where);
+            }
+
         }
 
         private void validateColumns(){
@@ -185,6 +200,11 @@ public class HdfsReader extends Reader {
                         String.format("未能找到待读取的文件,请确认您的配置项path: %s", this.readerOriginConfig.getString(Key.PATH)));
             }
 
+            if (this.specifiedFileType.equalsIgnoreCase(Constant.PARQUET)
+                    || this.specifiedFileType.equalsIgnoreCase(Constant.ORC)) {
+                return this.splitFileRanges(adviceNumber);
+            }
+
             List<List<String>> splitedSourceFiles = this.splitSourceFiles(new ArrayList<String>(this.sourceFiles), splitNumber);
             for (List<String> files : splitedSourceFiles) {
                 Configuration splitedConfig = this.readerOriginConfig.clone();
@@ -196,6 +216,74 @@ public class HdfsReader extends Reader {
         }
 
 
+        /**
+         * parquet文件按row group、orcfile按stripe切分，同一个文件中相邻的row group/stripe合并到一个slice中，
+         * 直到达到 总大小/adviceNumber，这样单个大文件也可以由多个channel并发读取。
+         * parquet配置了where时，统计信息表明不可能有满足条件的行的row group直接跳过
+         */
+        private List<Configuration> splitFileRanges(int adviceNumber) {
+            boolean isParquet = this.specifiedFileType.equalsIgnoreCase(Constant.PARQUET);
+            Map<String, List<long[]>> fileRanges = new LinkedHashMap<String, List<long[]>>();
+            long totalSize = 0;
+            for (String sourceFile : this.sourceFiles) {
+                List<long[]> ranges = isParquet ? dfsUtil.getParquetRowGroupRanges(sourceFile, this.parquetFilter)
+                        : dfsUtil.getOrcStripeRanges(sourceFile);
+                fileRanges.put(sourceFile, ranges);
+                for (long[] range : ranges) {
+                    totalSize += range[1] - range[0];
+                }
+            }
+            long splitSize = Math.max(1L, (totalSize + adviceNumber - 1) / Math.max(1, adviceNumber));
+
+            List<Configuration> readerSplitConfigs = new ArrayList<Configuration>();
+            for (Map.Entry<String, List<long[]>> entry : fileRanges.entrySet()) {
+                for (long[] range : mergeRanges(entry.getValue(), splitSize)) {
+                    readerSplitConfigs.add(this.buildRangeSplit(entry.getKey(), range[0], range[1]));
+                }
+            }
+
+            if (readerSplitConfigs.isEmpty()) {
+                // 所有文件都为空，或者所有row group都被where过滤掉了，保留一个不读取任何文件的slice
+                LOG.info(String.format("%s文件中没有需要读取的数据", this.specifiedFileType));
+                Configuration splitedConfig = this.readerOriginConfig.clone();
+                splitedConfig.set(Constant.SOURCE_FILES, new ArrayList<String>());
+                readerSplitConfigs.add(splitedConfig);
+            }
+            LOG.info(String.format("%s文件共切分为[%s]个slice", this.specifiedFileType, readerSplitConfigs.size()));
+            return readerSplitConfigs;
+        }
+
+        /**
+         * 把同一个文件中相邻的row group/stripe依次合并，合并后的范围达到splitSize时作为一个slice
+         */
+        static List<long[]> mergeRanges(List<long[]> ranges, long splitSize) {
+            List<long[]> mergedRanges = new ArrayList<long[]>();
+            long rangeStart = -1;
+            long rangeEnd = -1;
+            for (long[] range : ranges) {
+                if (rangeStart < 0) {
+                    rangeStart = range[0];
+                }
+                rangeEnd = range[1];
+                if (rangeEnd - rangeStart >= splitSize) {
+                    mergedRanges.add(new long[]{rangeStart, rangeEnd});
+                    rangeStart = -1;
+                }
+            }
+            if (rangeStart >= 0) {
+                mergedRanges.add(new long[]{rangeStart, rangeEnd});
+            }
+            return mergedRanges;
+        }
+
+        private Configuration buildRangeSplit(String sourceFile, long rangeStart, long rangeEnd) {
+            Configuration splitedConfig = this.readerOriginConfig.clone();
+            splitedConfig.set(Constant.SOURCE_FILES, Collections.singletonList(sourceFile));
+            splitedConfig.set(Constant.RANGE_START, rangeStart);
+            splitedConfig.set(Constant.RANGE_END, rangeEnd);
+            return splitedConfig;
+        }
+
         private <T> List<List<T>> splitSourceFiles(final List<T> sourceList, int adviceNumber) {
             List<List<T>> splitedList = new ArrayList<List<T>>();
             int averageLength = sourceList.size() / adviceNumber;
@@ -273,10 +361,13 @@ public class HdfsReader extends Reader {
                 }else if(specifiedFileType.equalsIgnoreCase(Constant.RC)){
 
                     dfsUtil.rcFileStartRead(sourceFile, this.taskConfig, recordSender, this.getTaskPluginCollector());
+                }else if(specifiedFileType.equalsIgnoreCase(Constant.PARQUET)){
+
+                    dfsUtil.parquetFileStartRead(sourceFile, this.taskConfig, recordSender, this.getTaskPluginCollector());
                 }else {
 
-                    String message = "HdfsReader插件目前支持ORC, TEXT, CSV, SEQUENCE, RC五种格式的文件," +
-                            "请将fileType选项的值配置为ORC, TEXT, CSV, SEQUENCE 或者 RC";
+                    String message = "HdfsReader插件目前支持ORC, TEXT, CSV, SEQUENCE, RC, PARQUET六种格式的文件," +
+                            "请将fileType选项的值配置为ORC, TEXT, CSV, SEQUENCE, RC 或者 PARQUET";
                     throw DataXException.asDataXException(HdfsReaderErrorCode.FILE_TYPE_UNSUPPORT, message);
                 }
 
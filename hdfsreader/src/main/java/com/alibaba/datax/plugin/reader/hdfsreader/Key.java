@@ -12,4 +12,6 @@ public final class Key {
     public static final String HAVE_KERBEROS = "haveKerberos";
     public static final String KERBEROS_KEYTAB_FILE_PATH = "kerberosKeytabFilePath";
     public static final String KERBEROS_PRINCIPAL = "kerberosPrincipal";
+    // 仅fileType为parquet时生效
+    public static final String WHERE = "where";
 }
@@ -0,0 +1,364 @@
+package com.alibaba.datax.plugin.reader.hdfsreader;
+
+import com.alibaba.datax.common.element.BoolColumn;
+import com.alibaba.datax.common.element.Column;
+import com.alibaba.datax.common.element.LongColumn;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.element.RecordBatch;
+import com.alibaba.datax.common.element.StringColumn;
+import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.common.plugin.RecordSender;
+import com.alibaba.datax.common.plugin.TaskPluginCollector;
+import com.alibaba.datax.plugin.unstructuredstorage.reader.ColumnEntry;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DecimalColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.io.orc.OrcProto;
+import org.apache.hadoop.hive.ql.io.orc.RecordReader;
+import org.apache.hadoop.hive.serde2.io.DateWritable;
+import org.apache.hadoop.hive.serde2.io.TimestampWritable;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 使用ORC的向量化接口(VectorizedRowBatch)读取orcfile，字段值直接从列向量转换为DataX的列，
+ * 不再经过OrcStruct/ObjectInspector为每个字段创建Hive对象再转为字符串。
+ * <p/>
+ * 所有输出列都能直接映射时(见directType)，每个VectorizedRowBatch整体转换为一个RecordBatch列式发送；
+ * 否则逐行生成Record。其余列先转换为与原来按行读取时相同的字符串，再经过DFSUtil.convertColumn，
+ * 因此结果与原来一致，转换失败的行作为脏数据。
+ * <p/>
+ * Hive 1.1的向量化读取不支持复杂类型(struct/map/list/union)和binary，包含这些列时由调用方按行读取。
+ */
+public class OrcVectorizedReader {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final FieldReader[] fieldReaders;
+
+    private final boolean batchMode;
+
+    /**
+     * @param types            orcfile的类型树，types.get(0)为顶层struct
+     * @param columnConfigs    用户配置的column
+     * @param isReadAllColumns column配置为"*"时按string读取前columnIndexMax + 1列
+     */
+    public OrcVectorizedReader(List<OrcProto.Type> types, List<ColumnEntry> columnConfigs,
+                               boolean isReadAllColumns, int columnIndexMax, String nullFormat) {
+        OrcProto.Type rootType = types.get(0);
+        if (isReadAllColumns) {
+            this.fieldReaders = new FieldReader[columnIndexMax + 1];
+            for (int i = 0; i <= columnIndexMax; i++) {
+                OrcProto.Type.Kind kind = types.get(rootType.getSubtypes(i)).getKind();
+                this.fieldReaders[i] = new FieldReader(null, i, kind, nullFormat);
+            }
+        } else {
+            this.fieldReaders = new FieldReader[columnConfigs.size()];
+            for (int i = 0; i < columnConfigs.size(); i++) {
+                ColumnEntry columnConfig = columnConfigs.get(i);
+                Integer columnIndex = columnConfig.getIndex();
+                OrcProto.Type.Kind kind = null == columnIndex ? null
+                        : types.get(rootType.getSubtypes(columnIndex)).getKind();
+                this.fieldReaders[i] = new FieldReader(columnConfig, null == columnIndex ? -1 : columnIndex,
+                        kind, nullFormat);
+            }
+        }
+        boolean allDirect = true;
+        for (FieldReader fieldReader : this.fieldReaders) {
+            allDirect &= null != fieldReader.directType;
+        }
+        this.batchMode = allDirect;
+    }
+
+    public static boolean isSupported(OrcProto.Type.Kind kind) {
+        switch (kind) {
+            case BOOLEAN:
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+            case STRING:
+            case VARCHAR:
+            case CHAR:
+            case DATE:
+            case TIMESTAMP:
+            case DECIMAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public boolean isBatchMode() {
+        return this.batchMode;
+    }
+
+    public void read(RecordReader rows, RecordSender recordSender,
+                     TaskPluginCollector taskPluginCollector) throws IOException {
+        VectorizedRowBatch batch = null;
+        while (rows.hasNext()) {
+            batch = rows.nextBatch(batch);
+            this.send(batch, recordSender, taskPluginCollector);
+        }
+    }
+
+    void send(VectorizedRowBatch batch, RecordSender recordSender, TaskPluginCollector taskPluginCollector) {
+        if (this.batchMode) {
+            this.sendBatch(batch, recordSender);
+        } else {
+            this.sendRows(batch, recordSender, taskPluginCollector);
+        }
+    }
+
+    private void sendBatch(VectorizedRowBatch batch, RecordSender recordSender) {
+        if (0 == batch.size) {
+            return;
+        }
+        com.alibaba.datax.common.element.ColumnVector[] vectors =
+                new com.alibaba.datax.common.element.ColumnVector[this.fieldReaders.length];
+        for (int i = 0; i < this.fieldReaders.length; i++) {
+            vectors[i] = this.fieldReaders[i].newVector(batch.size);
+        }
+        for (int r = 0; r < batch.size; r++) {
+            int row = batch.selectedInUse ? batch.selected[r] : r;
+            for (int i = 0; i < this.fieldReaders.length; i++) {
+                this.fieldReaders[i].append(batch, row, vectors[i]);
+            }
+        }
+        recordSender.sendBatchToWriter(new RecordBatch(vectors));
+    }
+
+    private void sendRows(VectorizedRowBatch batch, RecordSender recordSender,
+                          TaskPluginCollector taskPluginCollector) {
+        for (int r = 0; r < batch.size; r++) {
+            int row = batch.selectedInUse ? batch.selected[r] : r;
+            Record record = recordSender.createRecord();
+            try {
+                for (FieldReader fieldReader : this.fieldReaders) {
+                    record.addColumn(fieldReader.toColumn(batch, row));
+                }
+                recordSender.sendToWriter(record);
+            } catch (IllegalArgumentException iae) {
+                taskPluginCollector.collectDirtyRecord(record, iae.getMessage());
+            } catch (IndexOutOfBoundsException ioe) {
+                taskPluginCollector.collectDirtyRecord(record, ioe.getMessage());
+            } catch (Exception e) {
+                if (e instanceof DataXException) {
+                    throw (DataXException) e;
+                }
+                // 每一种转换失败都是脏数据处理,包括数字格式 & 日期格式
+                taskPluginCollector.collectDirtyRecord(record, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 一个输出列的读取方式：从第fieldIndex个列向量读取，或者为常量列(fieldIndex为-1)
+     */
+    private static class FieldReader {
+        // 为null表示column配置为"*"，按string读取
+        private final ColumnEntry columnConfig;
+        private final int fieldIndex;
+        private final OrcProto.Type.Kind kind;
+        private final String nullFormat;
+        private final byte[] nullFormatBytes;
+        private final boolean checkNullFormat;
+        // 不为null时可以不经过字符串直接转换为该类型，结果与按字符串转换相同，且不会转换失败
+        private final Column.Type directType;
+        private final Column constColumn;
+
+        FieldReader(ColumnEntry columnConfig, int fieldIndex, OrcProto.Type.Kind kind, String nullFormat) {
+            this.columnConfig = columnConfig;
+            this.fieldIndex = fieldIndex;
+            this.kind = kind;
+            this.nullFormat = nullFormat;
+            this.nullFormatBytes = null == nullFormat ? null : nullFormat.getBytes(UTF_8);
+            if (fieldIndex < 0) {
+                this.checkNullFormat = false;
+                Column column = null;
+                try {
+                    String value = columnConfig.getValue();
+                    // it's all ok if nullFormat is null
+                    column = DFSUtil.convertColumn(columnConfig, StringUtils.equals(value, nullFormat) ? null : value);
+                } catch (Exception e) {
+                    // 常量转换失败时每一行都是脏数据，交给逐行转换处理
+                }
+                this.constColumn = column;
+                // 与列向量一样只有string、long、bool可以列式发送，其余类型的常量逐行生成
+                Column.Type constType = null == column ? null : column.getType();
+                this.directType = Column.Type.STRING == constType || Column.Type.LONG == constType
+                        || Column.Type.BOOL == constType ? constType : null;
+            } else {
+                this.checkNullFormat = mayEqualNullFormat(kind, nullFormat);
+                this.constColumn = null;
+                this.directType = directType(kind, columnConfig);
+            }
+        }
+
+        /**
+         * 与按行读取相比结果不变的直接映射，其他组合仍然按字符串转换：
+         * double直接构造的DoubleColumn输出的字符串没有科学计数法，与原来Double.toString的结果不同；
+         * date按字符串转换时使用common.column.timeZone与秒级精度的datetimeFormat，与直接由天数、纳秒换算的结果不同。
+         */
+        private static Column.Type directType(OrcProto.Type.Kind kind, ColumnEntry columnConfig) {
+            if (null == columnConfig) {
+                return Column.Type.STRING;
+            }
+            String type = columnConfig.getType().toUpperCase();
+            if ("STRING".equals(type)) {
+                return Column.Type.STRING;
+            }
+            switch (kind) {
+                case BYTE:
+                case SHORT:
+                case INT:
+                case LONG:
+                    return "LONG".equals(type) ? Column.Type.LONG : null;
+                case BOOLEAN:
+                    return "BOOLEAN".equals(type) ? Column.Type.BOOL : null;
+                default:
+                    return null;
+            }
+        }
+
+        // 值的字符串形式不可能等于nullFormat时跳过比较，避免为每个值生成字符串
+        private static boolean mayEqualNullFormat(OrcProto.Type.Kind kind, String nullFormat) {
+            if (null == nullFormat) {
+                return false;
+            }
+            switch (kind) {
+                case BOOLEAN:
+                    return "true".equals(nullFormat) || "false".equals(nullFormat);
+                case BYTE:
+                case SHORT:
+                case INT:
+                case LONG:
+                    return nullFormat.matches("-?[0-9]+");
+                default:
+                    return true;
+            }
+        }
+
+        com.alibaba.datax.common.element.ColumnVector newVector(int capacity) {
+            switch (this.directType) {
+                case LONG:
+                case BOOL:
+                    return new com.alibaba.datax.common.element.LongColumnVector(this.directType, capacity);
+                default:
+                    return new com.alibaba.datax.common.element.BytesColumnVector(this.directType, capacity);
+            }
+        }
+
+        void append(VectorizedRowBatch batch, int row, com.alibaba.datax.common.element.ColumnVector target) {
+            if (this.fieldIndex < 0) {
+                target.appendColumn(this.constColumn);
+                return;
+            }
+            ColumnVector vector = batch.cols[this.fieldIndex];
+            int index = vector.isRepeating ? 0 : row;
+            if (this.isNull(vector, index)) {
+                target.appendNull();
+                return;
+            }
+            switch (this.directType) {
+                case LONG:
+                case BOOL:
+                    ((com.alibaba.datax.common.element.LongColumnVector) target)
+                            .appendLong(((LongColumnVector) vector).vector[index]);
+                    break;
+                default:
+                    com.alibaba.datax.common.element.BytesColumnVector bytesTarget =
+                            (com.alibaba.datax.common.element.BytesColumnVector) target;
+                    if (vector instanceof BytesColumnVector) {
+                        BytesColumnVector bytes = (BytesColumnVector) vector;
+                        bytesTarget.appendBytes(bytes.vector[index], bytes.start[index], bytes.length[index]);
+                    } else {
+                        bytesTarget.appendString(this.valueToString(vector, index));
+                    }
+                    break;
+            }
+        }
+
+        Column toColumn(VectorizedRowBatch batch, int row) {
+            if (this.fieldIndex < 0) {
+                String value = this.columnConfig.getValue();
+                return DFSUtil.convertColumn(this.columnConfig, StringUtils.equals(value, this.nullFormat) ? null : value);
+            }
+            ColumnVector vector = batch.cols[this.fieldIndex];
+            int index = vector.isRepeating ? 0 : row;
+            if (this.isNull(vector, index)) {
+                return null == this.columnConfig ? new StringColumn(null)
+                        : DFSUtil.convertColumn(this.columnConfig, null);
+            }
+            if (null == this.directType) {
+                return DFSUtil.convertColumn(this.columnConfig, this.valueToString(vector, index));
+            }
+            switch (this.directType) {
+                case LONG:
+                    return new LongColumn(((LongColumnVector) vector).vector[index]);
+                case BOOL:
+                    return new BoolColumn(((LongColumnVector) vector).vector[index] != 0);
+                default:
+                    return new StringColumn(this.valueToString(vector, index));
+            }
+        }
+
+        // 空值以及等于nullFormat的值都作为null
+        private boolean isNull(ColumnVector vector, int index) {
+            if (!vector.noNulls && vector.isNull[index]) {
+                return true;
+            }
+            if (!this.checkNullFormat) {
+                return false;
+            }
+            if (vector instanceof BytesColumnVector) {
+                BytesColumnVector bytes = (BytesColumnVector) vector;
+                return bytes.length[index] == this.nullFormatBytes.length
+                        && Arrays.equals(this.nullFormatBytes, Arrays.copyOfRange(bytes.vector[index],
+                        bytes.start[index], bytes.start[index] + bytes.length[index]));
+            }
+            return this.nullFormat.equals(this.valueToString(vector, index));
+        }
+
+        /**
+         * 与按行读取时Hive Writable的toString结果一致
+         */
+        private String valueToString(ColumnVector vector, int index) {
+            switch (this.kind) {
+                case BOOLEAN:
+                    return ((LongColumnVector) vector).vector[index] != 0 ? "true" : "false";
+                case BYTE:
+                case SHORT:
+                case INT:
+                case LONG:
+                    return Long.toString(((LongColumnVector) vector).vector[index]);
+                case FLOAT:
+                    return Float.toString((float) ((DoubleColumnVector) vector).vector[index]);
+                case DOUBLE:
+                    return Double.toString(((DoubleColumnVector) vector).vector[index]);
+                case DATE:
+                    return new DateWritable((int) ((LongColumnVector) vector).vector[index]).toString();
+                case TIMESTAMP:
+                    long nanos = ((LongColumnVector) vector).vector[index];
+                    Timestamp timestamp = new Timestamp(Math.floorDiv(nanos, 1000000000L) * 1000L);
+                    timestamp.setNanos((int) Math.floorMod(nanos, 1000000000L));
+                    return new TimestampWritable(timestamp).toString();
+                case DECIMAL:
+                    return ((DecimalColumnVector) vector).vector[index].toString();
+                default:
+                    BytesColumnVector bytes = (BytesColumnVector) vector;
+                    return new String(bytes.vector[index], bytes.start[index], bytes.length[index], UTF_8);
+            }
+        }
+    }
+}
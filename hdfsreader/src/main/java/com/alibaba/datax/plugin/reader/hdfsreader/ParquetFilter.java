@@ -0,0 +1,391 @@
+package com.alibaba.datax.plugin.reader.hdfsreader;
+
+import com.alibaba.datax.common.exception.DataXException;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * parquet 文件的 where 过滤条件，只支持用 AND 连接的简单比较，例如：
+ * <pre>
+ * dt = '2015-08-20' and id >= 100 and name is not null
+ * </pre>
+ * 比较符支持 =、!=、&lt;&gt;、&gt;、&gt;=、&lt;、&lt;=、is null、is not null，
+ * 列名为 parquet schema 中顶层的非重复基本类型字段名，字符串常量用单引号括起来('' 表示一个单引号)。
+ * <p/>
+ * 条件会转换为 parquet 的 FilterPredicate：切分时据此用 row group 的统计信息(min/max/null count)跳过
+ * 整个 row group，读取时再逐行过滤，最终只有满足条件的行会被发送给 writer。
+ * <p/>
+ * 与 SQL 一致，NULL 不满足除 is null 以外的任何条件，!= 也不例外。
+ * INT32/INT64 存放的 DECIMAL 按 unscaled 整数比较，常量先乘以 10^scale；FIXED_LEN_BYTE_ARRAY/BINARY 存放的 DECIMAL 不支持过滤。
+ */
+public class ParquetFilter {
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    // DECIMAL 常量的小数位数超过 scale 时 = 与 != 的结果：恒不成立、对所有非 NULL 值成立
+    private static final String NEVER = "never";
+
+    private static final String NOT_NULL = "not null";
+
+    private final String where;
+
+    private final List<Condition> conditions;
+
+    private ParquetFilter(String where, List<Condition> conditions) {
+        this.where = where;
+        this.conditions = conditions;
+    }
+
+    public static ParquetFilter parse(String where) {
+        List<Token> tokens = tokenize(where);
+        List<Condition> conditions = new ArrayList<Condition>();
+        int i = 0;
+        while (i < tokens.size()) {
+            if (!conditions.isEmpty()) {
+                if (!tokens.get(i).isKeyword("AND")) {
+                    throw illegalWhere(where, String.format("条件之间只支持 AND 连接, 不支持 [%s]", tokens.get(i).text));
+                }
+                i++;
+            }
+            Token column = tokenAt(tokens, i++, where);
+            if (Token.IDENT != column.kind) {
+                throw illegalWhere(where, String.format("[%s] 不是合法的列名", column.text));
+            }
+            Token operator = tokenAt(tokens, i++, where);
+            if (operator.isKeyword("IS")) {
+                Token next = tokenAt(tokens, i++, where);
+                boolean not = next.isKeyword("NOT");
+                if (not) {
+                    next = tokenAt(tokens, i++, where);
+                }
+                if (!next.isKeyword("NULL")) {
+                    throw illegalWhere(where, String.format("IS 之后只能是 NULL 或者 NOT NULL, 不支持 [%s]", next.text));
+                }
+                conditions.add(new Condition(column.text, not ? "!=" : "=", null, false));
+                continue;
+            }
+            if (Token.OPERATOR != operator.kind) {
+                throw illegalWhere(where, String.format("[%s] 不是支持的比较符", operator.text));
+            }
+            Token value = tokenAt(tokens, i++, where);
+            if (Token.OPERATOR == value.kind || (Token.IDENT == value.kind
+                    && !value.isKeyword("TRUE") && !value.isKeyword("FALSE"))) {
+                throw illegalWhere(where, String.format("[%s] 不是合法的常量, 字符串请用单引号括起来", value.text));
+            }
+            String op = "<>".equals(operator.text) ? "!=" : operator.text;
+            conditions.add(new Condition(column.text, op, value.text, Token.STRING == value.kind));
+        }
+        if (conditions.isEmpty()) {
+            throw illegalWhere(where, "没有任何过滤条件");
+        }
+        return new ParquetFilter(where, conditions);
+    }
+
+    /**
+     * 过滤条件中引用到的列名，读取时需要把这些列一并投影出来
+     */
+    public Set<String> getColumnNames() {
+        Set<String> names = new LinkedHashSet<String>();
+        for (Condition condition : this.conditions) {
+            names.add(condition.column);
+        }
+        return names;
+    }
+
+    /**
+     * 按文件的 schema 确定每个条件中常量的类型，生成 parquet 的过滤谓词
+     */
+    public FilterPredicate toPredicate(MessageType schema) {
+        FilterPredicate predicate = null;
+        for (Condition condition : this.conditions) {
+            FilterPredicate each = this.toPredicate(condition, schema);
+            predicate = null == predicate ? each : FilterApi.and(predicate, each);
+        }
+        return predicate;
+    }
+
+    private FilterPredicate toPredicate(Condition condition, MessageType schema) {
+        if (!schema.containsField(condition.column)) {
+            throw illegalWhere(this.where, String.format("列 [%s] 在文件的schema中不存在, schema: %s",
+                    condition.column, schema));
+        }
+        Type type = schema.getType(condition.column);
+        if (!type.isPrimitive() || type.isRepetition(Type.Repetition.REPEATED)) {
+            throw illegalWhere(this.where, String.format("列 [%s] 不是基本类型, 不支持过滤", condition.column));
+        }
+        PrimitiveType primitiveType = type.asPrimitiveType();
+        OriginalType originalType = primitiveType.getOriginalType();
+        String name = condition.column;
+        String literal = condition.literal;
+        try {
+            if (OriginalType.DECIMAL == originalType && null != literal) {
+                int scale = primitiveType.getDecimalMetadata().getScale();
+                switch (primitiveType.getPrimitiveTypeName()) {
+                    case INT32:
+                        DecimalLiteral intDecimal = DecimalLiteral.of(condition.operator, literal, scale);
+                        return decimal(FilterApi.intColumn(name), intDecimal.operator,
+                                null == intDecimal.unscaled ? null : intDecimal.unscaled.intValueExact());
+                    case INT64:
+                        DecimalLiteral longDecimal = DecimalLiteral.of(condition.operator, literal, scale);
+                        return decimal(FilterApi.longColumn(name), longDecimal.operator,
+                                null == longDecimal.unscaled ? null : longDecimal.unscaled.longValueExact());
+                    default:
+                        throw illegalWhere(this.where, String.format("列 [%s] 为 %s 存放的 DECIMAL, 暂不支持过滤",
+                                name, primitiveType.getPrimitiveTypeName()));
+                }
+            }
+            switch (primitiveType.getPrimitiveTypeName()) {
+                case INT32:
+                    Integer intValue = null;
+                    if (null != literal) {
+                        intValue = OriginalType.DATE == originalType && condition.quoted
+                                ? parseEpochDay(literal) : Integer.valueOf(literal);
+                    }
+                    return compare(FilterApi.intColumn(name), condition.operator, intValue);
+                case INT64:
+                    return compare(FilterApi.longColumn(name), condition.operator,
+                            null == literal ? null : Long.valueOf(literal));
+                case FLOAT:
+                    return compare(FilterApi.floatColumn(name), condition.operator,
+                            null == literal ? null : Float.valueOf(literal));
+                case DOUBLE:
+                    return compare(FilterApi.doubleColumn(name), condition.operator,
+                            null == literal ? null : Double.valueOf(literal));
+                case BOOLEAN:
+                    Boolean boolValue = null;
+                    if (null != literal) {
+                        if (!"true".equalsIgnoreCase(literal) && !"false".equalsIgnoreCase(literal)) {
+                            throw new IllegalArgumentException(String.format("[%s] 不是布尔值", literal));
+                        }
+                        boolValue = Boolean.valueOf(literal);
+                    }
+                    return equality(FilterApi.booleanColumn(name), condition.operator, boolValue);
+                case BINARY:
+                    if (null == originalType || OriginalType.UTF8 == originalType
+                            || OriginalType.ENUM == originalType || OriginalType.JSON == originalType) {
+                        return compare(FilterApi.binaryColumn(name), condition.operator,
+                                null == literal ? null : Binary.fromString(literal));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (DataXException e) {
+            throw e;
+        } catch (Exception e) {
+            throw illegalWhere(this.where, String.format("列 [%s] 的条件 [%s %s %s] 与列的类型 [%s] 不匹配: %s",
+                    name, name, condition.operator, literal, primitiveType, e.getMessage()));
+        }
+        throw illegalWhere(this.where, String.format("列 [%s] 的类型 [%s] 暂不支持过滤", name, primitiveType));
+    }
+
+    private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt>
+    FilterPredicate compare(C column, String operator, T value) {
+        if ("=".equals(operator) || "!=".equals(operator)) {
+            return equality(column, operator, value);
+        }
+        if (null == value) {
+            throw new IllegalArgumentException("NULL 只能用 is null 或者 is not null 比较");
+        }
+        if (">".equals(operator)) {
+            return FilterApi.gt(column, value);
+        } else if (">=".equals(operator)) {
+            return FilterApi.gtEq(column, value);
+        } else if ("<".equals(operator)) {
+            return FilterApi.lt(column, value);
+        } else {
+            return FilterApi.ltEq(column, value);
+        }
+    }
+
+    private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt>
+    FilterPredicate decimal(C column, String operator, T value) {
+        if (NEVER.equals(operator)) {
+            // 同时为 NULL 与非 NULL，任何行都不满足
+            return FilterApi.and(FilterApi.eq(column, null), FilterApi.notEq(column, null));
+        } else if (NOT_NULL.equals(operator)) {
+            return FilterApi.notEq(column, null);
+        }
+        return compare(column, operator, value);
+    }
+
+    private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsEqNotEq>
+    FilterPredicate equality(C column, String operator, T value) {
+        if ("=".equals(operator)) {
+            return FilterApi.eq(column, value);
+        } else if ("!=".equals(operator)) {
+            // parquet 的 notEq 对 NULL 也成立，与 SQL 不同，需要另外排除 NULL
+            return null == value ? FilterApi.notEq(column, null)
+                    : FilterApi.and(FilterApi.notEq(column, value), FilterApi.notEq(column, null));
+        }
+        throw new IllegalArgumentException(String.format("该类型只支持 = 和 != 比较, 不支持 [%s]", operator));
+    }
+
+    // parquet 的 DATE 以 1970-01-01 以来的天数存放
+    private static int parseEpochDay(String date) throws ParseException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        format.setLenient(false);
+        return (int) Math.floor((double) format.parse(date).getTime() / MILLIS_PER_DAY);
+    }
+
+    private static List<Token> tokenize(String where) {
+        List<Token> tokens = new ArrayList<Token>();
+        int length = where.length();
+        int i = 0;
+        while (i < length) {
+            char c = where.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if ('\'' == c) {
+                StringBuilder value = new StringBuilder();
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        throw illegalWhere(where, "字符串常量缺少结尾的单引号");
+                    }
+                    char ch = where.charAt(i++);
+                    if ('\'' == ch) {
+                        if (i < length && '\'' == where.charAt(i)) {
+                            value.append('\'');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        value.append(ch);
+                    }
+                }
+                tokens.add(new Token(Token.STRING, value.toString()));
+            } else if ('`' == c) {
+                int end = where.indexOf('`', i + 1);
+                if (end < 0) {
+                    throw illegalWhere(where, "列名缺少结尾的反引号");
+                }
+                tokens.add(new Token(Token.IDENT, where.substring(i + 1, end)));
+                i = end + 1;
+            } else if ('=' == c || '!' == c || '<' == c || '>' == c) {
+                int start = i++;
+                if (i < length && ('=' == where.charAt(i) || ('<' == c && '>' == where.charAt(i)))) {
+                    i++;
+                }
+                String operator = where.substring(start, i);
+                if ("!".equals(operator)) {
+                    throw illegalWhere(where, "不支持的比较符 [!]");
+                }
+                tokens.add(new Token(Token.OPERATOR, operator));
+            } else if (Character.isDigit(c) || '-' == c || '+' == c || '.' == c) {
+                int start = i++;
+                while (i < length && (Character.isLetterOrDigit(where.charAt(i)) || '.' == where.charAt(i)
+                        || (('-' == where.charAt(i) || '+' == where.charAt(i))
+                        && ('e' == where.charAt(i - 1) || 'E' == where.charAt(i - 1))))) {
+                    i++;
+                }
+                tokens.add(new Token(Token.NUMBER, where.substring(start, i)));
+            } else if (Character.isLetter(c) || '_' == c) {
+                int start = i++;
+                while (i < length && (Character.isLetterOrDigit(where.charAt(i))
+                        || '_' == where.charAt(i) || '.' == where.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(Token.IDENT, where.substring(start, i)));
+            } else {
+                throw illegalWhere(where, String.format("无法识别的字符 [%s]", c));
+            }
+        }
+        return tokens;
+    }
+
+    private static Token tokenAt(List<Token> tokens, int index, String where) {
+        if (index >= tokens.size()) {
+            throw illegalWhere(where, "条件不完整");
+        }
+        return tokens.get(index);
+    }
+
+    private static DataXException illegalWhere(String where, String reason) {
+        return DataXException.asDataXException(HdfsReaderErrorCode.BAD_CONFIG_VALUE,
+                String.format("您配置的where条件[%s]有误: %s", where, reason));
+    }
+
+    /**
+     * DECIMAL 常量转换为 unscaled 整数后的比较：小数位数超过 scale 时，范围比较按取整后的边界改写，
+     * 如 scale 为 2 时 x &gt; 1.005 即 unscaled &gt; 100，x &lt; 1.005 即 unscaled &lt;= 100
+     */
+    private static class DecimalLiteral {
+        private final String operator;
+        private final BigDecimal unscaled;
+
+        private DecimalLiteral(String operator, BigDecimal unscaled) {
+            this.operator = operator;
+            this.unscaled = unscaled;
+        }
+
+        static DecimalLiteral of(String operator, String literal, int scale) {
+            BigDecimal unscaled = new BigDecimal(literal).movePointRight(scale);
+            BigDecimal floor = unscaled.setScale(0, RoundingMode.FLOOR);
+            if (0 == floor.compareTo(unscaled)) {
+                return new DecimalLiteral(operator, floor);
+            }
+            if ("=".equals(operator)) {
+                return new DecimalLiteral(NEVER, null);
+            } else if ("!=".equals(operator)) {
+                return new DecimalLiteral(NOT_NULL, null);
+            } else if (">".equals(operator) || ">=".equals(operator)) {
+                return new DecimalLiteral(">", floor);
+            } else {
+                return new DecimalLiteral("<=", floor);
+            }
+        }
+    }
+
+    private static class Condition {
+        private final String column;
+        private final String operator;
+        // 为 null 表示与 NULL 比较
+        private final String literal;
+        private final boolean quoted;
+
+        Condition(String column, String operator, String literal, boolean quoted) {
+            this.column = column;
+            this.operator = operator;
+            this.literal = literal;
+            this.quoted = quoted;
+        }
+    }
+
+    private static class Token {
+        static final int IDENT = 0;
+        static final int OPERATOR = 1;
+        static final int STRING = 2;
+        static final int NUMBER = 3;
+
+        private final int kind;
+        private final String text;
+
+        Token(int kind, String text) {
+            this.kind = kind;
+            this.text = text;
+        }
+
+        boolean isKeyword(String keyword) {
+            return IDENT == this.kind && keyword.equalsIgnoreCase(this.text);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.alibaba.datax.plugin.reader.hdfsreader;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HdfsReaderSplitTest {
+
+    private static List<long[]> ranges(long... bounds) {
+        List<long[]> ranges = new ArrayList<long[]>();
+        for (int i = 0; i + 1 < bounds.length; i++) {
+            ranges.add(new long[]{bounds[i], bounds[i + 1]});
+        }
+        return ranges;
+    }
+
+    @Test
+    public void testAdjacentStripesAreMergedUntilSplitSize() {
+        // 4个100字节的stripe，splitSize为200时两两合并
+        List<long[]> merged = HdfsReader.Job.mergeRanges(ranges(3, 103, 203, 303, 403), 200);
+        assertEquals(2, merged.size());
+        assertArrayEquals(new long[]{3, 203}, merged.get(0));
+        assertArrayEquals(new long[]{203, 403}, merged.get(1));
+    }
+
+    @Test
+    public void testRemainderBecomesLastRange() {
+        List<long[]> merged = HdfsReader.Job.mergeRanges(ranges(0, 100, 200, 300), 200);
+        assertEquals(2, merged.size());
+        assertArrayEquals(new long[]{0, 200}, merged.get(0));
+        assertArrayEquals(new long[]{200, 300}, merged.get(1));
+    }
+
+    @Test
+    public void testStripeLargerThanSplitSizeIsNotCut() {
+        List<long[]> merged = HdfsReader.Job.mergeRanges(ranges(0, 1000, 1050), 100);
+        assertEquals(2, merged.size());
+        assertArrayEquals(new long[]{0, 1000}, merged.get(0));
+        assertArrayEquals(new long[]{1000, 1050}, merged.get(1));
+    }
+
+    @Test
+    public void testSkippedRowGroupsLeaveGap() {
+        // where过滤掉中间的row group后，合并的范围跨过空洞，空洞中没有需要读取的row group
+        List<long[]> merged = HdfsReader.Job.mergeRanges(
+                Arrays.asList(new long[]{0, 100}, new long[]{300, 400}), 1000);
+        assertEquals(1, merged.size());
+        assertArrayEquals(new long[]{0, 400}, merged.get(0));
+    }
+
+    @Test
+    public void testEmptyFileHasNoRange() {
+        assertTrue(HdfsReader.Job.mergeRanges(new ArrayList<long[]>(), 100).isEmpty());
+    }
+}
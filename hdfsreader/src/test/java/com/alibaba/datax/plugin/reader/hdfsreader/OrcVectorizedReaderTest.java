@@ -0,0 +1,267 @@
+package com.alibaba.datax.plugin.reader.hdfsreader;
+
+import com.alibaba.datax.common.element.Column;
+import com.alibaba.datax.common.element.ColumnCast;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.plugin.RecordSender;
+import com.alibaba.datax.common.plugin.TaskPluginCollector;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.plugin.unstructuredstorage.reader.ColumnEntry;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.io.orc.OrcProto;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OrcVectorizedReaderTest {
+
+    private TimeZone defaultTimeZone;
+
+    @Before
+    public void setUp() {
+        // Hive Writable的toString使用JVM时区，固定为与common.column.timeZone默认值相同的GMT+8
+        this.defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("GMT+8"));
+        ColumnCast.bind(Configuration.newDefault());
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(this.defaultTimeZone);
+    }
+
+    private static List<OrcProto.Type> types(OrcProto.Type.Kind... kinds) {
+        OrcProto.Type.Builder root = OrcProto.Type.newBuilder().setKind(OrcProto.Type.Kind.STRUCT);
+        List<OrcProto.Type> types = new ArrayList<OrcProto.Type>();
+        types.add(null);
+        for (int i = 0; i < kinds.length; i++) {
+            root.addSubtypes(i + 1);
+            types.add(OrcProto.Type.newBuilder().setKind(kinds[i]).build());
+        }
+        types.set(0, root.build());
+        return types;
+    }
+
+    private static ColumnEntry column(Integer index, String type, String value) {
+        ColumnEntry columnEntry = new ColumnEntry();
+        columnEntry.setIndex(index);
+        columnEntry.setType(type);
+        columnEntry.setValue(value);
+        return columnEntry;
+    }
+
+    private static VectorizedRowBatch batch(ColumnVector... vectors) {
+        VectorizedRowBatch batch = new VectorizedRowBatch(vectors.length, vectors[0].isNull.length);
+        batch.cols = vectors;
+        batch.size = vectors[0].isNull.length;
+        return batch;
+    }
+
+    private static LongColumnVector longs(long... values) {
+        LongColumnVector vector = new LongColumnVector(values.length);
+        System.arraycopy(values, 0, vector.vector, 0, values.length);
+        return vector;
+    }
+
+    private static BytesColumnVector strings(String... values) {
+        BytesColumnVector vector = new BytesColumnVector(values.length);
+        vector.initBuffer();
+        for (int i = 0; i < values.length; i++) {
+            if (null == values[i]) {
+                vector.noNulls = false;
+                vector.isNull[i] = true;
+            } else {
+                byte[] bytes = values[i].getBytes();
+                vector.setVal(i, bytes, 0, bytes.length);
+            }
+        }
+        return vector;
+    }
+
+    private static CollectingSender read(OrcVectorizedReader reader, VectorizedRowBatch batch,
+                                         CollectingCollector collector) {
+        CollectingSender sender = new CollectingSender();
+        reader.send(batch, sender, collector);
+        return sender;
+    }
+
+    @Test
+    public void testLongBoolStringAreSentAsBatch() {
+        OrcVectorizedReader reader = new OrcVectorizedReader(
+                types(OrcProto.Type.Kind.INT, OrcProto.Type.Kind.BOOLEAN, OrcProto.Type.Kind.STRING),
+                Arrays.asList(column(0, "long", null), column(1, "boolean", null), column(2, "string", null),
+                        column(null, "long", "7")),
+                false, 2, "\\N");
+        assertTrue(reader.isBatchMode());
+
+        LongColumnVector ids = longs(1, 2);
+        ids.noNulls = false;
+        ids.isNull[1] = true;
+        CollectingCollector collector = new CollectingCollector();
+        CollectingSender sender = read(reader, batch(ids, longs(1, 0), strings("a", "\\N")), collector);
+
+        assertEquals(2, sender.rows.size());
+        assertEquals(Long.valueOf(1), sender.rows.get(0).get(0).asLong());
+        assertEquals(Boolean.TRUE, sender.rows.get(0).get(1).asBoolean());
+        assertEquals("a", sender.rows.get(0).get(2).asString());
+        assertEquals(Long.valueOf(7), sender.rows.get(0).get(3).asLong());
+        assertNull(sender.rows.get(1).get(0).getRawData());
+        assertEquals(Boolean.FALSE, sender.rows.get(1).get(1).asBoolean());
+        // 等于nullFormat的字符串作为null
+        assertNull(sender.rows.get(1).get(2).getRawData());
+        assertTrue(collector.dirtyRecords.isEmpty());
+    }
+
+    @Test
+    public void testDateKeepsStringCastResult() {
+        OrcVectorizedReader reader = new OrcVectorizedReader(types(OrcProto.Type.Kind.DATE),
+                Arrays.asList(column(0, "date", null)), false, 0, null);
+        assertFalse(reader.isBatchMode());
+
+        // 2015-08-20为1970-01-01之后的第16667天，按字符串"2015-08-20"以GMT+8解析
+        CollectingSender sender = read(reader, batch(longs(16667)), new CollectingCollector());
+        assertEquals(1440000000000L, sender.rows.get(0).get(0).asDate().getTime());
+    }
+
+    @Test
+    public void testTimestampKeepsSecondPrecision() {
+        OrcVectorizedReader reader = new OrcVectorizedReader(types(OrcProto.Type.Kind.TIMESTAMP),
+                Arrays.asList(column(0, "date", null)), false, 0, null);
+        assertFalse(reader.isBatchMode());
+
+        // 2015-08-20 12:34:56.789 GMT+8，datetimeFormat只到秒，毫秒部分与原来一样被丢弃
+        long nanos = 1440045296789L * 1000000L;
+        CollectingSender sender = read(reader, batch(longs(nanos)), new CollectingCollector());
+        assertEquals(1440045296000L, sender.rows.get(0).get(0).asDate().getTime());
+    }
+
+    @Test
+    public void testDoubleKeepsDoubleToString() {
+        OrcVectorizedReader reader = new OrcVectorizedReader(types(OrcProto.Type.Kind.DOUBLE),
+                Arrays.asList(column(0, "double", null)), false, 0, null);
+        assertFalse(reader.isBatchMode());
+
+        DoubleColumnVector vector = new DoubleColumnVector(2);
+        vector.vector[0] = 1.0E10;
+        vector.vector[1] = 0.5;
+        CollectingSender sender = read(reader, batch(vector), new CollectingCollector());
+        assertEquals("1.0E10", sender.rows.get(0).get(0).asString());
+        assertEquals("0.5", sender.rows.get(1).get(0).asString());
+    }
+
+    @Test
+    public void testReadAllColumnsAsString() {
+        OrcVectorizedReader reader = new OrcVectorizedReader(
+                types(OrcProto.Type.Kind.LONG, OrcProto.Type.Kind.BOOLEAN), null, true, 1, null);
+        assertTrue(reader.isBatchMode());
+
+        CollectingSender sender = read(reader, batch(longs(-3), longs(1)), new CollectingCollector());
+        assertEquals(Column.Type.STRING, sender.rows.get(0).get(0).getType());
+        assertEquals("-3", sender.rows.get(0).get(0).asString());
+        assertEquals("true", sender.rows.get(0).get(1).asString());
+    }
+
+    @Test
+    public void testConvertFailureIsDirtyRecord() {
+        OrcVectorizedReader reader = new OrcVectorizedReader(types(OrcProto.Type.Kind.STRING),
+                Arrays.asList(column(0, "long", null)), false, 0, null);
+        assertFalse(reader.isBatchMode());
+
+        CollectingCollector collector = new CollectingCollector();
+        CollectingSender sender = read(reader, batch(strings("12", "abc")), collector);
+        assertEquals(1, sender.rows.size());
+        assertEquals(Long.valueOf(12), sender.rows.get(0).get(0).asLong());
+        assertEquals(1, collector.dirtyRecords.size());
+    }
+
+    private static class CollectingSender implements RecordSender {
+        private final List<List<Column>> rows = new ArrayList<List<Column>>();
+
+        @Override
+        public Record createRecord() {
+            return new ListRecord();
+        }
+
+        @Override
+        public void sendToWriter(Record record) {
+            List<Column> row = new ArrayList<Column>();
+            for (int i = 0; i < record.getColumnNumber(); i++) {
+                row.add(record.getColumn(i));
+            }
+            this.rows.add(row);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void terminate() {
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+
+    private static class CollectingCollector extends TaskPluginCollector {
+        private final List<Record> dirtyRecords = new ArrayList<Record>();
+
+        @Override
+        public void collectDirtyRecord(Record dirtyRecord, Throwable t, String errorMessage) {
+            this.dirtyRecords.add(dirtyRecord);
+        }
+
+        @Override
+        public void collectMessage(String key, String value) {
+        }
+    }
+
+    private static class ListRecord implements Record {
+        private final List<Column> columns = new ArrayList<Column>();
+
+        @Override
+        public void addColumn(Column column) {
+            this.columns.add(column);
+        }
+
+        @Override
+        public void setColumn(int i, Column column) {
+            this.columns.set(i, column);
+        }
+
+        @Override
+        public Column getColumn(int i) {
+            return this.columns.get(i);
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return this.columns.size();
+        }
+
+        @Override
+        public int getByteSize() {
+            return 0;
+        }
+
+        @Override
+        public int getMemorySize() {
+            return 0;
+        }
+    }
+}
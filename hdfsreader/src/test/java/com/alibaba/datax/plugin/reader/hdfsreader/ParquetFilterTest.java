@@ -0,0 +1,101 @@
+package com.alibaba.datax.plugin.reader.hdfsreader;
+
+import com.alibaba.datax.common.exception.DataXException;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ParquetFilterTest {
+
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+            "message test {\n"
+                    + "  optional int32 id;\n"
+                    + "  optional binary name (UTF8);\n"
+                    + "  optional int32 dt (DATE);\n"
+                    + "  optional int32 small_price (DECIMAL(9,2));\n"
+                    + "  optional int64 price (DECIMAL(18,2));\n"
+                    + "  optional fixed_len_byte_array(16) big_price (DECIMAL(38,2));\n"
+                    + "}");
+
+    private static final Operators.IntColumn ID = FilterApi.intColumn("id");
+
+    private static final Operators.IntColumn SMALL_PRICE = FilterApi.intColumn("small_price");
+
+    private static final Operators.LongColumn PRICE = FilterApi.longColumn("price");
+
+    @Test
+    public void testSimpleConditions() {
+        assertEquals(FilterApi.and(FilterApi.gtEq(ID, 100), FilterApi.eq(FilterApi.binaryColumn("name"),
+                        Binary.fromString("datax"))),
+                ParquetFilter.parse("id >= 100 and name = 'datax'").toPredicate(SCHEMA));
+        // 1970-01-11 为第 10 天
+        assertEquals(FilterApi.lt(FilterApi.intColumn("dt"), 10),
+                ParquetFilter.parse("dt < '1970-01-11'").toPredicate(SCHEMA));
+    }
+
+    @Test
+    public void testNotEqualExcludesNull() {
+        assertEquals(FilterApi.and(FilterApi.notEq(ID, 1), FilterApi.notEq(ID, null)),
+                ParquetFilter.parse("id != 1").toPredicate(SCHEMA));
+        assertEquals(FilterApi.and(FilterApi.notEq(ID, 1), FilterApi.notEq(ID, null)),
+                ParquetFilter.parse("id <> 1").toPredicate(SCHEMA));
+        // is not null 本身就只排除 NULL
+        assertEquals(FilterApi.notEq(ID, null), ParquetFilter.parse("id is not null").toPredicate(SCHEMA));
+        assertEquals(FilterApi.eq(ID, null), ParquetFilter.parse("id is null").toPredicate(SCHEMA));
+    }
+
+    @Test
+    public void testDecimalLiteralIsScaled() {
+        // DECIMAL(18,2) 中 12.5 的 unscaled 值为 1250
+        assertEquals(FilterApi.eq(PRICE, 1250L), ParquetFilter.parse("price = 12.5").toPredicate(SCHEMA));
+        assertEquals(FilterApi.gtEq(PRICE, 1200L), ParquetFilter.parse("price >= 12").toPredicate(SCHEMA));
+        assertEquals(FilterApi.lt(SMALL_PRICE, -5), ParquetFilter.parse("small_price < -0.05").toPredicate(SCHEMA));
+        assertEquals(FilterApi.and(FilterApi.notEq(PRICE, 1250L), FilterApi.notEq(PRICE, null)),
+                ParquetFilter.parse("price != 12.50").toPredicate(SCHEMA));
+    }
+
+    @Test
+    public void testDecimalLiteralWithMoreDigitsThanScale() {
+        // 1.005 落在 100 与 101 之间
+        assertEquals(FilterApi.gt(PRICE, 100L), ParquetFilter.parse("price > 1.005").toPredicate(SCHEMA));
+        assertEquals(FilterApi.gt(PRICE, 100L), ParquetFilter.parse("price >= 1.005").toPredicate(SCHEMA));
+        assertEquals(FilterApi.ltEq(PRICE, 100L), ParquetFilter.parse("price < 1.005").toPredicate(SCHEMA));
+        assertEquals(FilterApi.ltEq(PRICE, 100L), ParquetFilter.parse("price <= 1.005").toPredicate(SCHEMA));
+        // 负数向下取整：-1.005 落在 -101 与 -100 之间
+        assertEquals(FilterApi.gt(SMALL_PRICE, -101), ParquetFilter.parse("small_price > -1.005").toPredicate(SCHEMA));
+        // 没有值等于 1.005，!= 对所有非 NULL 值成立
+        assertEquals(FilterApi.and(FilterApi.eq(PRICE, null), FilterApi.notEq(PRICE, null)),
+                ParquetFilter.parse("price = 1.005").toPredicate(SCHEMA));
+        assertEquals(FilterApi.notEq(PRICE, null), ParquetFilter.parse("price != 1.005").toPredicate(SCHEMA));
+    }
+
+    @Test
+    public void testDecimalIsNull() {
+        assertEquals(FilterApi.eq(PRICE, null), ParquetFilter.parse("price is null").toPredicate(SCHEMA));
+    }
+
+    @Test
+    public void testFixedLenDecimalIsRejected() {
+        assertIllegal("big_price > 1");
+    }
+
+    @Test
+    public void testDecimalOutOfRangeIsRejected() {
+        assertIllegal("small_price > 100000000");
+    }
+
+    private static void assertIllegal(String where) {
+        try {
+            ParquetFilter.parse(where).toPredicate(SCHEMA);
+            fail("expected DataXException for " + where);
+        } catch (DataXException e) {
+            assertEquals(HdfsReaderErrorCode.BAD_CONFIG_VALUE, e.getErrorCode());
+        }
+    }
+}
@@ -4,6 +4,8 @@ public class Constant {
 
 	public static final String DEFAULT_ENCODING = "UTF-8";
 	public static final String DEFAULT_NULL_FORMAT = "\\N";
+	public static final int DEFAULT_ROW_GROUP_SIZE = 128 * 1024 * 1024;
+	public static final int DEFAULT_PAGE_SIZE = 1024 * 1024;
 
 	/**
 	 * author:Tsd
@@ -22,10 +22,23 @@ import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.mapred.*;
 import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Types;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.text.SimpleDateFormat;
 import java.util.*;
 
@@ -37,6 +50,9 @@ public  class HdfsHelper {
     public org.apache.hadoop.conf.Configuration hadoopConf = null;
     public static final String HADOOP_SECURITY_AUTHENTICATION_KEY = "hadoop.security.authentication";
     public static final String HDFS_DEFAULTFS_KEY = "fs.defaultFS";
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    // 1970-01-01对应的儒略日
+    private static final long JULIAN_DAY_OF_EPOCH = 2440588L;
     // Kerberos
     private Boolean haveKerberos = false;
     private String  kerberosKeytabFilePath;
@@ -438,6 +454,173 @@ public  class HdfsHelper {
         }
     }
 
+    /**
+     * 写parquet类型文件
+     * @param lineReceiver
+     * @param config
+     * @param fileName
+     * @param taskPluginCollector
+     */
+    public void parquetFileStartWrite(RecordReceiver lineReceiver, Configuration config, String fileName,
+                                      TaskPluginCollector taskPluginCollector){
+        List<Configuration>  columns = config.getListConfiguration(Key.COLUMN);
+        String compress = config.getString(Key.COMPRESS, "NONE");
+        int rowGroupSize = config.getInt(Key.ROW_GROUP_SIZE, Constant.DEFAULT_ROW_GROUP_SIZE);
+        int pageSize = config.getInt(Key.PAGE_SIZE, Constant.DEFAULT_PAGE_SIZE);
+        MessageType schema = getParquetSchema(columns);
+        SimpleGroupFactory groupFactory = new SimpleGroupFactory(schema);
+
+        ParquetWriter<Group> writer = null;
+        try {
+            writer = ExampleParquetWriter.builder(new Path(fileName))
+                    .withConf(conf)
+                    .withType(schema)
+                    .withCompressionCodec(getParquetCompressionCodec(compress))
+                    .withRowGroupSize(rowGroupSize)
+                    .withPageSize(pageSize)
+                    .withWriteMode(ParquetFileWriter.Mode.CREATE)
+                    .build();
+            Record record = null;
+            while ((record = lineReceiver.getFromReader()) != null) {
+                MutablePair<List<Object>, Boolean> transportResult =  transportOneRecord(record,columns,taskPluginCollector);
+                if (!transportResult.getRight()) {
+                    writer.write(toParquetGroup(groupFactory.newGroup(), transportResult.getLeft()));
+                }
+            }
+            writer.close();
+        } catch (Exception e) {
+            String message = String.format("写文件文件[%s]时发生IO异常,请检查您的网络是否正常！", fileName);
+            LOG.error(message);
+            if (null != writer) {
+                try {
+                    writer.close();
+                } catch (Exception ignored) {
+                    // 文件所在的临时目录随后会被删除
+                }
+            }
+            Path path = new Path(fileName);
+            deleteDir(path.getParent());
+            throw DataXException.asDataXException(HdfsWriterErrorCode.Write_FILE_IO_ERROR, e);
+        }
+    }
+
+    public CompressionCodecName getParquetCompressionCodec(String compress){
+        if(null == compress || "NONE".equalsIgnoreCase(compress)){
+            return CompressionCodecName.UNCOMPRESSED;
+        }else if("SNAPPY".equalsIgnoreCase(compress)){
+            return CompressionCodecName.SNAPPY;
+        }else if("GZIP".equalsIgnoreCase(compress)){
+            return CompressionCodecName.GZIP;
+        }else if("ZSTD".equalsIgnoreCase(compress)){
+            return CompressionCodecName.ZSTD;
+        }
+        throw DataXException.asDataXException(HdfsWriterErrorCode.ILLEGAL_VALUE,
+                String.format("目前不支持您配置的 compress 模式 : [%s]", compress));
+    }
+
+    /**
+     * 根据writer配置的字段类型，构建parquet schema，类型与Hive读取parquet时的映射一致，
+     * 其中TIMESTAMP使用Hive默认的INT96存储
+     * @param columns
+     * @return
+     */
+    public MessageType getParquetSchema(List<Configuration> columns){
+        Types.MessageTypeBuilder builder = Types.buildMessage();
+        for (Configuration eachColumnConf : columns) {
+            String name = eachColumnConf.getString(Key.NAME);
+            SupportHiveDataType columnType = SupportHiveDataType.valueOf(eachColumnConf.getString(Key.TYPE).toUpperCase());
+            switch (columnType) {
+                case TINYINT:
+                    builder.optional(PrimitiveType.PrimitiveTypeName.INT32).as(OriginalType.INT_8).named(name);
+                    break;
+                case SMALLINT:
+                    builder.optional(PrimitiveType.PrimitiveTypeName.INT32).as(OriginalType.INT_16).named(name);
+                    break;
+                case INT:
+                    builder.optional(PrimitiveType.PrimitiveTypeName.INT32).named(name);
+                    break;
+                case BIGINT:
+                    builder.optional(PrimitiveType.PrimitiveTypeName.INT64).named(name);
+                    break;
+                case FLOAT:
+                    builder.optional(PrimitiveType.PrimitiveTypeName.FLOAT).named(name);
+                    break;
+                case DOUBLE:
+                    builder.optional(PrimitiveType.PrimitiveTypeName.DOUBLE).named(name);
+                    break;
+                case TIMESTAMP:
+                    builder.optional(PrimitiveType.PrimitiveTypeName.INT96).named(name);
+                    break;
+                case DATE:
+                    builder.optional(PrimitiveType.PrimitiveTypeName.INT32).as(OriginalType.DATE).named(name);
+                    break;
+                case STRING:
+                case VARCHAR:
+                case CHAR:
+                    builder.optional(PrimitiveType.PrimitiveTypeName.BINARY).as(OriginalType.UTF8).named(name);
+                    break;
+                case BOOLEAN:
+                    builder.optional(PrimitiveType.PrimitiveTypeName.BOOLEAN).named(name);
+                    break;
+                default:
+                    throw DataXException
+                            .asDataXException(
+                                    HdfsWriterErrorCode.ILLEGAL_VALUE,
+                                    String.format(
+                                            "您的配置文件中的列配置信息有误. 因为DataX 不支持数据库写入这种字段类型. 字段名:[%s], 字段类型:[%s]. 请修改表中该字段的类型或者不同步该字段.",
+                                            name,
+                                            eachColumnConf.getString(Key.TYPE)));
+            }
+        }
+        return builder.named("hive_schema");
+    }
+
+    /**
+     * 将transportOneRecord转换后的值填入parquet的group，null值不写入(optional字段)
+     */
+    private Group toParquetGroup(Group group, List<Object> values){
+        int fieldCount = Math.min(values.size(), group.getType().getFieldCount());
+        for (int i = 0; i < fieldCount; i++) {
+            Object value = values.get(i);
+            if (null == value) {
+                continue;
+            }
+            if (value instanceof Byte || value instanceof Short || value instanceof Integer) {
+                group.add(i, ((Number) value).intValue());
+            } else if (value instanceof Long) {
+                group.add(i, (Long) value);
+            } else if (value instanceof Float) {
+                group.add(i, (Float) value);
+            } else if (value instanceof Double) {
+                group.add(i, (Double) value);
+            } else if (value instanceof Boolean) {
+                group.add(i, (Boolean) value);
+            } else if (value instanceof java.sql.Timestamp) {
+                group.add(i, toInt96((java.sql.Timestamp) value));
+            } else if (value instanceof java.sql.Date) {
+                // 本地时区的日期转为1970-01-01以来的天数
+                long millis = ((java.sql.Date) value).getTime();
+                group.add(i, (int) Math.floorDiv(millis + TimeZone.getDefault().getOffset(millis), MILLIS_PER_DAY));
+            } else {
+                group.add(i, value.toString());
+            }
+        }
+        return group;
+    }
+
+    /**
+     * Hive的INT96时间戳：前8字节为当天的纳秒数，后4字节为儒略日，均为小端序
+     */
+    private Binary toInt96(java.sql.Timestamp timestamp){
+        long millis = timestamp.getTime();
+        long julianDay = Math.floorDiv(millis, MILLIS_PER_DAY) + JULIAN_DAY_OF_EPOCH;
+        long nanosOfDay = Math.floorMod(millis, MILLIS_PER_DAY) / 1000 * 1000000000L + timestamp.getNanos();
+        ByteBuffer buffer = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(nanosOfDay);
+        buffer.putInt((int) julianDay);
+        return Binary.fromConstantByteArray(buffer.array());
+    }
+
     public List<String> getColumnNames(List<Configuration> columns){
         List<String> columnNames = Lists.newArrayList();
         for (Configuration eachColumnConf : columns) {
@@ -64,8 +64,9 @@ public class HdfsWriter extends Writer {
             this.defaultFS = this.writerSliceConfig.getNecessaryValue(Key.DEFAULT_FS, HdfsWriterErrorCode.REQUIRED_VALUE);
             //fileType check
             this.fileType = this.writerSliceConfig.getNecessaryValue(Key.FILE_TYPE, HdfsWriterErrorCode.REQUIRED_VALUE);
-            if( !fileType.equalsIgnoreCase("ORC") && !fileType.equalsIgnoreCase("TEXT")){
-                String message = "HdfsWriter插件目前只支持ORC和TEXT两种格式的文件,请将filetype选项的值配置为ORC或者TEXT";
+            if( !fileType.equalsIgnoreCase("ORC") && !fileType.equalsIgnoreCase("TEXT")
+                    && !fileType.equalsIgnoreCase("PARQUET")){
+                String message = "HdfsWriter插件目前只支持ORC、TEXT和PARQUET三种格式的文件,请将filetype选项的值配置为ORC、TEXT或者PARQUET";
                 throw DataXException.asDataXException(HdfsWriterErrorCode.ILLEGAL_VALUE, message);
             }
             //path
@@ -139,6 +140,29 @@ public class HdfsWriter extends Writer {
                     }
                 }
 
+            }else if(fileType.equalsIgnoreCase("PARQUET")){
+                Set<String> parquetSupportedCompress = Sets.newHashSet("NONE", "SNAPPY", "GZIP", "ZSTD");
+                if(StringUtils.isBlank(compress)){
+                    this.writerSliceConfig.set(Key.COMPRESS, "NONE");
+                }else {
+                    compress = compress.toUpperCase().trim();
+                    if(!parquetSupportedCompress.contains(compress)){
+                        throw DataXException.asDataXException(HdfsWriterErrorCode.ILLEGAL_VALUE,
+                                String.format("目前PARQUET FILE仅支持SNAPPY、GZIP、ZSTD压缩, 不支持您配置的 compress 模式 : [%s]",
+                                        compress));
+                    }
+                    this.writerSliceConfig.set(Key.COMPRESS, compress);
+                }
+                //rowGroupSize && pageSize check
+                int rowGroupSize = this.writerSliceConfig.getInt(Key.ROW_GROUP_SIZE,
+                        com.alibaba.datax.plugin.writer.hdfswriter.Constant.DEFAULT_ROW_GROUP_SIZE);
+                int pageSize = this.writerSliceConfig.getInt(Key.PAGE_SIZE,
+                        com.alibaba.datax.plugin.writer.hdfswriter.Constant.DEFAULT_PAGE_SIZE);
+                if(rowGroupSize <= 0 || pageSize <= 0 || pageSize > rowGroupSize){
+                    throw DataXException.asDataXException(HdfsWriterErrorCode.ILLEGAL_VALUE,
+                            String.format("rowGroupSize和pageSize必须大于0且pageSize不能大于rowGroupSize, 您配置的rowGroupSize为[%s], pageSize为[%s]",
+                                    rowGroupSize, pageSize));
+                }
             }
             //Kerberos check
             Boolean haveKerberos = this.writerSliceConfig.getBool(Key.HAVE_KERBEROS, false);
@@ -476,6 +500,10 @@ public class HdfsWriter extends Writer {
                 //写ORC FILE
                 hdfsHelper.orcFileStartWrite(lineReceiver,this.writerSliceConfig, this.fileName,
                         this.getTaskPluginCollector());
+            }else if(fileType.equalsIgnoreCase("PARQUET")){
+                //写PARQUET FILE
+                hdfsHelper.parquetFileStartWrite(lineReceiver,this.writerSliceConfig, this.fileName,
+                        this.getTaskPluginCollector());
             }
 
             LOG.info("end do write");
@@ -29,6 +29,10 @@ public class Key {
     public static final String COMPRESS = "compress";
     // not must, not default \N
     public static final String NULL_FORMAT = "nullFormat";
+    // parquet, not must, default 128MB
+    public static final String ROW_GROUP_SIZE = "rowGroupSize";
+    // parquet, not must, default 1MB
+    public static final String PAGE_SIZE = "pageSize";
     // Kerberos
     public static final String HAVE_KERBEROS = "haveKerberos";
     public static final String KERBEROS_KEYTAB_FILE_PATH = "kerberosKeytabFilePath";
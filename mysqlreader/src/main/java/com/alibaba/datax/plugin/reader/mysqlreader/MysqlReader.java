@@ -1,10 +1,13 @@
 package com.alibaba.datax.plugin.reader.mysqlreader;
 
+import com.alibaba.datax.common.exception.DataXException;
 import com.alibaba.datax.common.plugin.RecordSender;
 import com.alibaba.datax.common.spi.Reader;
 import com.alibaba.datax.common.util.Configuration;
 import com.alibaba.datax.plugin.rdbms.reader.CommonRdbmsReader;
 import com.alibaba.datax.plugin.rdbms.reader.Constant;
+import com.alibaba.datax.plugin.rdbms.reader.Key;
+import com.alibaba.datax.plugin.rdbms.util.DBUtilErrorCode;
 import com.alibaba.datax.plugin.rdbms.util.DataBaseType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,12 +30,25 @@ public class MysqlReader extends Reader {
             this.originalConfig = super.getPluginJobConf();
 
             Integer userConfigedFetchSize = this.originalConfig.getInt(Constant.FETCH_SIZE);
-            if (userConfigedFetchSize != null) {
-                LOG.warn("对 mysqlreader 不需要配置 fetchSize, mysqlreader 将会忽略这项配置. 如果您不想再看到此警告,请去除fetchSize 配置.");
+            if (this.originalConfig.getBool(Key.USE_CURSOR_FETCH, false)) {
+                // 服务端游标按 fetchSize 分批读取，fetchSize 可以配合 adaptiveFetchSize 动态调整
+                int fetchSize = userConfigedFetchSize == null ? Constant.DEFAULT_CURSOR_FETCH_SIZE : userConfigedFetchSize;
+                if (fetchSize < 1) {
+                    throw DataXException.asDataXException(DBUtilErrorCode.REQUIRED_VALUE,
+                            String.format("您配置的fetchSize有误，根据DataX的设计，开启 useCursorFetch 时 fetchSize : [%d] 设置值不能小于 1.", fetchSize));
+                }
+                this.originalConfig.set(Constant.FETCH_SIZE, fetchSize);
+            } else {
+                if (userConfigedFetchSize != null) {
+                    LOG.warn("对 mysqlreader 不需要配置 fetchSize, mysqlreader 将会忽略这项配置. 如果您不想再看到此警告,请去除fetchSize 配置.");
+                }
+                if (this.originalConfig.getBool(Key.ADAPTIVE_FETCH_SIZE, false)) {
+                    LOG.warn("mysqlreader 逐行流式读取时无法调整 fetchSize, adaptiveFetchSize 需要同时开启 useCursorFetch.");
+                }
+
+                this.originalConfig.set(Constant.FETCH_SIZE, Integer.MIN_VALUE);
             }
 
-            this.originalConfig.set(Constant.FETCH_SIZE, Integer.MIN_VALUE);
-
             this.commonRdbmsReaderJob = new CommonRdbmsReader.Job(DATABASE_TYPE);
             this.commonRdbmsReaderJob.init(this.originalConfig);
         }
@@ -51,7 +67,7 @@ public class MysqlReader extends Reader {
 
         @Override
         public void post() {
-            this.commonRdbmsReaderJob.post(this.originalConfig);
+            this.commonRdbmsReaderJob.post(this.originalConfig, super.getJobPluginCollector());
         }
 
         @Override
@@ -78,6 +94,7 @@ public class MysqlReader extends Reader {
         public void startRead(RecordSender recordSender) {
             int fetchSize = this.readerSliceConfig.getInt(Constant.FETCH_SIZE);
 
+            this.commonRdbmsReaderTask.setTaskCheckpoint(super.getTaskCheckpoint());
             this.commonRdbmsReaderTask.startRead(this.readerSliceConfig, recordSender,
                     super.getTaskPluginCollector(), fetchSize);
         }
@@ -55,7 +55,7 @@ public class OceanBaseReader extends Reader {
 
         @Override
         public void post() {
-            this.readerJob.post(this.originalConfig);
+            this.readerJob.post(this.originalConfig, super.getJobPluginCollector());
         }
 
         @Override
@@ -120,6 +120,7 @@ public class OceanBaseV10Writer extends Writer {
 			if (tableNumber == 1) {
 				return this.commonJob.split(this.originalConfig, mandatoryNumber);
 			}
+			this.commonJob.setConnectionPoolMarks(this.originalConfig, mandatoryNumber);
 			Configuration simplifiedConf = this.originalConfig;
 
 			List<Configuration> splitResultConfigs = new ArrayList<Configuration>();
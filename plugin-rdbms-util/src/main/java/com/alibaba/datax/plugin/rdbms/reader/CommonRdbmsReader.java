@@ -1,18 +1,18 @@
 package com.alibaba.datax.plugin.rdbms.reader;
 
-import com.alibaba.datax.common.element.BoolColumn;
-import com.alibaba.datax.common.element.BytesColumn;
-import com.alibaba.datax.common.element.DateColumn;
-import com.alibaba.datax.common.element.DoubleColumn;
-import com.alibaba.datax.common.element.LongColumn;
 import com.alibaba.datax.common.element.Record;
-import com.alibaba.datax.common.element.StringColumn;
+import com.alibaba.datax.common.element.RecordBatch;
 import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.common.plugin.JobPluginCollector;
 import com.alibaba.datax.common.plugin.RecordSender;
+import com.alibaba.datax.common.plugin.TaskCheckpoint;
 import com.alibaba.datax.common.plugin.TaskPluginCollector;
 import com.alibaba.datax.common.statistics.PerfRecord;
 import com.alibaba.datax.common.statistics.PerfTrace;
 import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.plugin.rdbms.reader.util.ColumnExtractor;
+import com.alibaba.datax.plugin.rdbms.reader.util.FetchSizeTuner;
+import com.alibaba.datax.plugin.rdbms.reader.util.IncrementalWatermark;
 import com.alibaba.datax.plugin.rdbms.reader.util.OriginalConfPretreatmentUtil;
 import com.alibaba.datax.plugin.rdbms.reader.util.PreCheckTask;
 import com.alibaba.datax.plugin.rdbms.reader.util.ReaderSplitUtil;
@@ -21,6 +21,9 @@ import com.alibaba.datax.plugin.rdbms.util.DBUtil;
 import com.alibaba.datax.plugin.rdbms.util.DBUtilErrorCode;
 import com.alibaba.datax.plugin.rdbms.util.DataBaseType;
 import com.alibaba.datax.plugin.rdbms.util.RdbmsException;
+import com.alibaba.datax.plugin.rdbms.util.RdbmsRangeSplitWrap;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
 import com.google.common.collect.Lists;
 
 import org.apache.commons.lang3.StringUtils;
@@ -30,10 +33,13 @@ import org.slf4j.LoggerFactory;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -45,7 +51,12 @@ public class CommonRdbmsReader {
         private static final Logger LOG = LoggerFactory
                 .getLogger(Job.class);
 
+        private final DataBaseType dataBaseType;
+
+        private IncrementalWatermark incrementalWatermark;
+
         public Job(DataBaseType dataBaseType) {
+            this.dataBaseType = dataBaseType;
             OriginalConfPretreatmentUtil.DATABASE_TYPE = dataBaseType;
             SingleTableSplitUtil.DATABASE_TYPE = dataBaseType;
         }
@@ -53,6 +64,7 @@ public class CommonRdbmsReader {
         public void init(Configuration originalConfig) {
 
             OriginalConfPretreatmentUtil.doPretreatment(originalConfig);
+            this.incrementalWatermark = IncrementalWatermark.load(originalConfig, this.dataBaseType);
 
             LOG.debug("After job init(), job config now is:[\n{}\n]",
                     originalConfig.toJSON());
@@ -100,11 +112,56 @@ public class CommonRdbmsReader {
 
         public List<Configuration> split(Configuration originalConfig,
                                          int adviceNumber) {
-            return ReaderSplitUtil.doSplit(originalConfig, adviceNumber);
+            return ReaderSplitUtil.doSplit(originalConfig, adviceNumber, this.incrementalWatermark);
         }
 
         public void post(Configuration originalConfig) {
-            // do nothing
+            // 只有作业成功才会执行 post，此时保存本次增量读取到的高水位
+            if (null != this.incrementalWatermark) {
+                this.incrementalWatermark.commit();
+            }
+        }
+
+        /**
+         * 按表汇总各个 task 汇报的读取统计信息并打印
+         */
+        public void post(Configuration originalConfig, JobPluginCollector jobPluginCollector) {
+            this.post(originalConfig);
+            if (null == jobPluginCollector) {
+                return;
+            }
+            List<String> messages = jobPluginCollector.getMessage(Constant.TABLE_STATISTICS_MARK);
+            if (null == messages || messages.isEmpty()) {
+                return;
+            }
+
+            // table -> tasks, records, bytes, fetchNanos, sendNanos, maxFetchSize
+            Map<String, long[]> tableStatistics = new LinkedHashMap<String, long[]>();
+            for (String message : messages) {
+                JSONObject statistics = JSON.parseObject(message);
+                String table = statistics.getString("table");
+                long[] total = tableStatistics.get(table);
+                if (null == total) {
+                    total = new long[6];
+                    tableStatistics.put(table, total);
+                }
+                total[0]++;
+                total[1] += statistics.getLongValue("records");
+                total[2] += statistics.getLongValue("bytes");
+                total[3] += statistics.getLongValue("fetchNanos");
+                total[4] += statistics.getLongValue("sendNanos");
+                total[5] = Math.max(total[5], statistics.getLongValue("maxFetchSize"));
+            }
+
+            StringBuilder summary = new StringBuilder();
+            for (Map.Entry<String, long[]> entry : tableStatistics.entrySet()) {
+                long[] total = entry.getValue();
+                summary.append(String.format(
+                        "\n%-30s tasks:%d, records:%d, avgRowBytes:%d, maxFetchSize:%d, fetchTime:%.3fs, sendTime:%.3fs",
+                        entry.getKey(), total[0], total[1], total[1] == 0 ? 0 : total[2] / total[1],
+                        total[5], total[3] / 1e9, total[4] / 1e9));
+            }
+            LOG.info("reader table statistics:{}", summary);
         }
 
         public void destroy(Configuration originalConfig) {
@@ -127,6 +184,13 @@ public class CommonRdbmsReader {
         private String password;
         private String jdbcUrl;
         private String mandatoryEncoding;
+        private boolean adaptiveFetchSize;
+        private long fetchBufferSize;
+
+        private ResultSetMetaData extractorMetaData;
+        private ColumnExtractor[] columnExtractors;
+
+        private TaskCheckpoint taskCheckpoint;
 
         // 作为日志显示信息时，需要附带的通用信息。比如信息所对应的数据库连接等信息，针对哪个表做的操作
         private String basicMsg;
@@ -165,16 +229,44 @@ public class CommonRdbmsReader {
 
             this.mandatoryEncoding = readerSliceConfig.getString(Key.MANDATORY_ENCODING, "");
 
+            this.adaptiveFetchSize = readerSliceConfig.getBool(Key.ADAPTIVE_FETCH_SIZE, false);
+            this.fetchBufferSize = readerSliceConfig.getLong(Key.FETCH_BUFFER_SIZE, Constant.DEFAULT_FETCH_BUFFER_SIZE);
+            if (this.dataBaseType == DataBaseType.MySql && readerSliceConfig.getBool(Key.USE_CURSOR_FETCH, false)
+                    && !this.jdbcUrl.contains("useCursorFetch")) {
+                this.jdbcUrl = this.jdbcUrl + (this.jdbcUrl.contains("?") ? "&" : "?") + "useCursorFetch=true";
+            }
+
             basicMsg = String.format("jdbcUrl:[%s]", this.jdbcUrl);
 
         }
 
+        /**
+         * 由插件在 startRead 前设置，为 null 时不支持断点续读
+         */
+        public void setTaskCheckpoint(TaskCheckpoint taskCheckpoint) {
+            this.taskCheckpoint = taskCheckpoint;
+        }
+
         public void startRead(Configuration readerSliceConfig,
                               RecordSender recordSender,
                               TaskPluginCollector taskPluginCollector, int fetchSize) {
             String querySql = readerSliceConfig.getString(Key.QUERY_SQL);
             String table = readerSliceConfig.getString(Key.TABLE);
 
+            // 断点续读：排序列追加在查询字段的最后，按该列排序读取，重试时从 writer 已确认提交的位置继续
+            String resumeKey = readerSliceConfig.getString(Constant.RESUME_KEY, null);
+            boolean resumable = null != resumeKey && null != this.taskCheckpoint;
+            if (resumable) {
+                String position = this.taskCheckpoint.getCommittedPosition();
+                if (null != position) {
+                    querySql = String.format("%s AND %s >= %s", querySql, resumeKey, position);
+                    LOG.info("Resume reading from {} >= {}. {}", resumeKey, position, basicMsg);
+                }
+                // NULL 排在最前，断点位置之前的数据都已读取过
+                querySql = String.format("%s ORDER BY %s%s", querySql, resumeKey,
+                        this.dataBaseType == DataBaseType.PostgreSQL ? " NULLS FIRST" : "");
+            }
+
             PerfTrace.getInstance().addTaskDetails(taskId, table + "," + basicMsg);
 
             LOG.info("Begin to read record by Sql: [{}\n] {}.",
@@ -197,21 +289,50 @@ public class CommonRdbmsReader {
 
                 ResultSetMetaData metaData = rs.getMetaData();
                 columnNumber = metaData.getColumnCount();
+                ResumeMarker resumeMarker = null;
+                if (null != resumeKey) {
+                    if (resumable) {
+                        resumeMarker = ResumeMarker.create(this.taskCheckpoint, metaData, columnNumber,
+                                this.dataBaseType);
+                    }
+                    columnNumber--;
+                }
 
                 //这个统计干净的result_Next时间
                 PerfRecord allResultPerfRecord = new PerfRecord(taskGroupId, taskId, PerfRecord.PHASE.RESULT_NEXT_ALL);
                 allResultPerfRecord.start();
 
+                FetchSizeTuner fetchSizeTuner = new FetchSizeTuner(this.adaptiveFetchSize, fetchSize,
+                        this.fetchBufferSize);
+                MeasuredRecordSender measuredRecordSender = new MeasuredRecordSender(recordSender);
+
                 long rsNextUsedTime = 0;
                 long lastTime = System.nanoTime();
                 while (rs.next()) {
-                    rsNextUsedTime += (System.nanoTime() - lastTime);
-                    this.transportOneRecord(recordSender, rs,
+                    long fetchNanos = System.nanoTime() - lastTime;
+                    rsNextUsedTime += fetchNanos;
+                    measuredRecordSender.reset();
+                    if (null != resumeMarker) {
+                        resumeMarker.beforeSend(rs);
+                    }
+                    this.transportOneRecord(measuredRecordSender, rs,
                             metaData, columnNumber, mandatoryEncoding, taskPluginCollector);
+                    if (fetchSizeTuner.record(measuredRecordSender.memorySize, fetchNanos,
+                            measuredRecordSender.sendNanos)) {
+                        rs.setFetchSize(fetchSizeTuner.getFetchSize());
+                    }
                     lastTime = System.nanoTime();
                 }
 
                 allResultPerfRecord.end(rsNextUsedTime);
+
+                Map<String, Object> statistics = fetchSizeTuner.finish();
+                statistics.put("table", StringUtils.isBlank(table) ? "querySql" : table);
+                taskPluginCollector.collectMessage(Constant.TABLE_STATISTICS_MARK, JSON.toJSONString(statistics));
+                if (fetchSizeTuner.getFetchSize() != fetchSize) {
+                    LOG.info("fetchSize adjusted from [{}] to [{}], max [{}]. {}", fetchSize,
+                            fetchSizeTuner.getFetchSize(), statistics.get("maxFetchSize"), basicMsg);
+                }
                 //目前大盘是依赖这个打印，而之前这个Finish read record是包含了sql查询和result next的全部时间
                 LOG.info("Finished read record by Sql: [{}\n] {}.",
                         querySql, basicMsg);
@@ -243,97 +364,14 @@ public class CommonRdbmsReader {
         	Record record = recordSender.createRecord();
 
             try {
+                // 每个查询只解析一次字段类型
+                if (this.extractorMetaData != metaData) {
+                    this.columnExtractors = ColumnExtractor.compile(metaData, columnNumber, mandatoryEncoding);
+                    this.extractorMetaData = metaData;
+                }
+                ColumnExtractor[] extractors = this.columnExtractors;
                 for (int i = 1; i <= columnNumber; i++) {
-                    switch (metaData.getColumnType(i)) {
-
-                    case Types.CHAR:
-                    case Types.NCHAR:
-                    case Types.VARCHAR:
-                    case Types.LONGVARCHAR:
-                    case Types.NVARCHAR:
-                    case Types.LONGNVARCHAR:
-                        String rawData;
-                        if(StringUtils.isBlank(mandatoryEncoding)){
-                            rawData = rs.getString(i);
-                        }else{
-                            rawData = new String((rs.getBytes(i) == null ? EMPTY_CHAR_ARRAY : 
-                                rs.getBytes(i)), mandatoryEncoding);
-                        }
-                        record.addColumn(new StringColumn(rawData));
-                        break;
-
-                    case Types.CLOB:
-                    case Types.NCLOB:
-                        record.addColumn(new StringColumn(rs.getString(i)));
-                        break;
-
-                    case Types.SMALLINT:
-                    case Types.TINYINT:
-                    case Types.INTEGER:
-                    case Types.BIGINT:
-                        record.addColumn(new LongColumn(rs.getString(i)));
-                        break;
-
-                    case Types.NUMERIC:
-                    case Types.DECIMAL:
-                        record.addColumn(new DoubleColumn(rs.getString(i)));
-                        break;
-
-                    case Types.FLOAT:
-                    case Types.REAL:
-                    case Types.DOUBLE:
-                        record.addColumn(new DoubleColumn(rs.getString(i)));
-                        break;
-
-                    case Types.TIME:
-                        record.addColumn(new DateColumn(rs.getTime(i)));
-                        break;
-
-                    // for mysql bug, see http://bugs.mysql.com/bug.php?id=35115
-                    case Types.DATE:
-                        if (metaData.getColumnTypeName(i).equalsIgnoreCase("year")) {
-                            record.addColumn(new LongColumn(rs.getInt(i)));
-                        } else {
-                            record.addColumn(new DateColumn(rs.getDate(i)));
-                        }
-                        break;
-
-                    case Types.TIMESTAMP:
-                        record.addColumn(new DateColumn(rs.getTimestamp(i)));
-                        break;
-
-                    case Types.BINARY:
-                    case Types.VARBINARY:
-                    case Types.BLOB:
-                    case Types.LONGVARBINARY:
-                        record.addColumn(new BytesColumn(rs.getBytes(i)));
-                        break;
-
-                    // warn: bit(1) -> Types.BIT 可使用BoolColumn
-                    // warn: bit(>1) -> Types.VARBINARY 可使用BytesColumn
-                    case Types.BOOLEAN:
-                    case Types.BIT:
-                        record.addColumn(new BoolColumn(rs.getBoolean(i)));
-                        break;
-
-                    case Types.NULL:
-                        String stringData = null;
-                        if(rs.getObject(i) != null) {
-                            stringData = rs.getObject(i).toString();
-                        }
-                        record.addColumn(new StringColumn(stringData));
-                        break;
-
-                    default:
-                        throw DataXException
-                                .asDataXException(
-                                        DBUtilErrorCode.UNSUPPORTED_TYPE,
-                                        String.format(
-                                                "您的配置文件中的列配置信息有误. 因为DataX 不支持数据库读取这种字段类型. 字段名:[%s], 字段名称:[%s], 字段Java类型:[%s]. 请尝试使用数据库函数将其转换datax支持的类型 或者不同步该字段 .",
-                                                metaData.getColumnName(i),
-                                                metaData.getColumnType(i),
-                                                metaData.getColumnClassName(i)));
-                    }
+                    record.addColumn(extractors[i].extract(rs, i));
                 }
             } catch (Exception e) {
                 if (IS_DEBUG) {
@@ -348,6 +386,115 @@ public class CommonRdbmsReader {
             }
             return record;
         }
+
+        /**
+         * 每读取 RESUME_MARK_INTERVAL 行，在发送当前行之前把当前行的排序列取值记录到 TaskCheckpoint：
+         * 结果集按该列排序，此时小于该值的行都已发送，重试时使用 &gt;= 该值继续读取(等于该值的行可能重复读取一次)，
+         * 因此不要求排序列唯一，也不受字符串排序规则(大小写、尾部空格)的影响。
+         */
+        private static class ResumeMarker {
+            private final TaskCheckpoint taskCheckpoint;
+            private final int keyIndex;
+            private final String quote;
+            private final DataBaseType dataBaseType;
+            private int rows;
+
+            private ResumeMarker(TaskCheckpoint taskCheckpoint, int keyIndex, String quote,
+                                 DataBaseType dataBaseType) {
+                this.taskCheckpoint = taskCheckpoint;
+                this.keyIndex = keyIndex;
+                this.quote = quote;
+                this.dataBaseType = dataBaseType;
+            }
+
+            // 排序列不是整数或字符串类型时无法生成断点条件，返回 null
+            static ResumeMarker create(TaskCheckpoint taskCheckpoint, ResultSetMetaData metaData, int keyIndex,
+                                       DataBaseType dataBaseType) throws SQLException {
+                switch (metaData.getColumnType(keyIndex)) {
+                    case Types.TINYINT:
+                    case Types.SMALLINT:
+                    case Types.INTEGER:
+                    case Types.BIGINT:
+                    case Types.NUMERIC:
+                    case Types.DECIMAL:
+                        return new ResumeMarker(taskCheckpoint, keyIndex, "", dataBaseType);
+                    case Types.CHAR:
+                    case Types.NCHAR:
+                    case Types.VARCHAR:
+                    case Types.NVARCHAR:
+                    case Types.LONGVARCHAR:
+                        return new ResumeMarker(taskCheckpoint, keyIndex, "'", dataBaseType);
+                    default:
+                        LOG.warn("resumableRead 仅支持整数或字符串类型的 splitPk, 该切片不记录断点.");
+                        return null;
+                }
+            }
+
+            void beforeSend(ResultSet rs) throws SQLException {
+                if (++this.rows < Constant.RESUME_MARK_INTERVAL) {
+                    return;
+                }
+                String key = rs.getString(this.keyIndex);
+                if (null != key) {
+                    this.taskCheckpoint.mark(RdbmsRangeSplitWrap.toSqlConstant(key, this.quote, this.dataBaseType));
+                    this.rows = 0;
+                }
+            }
+        }
+
+        /**
+         * 记录每行 record 的内存大小以及 sendToWriter 的耗时(channel 满时的阻塞即反压)。
+         * 内存大小要在发送前取，发送后 record 可能已被 writer 释放复用
+         */
+        private static class MeasuredRecordSender implements RecordSender {
+            private final RecordSender delegate;
+            private long memorySize;
+            private long sendNanos;
+
+            MeasuredRecordSender(RecordSender delegate) {
+                this.delegate = delegate;
+            }
+
+            void reset() {
+                this.memorySize = 0;
+                this.sendNanos = 0;
+            }
+
+            @Override
+            public Record createRecord() {
+                return this.delegate.createRecord();
+            }
+
+            @Override
+            public void sendToWriter(Record record) {
+                this.memorySize += record.getMemorySize();
+                long start = System.nanoTime();
+                this.delegate.sendToWriter(record);
+                this.sendNanos += System.nanoTime() - start;
+            }
+
+            @Override
+            public void sendBatchToWriter(RecordBatch batch) {
+                long start = System.nanoTime();
+                this.delegate.sendBatchToWriter(batch);
+                this.sendNanos += System.nanoTime() - start;
+            }
+
+            @Override
+            public void flush() {
+                this.delegate.flush();
+            }
+
+            @Override
+            public void terminate() {
+                this.delegate.terminate();
+            }
+
+            @Override
+            public void shutdown() {
+                this.delegate.shutdown();
+            }
+        }
     }
 
 }
@@ -11,6 +11,11 @@ public final class Constant {
     
     public static final String SPLIT_MODE_RANDOMSAMPLE = "randomSampling";
 
+    /**
+     * 抽样切分时，每个分片平均保留的样本切分点数，样本超过 2 倍时按步长抽稀
+     */
+    public static final int SAMPLE_POINTS_PER_SPLIT = 100;
+
     public static String CONN_MARK = "connection";
 
     public static String TABLE_NUMBER_MARK = "tableNumber";
@@ -27,4 +32,27 @@ public final class Constant {
 
     public static Integer SPLIT_FACTOR = 5;
 
+    public static final long DEFAULT_FETCH_BUFFER_SIZE = 8 * 1024 * 1024L;
+
+    public static final int MIN_ADAPTIVE_FETCH_SIZE = 16;
+
+    public static final int MAX_ADAPTIVE_FETCH_SIZE = 65536;
+
+    public static final int DEFAULT_CURSOR_FETCH_SIZE = 1024;
+
+    /**
+     * task 通过 TaskPluginCollector 汇报读取统计信息所用的 key，Job.post 时按表汇总
+     */
+    public static final String TABLE_STATISTICS_MARK = "rdbmsReaderTableStatistics";
+
+    /**
+     * 断点续读时切分后写入每个切片的排序列(即 splitPk)，该列追加在查询字段的最后，不发送给 writer
+     */
+    public static final String RESUME_KEY = "resumeKey";
+
+    /**
+     * 断点续读时每读取多少行向 TaskCheckpoint 记录一次位置
+     */
+    public static final int RESUME_MARK_INTERVAL = 1024;
+
 }
@@ -55,4 +55,22 @@ public final class Key {
     public final static String REUSE_CONN = "reuseConn";
 
     public final static String PARTITION_NAME = "partitionName";
+
+    //默认值：false，开启后按实际行宽和 channel 反压动态调整 fetchSize，MySQL 需要同时开启 useCursorFetch
+    public final static String ADAPTIVE_FETCH_SIZE = "adaptiveFetchSize";
+
+    //默认值：8m，adaptiveFetchSize 时单次 fetch 缓存的数据量上限(字节)
+    public final static String FETCH_BUFFER_SIZE = "fetchBufferSize";
+
+    //默认值：false，仅 MySQL，使用服务端游标按 fetchSize 分批读取，替代逐行流式读取
+    public final static String USE_CURSOR_FETCH = "useCursorFetch";
+
+    //单调递增的字段，配置后只读取上次成功后新增的数据，需要同时配置 stateFile
+    public final static String INCREMENTAL_COLUMN = "incrementalColumn";
+
+    //增量抽取的高水位状态文件(本地路径)
+    public final static String STATE_FILE = "stateFile";
+
+    //默认值：false，开启后切片按 splitPk 排序读取，task failover 重试时从 writer 已提交的 splitPk 位置继续读取
+    public final static String RESUMABLE_READ = "resumableRead";
 }
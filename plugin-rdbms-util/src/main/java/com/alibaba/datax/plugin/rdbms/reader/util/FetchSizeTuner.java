@@ -0,0 +1,122 @@
+package com.alibaba.datax.plugin.rdbms.reader.util;
+
+import com.alibaba.datax.plugin.rdbms.reader.Constant;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 统计一个 task 的读取情况(行数、内存字节数、rs.next 耗时、下游处理耗时)，并在开启 adaptiveFetchSize 时动态调整 fetchSize
+ * <p/>
+ * 每读完约一个 fetchSize 的数据做一次调整：
+ * 1. 按本轮的平均行宽计算上限 fetchBufferSize / 行宽，避免宽行一次 fetch 占用过多内存；
+ * 2. 下游处理(主要是 channel 满时 sendToWriter 的阻塞)比 rs.next 更慢时说明存在反压，fetchSize 缩小 1/4，
+ * 否则瓶颈在数据库往返上，fetchSize 翻倍。
+ * <p/>
+ * MySQL 的逐行流式读取(fetchSize 为 Integer.MIN_VALUE)无法调整，只做统计。
+ */
+public final class FetchSizeTuner {
+
+    private final boolean adaptive;
+
+    private final long fetchBufferSize;
+
+    private int fetchSize;
+
+    private int maxFetchSize;
+
+    private int adjustCount;
+
+    private long windowRecords;
+
+    private long windowBytes;
+
+    private long windowFetchNanos;
+
+    private long windowSendNanos;
+
+    private long totalRecords;
+
+    private long totalBytes;
+
+    private long totalFetchNanos;
+
+    private long totalSendNanos;
+
+    public FetchSizeTuner(boolean adaptive, int fetchSize, long fetchBufferSize) {
+        this.adaptive = adaptive && fetchSize > 0;
+        this.fetchSize = fetchSize;
+        this.maxFetchSize = fetchSize;
+        this.fetchBufferSize = fetchBufferSize > 0 ? fetchBufferSize : Constant.DEFAULT_FETCH_BUFFER_SIZE;
+    }
+
+    public int getFetchSize() {
+        return this.fetchSize;
+    }
+
+    /**
+     * 记录一行的读取情况
+     *
+     * @return fetchSize 是否发生变化，变化后由调用方通过 ResultSet.setFetchSize 生效
+     */
+    public boolean record(long recordBytes, long fetchNanos, long sendNanos) {
+        this.windowRecords++;
+        this.windowBytes += recordBytes;
+        this.windowFetchNanos += fetchNanos;
+        this.windowSendNanos += sendNanos;
+        if (!this.adaptive || this.windowRecords < this.fetchSize) {
+            return false;
+        }
+        return this.adjust();
+    }
+
+    /**
+     * 读取结束时把剩余的统计合并进总数，返回统计信息
+     */
+    public Map<String, Object> finish() {
+        this.mergeWindow();
+        Map<String, Object> statistics = new LinkedHashMap<String, Object>();
+        statistics.put("records", this.totalRecords);
+        statistics.put("bytes", this.totalBytes);
+        statistics.put("fetchNanos", this.totalFetchNanos);
+        statistics.put("sendNanos", this.totalSendNanos);
+        statistics.put("fetchSize", this.fetchSize);
+        statistics.put("maxFetchSize", this.maxFetchSize);
+        statistics.put("adjustCount", this.adjustCount);
+        return statistics;
+    }
+
+    private boolean adjust() {
+        long avgRecordBytes = Math.max(1, this.windowBytes / this.windowRecords);
+        long upperBound = Math.min(Constant.MAX_ADAPTIVE_FETCH_SIZE, this.fetchBufferSize / avgRecordBytes);
+        upperBound = Math.max(Constant.MIN_ADAPTIVE_FETCH_SIZE, upperBound);
+
+        long target;
+        if (this.windowSendNanos > this.windowFetchNanos) {
+            target = this.fetchSize - this.fetchSize / 4;
+        } else {
+            target = (long) this.fetchSize * 2;
+        }
+        target = Math.max(Constant.MIN_ADAPTIVE_FETCH_SIZE, Math.min(upperBound, target));
+
+        this.mergeWindow();
+        if (target == this.fetchSize) {
+            return false;
+        }
+        this.fetchSize = (int) target;
+        this.maxFetchSize = Math.max(this.maxFetchSize, this.fetchSize);
+        this.adjustCount++;
+        return true;
+    }
+
+    private void mergeWindow() {
+        this.totalRecords += this.windowRecords;
+        this.totalBytes += this.windowBytes;
+        this.totalFetchNanos += this.windowFetchNanos;
+        this.totalSendNanos += this.windowSendNanos;
+        this.windowRecords = 0;
+        this.windowBytes = 0;
+        this.windowFetchNanos = 0;
+        this.windowSendNanos = 0;
+    }
+}
@@ -0,0 +1,218 @@
+package com.alibaba.datax.plugin.rdbms.reader.util;
+
+import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.plugin.rdbms.reader.Constant;
+import com.alibaba.datax.plugin.rdbms.reader.Key;
+import com.alibaba.datax.plugin.rdbms.util.DBUtil;
+import com.alibaba.datax.plugin.rdbms.util.DBUtilErrorCode;
+import com.alibaba.datax.plugin.rdbms.util.DataBaseType;
+import com.alibaba.datax.plugin.rdbms.util.RdbmsException;
+import com.alibaba.datax.plugin.rdbms.util.RdbmsRangeSplitWrap;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 增量抽取(incrementalColumn)的高水位管理。
+ * <p/>
+ * 切分前对每个表查询一次 MAX(incrementalColumn) 作为本次的高水位，读取范围为
+ * (上次高水位, 本次高水位]，该条件追加到 where 之后，splitPk 切分只会在这段增量数据上进行。
+ * 作业成功后在 post 阶段把本次高水位写入本地状态文件，作业失败时状态文件不变，下次重新读取同一段增量。
+ * <p/>
+ * 状态文件为 JSON，key 为 jdbcUrl|table|incrementalColumn，value 为可直接拼入 SQL 的常量。
+ * incrementalColumn 为 NULL 的行不会被读取。
+ */
+public final class IncrementalWatermark {
+    private static final Logger LOG = LoggerFactory
+            .getLogger(IncrementalWatermark.class);
+
+    private final String column;
+
+    private final File stateFile;
+
+    private final DataBaseType dataBaseType;
+
+    private final Map<String, String> state;
+
+    private final Map<String, String> pending = new LinkedHashMap<String, String>();
+
+    private IncrementalWatermark(String column, File stateFile, DataBaseType dataBaseType,
+                                 Map<String, String> state) {
+        this.column = column;
+        this.stateFile = stateFile;
+        this.dataBaseType = dataBaseType;
+        this.state = state;
+    }
+
+    /**
+     * 未配置 incrementalColumn 时返回 null
+     */
+    public static IncrementalWatermark load(Configuration originalConfig, DataBaseType dataBaseType) {
+        String column = originalConfig.getString(Key.INCREMENTAL_COLUMN, null);
+        if (StringUtils.isBlank(column)) {
+            return null;
+        }
+        if (!originalConfig.getBool(Constant.IS_TABLE_MODE, false)) {
+            throw DataXException.asDataXException(DBUtilErrorCode.ILLEGAL_VALUE,
+                    "您的配置有误. incrementalColumn 仅支持 table 方式, 不能与 querySql 同时使用. 请检查您的配置并作出修改.");
+        }
+        String stateFilePath = originalConfig.getString(Key.STATE_FILE, null);
+        if (StringUtils.isBlank(stateFilePath)) {
+            throw DataXException.asDataXException(DBUtilErrorCode.REQUIRED_VALUE,
+                    "您配置了 incrementalColumn 但未配置 stateFile. 增量抽取需要通过 stateFile 保存上次读取到的位置. 请检查您的配置并作出修改.");
+        }
+
+        File stateFile = new File(stateFilePath.trim());
+        Map<String, String> state = new LinkedHashMap<String, String>();
+        if (stateFile.isFile()) {
+            try {
+                String content = FileUtils.readFileToString(stateFile, "UTF-8");
+                if (StringUtils.isNotBlank(content)) {
+                    JSONObject json = JSON.parseObject(content);
+                    for (String key : json.keySet()) {
+                        state.put(key, json.getString(key));
+                    }
+                }
+            } catch (Exception e) {
+                throw DataXException.asDataXException(DBUtilErrorCode.CONF_ERROR,
+                        String.format("读取增量状态文件 [%s] 失败. 请检查文件内容是否被修改.", stateFile.getAbsolutePath()), e);
+            }
+        }
+        LOG.info("incremental mode on column [{}], state file [{}], {} watermark(s) loaded.",
+                column, stateFile.getAbsolutePath(), state.size());
+        return new IncrementalWatermark(column.trim(), stateFile, dataBaseType, state);
+    }
+
+    /**
+     * 查询本次的高水位并返回追加了增量范围的 where 条件
+     */
+    public String buildWhere(String jdbcUrl, String username, String password, String table, String where) {
+        String key = jdbcUrl + "|" + table + "|" + this.column;
+        String low = this.state.get(key);
+        String high = this.queryHighWatermark(jdbcUrl, username, password, table, where);
+
+        String range;
+        if (null == high) {
+            // 表中没有数据，保留原来的高水位
+            range = " 1 = 0 ";
+        } else if (null == low) {
+            range = String.format("%s <= %s", this.column, high);
+            this.pending.put(key, high);
+        } else {
+            range = String.format("%s > %s AND %s <= %s", this.column, low, this.column, high);
+            this.pending.put(key, high);
+        }
+        LOG.info("table [{}] incremental range: ({}, {}].", table, low, high);
+
+        if (StringUtils.isBlank(where)) {
+            return range;
+        }
+        return String.format("(%s) AND (%s)", where, range);
+    }
+
+    /**
+     * 作业成功后保存本次的高水位，先写临时文件再替换，避免中途失败留下不完整的状态文件
+     */
+    public void commit() {
+        if (this.pending.isEmpty()) {
+            return;
+        }
+        Map<String, String> merged = new LinkedHashMap<String, String>(this.state);
+        merged.putAll(this.pending);
+
+        File parent = this.stateFile.getAbsoluteFile().getParentFile();
+        File tempFile = new File(parent, this.stateFile.getName() + ".tmp");
+        try {
+            FileUtils.writeStringToFile(tempFile, JSON.toJSONString(merged, true), "UTF-8");
+            Files.move(tempFile.toPath(), this.stateFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw DataXException.asDataXException(DBUtilErrorCode.CONF_ERROR,
+                    String.format("写入增量状态文件 [%s] 失败. 请检查目录是否存在以及是否有写权限.",
+                            this.stateFile.getAbsolutePath()), e);
+        }
+        this.state.putAll(this.pending);
+        this.pending.clear();
+        LOG.info("incremental watermark saved to [{}].", this.stateFile.getAbsolutePath());
+    }
+
+    private String queryHighWatermark(String jdbcUrl, String username, String password,
+                                      String table, String where) {
+        String sql = String.format("SELECT MAX(%s) FROM %s", this.column, table);
+        if (StringUtils.isNotBlank(where)) {
+            sql = String.format("%s WHERE (%s)", sql, where);
+        }
+        LOG.info("incremental watermark [sql={}] is running... ", sql);
+
+        Connection conn = DBUtil.getConnection(this.dataBaseType, jdbcUrl, username, password);
+        ResultSet rs = null;
+        try {
+            try {
+                rs = DBUtil.query(conn, sql, 1);
+            } catch (Exception e) {
+                throw RdbmsException.asQueryException(this.dataBaseType, e, sql, table, username);
+            }
+            if (!rs.next()) {
+                return null;
+            }
+            return this.toSqlConstant(rs, rs.getMetaData().getColumnType(1));
+        } catch (DataXException e) {
+            throw e;
+        } catch (Exception e) {
+            throw DataXException.asDataXException(DBUtilErrorCode.READ_RECORD_FAIL,
+                    String.format("查询增量字段 [%s] 的最大值失败. 请检查 incrementalColumn 的配置.", this.column), e);
+        } finally {
+            DBUtil.closeDBResources(rs, null, conn);
+        }
+    }
+
+    private String toSqlConstant(ResultSet rs, int type) throws Exception {
+        if (null == rs.getObject(1)) {
+            return null;
+        }
+        switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return rs.getString(1);
+
+            case Types.DATE:
+            case Types.TIMESTAMP:
+                if (this.dataBaseType == DataBaseType.Oracle) {
+                    Timestamp timestamp = rs.getTimestamp(1);
+                    return String.format("TO_TIMESTAMP('%s','YYYY-MM-DD HH24:MI:SS.FF')", timestamp.toString());
+                }
+                return RdbmsRangeSplitWrap.toSqlConstant(rs.getString(1), "'", this.dataBaseType);
+
+            case Types.CHAR:
+            case Types.NCHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NVARCHAR:
+                return RdbmsRangeSplitWrap.toSqlConstant(rs.getString(1), "'", this.dataBaseType);
+
+            default:
+                throw DataXException.asDataXException(DBUtilErrorCode.ILLEGAL_VALUE,
+                        String.format("您配置的 incrementalColumn [%s] 类型 DataX 不支持. 仅支持整数、定点数、日期时间或字符串类型的单调递增字段.",
+                                this.column));
+        }
+    }
+}
@@ -190,9 +190,17 @@ public final class OriginalConfPretreatmentUtil {
                     originalConfig.set(Key.COLUMN,
                             StringUtils.join(quotedColumns, ","));
                     if (StringUtils.isNotBlank(splitPk)) {
-                        if (!allColumns.contains(splitPk.toLowerCase())) {
+                        String[] splitColumns = SingleTableSplitUtil.parseSplitPk(splitPk);
+                        if (splitColumns.length > 1 && DATABASE_TYPE != DataBaseType.MySql
+                                && DATABASE_TYPE != DataBaseType.PostgreSQL) {
                             throw DataXException.asDataXException(DBUtilErrorCode.ILLEGAL_SPLIT_PK,
-                                    String.format("您的配置文件中的列配置信息有误. 因为根据您的配置，您读取的数据库表:%s 中没有主键名为:%s. 请检查您的配置并作出修改.", tableName, splitPk));
+                                    String.format("您的配置文件中的列配置信息有误. 因为多个列的切分主键:%s 仅支持 MySQL 和 PostgreSQL. 请检查您的配置并作出修改.", splitPk));
+                        }
+                        for (String splitColumn : splitColumns) {
+                            if (!allColumns.contains(splitColumn.toLowerCase())) {
+                                throw DataXException.asDataXException(DBUtilErrorCode.ILLEGAL_SPLIT_PK,
+                                        String.format("您的配置文件中的列配置信息有误. 因为根据您的配置，您读取的数据库表:%s 中没有主键名为:%s. 请检查您的配置并作出修改.", tableName, splitColumn));
+                            }
                         }
                     }
 
@@ -19,6 +19,14 @@ public final class ReaderSplitUtil {
 
     public static List<Configuration> doSplit(
             Configuration originalSliceConfig, int adviceNumber) {
+        return doSplit(originalSliceConfig, adviceNumber, null);
+    }
+
+    /**
+     * incrementalWatermark 不为 null 时，每个表的 where 追加本次的增量范围，切分只在增量数据上进行
+     */
+    public static List<Configuration> doSplit(
+            Configuration originalSliceConfig, int adviceNumber, IncrementalWatermark incrementalWatermark) {
         boolean isTableMode = originalSliceConfig.getBool(Constant.IS_TABLE_MODE).booleanValue();
         int eachTableShouldSplittedNumber = -1;
         if (isTableMode) {
@@ -30,6 +38,13 @@ public final class ReaderSplitUtil {
 
         String column = originalSliceConfig.getString(Key.COLUMN);
         String where = originalSliceConfig.getString(Key.WHERE, null);
+        String resumeKey = isTableMode ? getResumeKey(originalSliceConfig) : null;
+        if (null != resumeKey) {
+            // 排序列追加在查询字段的最后，读取时不发送给 writer
+            column = column + "," + resumeKey;
+        }
+        String username = originalSliceConfig.getString(Key.USERNAME);
+        String password = originalSliceConfig.getString(Key.PASSWORD);
 
         List<Object> conns = originalSliceConfig.getList(Constant.CONN_MARK, Object.class);
 
@@ -46,6 +61,10 @@ public final class ReaderSplitUtil {
             sliceConfig.set(CommonConstant.LOAD_BALANCE_RESOURCE_MARK, DataBaseType.parseIpFromJdbcUrl(jdbcUrl));
 
             sliceConfig.remove(Constant.CONN_MARK);
+            if (null != resumeKey) {
+                sliceConfig.set(Key.COLUMN, column);
+                sliceConfig.set(Constant.RESUME_KEY, resumeKey);
+            }
 
             Configuration tempSlice;
 
@@ -79,6 +98,11 @@ public final class ReaderSplitUtil {
                     for (String table : tables) {
                         tempSlice = sliceConfig.clone();
                         tempSlice.set(Key.TABLE, table);
+                        String tableWhere = buildTableWhere(incrementalWatermark, resumeKey,
+                                jdbcUrl, username, password, table, where);
+                        if (null != tableWhere) {
+                            tempSlice.set(Key.WHERE, tableWhere);
+                        }
 
                         List<Configuration> splittedSlices = SingleTableSplitUtil
                                 .splitSingleTable(tempSlice, eachTableShouldSplittedNumber);
@@ -89,8 +113,13 @@ public final class ReaderSplitUtil {
                     for (String table : tables) {
                         tempSlice = sliceConfig.clone();
                         tempSlice.set(Key.TABLE, table);
+                        String tableWhere = buildTableWhere(incrementalWatermark, resumeKey,
+                                jdbcUrl, username, password, table, where);
+                        if (null != tableWhere) {
+                            tempSlice.set(Key.WHERE, tableWhere);
+                        }
                         String queryColumn = HintUtil.buildQueryColumn(jdbcUrl, table, column);
-                        tempSlice.set(Key.QUERY_SQL, SingleTableSplitUtil.buildQuerySql(queryColumn, table, where));
+                        tempSlice.set(Key.QUERY_SQL, SingleTableSplitUtil.buildQuerySql(queryColumn, table, tableWhere));
                         splittedConfigs.add(tempSlice);
                     }
                 }
@@ -111,6 +140,42 @@ public final class ReaderSplitUtil {
         return splittedConfigs;
     }
 
+    /**
+     * 每个表的查询条件：增量抽取时追加本次的增量范围；断点续读时保证生成的查询带有 where 子句，重试时直接追加断点条件
+     */
+    private static String buildTableWhere(IncrementalWatermark incrementalWatermark, String resumeKey,
+                                          String jdbcUrl, String username, String password,
+                                          String table, String where) {
+        String tableWhere = where;
+        if (null != incrementalWatermark) {
+            tableWhere = incrementalWatermark.buildWhere(jdbcUrl, username, password, table, where);
+        }
+        if (null != resumeKey && StringUtils.isBlank(tableWhere)) {
+            tableWhere = "1 = 1";
+        }
+        return tableWhere;
+    }
+
+    /**
+     * 断点续读(resumableRead)使用的排序列，即单个切分列 splitPk；不满足条件时返回 null，按原来的方式读取
+     */
+    private static String getResumeKey(Configuration originalSliceConfig) {
+        if (!originalSliceConfig.getBool(Key.RESUMABLE_READ, false)) {
+            return null;
+        }
+        String splitPk = originalSliceConfig.getString(Key.SPLIT_PK, null);
+        if (StringUtils.isBlank(splitPk) || splitPk.contains(",")) {
+            LOG.warn("resumableRead 需要配置单个切分列 splitPk, 忽略 resumableRead 配置.");
+            return null;
+        }
+        DataBaseType dataBaseType = SingleTableSplitUtil.DATABASE_TYPE;
+        if (dataBaseType != DataBaseType.MySql && dataBaseType != DataBaseType.PostgreSQL) {
+            LOG.warn("resumableRead 仅支持 MySQL 和 PostgreSQL, 不支持 {}, 忽略 resumableRead 配置.", dataBaseType);
+            return null;
+        }
+        return splitPk.trim();
+    }
+
     public static Configuration doPreCheckSplit(Configuration originalSliceConfig) {
         Configuration queryConfig = originalSliceConfig.clone();
         boolean isTableMode = originalSliceConfig.getBool(Constant.IS_TABLE_MODE).booleanValue();
@@ -133,7 +198,9 @@ public final class ReaderSplitUtil {
                 Validate.isTrue(null != tables && !tables.isEmpty(), "您读取数据库表配置错误.");
                 for (String table : tables) {
                     querys.add(SingleTableSplitUtil.buildQuerySql(column,table,where));
-                    if (splitPK != null && !splitPK.isEmpty()){
+                    // 抽样切分不要求切分列为整数或字符串，也不使用 MIN/MAX，跳过 splitPk 的预检查
+                    if (splitPK != null && !splitPK.isEmpty()
+                            && !SingleTableSplitUtil.isSampleSplit(originalSliceConfig)){
                         splitPkQuerys.add(SingleTableSplitUtil.genPKSql(splitPK.trim(),table,where));
                     }
                 }
@@ -17,8 +17,10 @@ import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class SingleTableSplitUtil {
@@ -45,7 +47,9 @@ public class SingleTableSplitUtil {
         if (DATABASE_TYPE == DataBaseType.Oracle) {
             rangeList = genSplitSqlForOracle(splitPkName, table, where,
                     configuration, adviceNum);
-            // warn: mysql etc to be added...
+        } else if (isSampleSplit(configuration)) {
+            rangeList = genSplitSqlBySample(splitPkName, table, where,
+                    configuration, adviceNum);
         } else {
             Pair<Object, Object> minMaxPK = getPkRange(configuration);
             if (null == minMaxPK) {
@@ -110,7 +114,9 @@ public class SingleTableSplitUtil {
         Configuration tempConfig = configuration.clone();
         tempQuerySql = buildQuerySql(column, table, where)
                 + (hasWhere ? " and " : " where ")
-                + String.format(" %s IS NULL", splitPkName);
+                + (isSampleSplit(configuration)
+                ? RdbmsRangeSplitWrap.wrapNullRange(parseSplitPk(splitPkName))
+                : String.format(" %s IS NULL", splitPkName));
 
         allQuerySql.add(tempQuerySql);
 
@@ -123,6 +129,31 @@ public class SingleTableSplitUtil {
         return pluginParams;
     }
 
+    /**
+     * MySQL、PostgreSQL 在 splitMode 为 randomSampling 或者 splitPk 配置了多个列时，使用抽样分位点切分
+     */
+    public static boolean isSampleSplit(Configuration configuration) {
+        if (DATABASE_TYPE != DataBaseType.MySql && DATABASE_TYPE != DataBaseType.PostgreSQL) {
+            return false;
+        }
+        String splitMode = configuration.getString(Key.SPLIT_MODE, "");
+        return Constant.SPLIT_MODE_RANDOMSAMPLE.equalsIgnoreCase(splitMode.trim())
+                || parseSplitPk(configuration.getString(Key.SPLIT_PK, "")).length > 1;
+    }
+
+    /**
+     * splitPk 可以是以英文逗号分隔的多个列，例如 "tenant_id,id"
+     */
+    public static String[] parseSplitPk(String splitPk) {
+        List<String> columns = new ArrayList<String>();
+        for (String each : StringUtils.split(StringUtils.defaultString(splitPk), ',')) {
+            if (StringUtils.isNotBlank(each)) {
+                columns.add(each.trim());
+            }
+        }
+        return columns.toArray(new String[columns.size()]);
+    }
+
     public static String buildQuerySql(String column, String table,
                                           String where) {
         String querySql;
@@ -387,4 +418,176 @@ public class SingleTableSplitUtil {
         }
         return rangeSql;
     }
-}
\ No newline at end of file
+
+    /**
+     * MySQL、PostgreSQL 的抽样切分，支持多个切分列以及整数、小数、字符串、日期等可比较的类型。
+     * <p/>
+     * 先按 samplePercentage(百分比) 抽样：PostgreSQL 使用 TABLESAMPLE SYSTEM(不支持时退化为 random() 过滤)，
+     * MySQL 使用 RAND() 过滤；样本太少时再用 ORDER BY ... LIMIT 探测，表足够小时探测到的就是全部数据。
+     * 在有序的样本上取 adviceNum 等分的分位点作为切分边界，使得数据分布不均匀时各分片的行数仍然大致相等。
+     */
+    public static List<String> genSplitSqlBySample(String splitPK,
+            String table, String where, Configuration configuration,
+            int adviceNum) {
+        if (adviceNum < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "切分份数不能小于1. 此处:adviceNum=[%s].", adviceNum));
+        }
+        String[] splitColumns = parseSplitPk(splitPK);
+        if (configuration != null) {
+            configuration.set(Constant.PK_TYPE, Constant.PK_TYPE_MONTECARLO);
+        }
+        if (adviceNum == 1) {
+            return RdbmsRangeSplitWrap.wrapQuantileRange(null, splitColumns);
+        }
+
+        String columns = StringUtils.join(splitColumns, ",");
+        String whereSql = " WHERE" + RdbmsRangeSplitWrap.wrapNotNullRange(splitColumns);
+        if (StringUtils.isNotBlank(where)) {
+            whereSql = String.format("%sAND (%s) ", whereSql, where);
+        }
+        double percentage = configuration.getDouble(Key.SAMPLE_PERCENTAGE, 0.1);
+        int maxPoints = adviceNum * Constant.SAMPLE_POINTS_PER_SPLIT;
+
+        int fetchSize = configuration.getInt(Constant.FETCH_SIZE, 32);
+        String jdbcURL = configuration.getString(Key.JDBC_URL);
+        String username = configuration.getString(Key.USERNAME);
+        String password = configuration.getString(Key.PASSWORD);
+        Connection conn = DBUtil.getConnection(DATABASE_TYPE, jdbcURL,
+                username, password);
+        List<String[]> samplePoints;
+        try {
+            String randomFilterSql = String.format("SELECT %s FROM %s%sAND %s < %s ORDER BY %s",
+                    columns, table, whereSql,
+                    DATABASE_TYPE == DataBaseType.PostgreSQL ? "random()" : "RAND()",
+                    percentage / 100, columns);
+            if (DATABASE_TYPE == DataBaseType.PostgreSQL) {
+                String tableSampleSql = String.format("SELECT %s FROM %s TABLESAMPLE SYSTEM (%s)%sORDER BY %s",
+                        columns, table, percentage, whereSql, columns);
+                try {
+                    samplePoints = querySplitPoints(conn, tableSampleSql, fetchSize,
+                            splitColumns.length, maxPoints);
+                } catch (SQLException e) {
+                    // TABLESAMPLE 需要 PostgreSQL 9.5 及以上，并且不支持视图
+                    LOG.warn("TABLESAMPLE is not supported on table:[{}], use random() instead. because:{}",
+                            table, e.getMessage());
+                    conn.rollback();
+                    samplePoints = querySplitPoints(conn, randomFilterSql, fetchSize,
+                            splitColumns.length, maxPoints);
+                }
+            } else {
+                samplePoints = querySplitPoints(conn, randomFilterSql, fetchSize,
+                        splitColumns.length, maxPoints);
+            }
+
+            if (samplePoints.size() < maxPoints) {
+                String probeSql = String.format("SELECT %s FROM %s%sORDER BY %s LIMIT %d",
+                        columns, table, whereSql, columns, maxPoints);
+                List<String[]> probePoints = querySplitPoints(conn, probeSql, fetchSize,
+                        splitColumns.length, maxPoints);
+                // 探测没有取满，说明已经是全部数据，比样本更准确
+                if (probePoints.size() < maxPoints) {
+                    samplePoints = probePoints;
+                }
+            }
+        } catch (DataXException e) {
+            throw e;
+        } catch (Exception e) {
+            throw DataXException.asDataXException(
+                    DBUtilErrorCode.ILLEGAL_SPLIT_PK,
+                    "DataX尝试切分表发生错误. 请检查您的配置并作出修改.", e);
+        } finally {
+            DBUtil.closeDBResources(null, null, conn);
+        }
+
+        // 等分位点，相邻重复的取值只保留一个，因此最终分片数可能少于 adviceNum
+        List<String[]> quantilePoints = new ArrayList<String[]>();
+        int sampleSize = samplePoints.size();
+        for (int i = 1; i < adviceNum && sampleSize > 0; i++) {
+            String[] point = samplePoints.get((int) ((long) i * sampleSize / adviceNum));
+            if (quantilePoints.isEmpty()
+                    || !Arrays.equals(quantilePoints.get(quantilePoints.size() - 1), point)) {
+                quantilePoints.add(point);
+            }
+        }
+        LOG.info("split table:[{}] by [{}] sample points of [{}], got [{}] quantile points.",
+                table, sampleSize, columns, quantilePoints.size());
+        return RdbmsRangeSplitWrap.wrapQuantileRange(quantilePoints, splitColumns);
+    }
+
+    /**
+     * 读取有序的切分点并转换为 sql 常量。超过 2 倍 maxPoints 时隔一个丢弃一个并加倍步长，保持样本均匀且内存有界
+     */
+    private static List<String[]> querySplitPoints(Connection conn, String splitSql, int fetchSize,
+                                                   int columnCount, int maxPoints) throws SQLException {
+        LOG.info("split pk [sql={}] is running... ", splitSql);
+        List<String[]> points = new ArrayList<String[]>();
+        ResultSet rs = null;
+        try {
+            rs = DBUtil.query(conn, splitSql, fetchSize);
+            ResultSetMetaData rsMetaData = rs.getMetaData();
+            String[] quotes = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                quotes[i] = getSampleQuote(rsMetaData.getColumnType(i + 1),
+                        rsMetaData.getColumnName(i + 1));
+            }
+
+            long rowIndex = 0;
+            long stride = 1;
+            while (DBUtil.asyncResultSetNext(rs)) {
+                if (rowIndex++ % stride != 0) {
+                    continue;
+                }
+                String[] point = new String[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    point[i] = RdbmsRangeSplitWrap.toSqlConstant(rs.getString(i + 1),
+                            quotes[i], DATABASE_TYPE);
+                }
+                points.add(point);
+                if (points.size() >= 2 * maxPoints) {
+                    List<String[]> thinned = new ArrayList<String[]>(maxPoints);
+                    for (int i = 0; i < points.size(); i += 2) {
+                        thinned.add(points.get(i));
+                    }
+                    points = thinned;
+                    stride *= 2;
+                }
+            }
+        } finally {
+            DBUtil.closeDBResources(rs, null, null);
+        }
+        return points;
+    }
+
+    /**
+     * 数值类型的切分点不加引号，字符串、日期时间类型加单引号，其他类型不支持
+     */
+    private static String getSampleQuote(int type, String columnName) {
+        switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+                return "";
+            case Types.CHAR:
+            case Types.NCHAR:
+            case Types.VARCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+                return "'";
+            default:
+                throw DataXException.asDataXException(DBUtilErrorCode.ILLEGAL_SPLIT_PK,
+                        String.format("您配置的DataX切分主键(splitPk)有误. 因为切分列:%s 的类型 DataX 抽样切分不支持. 抽样切分仅支持整数、小数、字符串和日期时间类型. 请尝试使用其他的切分主键或者联系 DBA 进行处理.",
+                                columnName));
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.alibaba.datax.plugin.rdbms.util;
+
+import com.alibaba.datax.common.util.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同一个 job(scope) 内按 dataBaseType + jdbcUrl + username 共享的连接池，用于writer task之间复用连接
+ * <p/>
+ * 连接仍由 DBUtil.getConnection 创建(保留重试、超时等处理)，session配置(DBUtil.dealWithSessionConfig)只在创建时执行一次。
+ * 每个连接缓存自己的PreparedStatement，按sql复用，连接关闭时一起关闭。
+ * 连接数上限为channel数；借出后被调用方直接关闭的连接会被回收，超时仍借不到连接时退化为不入池的普通连接。
+ */
+public final class ConnectionPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionPool.class);
+
+    private static final ConcurrentMap<String, ConnectionPool> POOLS =
+            new ConcurrentHashMap<String, ConnectionPool>();
+
+    private static final long BORROW_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(Constant.TIMEOUT_SECONDS);
+
+    private final String scope;
+
+    private final DataBaseType dataBaseType;
+
+    private final String jdbcUrl;
+
+    private final String username;
+
+    private final String password;
+
+    private final Configuration sessionConfig;
+
+    private final String message;
+
+    private final int maxSize;
+
+    private final LinkedList<Connection> idleConnections = new LinkedList<Connection>();
+
+    private final Set<Connection> borrowedConnections = new HashSet<Connection>();
+
+    /**
+     * 正在创建中的连接数，同样占用名额
+     */
+    private int creatingCount;
+
+    /**
+     * 每个连接上按sql缓存的PreparedStatement
+     */
+    private final Map<Connection, Map<String, PreparedStatement>> statementCaches =
+            new ConcurrentHashMap<Connection, Map<String, PreparedStatement>>();
+
+    private ConnectionPool(String scope, DataBaseType dataBaseType, String jdbcUrl, String username,
+                           String password, Configuration sessionConfig, String message, int maxSize) {
+        this.scope = scope;
+        this.dataBaseType = dataBaseType;
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.sessionConfig = sessionConfig;
+        this.message = message;
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * 获取共享的连接池，同一个 scope + dataBaseType + jdbcUrl + username 只会创建一次，maxSize 以第一次创建时为准
+     *
+     * @param scope         连接池所属的 job，由 writer 的 Job.split 生成，不同 job 之间不共享连接
+     * @param sessionConfig 包含session配置的writer配置，每个新建连接执行一次
+     */
+    public static ConnectionPool getPool(String scope, DataBaseType dataBaseType, String jdbcUrl, String username,
+                                         String password, Configuration sessionConfig, String message, int maxSize) {
+        String key = scope + "|" + dataBaseType + "|" + jdbcUrl + "|" + username;
+        ConnectionPool pool = POOLS.get(key);
+        if (pool == null) {
+            ConnectionPool newPool = new ConnectionPool(scope, dataBaseType, jdbcUrl, username, password,
+                    sessionConfig, message, maxSize);
+            pool = POOLS.putIfAbsent(key, newPool);
+            if (pool == null) {
+                pool = newPool;
+                LOG.info("create connection pool for jdbcUrl:[{}], user:[{}], maxSize:[{}].",
+                        jdbcUrl, username, newPool.maxSize);
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * 关闭并移除 scope 下所有连接池的空闲连接，由writer的Job.destroy调用，其它 job 的连接池不受影响
+     */
+    public static void closeAll(String scope) {
+        Iterator<ConnectionPool> iterator = POOLS.values().iterator();
+        while (iterator.hasNext()) {
+            ConnectionPool pool = iterator.next();
+            if (pool.scope.equals(scope)) {
+                iterator.remove();
+                pool.close();
+            }
+        }
+    }
+
+    /**
+     * 借出一个可用连接，优先复用最近归还的空闲连接
+     */
+    public Connection borrow() {
+        long deadline = System.currentTimeMillis() + BORROW_TIMEOUT_MILLIS;
+        while (true) {
+            Connection connection;
+            boolean exhausted = false;
+            synchronized (this) {
+                connection = this.idleConnections.pollFirst();
+                if (connection == null) {
+                    if (this.size() >= this.maxSize) {
+                        this.reclaimClosedConnections();
+                    }
+                    if (this.size() >= this.maxSize) {
+                        long waitMillis = deadline - System.currentTimeMillis();
+                        if (waitMillis > 0) {
+                            try {
+                                this.wait(waitMillis);
+                                continue;
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        exhausted = true;
+                    } else {
+                        // 先占位，连接在锁外创建
+                        this.creatingCount++;
+                    }
+                }
+            }
+
+            if (exhausted) {
+                LOG.warn("connection pool of jdbcUrl:[{}] is exhausted, maxSize:[{}], use a connection out of pool.",
+                        this.jdbcUrl, this.maxSize);
+                return this.createConnection();
+            }
+
+            if (connection != null) {
+                if (this.isValid(connection)) {
+                    synchronized (this) {
+                        this.borrowedConnections.add(connection);
+                    }
+                    return connection;
+                }
+                this.destroy(connection);
+                continue;
+            }
+
+            Connection newConnection = null;
+            try {
+                newConnection = this.createConnection();
+                this.statementCaches.put(newConnection, new HashMap<String, PreparedStatement>());
+                return newConnection;
+            } finally {
+                synchronized (this) {
+                    this.creatingCount--;
+                    if (newConnection != null) {
+                        this.borrowedConnections.add(newConnection);
+                    }
+                    this.notifyAll();
+                }
+            }
+        }
+    }
+
+    public synchronized boolean isPooled(Connection connection) {
+        return this.borrowedConnections.contains(connection);
+    }
+
+    /**
+     * 获取连接上缓存的PreparedStatement，不在池中的连接每次新建。调用方不要关闭池中连接的statement
+     */
+    public PreparedStatement prepareStatement(Connection connection, String sql) throws SQLException {
+        Map<String, PreparedStatement> statements = this.statementCaches.get(connection);
+        if (statements == null) {
+            return connection.prepareStatement(sql);
+        }
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * 归还连接，reusable为false(比如写入出错)或者连接状态异常时直接关闭
+     */
+    public void release(Connection connection, boolean reusable) {
+        synchronized (this) {
+            if (!this.borrowedConnections.remove(connection)) {
+                DBUtil.closeDBResources(null, null, connection);
+                return;
+            }
+        }
+
+        if (reusable) {
+            try {
+                if (!connection.isClosed()) {
+                    if (!connection.getAutoCommit()) {
+                        connection.rollback();
+                        connection.setAutoCommit(true);
+                    }
+                    synchronized (this) {
+                        this.idleConnections.addFirst(connection);
+                        this.notifyAll();
+                    }
+                    return;
+                }
+            } catch (SQLException e) {
+                LOG.warn("reset connection of jdbcUrl:[{}] failed, close it. because:{}", this.jdbcUrl, e.getMessage());
+            }
+        }
+
+        this.destroy(connection);
+        synchronized (this) {
+            this.notifyAll();
+        }
+    }
+
+    private Connection createConnection() {
+        Connection connection = DBUtil.getConnection(this.dataBaseType, this.jdbcUrl,
+                this.username, this.password);
+        DBUtil.dealWithSessionConfig(connection, this.sessionConfig, this.dataBaseType, this.message);
+        return connection;
+    }
+
+    private int size() {
+        return this.idleConnections.size() + this.borrowedConnections.size() + this.creatingCount;
+    }
+
+    /**
+     * 借出后被调用方直接关闭(没有归还)的连接不再占用名额
+     */
+    private void reclaimClosedConnections() {
+        Iterator<Connection> iterator = this.borrowedConnections.iterator();
+        while (iterator.hasNext()) {
+            Connection connection = iterator.next();
+            try {
+                if (!connection.isClosed()) {
+                    continue;
+                }
+            } catch (SQLException e) {
+                // 状态未知的连接同样回收
+            }
+            iterator.remove();
+            this.statementCaches.remove(connection);
+        }
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(Constant.TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        } catch (AbstractMethodError e) {
+            // 较老的驱动没有实现 isValid
+            try {
+                return !connection.isClosed();
+            } catch (SQLException ignored) {
+                return false;
+            }
+        }
+    }
+
+    private void destroy(Connection connection) {
+        Map<String, PreparedStatement> statements = this.statementCaches.remove(connection);
+        if (statements != null) {
+            for (PreparedStatement statement : statements.values()) {
+                DBUtil.closeDBResources(statement, null);
+            }
+        }
+        DBUtil.closeDBResources(null, null, connection);
+    }
+
+    private void close() {
+        List<Connection> connections;
+        synchronized (this) {
+            connections = new ArrayList<Connection>(this.idleConnections);
+            this.idleConnections.clear();
+        }
+        for (Connection connection : connections) {
+            this.destroy(connection);
+        }
+    }
+}
@@ -580,6 +580,52 @@ public final class DBUtil {
         }
     }
 
+    /**
+     * 通过 DatabaseMetaData 获取表的主键列，按主键内的顺序返回；表名可以带 schema 及引号，获取失败或没有主键时返回空列表
+     */
+    public static List<String> getPrimaryKeyColumns(Connection conn, String tableName) {
+        String schema = null;
+        String table = tableName.trim();
+        int dot = table.lastIndexOf('.');
+        if (dot > 0) {
+            schema = stripQuote(table.substring(0, dot));
+            table = table.substring(dot + 1);
+        }
+        table = stripQuote(table);
+
+        ResultSet rs = null;
+        try {
+            DatabaseMetaData metaData = conn.getMetaData();
+            // 元数据中的表名大小写因数据库而异，依次尝试原样、小写、大写
+            for (String name : new LinkedHashSet<String>(Arrays.asList(table, table.toLowerCase(), table.toUpperCase()))) {
+                rs = metaData.getPrimaryKeys(null == schema ? conn.getCatalog() : null, schema, name);
+                SortedMap<Short, String> keyColumns = new TreeMap<Short, String>();
+                while (rs.next()) {
+                    keyColumns.put(rs.getShort("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+                }
+                DBUtil.closeDBResources(rs, null, null);
+                rs = null;
+                if (!keyColumns.isEmpty()) {
+                    return new ArrayList<String>(keyColumns.values());
+                }
+            }
+        } catch (SQLException e) {
+            LOG.warn("获取表:{} 的主键信息失败. 因为:{}", tableName, e.getMessage());
+        } finally {
+            DBUtil.closeDBResources(rs, null, null);
+        }
+        return new ArrayList<String>();
+    }
+
+    // 去掉 `name`、"name"、[name] 形式的引号
+    public static String stripQuote(String name) {
+        String result = name.trim();
+        if (result.length() >= 2 && (result.startsWith("`") || result.startsWith("\"") || result.startsWith("["))) {
+            result = result.substring(1, result.length() - 1);
+        }
+        return result;
+    }
+
     public static boolean testConnWithoutRetry(DataBaseType dataBaseType,
                                                String url, String user, String pass, boolean checkSlave){
         Connection connection = null;
@@ -84,6 +84,71 @@ public final class RdbmsRangeSplitWrap {
     }
     
 
+    /**
+     * 按样本分位点生成首尾相接的范围：n 个切分点得到 n+1 个范围，覆盖切分列都不为 NULL 的全部数据。
+     * points 需已按切分列排序并去重，每个切分点是各切分列已转换好的常量(见 toSqlConstant)。
+     * 多个切分列时使用行值比较 (a,b) &lt; (x,y)，MySQL 和 PostgreSQL 都支持。
+     */
+    public static List<String> wrapQuantileRange(List<String[]> points, String[] columnNames) {
+        String columns = wrapRowValue(columnNames);
+        String notNull = columnNames.length > 1
+                ? String.format("%s AND ", genNotNullCondition(columnNames)) : "";
+
+        List<String> result = new ArrayList<String>();
+        if (null == points || points.isEmpty()) {
+            result.add(wrapNotNullRange(columnNames));
+            return result;
+        }
+
+        result.add(String.format(" (%s%s < %s) ", notNull, columns, wrapRowValue(points.get(0))));
+        for (int i = 0, len = points.size() - 1; i < len; i++) {
+            result.add(String.format(" (%s%s <= %s AND %s < %s) ", notNull, wrapRowValue(points.get(i)),
+                    columns, columns, wrapRowValue(points.get(i + 1))));
+        }
+        result.add(String.format(" (%s%s <= %s) ", notNull, wrapRowValue(points.get(points.size() - 1)), columns));
+        return result;
+    }
+
+    public static String wrapNotNullRange(String[] columnNames) {
+        return String.format(" (%s) ", genNotNullCondition(columnNames));
+    }
+
+    /**
+     * 切分列任意一个为 NULL 的数据，与 wrapQuantileRange 的范围互补
+     */
+    public static String wrapNullRange(String[] columnNames) {
+        List<String> conditions = new ArrayList<String>();
+        for (String columnName : columnNames) {
+            conditions.add(String.format("%s IS NULL", columnName));
+        }
+        return String.format(" (%s) ", StringUtils.join(conditions, " OR "));
+    }
+
+    /**
+     * 把切分点的取值转换为 sql 常量，value 为 null 时返回 NULL
+     */
+    public static String toSqlConstant(String value, String quote, DataBaseType dataBaseType) {
+        if (null == value) {
+            return "NULL";
+        }
+        return quote + quoteConstantValue(value, dataBaseType) + quote;
+    }
+
+    private static String genNotNullCondition(String[] columnNames) {
+        List<String> conditions = new ArrayList<String>();
+        for (String columnName : columnNames) {
+            conditions.add(String.format("%s IS NOT NULL", columnName));
+        }
+        return StringUtils.join(conditions, " AND ");
+    }
+
+    private static String wrapRowValue(String[] values) {
+        if (values.length == 1) {
+            return values[0];
+        }
+        return String.format("(%s)", StringUtils.join(values, ","));
+    }
+
     private static String quoteConstantValue(String aString, DataBaseType dataBaseType) {
         if (null == dataBaseType) {
             return aString;
@@ -91,7 +156,8 @@ public final class RdbmsRangeSplitWrap {
 
         if (dataBaseType.equals(DataBaseType.MySql)) {
             return aString.replace("'", "''").replace("\\", "\\\\");
-        } else if (dataBaseType.equals(DataBaseType.Oracle) || dataBaseType.equals(DataBaseType.SQLServer)) {
+        } else if (dataBaseType.equals(DataBaseType.Oracle) || dataBaseType.equals(DataBaseType.SQLServer)
+                || dataBaseType.equals(DataBaseType.PostgreSQL)) {
             return aString.replace("'", "''");
         } else {
             //TODO other type supported
@@ -4,13 +4,20 @@ import com.alibaba.datax.common.element.Column;
 import com.alibaba.datax.common.element.Record;
 import com.alibaba.datax.common.exception.DataXException;
 import com.alibaba.datax.common.plugin.RecordReceiver;
+import com.alibaba.datax.common.plugin.TaskCheckpoint;
 import com.alibaba.datax.common.plugin.TaskPluginCollector;
 import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.plugin.rdbms.util.ConnectionPool;
 import com.alibaba.datax.plugin.rdbms.util.DBUtil;
 import com.alibaba.datax.plugin.rdbms.util.DBUtilErrorCode;
 import com.alibaba.datax.plugin.rdbms.util.DataBaseType;
 import com.alibaba.datax.plugin.rdbms.util.RdbmsException;
+import com.alibaba.datax.plugin.rdbms.writer.util.BulkLoadEncoder;
+import com.alibaba.datax.plugin.rdbms.writer.util.ColumnSetter;
+import com.alibaba.datax.plugin.rdbms.writer.util.LaneCheckpoint;
+import com.alibaba.datax.plugin.rdbms.writer.util.MysqlBulkLoader;
 import com.alibaba.datax.plugin.rdbms.writer.util.OriginalConfPretreatmentUtil;
+import com.alibaba.datax.plugin.rdbms.writer.util.PostgresqlBulkLoader;
 import com.alibaba.datax.plugin.rdbms.writer.util.WriterUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Triple;
@@ -20,15 +27,24 @@ import org.slf4j.LoggerFactory;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 public class CommonRdbmsWriter {
 
     public static class Job {
         private DataBaseType dataBaseType;
 
+        // 本 job 的连接池标识，同一进程内其它 job 的连接池互不影响
+        private final String connectionPoolScope = UUID.randomUUID().toString();
+
         private static final Logger LOG = LoggerFactory
                 .getLogger(Job.class);
 
@@ -129,9 +145,21 @@ public class CommonRdbmsWriter {
 
         public List<Configuration> split(Configuration originalConfig,
                                          int mandatoryNumber) {
+            setConnectionPoolMarks(originalConfig, mandatoryNumber);
             return WriterUtil.doSplit(originalConfig, mandatoryNumber);
         }
 
+        /**
+         * 设置 task 使用的连接池：连接池只在本 job 的 task 之间共享，由 destroy 关闭。
+         * 同时运行的task数不会超过channel数，每个task最多使用 writerThreadCount 个连接，以此作为每个连接池的上限。
+         * 不经过 split 自行切分的插件需要调用该方法，否则 task 不使用连接池
+         */
+        public void setConnectionPoolMarks(Configuration originalConfig, int mandatoryNumber) {
+            originalConfig.set(Constant.CONNECTION_POOL_SCOPE_MARK, this.connectionPoolScope);
+            originalConfig.set(Constant.CONNECTION_POOL_SIZE_MARK,
+                    mandatoryNumber * Math.max(1, originalConfig.getInt(Key.WRITER_THREAD_COUNT, 1)));
+        }
+
         // 一般来说，是需要推迟到 task 中进行post 的执行（单表情况例外）
         public void post(Configuration originalConfig) {
             int tableNumber = originalConfig.getInt(Constant.TABLE_NUMBER_MARK);
@@ -166,6 +194,7 @@ public class CommonRdbmsWriter {
         }
 
         public void destroy(Configuration originalConfig) {
+            ConnectionPool.closeAll(this.connectionPoolScope);
         }
 
     }
@@ -186,6 +215,10 @@ public class CommonRdbmsWriter {
         protected List<String> postSqls;
         protected int batchSize;
         protected int batchByteSize;
+        protected boolean asyncFlush;
+        protected int maxInFlightBatches;
+        protected int writerThreadCount;
+        protected List<String> routeColumns;
         protected int columnNumber = 0;
         protected TaskPluginCollector taskPluginCollector;
 
@@ -198,6 +231,21 @@ public class CommonRdbmsWriter {
         protected String writeMode;
         protected boolean emptyAsNull;
         protected Triple<List<String>, List<Integer>, List<String>> resultSetMetaData;
+        // 按目的表字段类型预先解析的 setter，usePrecompiledSetters 返回 false 时为 null
+        private ColumnSetter[] columnSetters;
+
+        private TaskCheckpoint taskCheckpoint;
+
+        // startWrite 借出连接的连接池，startWriteWithConnection 直接传入的连接不属于连接池
+        protected ConnectionPool connectionPool;
+
+        protected LoadMode loadMode;
+        // multiValues 方式下一条语句写入的行数，受数据库单条语句参数个数的限制
+        private int multiValuesRowNumber;
+        private String multiValuesSql;
+        private String bulkLoadSql;
+        // 多连接并行写入时每个写入线程各自使用一个编码缓冲区
+        private final ThreadLocal<BulkLoadEncoder> bulkLoadEncoders = new ThreadLocal<BulkLoadEncoder>();
 
         public Task(DataBaseType dataBaseType) {
             this.dataBaseType = dataBaseType;
@@ -231,9 +279,19 @@ public class CommonRdbmsWriter {
             this.postSqls = writerSliceConfig.getList(Key.POST_SQL, String.class);
             this.batchSize = writerSliceConfig.getInt(Key.BATCH_SIZE, Constant.DEFAULT_BATCH_SIZE);
             this.batchByteSize = writerSliceConfig.getInt(Key.BATCH_BYTE_SIZE, Constant.DEFAULT_BATCH_BYTE_SIZE);
+            this.asyncFlush = writerSliceConfig.getBool(Key.ASYNC_FLUSH, false);
+            this.maxInFlightBatches = Math.max(1, writerSliceConfig.getInt(Key.MAX_IN_FLIGHT_BATCHES,
+                    Constant.DEFAULT_MAX_IN_FLIGHT_BATCHES));
+            this.writerThreadCount = Math.max(1, writerSliceConfig.getInt(Key.WRITER_THREAD_COUNT, 1));
+            this.routeColumns = writerSliceConfig.getList(Key.ROUTE_COLUMNS, String.class);
 
             writeMode = writerSliceConfig.getString(Key.WRITE_MODE, "INSERT");
             emptyAsNull = writerSliceConfig.getBool(Key.EMPTY_AS_NULL, true);
+            this.loadMode = LoadMode.parse(writerSliceConfig.getString(Key.LOAD_MODE), this.dataBaseType, writeMode);
+            if (this.loadMode == LoadMode.BULK_LOAD && this.dataBaseType == DataBaseType.MySql
+                    && !this.jdbcUrl.contains("allowLoadLocalInfile")) {
+                this.jdbcUrl = this.jdbcUrl + (this.jdbcUrl.contains("?") ? "&" : "?") + "allowLoadLocalInfile=true";
+            }
             INSERT_OR_REPLACE_TEMPLATE = writerSliceConfig.getString(Constant.INSERT_OR_REPLACE_TEMPLATE_MARK);
             this.writeRecordSql = String.format(INSERT_OR_REPLACE_TEMPLATE, this.table);
 
@@ -265,60 +323,287 @@ public class CommonRdbmsWriter {
             // 用于写入数据的时候的类型根据目的表字段类型转换
             this.resultSetMetaData = DBUtil.getColumnMetaData(connection,
                     this.table, StringUtils.join(this.columns, ","));
+            if (usePrecompiledSetters()) {
+                this.columnSetters = ColumnSetter.compile(this.resultSetMetaData.getLeft(),
+                        this.resultSetMetaData.getMiddle(), this.resultSetMetaData.getRight(),
+                        this.dataBaseType, this.emptyAsNull);
+            }
             // 写数据库的SQL语句
             calcWriteRecordSql();
+            prepareLoadMode();
+
+            int[] routeColumnIndexes = this.writerThreadCount > 1 ? calcRouteColumnIndexes(connection) : null;
+            if (null != routeColumnIndexes) {
+                startParallelWrite(recordReceiver, connection, routeColumnIndexes);
+                return;
+            }
 
             List<Record> writeBuffer = new ArrayList<Record>(this.batchSize);
             int bufferBytes = 0;
+            long receivedRecords = 0;
+            boolean succeeded = false;
+            AsyncFlusher asyncFlusher = this.asyncFlush
+                    ? new AsyncFlusher(connection, Thread.currentThread().getName() + "-flusher") : null;
             try {
                 Record record;
                 while ((record = recordReceiver.getFromReader()) != null) {
-                    if (record.getColumnNumber() != this.columnNumber) {
-                        // 源头读取字段列数与目的表字段写入列数不相等，直接报错
-                        throw DataXException
-                                .asDataXException(
-                                        DBUtilErrorCode.CONF_ERROR,
-                                        String.format(
-                                                "列配置信息有错误. 因为您配置的任务中，源头读取字段数:%s 与 目的表要写入的字段数:%s 不相等. 请检查您的配置并作出修改.",
-                                                record.getColumnNumber(),
-                                                this.columnNumber));
-                    }
+                    checkColumnNumber(record);
 
                     writeBuffer.add(record);
                     bufferBytes += record.getMemorySize();
+                    receivedRecords++;
 
                     if (writeBuffer.size() >= batchSize || bufferBytes >= batchByteSize) {
-                        doBatchInsert(connection, writeBuffer);
-                        writeBuffer.clear();
+                        if (null != asyncFlusher) {
+                            writeBuffer = asyncFlusher.flush(writeBuffer, receivedRecords);
+                        } else {
+                            doBatchInsert(connection, writeBuffer);
+                            commitCheckpoint(receivedRecords);
+                            releaseRecords(writeBuffer);
+                        }
                         bufferBytes = 0;
                     }
                 }
                 if (!writeBuffer.isEmpty()) {
-                    doBatchInsert(connection, writeBuffer);
-                    writeBuffer.clear();
+                    if (null != asyncFlusher) {
+                        writeBuffer = asyncFlusher.flush(writeBuffer, receivedRecords);
+                    } else {
+                        doBatchInsert(connection, writeBuffer);
+                        commitCheckpoint(receivedRecords);
+                        releaseRecords(writeBuffer);
+                    }
                     bufferBytes = 0;
                 }
+                if (null != asyncFlusher) {
+                    asyncFlusher.await();
+                }
+                succeeded = true;
             } catch (Exception e) {
                 throw DataXException.asDataXException(
                         DBUtilErrorCode.WRITE_DATA_ERROR, e);
             } finally {
+                if (null != asyncFlusher) {
+                    // 确保后台线程不再使用连接后才关闭/归还连接
+                    asyncFlusher.shutdown();
+                }
                 writeBuffer.clear();
                 bufferBytes = 0;
-                DBUtil.closeDBResources(null, null, connection);
+                closeConnection(connection, succeeded);
+            }
+        }
+
+        protected void checkColumnNumber(Record record) {
+            if (record.getColumnNumber() != this.columnNumber) {
+                // 源头读取字段列数与目的表字段写入列数不相等，直接报错
+                throw DataXException
+                        .asDataXException(
+                                DBUtilErrorCode.CONF_ERROR,
+                                String.format(
+                                        "列配置信息有错误. 因为您配置的任务中，源头读取字段数:%s 与 目的表要写入的字段数:%s 不相等. 请检查您的配置并作出修改.",
+                                        record.getColumnNumber(),
+                                        this.columnNumber));
+            }
+        }
+
+        /**
+         * 多连接并行写入：按路由列的 hash 把 record 分配到 writerThreadCount 个连接，每个连接由一个 AsyncFlusher 按顺序提交。
+         * 相同路由列取值的 record 总是落在同一个连接上，replace/update 下同一主键的写入顺序不变。
+         * 没有路由列(insert 且目的表没有主键)时，按 batch 轮流分配。
+         * 各连接提交的顺序与接收顺序不一致，由 LaneCheckpoint 计算所有连接都已提交的前缀，再向 TaskCheckpoint 确认断点。
+         */
+        private void startParallelWrite(RecordReceiver recordReceiver, Connection connection, int[] routeColumnIndexes) {
+            int laneNumber = this.writerThreadCount;
+            List<Connection> connections = new ArrayList<Connection>(laneNumber);
+            List<AsyncFlusher> flushers = new ArrayList<AsyncFlusher>(laneNumber);
+            List<List<Record>> buffers = new ArrayList<List<Record>>(laneNumber);
+            int[] bufferBytes = new int[laneNumber];
+            int roundRobinLane = 0;
+            long receivedRecords = 0;
+            LaneCheckpoint laneCheckpoint = new LaneCheckpoint(laneNumber);
+            boolean succeeded = false;
+
+            connections.add(connection);
+            try {
+                for (int i = 1; i < laneNumber; i++) {
+                    connections.add(this.connectionPool.borrow());
+                }
+                String threadName = Thread.currentThread().getName();
+                for (int i = 0; i < laneNumber; i++) {
+                    flushers.add(new AsyncFlusher(connections.get(i), threadName + "-writer-" + i,
+                            i, laneCheckpoint));
+                    buffers.add(new ArrayList<Record>(this.batchSize));
+                }
+                LOG.info("write with [{}] connections, route columns:{}. context info:{}.", laneNumber,
+                        routeColumnIndexes.length == 0 ? "none" : this.routeColumns, BASIC_MESSAGE);
+
+                Record record;
+                while ((record = recordReceiver.getFromReader()) != null) {
+                    checkColumnNumber(record);
+
+                    int lane = routeColumnIndexes.length == 0
+                            ? roundRobinLane : routeLane(record, routeColumnIndexes, laneNumber);
+                    List<Record> buffer = buffers.get(lane);
+                    receivedRecords++;
+                    if (buffer.isEmpty()) {
+                        laneCheckpoint.bufferStarted(lane, receivedRecords);
+                    }
+                    buffer.add(record);
+                    bufferBytes[lane] += record.getMemorySize();
+
+                    if (buffer.size() >= batchSize || bufferBytes[lane] >= batchByteSize) {
+                        buffers.set(lane, flushers.get(lane).flush(buffer, receivedRecords));
+                        bufferBytes[lane] = 0;
+                        roundRobinLane = (roundRobinLane + 1) % laneNumber;
+                    }
+                }
+                for (int i = 0; i < laneNumber; i++) {
+                    if (!buffers.get(i).isEmpty()) {
+                        buffers.set(i, flushers.get(i).flush(buffers.get(i), receivedRecords));
+                    }
+                }
+                for (AsyncFlusher flusher : flushers) {
+                    flusher.await();
+                }
+                succeeded = true;
+            } catch (Exception e) {
+                throw DataXException.asDataXException(
+                        DBUtilErrorCode.WRITE_DATA_ERROR, e);
+            } finally {
+                for (AsyncFlusher flusher : flushers) {
+                    flusher.shutdown();
+                }
+                for (List<Record> buffer : buffers) {
+                    buffer.clear();
+                }
+                for (Connection laneConnection : connections) {
+                    closeConnection(laneConnection, succeeded);
+                }
+            }
+        }
+
+        private int routeLane(Record record, int[] routeColumnIndexes, int laneNumber) {
+            int hash = 0;
+            for (int index : routeColumnIndexes) {
+                String value = record.getColumn(index).asString();
+                hash = 31 * hash + (null == value ? 0 : value.hashCode());
+            }
+            return (hash & Integer.MAX_VALUE) % laneNumber;
+        }
+
+        /**
+         * 计算路由列在 column 中的下标，返回 null 表示不能并行写入，退回单连接方式；
+         * 返回空数组表示不需要路由(insert 且没有主键)
+         */
+        private int[] calcRouteColumnIndexes(Connection connection) {
+            if (!isPooled(connection)) {
+                LOG.warn("连接不是从连接池获取的, 忽略 writerThreadCount 配置, 使用单连接写入. context info:{}.", BASIC_MESSAGE);
+                return null;
+            }
+
+            List<String> keyColumns = this.routeColumns;
+            if (null == keyColumns || keyColumns.isEmpty()) {
+                keyColumns = DBUtil.getPrimaryKeyColumns(connection, this.table);
+                this.routeColumns = keyColumns;
             }
+
+            boolean isInsert = null == this.writeMode || this.writeMode.trim().toLowerCase().startsWith("insert");
+            if (keyColumns.isEmpty()) {
+                if (isInsert) {
+                    return new int[0];
+                }
+                LOG.warn("没有找到表[{}]的主键, 也没有配置 routeColumns, 为保证 {} 的写入顺序, 使用单连接写入.",
+                        this.table, this.writeMode);
+                return null;
+            }
+
+            int[] indexes = new int[keyColumns.size()];
+            for (int i = 0; i < keyColumns.size(); i++) {
+                indexes[i] = indexOfColumn(keyColumns.get(i));
+                if (indexes[i] < 0) {
+                    if (isInsert) {
+                        return new int[0];
+                    }
+                    LOG.warn("路由列[{}]不在 column 配置中, 为保证 {} 的写入顺序, 使用单连接写入.",
+                            keyColumns.get(i), this.writeMode);
+                    return null;
+                }
+            }
+            return indexes;
         }
 
-        // TODO 改用连接池，确保每次获取的连接都是可用的（注意：连接可能需要每次都初始化其 session）
+        private int indexOfColumn(String columnName) {
+            String name = DBUtil.stripQuote(columnName);
+            for (int i = 0; i < this.columns.size(); i++) {
+                if (DBUtil.stripQuote(this.columns.get(i)).equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // 连接从连接池借出，借出时校验可用性；session 只在连接创建时初始化一次。
+        // 切分时没有设置连接池(插件自行切分)则按原来的方式每个 task 新建连接
         public void startWrite(RecordReceiver recordReceiver,
                                Configuration writerSliceConfig,
                                TaskPluginCollector taskPluginCollector) {
-            Connection connection = DBUtil.getConnection(this.dataBaseType,
-                    this.jdbcUrl, username, password);
-            DBUtil.dealWithSessionConfig(connection, writerSliceConfig,
-                    this.dataBaseType, BASIC_MESSAGE);
+            String poolScope = writerSliceConfig.getString(Constant.CONNECTION_POOL_SCOPE_MARK, null);
+            Integer poolSize = writerSliceConfig.getInt(Constant.CONNECTION_POOL_SIZE_MARK);
+            Connection connection;
+            if (null != poolScope && null != poolSize) {
+                this.connectionPool = ConnectionPool.getPool(poolScope, this.dataBaseType,
+                        this.jdbcUrl, username, password, writerSliceConfig, BASIC_MESSAGE, poolSize);
+                connection = this.connectionPool.borrow();
+            } else {
+                connection = DBUtil.getConnection(this.dataBaseType,
+                        this.jdbcUrl, username, password);
+                DBUtil.dealWithSessionConfig(connection, writerSliceConfig,
+                        this.dataBaseType, BASIC_MESSAGE);
+            }
             startWriteWithConnection(recordReceiver, taskPluginCollector, connection);
         }
 
+        protected boolean isPooled(Connection connection) {
+            return this.connectionPool != null && this.connectionPool.isPooled(connection);
+        }
+
+        // 池中的连接归还给连接池，写入失败时直接关闭，其余连接直接关闭
+        protected void closeConnection(Connection connection, boolean reusable) {
+            if (isPooled(connection)) {
+                this.connectionPool.release(connection, reusable);
+            } else {
+                DBUtil.closeDBResources(null, null, connection);
+            }
+        }
+
+        // 池中连接的 PreparedStatement 按 sql 缓存，跨 batch 复用，由连接池负责关闭
+        protected PreparedStatement prepareWriteStatement(Connection connection)
+                throws SQLException {
+            if (isPooled(connection)) {
+                return this.connectionPool.prepareStatement(connection, this.writeRecordSql);
+            }
+            return connection.prepareStatement(this.writeRecordSql);
+        }
+
+        protected void closeWriteStatement(Connection connection, PreparedStatement preparedStatement) {
+            if (!isPooled(connection)) {
+                DBUtil.closeDBResources(preparedStatement, null);
+            }
+        }
+
+
+        /**
+         * 由插件在 startWrite 前设置，为 null 时不确认断点
+         */
+        public void setTaskCheckpoint(TaskCheckpoint taskCheckpoint) {
+            this.taskCheckpoint = taskCheckpoint;
+        }
+
+        // 本次收到的前 receivedRecords 条 record 都已提交，reader 可以从对应的位置之后重试
+        protected void commitCheckpoint(long receivedRecords) {
+            if (null != this.taskCheckpoint && receivedRecords > 0) {
+                this.taskCheckpoint.commit(receivedRecords);
+            }
+        }
 
         public void post(Configuration writerSliceConfig) {
             int tableNumber = writerSliceConfig.getInt(
@@ -341,13 +626,65 @@ public class CommonRdbmsWriter {
         public void destroy(Configuration writerSliceConfig) {
         }
 
+        // 写入完成后record不再被引用，交还给框架复用
+        protected void releaseRecords(List<Record> buffer) {
+            for (Record record : buffer) {
+                record.release();
+            }
+            buffer.clear();
+        }
+
         protected void doBatchInsert(Connection connection, List<Record> buffer)
                 throws SQLException {
+            try {
+                executeBatchInsert(connection, buffer);
+            } catch (SQLException e) {
+                LOG.warn("回滚此次写入, 采用二分拆分batch的方式重新提交. 因为:" + e.getMessage());
+                connection.rollback();
+                doBisectInsert(connection, buffer);
+            }
+        }
+
+        // 把写入失败的 batch 对半拆分后分别按 batch 重试，只有定位到的出错行才逐行写入并收集为脏数据，
+        // 每一条脏数据带来的重试次数约为 log2(batchSize)，而不是整批逐行写入
+        protected void doBisectInsert(Connection connection, List<Record> buffer)
+                throws SQLException {
+            if (buffer.size() <= 1) {
+                doOneInsert(connection, buffer);
+                return;
+            }
+
+            int middle = buffer.size() / 2;
+            List<List<Record>> halves = new ArrayList<List<Record>>(2);
+            halves.add(buffer.subList(0, middle));
+            halves.add(buffer.subList(middle, buffer.size()));
+            for (List<Record> half : halves) {
+                try {
+                    executeBatchInsert(connection, half);
+                } catch (SQLException e) {
+                    LOG.debug("回滚{}条记录的写入, 继续拆分. 因为:{}", half.size(), e.getMessage());
+                    connection.rollback();
+                    doBisectInsert(connection, half);
+                }
+            }
+        }
+
+        // 以一个事务批量写入 buffer，SQLException 由调用方回滚后处理
+        protected void executeBatchInsert(Connection connection, List<Record> buffer)
+                throws SQLException {
+            if (this.loadMode == LoadMode.MULTI_VALUES) {
+                executeMultiValuesInsert(connection, buffer);
+                return;
+            }
+            if (this.loadMode == LoadMode.BULK_LOAD) {
+                executeBulkLoad(connection, buffer);
+                return;
+            }
+
             PreparedStatement preparedStatement = null;
             try {
                 connection.setAutoCommit(false);
-                preparedStatement = connection
-                        .prepareStatement(this.writeRecordSql);
+                preparedStatement = prepareWriteStatement(connection);
 
                 for (Record record : buffer) {
                     preparedStatement = fillPreparedStatement(
@@ -357,23 +694,116 @@ public class CommonRdbmsWriter {
                 preparedStatement.executeBatch();
                 connection.commit();
             } catch (SQLException e) {
-                LOG.warn("回滚此次写入, 采用每次写入一行方式提交. 因为:" + e.getMessage());
-                connection.rollback();
-                doOneInsert(connection, buffer);
+                if (null != preparedStatement) {
+                    // 复用的 statement 上可能残留未执行的 batch
+                    preparedStatement.clearBatch();
+                }
+                throw e;
             } catch (Exception e) {
                 throw DataXException.asDataXException(
                         DBUtilErrorCode.WRITE_DATA_ERROR, e);
             } finally {
-                DBUtil.closeDBResources(preparedStatement, null);
+                closeWriteStatement(connection, preparedStatement);
+            }
+        }
+
+        // 以一个事务写入 buffer，每条语句写入 multiValuesRowNumber 行，buffer 本身已受 batchSize/batchByteSize 限制
+        protected void executeMultiValuesInsert(Connection connection, List<Record> buffer)
+                throws SQLException {
+            if (null == this.multiValuesSql) {
+                prepareLoadMode();
+            }
+
+            try {
+                connection.setAutoCommit(false);
+                for (int start = 0; start < buffer.size(); start += this.multiValuesRowNumber) {
+                    List<Record> rows = buffer.subList(start,
+                            Math.min(start + this.multiValuesRowNumber, buffer.size()));
+                    // 只缓存整行数的语句，末尾不足的部分每次单独生成
+                    boolean cached = rows.size() == this.multiValuesRowNumber && isPooled(connection);
+                    PreparedStatement preparedStatement = null;
+                    try {
+                        preparedStatement = cached
+                                ? this.connectionPool.prepareStatement(connection, this.multiValuesSql)
+                                : connection.prepareStatement(rows.size() == this.multiValuesRowNumber
+                                ? this.multiValuesSql : calcMultiValuesSql(rows.size()));
+                        for (int i = 0; i < rows.size(); i++) {
+                            preparedStatement = fillPreparedStatement(preparedStatement, rows.get(i),
+                                    i * this.columnNumber);
+                        }
+                        preparedStatement.executeUpdate();
+                    } finally {
+                        if (cached) {
+                            if (null != preparedStatement) {
+                                preparedStatement.clearParameters();
+                            }
+                        } else {
+                            DBUtil.closeDBResources(preparedStatement, null);
+                        }
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                throw e;
+            } catch (Exception e) {
+                throw DataXException.asDataXException(
+                        DBUtilErrorCode.WRITE_DATA_ERROR, e);
             }
         }
 
+        // 以一个事务通过 COPY(PostgreSQL) 或 LOAD DATA LOCAL INFILE(MySQL) 写入 buffer
+        protected void executeBulkLoad(Connection connection, List<Record> buffer)
+                throws SQLException {
+            if (null == this.bulkLoadSql) {
+                prepareLoadMode();
+            }
+            BulkLoadEncoder bulkLoadEncoder = this.bulkLoadEncoders.get();
+            if (null == bulkLoadEncoder) {
+                bulkLoadEncoder = new BulkLoadEncoder(this.dataBaseType, this.columns,
+                        this.resultSetMetaData.getMiddle(), this.resultSetMetaData.getRight(), this.emptyAsNull);
+                this.bulkLoadEncoders.set(bulkLoadEncoder);
+            }
+
+            try {
+                connection.setAutoCommit(false);
+                bulkLoadEncoder.encode(buffer);
+                if (this.dataBaseType == DataBaseType.PostgreSQL) {
+                    PostgresqlBulkLoader.load(connection, this.bulkLoadSql, bulkLoadEncoder.getInputStream());
+                } else {
+                    MysqlBulkLoader.load(connection, this.bulkLoadSql, bulkLoadEncoder.getInputStream(), buffer.size());
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                throw e;
+            } catch (Exception e) {
+                throw DataXException.asDataXException(
+                        DBUtilErrorCode.WRITE_DATA_ERROR, e);
+            }
+        }
+
+        // 在开始写入前生成 multiValues/bulkLoad 的语句，写入线程之间只读共享
+        protected void prepareLoadMode() {
+            if (this.loadMode == LoadMode.MULTI_VALUES && null == this.multiValuesSql) {
+                this.multiValuesRowNumber = Math.max(1, Math.min(this.batchSize,
+                        getMaxParameterNumber() / this.columnNumber));
+                this.multiValuesSql = calcMultiValuesSql(this.multiValuesRowNumber);
+            } else if (this.loadMode == LoadMode.BULK_LOAD && null == this.bulkLoadSql) {
+                this.bulkLoadSql = WriterUtil.getBulkLoadSql(this.columns, this.resultSetMetaData.getMiddle(),
+                        this.table, this.writeMode, this.dataBaseType);
+                LOG.info("bulkLoad sql is [{}]. context info:{}.", this.bulkLoadSql, BASIC_MESSAGE);
+            }
+        }
+
+        protected int getMaxParameterNumber() {
+            // PostgreSQL 协议中参数个数为 int16，MySQL 预处理语句最多 65535 个参数
+            return this.dataBaseType == DataBaseType.PostgreSQL ? Short.MAX_VALUE : 65535;
+        }
+
         protected void doOneInsert(Connection connection, List<Record> buffer) {
             PreparedStatement preparedStatement = null;
             try {
                 connection.setAutoCommit(true);
-                preparedStatement = connection
-                        .prepareStatement(this.writeRecordSql);
+                preparedStatement = prepareWriteStatement(connection);
 
                 for (Record record : buffer) {
                     try {
@@ -393,13 +823,20 @@ public class CommonRdbmsWriter {
                 throw DataXException.asDataXException(
                         DBUtilErrorCode.WRITE_DATA_ERROR, e);
             } finally {
-                DBUtil.closeDBResources(preparedStatement, null);
+                closeWriteStatement(connection, preparedStatement);
             }
         }
 
         // 直接使用了两个类变量：columnNumber,resultSetMetaData
         protected PreparedStatement fillPreparedStatement(PreparedStatement preparedStatement, Record record)
                 throws SQLException {
+            ColumnSetter[] setters = this.columnSetters;
+            if (null != setters) {
+                for (int i = 0; i < this.columnNumber; i++) {
+                    setters[i].set(preparedStatement, i + 1, record.getColumn(i));
+                }
+                return preparedStatement;
+            }
             for (int i = 0; i < this.columnNumber; i++) {
                 int columnSqltype = this.resultSetMetaData.getMiddle().get(i);
                 String typeName = this.resultSetMetaData.getRight().get(i);
@@ -409,6 +846,34 @@ public class CommonRdbmsWriter {
             return preparedStatement;
         }
 
+        // multiValues 方式下一条语句包含多行，第 n 行的参数从 n * columnNumber + 1 开始
+        protected PreparedStatement fillPreparedStatement(PreparedStatement preparedStatement, Record record,
+                                                          int parameterOffset) throws SQLException {
+            ColumnSetter[] setters = this.columnSetters;
+            if (null != setters) {
+                for (int i = 0; i < this.columnNumber; i++) {
+                    setters[i].set(preparedStatement, parameterOffset + i + 1, record.getColumn(i));
+                }
+                return preparedStatement;
+            }
+            for (int i = 0; i < this.columnNumber; i++) {
+                int columnSqltype = this.resultSetMetaData.getMiddle().get(i);
+                String typeName = this.resultSetMetaData.getRight().get(i);
+                preparedStatement = fillPreparedStatementColumnType(preparedStatement, parameterOffset + i + 1, i,
+                        columnSqltype, typeName, record.getColumn(i));
+            }
+
+            return preparedStatement;
+        }
+
+        /**
+         * 是否使用按目的表字段类型预先解析的 ColumnSetter 填充参数。
+         * 子类自定义了 fillPreparedStatementColumnType 的类型转换时需要覆盖该方法并返回 false，此时逐个单元格调用 fillPreparedStatementColumnType
+         */
+        protected boolean usePrecompiledSetters() {
+            return true;
+        }
+
         protected PreparedStatement fillPreparedStatementColumnType(PreparedStatement preparedStatement, int columnIndex,
                                                                     int columnSqltype, Column column) throws SQLException {
             return fillPreparedStatementColumnType(preparedStatement, columnIndex, columnSqltype, null, column);
@@ -416,159 +881,143 @@ public class CommonRdbmsWriter {
 
         protected PreparedStatement fillPreparedStatementColumnType(PreparedStatement preparedStatement, int columnIndex,
                                                                     int columnSqltype, String typeName, Column column) throws SQLException {
-            java.util.Date utilDate;
-            switch (columnSqltype) {
-                case Types.CHAR:
-                case Types.NCHAR:
-                case Types.CLOB:
-                case Types.NCLOB:
-                case Types.VARCHAR:
-                case Types.LONGVARCHAR:
-                case Types.NVARCHAR:
-                case Types.LONGNVARCHAR:
-                    preparedStatement.setString(columnIndex + 1, column
-                            .asString());
-                    break;
-
-                case Types.SMALLINT:
-                case Types.INTEGER:
-                case Types.BIGINT:
-                case Types.NUMERIC:
-                case Types.DECIMAL:
-                case Types.FLOAT:
-                case Types.REAL:
-                case Types.DOUBLE:
-                    String strValue = column.asString();
-                    if (emptyAsNull && "".equals(strValue)) {
-                        preparedStatement.setString(columnIndex + 1, null);
-                    } else {
-                        preparedStatement.setString(columnIndex + 1, strValue);
-                    }
-                    break;
+            return fillPreparedStatementColumnType(preparedStatement, columnIndex + 1, columnIndex, columnSqltype, typeName, column);
+        }
 
-                //tinyint is a little special in some database like mysql {boolean->tinyint(1)}
-                case Types.TINYINT:
-                    Long longValue = column.asLong();
-                    if (null == longValue) {
-                        preparedStatement.setString(columnIndex + 1, null);
-                    } else {
-                        preparedStatement.setString(columnIndex + 1, longValue.toString());
-                    }
-                    break;
+        // 类型转换规则统一由 ColumnSetter 定义
+        protected PreparedStatement fillPreparedStatementColumnType(PreparedStatement preparedStatement, int parameterIndex, int columnIndex,
+                                                                    int columnSqltype, String typeName, Column column) throws SQLException {
+            if (typeName == null) {
+                typeName = this.resultSetMetaData.getRight().get(columnIndex);
+            }
+            ColumnSetter.compile(this.resultSetMetaData.getLeft().get(columnIndex), columnSqltype, typeName,
+                    this.dataBaseType, this.emptyAsNull).set(preparedStatement, parameterIndex, column);
+            return preparedStatement;
+        }
 
-                // for mysql bug, see http://bugs.mysql.com/bug.php?id=35115
-                case Types.DATE:
-                    if (typeName == null) {
-                        typeName = this.resultSetMetaData.getRight().get(columnIndex);
+        /**
+         * 异步刷写：由后台单线程按提交顺序在给定的连接上执行 doBatchInsert，读取线程同时填充下一个 buffer。
+         * <p/>
+         * 共 maxInFlightBatches + 1 个 buffer 轮换使用，在途 batch 达到上限时读取线程阻塞，内存占用有界；
+         * 单线程单连接顺序提交，update/replace 的写入顺序与同步方式完全一致。后台线程出错后不再提交，错误在读取线程中抛出。
+         */
+        private class AsyncFlusher {
+            private final Connection connection;
+            private final ExecutorService executor;
+            private final BlockingQueue<List<Record>> freeBuffers;
+            // 并行写入时该 flusher 对应的 lane，单连接写入时 laneCheckpoint 为 null
+            private final int lane;
+            private final LaneCheckpoint laneCheckpoint;
+            private volatile Throwable error;
+
+            AsyncFlusher(Connection connection, String threadName) {
+                this(connection, threadName, 0, null);
+            }
+
+            AsyncFlusher(Connection connection, final String threadName, int lane, LaneCheckpoint laneCheckpoint) {
+                this.connection = connection;
+                this.lane = lane;
+                this.laneCheckpoint = laneCheckpoint;
+                this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, threadName);
+                        thread.setDaemon(true);
+                        return thread;
                     }
+                });
+                this.freeBuffers = new ArrayBlockingQueue<List<Record>>(maxInFlightBatches);
+                for (int i = 0; i < maxInFlightBatches; i++) {
+                    this.freeBuffers.add(new ArrayList<Record>(batchSize));
+                }
+            }
 
-                    if (typeName.equalsIgnoreCase("year")) {
-                        if (column.asBigInteger() == null) {
-                            preparedStatement.setString(columnIndex + 1, null);
-                        } else {
-                            preparedStatement.setInt(columnIndex + 1, column.asBigInteger().intValue());
-                        }
-                    } else {
-                        java.sql.Date sqlDate = null;
+            // 提交 buffer，返回一个空 buffer 供继续填充；receivedRecords 为发出该 buffer 时已接收的 record 数
+            List<Record> flush(final List<Record> buffer, final long receivedRecords) throws InterruptedException {
+                checkError();
+                if (null != this.laneCheckpoint) {
+                    this.laneCheckpoint.batchFlushed(this.lane, receivedRecords);
+                }
+                this.executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
                         try {
-                            utilDate = column.asDate();
-                        } catch (DataXException e) {
-                            throw new SQLException(String.format(
-                                    "Date 类型转换错误：[%s]", column));
-                        }
-
-                        if (null != utilDate) {
-                            sqlDate = new java.sql.Date(utilDate.getTime());
+                            if (null == error) {
+                                doBatchInsert(connection, buffer);
+                                // 单连接写入时 batch 按接收顺序提交，receivedRecords 即为断点
+                                commitCheckpoint(null == laneCheckpoint
+                                        ? receivedRecords : laneCheckpoint.batchCommitted(lane));
+                            }
+                        } catch (Throwable e) {
+                            error = e;
+                        } finally {
+                            releaseRecords(buffer);
+                            freeBuffers.offer(buffer);
                         }
-                        preparedStatement.setDate(columnIndex + 1, sqlDate);
                     }
-                    break;
+                });
 
-                case Types.TIME:
-                    java.sql.Time sqlTime = null;
-                    try {
-                        utilDate = column.asDate();
-                    } catch (DataXException e) {
-                        throw new SQLException(String.format(
-                                "TIME 类型转换错误：[%s]", column));
-                    }
+                List<Record> next;
+                while ((next = this.freeBuffers.poll(100, TimeUnit.MILLISECONDS)) == null) {
+                    checkError();
+                }
+                return next;
+            }
 
-                    if (null != utilDate) {
-                        sqlTime = new java.sql.Time(utilDate.getTime());
-                    }
-                    preparedStatement.setTime(columnIndex + 1, sqlTime);
-                    break;
+            // 等待所有在途 batch 写完
+            void await() throws InterruptedException {
+                this.executor.shutdown();
+                while (!this.executor.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+                    checkError();
+                }
+                checkError();
+            }
 
-                case Types.TIMESTAMP:
-                    java.sql.Timestamp sqlTimestamp = null;
-                    try {
-                        utilDate = column.asDate();
-                    } catch (DataXException e) {
-                        throw new SQLException(String.format(
-                                "TIMESTAMP 类型转换错误：[%s]", column));
+            void shutdown() {
+                this.executor.shutdownNow();
+                try {
+                    if (!this.executor.awaitTermination(Constant.FLUSHER_TERMINATION_SECONDS, TimeUnit.SECONDS)) {
+                        LOG.warn("后台写入线程在 {} 秒内没有结束. context info:{}.",
+                                Constant.FLUSHER_TERMINATION_SECONDS, BASIC_MESSAGE);
                     }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
 
-                    if (null != utilDate) {
-                        sqlTimestamp = new java.sql.Timestamp(
-                                utilDate.getTime());
-                    }
-                    preparedStatement.setTimestamp(columnIndex + 1, sqlTimestamp);
-                    break;
-
-                case Types.BINARY:
-                case Types.VARBINARY:
-                case Types.BLOB:
-                case Types.LONGVARBINARY:
-                    preparedStatement.setBytes(columnIndex + 1, column
-                            .asBytes());
-                    break;
-
-                case Types.BOOLEAN:
-                    preparedStatement.setString(columnIndex + 1, column.asString());
-                    break;
-
-                // warn: bit(1) -> Types.BIT 可使用setBoolean
-                // warn: bit(>1) -> Types.VARBINARY 可使用setBytes
-                case Types.BIT:
-                    if (this.dataBaseType == DataBaseType.MySql) {
-                        preparedStatement.setBoolean(columnIndex + 1, column.asBoolean());
-                    } else {
-                        preparedStatement.setString(columnIndex + 1, column.asString());
-                    }
-                    break;
-                default:
-                    throw DataXException
-                            .asDataXException(
-                                    DBUtilErrorCode.UNSUPPORTED_TYPE,
-                                    String.format(
-                                            "您的配置文件中的列配置信息有误. 因为DataX 不支持数据库写入这种字段类型. 字段名:[%s], 字段类型:[%d], 字段Java类型:[%s]. 请修改表中该字段的类型或者不同步该字段.",
-                                            this.resultSetMetaData.getLeft()
-                                                    .get(columnIndex),
-                                            this.resultSetMetaData.getMiddle()
-                                                    .get(columnIndex),
-                                            this.resultSetMetaData.getRight()
-                                                    .get(columnIndex)));
+            private void checkError() {
+                if (null != this.error) {
+                    throw DataXException.asDataXException(
+                            DBUtilErrorCode.WRITE_DATA_ERROR, this.error);
+                }
             }
-            return preparedStatement;
         }
 
         private void calcWriteRecordSql() {
             if (!VALUE_HOLDER.equals(calcValueHolder(""))) {
-                List<String> valueHolders = new ArrayList<String>(columnNumber);
-                for (int i = 0; i < columns.size(); i++) {
-                    String type = resultSetMetaData.getRight().get(i);
-                    valueHolders.add(calcValueHolder(type));
-                }
+                INSERT_OR_REPLACE_TEMPLATE = WriterUtil.getWriteTemplate(columns, calcValueHolders(), writeMode, dataBaseType, isForceUseUpdate());
+                writeRecordSql = String.format(INSERT_OR_REPLACE_TEMPLATE, this.table);
+            }
+        }
 
-                boolean forceUseUpdate = false;
-                //ob10的处理
-                if (dataBaseType != null && dataBaseType == DataBaseType.MySql && OriginalConfPretreatmentUtil.isOB10(jdbcUrl)) {
-                    forceUseUpdate = true;
-                }
+        private String calcMultiValuesSql(int rowNumber) {
+            String template = WriterUtil.getWriteTemplate(columns, calcValueHolders(), writeMode, dataBaseType,
+                    isForceUseUpdate(), rowNumber);
+            return String.format(template, this.table);
+        }
 
-                INSERT_OR_REPLACE_TEMPLATE = WriterUtil.getWriteTemplate(columns, valueHolders, writeMode, dataBaseType, forceUseUpdate);
-                writeRecordSql = String.format(INSERT_OR_REPLACE_TEMPLATE, this.table);
+        private List<String> calcValueHolders() {
+            List<String> valueHolders = new ArrayList<String>(columnNumber);
+            for (int i = 0; i < columns.size(); i++) {
+                String type = resultSetMetaData.getRight().get(i);
+                valueHolders.add(calcValueHolder(type));
             }
+            return valueHolders;
+        }
+
+        private boolean isForceUseUpdate() {
+            //ob10的处理
+            return dataBaseType != null && dataBaseType == DataBaseType.MySql && OriginalConfPretreatmentUtil.isOB10(jdbcUrl);
         }
 
         protected String calcValueHolder(String columnType) {
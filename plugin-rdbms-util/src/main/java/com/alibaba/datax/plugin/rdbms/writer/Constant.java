@@ -8,6 +8,10 @@ public final class Constant {
 
     public static final int DEFAULT_BATCH_BYTE_SIZE = 32 * 1024 * 1024;
 
+    public static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = 1;
+
+    public static final int FLUSHER_TERMINATION_SECONDS = 60;
+
     public static String TABLE_NAME_PLACEHOLDER = "@table";
 
     public static String CONN_MARK = "connection";
@@ -16,6 +20,12 @@ public final class Constant {
 
     public static String INSERT_OR_REPLACE_TEMPLATE_MARK = "insertOrReplaceTemplate";
 
+    // 连接池大小，由 Job.split 按channel数设置
+    public static String CONNECTION_POOL_SIZE_MARK = "connectionPoolSize";
+
+    // 连接池所属的 job，由 Job.split 设置；没有设置时 task 不使用连接池
+    public static String CONNECTION_POOL_SCOPE_MARK = "connectionPoolScope";
+
     public static final String OB10_SPLIT_STRING = "||_dsc_ob10_dsc_||";
     public static final String OB10_SPLIT_STRING_PATTERN = "\\|\\|_dsc_ob10_dsc_\\|\\|";
 
@@ -37,4 +37,19 @@ public final class Key {
     public final static String TABLE_RULE = "tableRule";
 
     public final static String DRYRUN = "dryRun";
+
+    //可选值为：batch,multiValues,bulkLoad，默认为 batch
+    public final static String LOAD_MODE = "loadMode";
+
+    //默认值：false，开启后由后台线程提交 batch，同时继续从 channel 读取下一批数据
+    public final static String ASYNC_FLUSH = "asyncFlush";
+
+    //默认值：1，asyncFlush 时最多同时在途(已提交未写完)的 batch 数
+    public final static String MAX_IN_FLIGHT_BATCHES = "maxInFlightBatches";
+
+    //默认值：1，每个 task 并行写入的连接数，大于1时按 routeColumns 的 hash 把 record 分配到各个连接
+    public final static String WRITER_THREAD_COUNT = "writerThreadCount";
+
+    //默认为目的表的主键列，必须是 column 的子集
+    public final static String ROUTE_COLUMNS = "routeColumns";
 }
\ No newline at end of file
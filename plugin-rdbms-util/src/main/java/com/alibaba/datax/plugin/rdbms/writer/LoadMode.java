@@ -0,0 +1,63 @@
+package com.alibaba.datax.plugin.rdbms.writer;
+
+import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.plugin.rdbms.util.DBUtilErrorCode;
+import com.alibaba.datax.plugin.rdbms.util.DataBaseType;
+
+/**
+ * 写入方式(loadMode)：
+ * <p/>
+ * batch：默认方式，单行 INSERT/REPLACE 语句通过 JDBC addBatch/executeBatch 提交；<br/>
+ * multiValues：一条语句携带多行 VALUES(...),(...)，仅支持 MySQL、PostgreSQL；<br/>
+ * bulkLoad：PostgreSQL 使用 COPY FROM STDIN，MySQL 使用 LOAD DATA LOCAL INFILE，数据在内存中编码后直接发送。
+ * MySQL 的 bulkLoad 与 batch 语义不同：重复键与数据截断、转换错误只产生 warning，不会作为脏数据收集，因此只能显式开启。
+ */
+public enum LoadMode {
+    BATCH("batch"),
+    MULTI_VALUES("multiValues"),
+    BULK_LOAD("bulkLoad");
+
+    private final String value;
+
+    LoadMode(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return this.value;
+    }
+
+    public static LoadMode parse(String loadMode, DataBaseType dataBaseType, String writeMode) {
+        if (null == loadMode || loadMode.trim().isEmpty()) {
+            return BATCH;
+        }
+
+        LoadMode result = null;
+        for (LoadMode mode : values()) {
+            if (mode.value.equalsIgnoreCase(loadMode.trim())) {
+                result = mode;
+            }
+        }
+        if (null == result) {
+            throw DataXException.asDataXException(DBUtilErrorCode.ILLEGAL_VALUE,
+                    String.format("您所配置的 loadMode:%s 错误. 因为DataX 目前仅支持 batch, multiValues 或 bulkLoad 方式. 请检查您的配置并作出修改.", loadMode));
+        }
+        if (result == BATCH) {
+            return result;
+        }
+
+        if (dataBaseType != DataBaseType.MySql && dataBaseType != DataBaseType.PostgreSQL) {
+            throw DataXException.asDataXException(DBUtilErrorCode.ILLEGAL_VALUE,
+                    String.format("您所配置的 loadMode:%s 错误. 因为该写入方式仅支持 MySQL 和 PostgreSQL, 不支持 %s. 请检查您的配置并作出修改.",
+                            loadMode, dataBaseType));
+        }
+
+        String lowerWriteMode = null == writeMode ? "insert" : writeMode.trim().toLowerCase();
+        if (result == BULK_LOAD && lowerWriteMode.startsWith("update")) {
+            throw DataXException.asDataXException(DBUtilErrorCode.ILLEGAL_VALUE,
+                    String.format("您所配置的 loadMode:%s 与 writeMode:%s 冲突. 因为 bulkLoad 方式仅支持 insert 或 replace. 请检查您的配置并作出修改.",
+                            loadMode, writeMode));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,256 @@
+package com.alibaba.datax.plugin.rdbms.writer.util;
+
+import com.alibaba.datax.common.element.Column;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.plugin.rdbms.util.DBUtilErrorCode;
+import com.alibaba.datax.plugin.rdbms.util.DataBaseType;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 把一批 Record 编码为 bulkLoad 使用的文本格式：
+ * 字段以\t分隔，行以\n结束，\ 为转义符，NULL 写作 \N。
+ * PostgreSQL COPY 的 text 格式与 MySQL LOAD DATA 的默认格式都是这一种，编码为 UTF-8。
+ * <p/>
+ * 类型转换规则与 ColumnSetter 一致，这里只是把 ColumnSetter 设置的参数值写成文本，修改规则时两边需要同时修改。
+ * 二进制类型：PostgreSQL 编码为 bytea 的 \x 十六进制形式，MySQL 直接写入转义后的原始字节。
+ * 编码缓冲区在 task 内复用。
+ */
+public class BulkLoadEncoder {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte[] NULL_VALUE = {'\\', 'N'};
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(UTF_8);
+
+    private final DataBaseType dataBaseType;
+
+    private final List<String> columnNames;
+
+    private final List<Integer> columnSqlTypes;
+
+    private final List<String> columnTypeNames;
+
+    private final boolean emptyAsNull;
+
+    private byte[] buffer = new byte[64 * 1024];
+
+    private int count;
+
+    public BulkLoadEncoder(DataBaseType dataBaseType, List<String> columnNames, List<Integer> columnSqlTypes,
+                           List<String> columnTypeNames, boolean emptyAsNull) {
+        this.dataBaseType = dataBaseType;
+        this.columnNames = columnNames;
+        this.columnSqlTypes = columnSqlTypes;
+        this.columnTypeNames = columnTypeNames;
+        this.emptyAsNull = emptyAsNull;
+    }
+
+    public void encode(List<Record> records) throws SQLException {
+        this.count = 0;
+        for (Record record : records) {
+            for (int i = 0; i < this.columnSqlTypes.size(); i++) {
+                if (i > 0) {
+                    this.write((byte) '\t');
+                }
+                this.encodeColumn(i, record.getColumn(i));
+            }
+            this.write((byte) '\n');
+        }
+    }
+
+    /**
+     * 最近一次 encode 结果的输入流，不复制缓冲区
+     */
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(this.buffer, 0, this.count);
+    }
+
+    public int getByteSize() {
+        return this.count;
+    }
+
+    private void encodeColumn(int columnIndex, Column column) throws SQLException {
+        int columnSqltype = this.columnSqlTypes.get(columnIndex);
+        String typeName = this.columnTypeNames.get(columnIndex);
+        Date utilDate;
+        switch (columnSqltype) {
+            case Types.CHAR:
+            case Types.NCHAR:
+            case Types.CLOB:
+            case Types.NCLOB:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                this.writeString(column.asString());
+                break;
+
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+                String strValue = column.asString();
+                if (this.emptyAsNull && "".equals(strValue)) {
+                    strValue = null;
+                }
+                this.writeString(strValue);
+                break;
+
+            case Types.TINYINT:
+                Long longValue = column.asLong();
+                this.writeString(null == longValue ? null : longValue.toString());
+                break;
+
+            case Types.DATE:
+                if ("year".equalsIgnoreCase(typeName)) {
+                    this.writeString(null == column.asBigInteger() ? null
+                            : String.valueOf(column.asBigInteger().intValue()));
+                } else {
+                    utilDate = this.asDate(column, "Date");
+                    this.writeString(null == utilDate ? null : new java.sql.Date(utilDate.getTime()).toString());
+                }
+                break;
+
+            case Types.TIME:
+                utilDate = this.asDate(column, "TIME");
+                this.writeString(null == utilDate ? null : new java.sql.Time(utilDate.getTime()).toString());
+                break;
+
+            case Types.TIMESTAMP:
+                utilDate = this.asDate(column, "TIMESTAMP");
+                this.writeString(null == utilDate ? null : new java.sql.Timestamp(utilDate.getTime()).toString());
+                break;
+
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.BLOB:
+            case Types.LONGVARBINARY:
+                this.writeBytes(column.asBytes());
+                break;
+
+            case Types.BOOLEAN:
+                this.writeString(column.asString());
+                break;
+
+            case Types.BIT:
+                if (this.dataBaseType == DataBaseType.MySql) {
+                    // MySQL 的 BIT 列通过 SET col = CAST(@var AS UNSIGNED) 载入
+                    Boolean boolValue = column.asBoolean();
+                    this.writeString(null == boolValue ? null : (boolValue ? "1" : "0"));
+                } else {
+                    this.writeString(column.asString());
+                }
+                break;
+
+            default:
+                throw DataXException
+                        .asDataXException(
+                                DBUtilErrorCode.UNSUPPORTED_TYPE,
+                                String.format(
+                                        "您的配置文件中的列配置信息有误. 因为DataX 不支持数据库写入这种字段类型. 字段名:[%s], 字段类型:[%d], 字段Java类型:[%s]. 请修改表中该字段的类型或者不同步该字段.",
+                                        this.columnNames.get(columnIndex), columnSqltype, typeName));
+        }
+    }
+
+    // 与 ColumnSetter 一样抛出 SQLException，出错的记录最终会作为脏数据收集
+    private Date asDate(Column column, String type) throws SQLException {
+        try {
+            return column.asDate();
+        } catch (DataXException e) {
+            throw new SQLException(String.format(
+                    "%s 类型转换错误：[%s]", type, column));
+        }
+    }
+
+    private void writeString(String value) {
+        if (null == value) {
+            this.write(NULL_VALUE, 0, NULL_VALUE.length);
+            return;
+        }
+        // UTF-8 多字节字符的每个字节都不小于0x80，可以按字节转义
+        this.writeEscaped(value.getBytes(UTF_8));
+    }
+
+    private void writeBytes(byte[] value) {
+        if (null == value) {
+            this.write(NULL_VALUE, 0, NULL_VALUE.length);
+            return;
+        }
+        if (this.dataBaseType != DataBaseType.PostgreSQL) {
+            this.writeEscaped(value);
+            return;
+        }
+
+        // bytea 十六进制格式 \x...，其中的 \ 本身需要转义
+        this.ensureCapacity(this.count + 3 + value.length * 2);
+        this.buffer[this.count++] = '\\';
+        this.buffer[this.count++] = '\\';
+        this.buffer[this.count++] = 'x';
+        for (byte b : value) {
+            this.buffer[this.count++] = HEX_DIGITS[(b >> 4) & 0x0F];
+            this.buffer[this.count++] = HEX_DIGITS[b & 0x0F];
+        }
+    }
+
+    private void writeEscaped(byte[] value) {
+        this.ensureCapacity(this.count + value.length);
+        for (byte b : value) {
+            switch (b) {
+                case '\\':
+                    this.write((byte) '\\', (byte) '\\');
+                    break;
+                case '\t':
+                    this.write((byte) '\\', (byte) 't');
+                    break;
+                case '\n':
+                    this.write((byte) '\\', (byte) 'n');
+                    break;
+                case '\r':
+                    this.write((byte) '\\', (byte) 'r');
+                    break;
+                case 0:
+                    this.write((byte) '\\', (byte) '0');
+                    break;
+                default:
+                    this.write(b);
+            }
+        }
+    }
+
+    private void write(byte b) {
+        this.ensureCapacity(this.count + 1);
+        this.buffer[this.count++] = b;
+    }
+
+    private void write(byte first, byte second) {
+        this.ensureCapacity(this.count + 2);
+        this.buffer[this.count++] = first;
+        this.buffer[this.count++] = second;
+    }
+
+    private void write(byte[] bytes, int offset, int length) {
+        this.ensureCapacity(this.count + length);
+        System.arraycopy(bytes, offset, this.buffer, this.count, length);
+        this.count += length;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(capacity, this.buffer.length << 1));
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.alibaba.datax.plugin.rdbms.writer.util;
+
+import com.alibaba.datax.common.element.Column;
+import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.plugin.rdbms.util.DBUtilErrorCode;
+import com.alibaba.datax.plugin.rdbms.util.DataBaseType;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 把一个 Column 设置到 PreparedStatement 的参数上。writer task 初始化后按目的表的字段类型只解析一次，
+ * 之后每个单元格直接调用对应的 setter，不再逐个单元格 switch 字段类型、拆箱类型列表。
+ * <p/>
+ * 这里是 writer 类型转换规则的唯一定义，CommonRdbmsWriter.Task.fillPreparedStatementColumnType 的默认实现同样委托给 ColumnSetter。
+ */
+public abstract class ColumnSetter {
+
+    public abstract void set(PreparedStatement preparedStatement, int parameterIndex, Column column)
+            throws SQLException;
+
+    /**
+     * @param columnNames     目的表字段名
+     * @param columnSqlTypes  目的表字段的 java.sql.Types
+     * @param columnTypeNames 目的表字段的类型名
+     */
+    public static ColumnSetter[] compile(List<String> columnNames, List<Integer> columnSqlTypes,
+                                         List<String> columnTypeNames, DataBaseType dataBaseType,
+                                         boolean emptyAsNull) {
+        ColumnSetter[] setters = new ColumnSetter[columnSqlTypes.size()];
+        for (int i = 0; i < setters.length; i++) {
+            setters[i] = compile(columnNames.get(i), columnSqlTypes.get(i), columnTypeNames.get(i),
+                    dataBaseType, emptyAsNull);
+        }
+        return setters;
+    }
+
+    /**
+     * 单个字段的 setter，不支持的字段类型在 set 时报错
+     */
+    public static ColumnSetter compile(final String columnName, final int columnSqltype,
+                                       final String typeName, DataBaseType dataBaseType,
+                                       boolean emptyAsNull) {
+        switch (columnSqltype) {
+            case Types.CHAR:
+            case Types.NCHAR:
+            case Types.CLOB:
+            case Types.NCLOB:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return STRING;
+
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+                return emptyAsNull ? NUMBER_EMPTY_AS_NULL : STRING;
+
+            //tinyint is a little special in some database like mysql {boolean->tinyint(1)}
+            case Types.TINYINT:
+                return TINYINT;
+
+            // for mysql bug, see http://bugs.mysql.com/bug.php?id=35115
+            case Types.DATE:
+                if ("year".equalsIgnoreCase(typeName)) {
+                    return YEAR;
+                }
+                return DATE;
+
+            case Types.TIME:
+                return TIME;
+
+            case Types.TIMESTAMP:
+                return TIMESTAMP;
+
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.BLOB:
+            case Types.LONGVARBINARY:
+                return BYTES;
+
+            case Types.BOOLEAN:
+                return STRING;
+
+            // warn: bit(1) -> Types.BIT 可使用setBoolean
+            // warn: bit(>1) -> Types.VARBINARY 可使用setBytes
+            case Types.BIT:
+                return dataBaseType == DataBaseType.MySql ? BOOLEAN : STRING;
+
+            default:
+                // 与原来一样在写入时才报错，出错的记录作为脏数据收集
+                return new ColumnSetter() {
+                    @Override
+                    public void set(PreparedStatement preparedStatement, int parameterIndex, Column column) {
+                        throw DataXException
+                                .asDataXException(
+                                        DBUtilErrorCode.UNSUPPORTED_TYPE,
+                                        String.format(
+                                                "您的配置文件中的列配置信息有误. 因为DataX 不支持数据库写入这种字段类型. 字段名:[%s], 字段类型:[%d], 字段Java类型:[%s]. 请修改表中该字段的类型或者不同步该字段.",
+                                                columnName, columnSqltype, typeName));
+                    }
+                };
+        }
+    }
+
+    private static Date asDate(Column column, String type) throws SQLException {
+        try {
+            return column.asDate();
+        } catch (DataXException e) {
+            throw new SQLException(String.format(
+                    "%s 类型转换错误：[%s]", type, column));
+        }
+    }
+
+    private static final ColumnSetter STRING = new ColumnSetter() {
+        @Override
+        public void set(PreparedStatement preparedStatement, int parameterIndex, Column column) throws SQLException {
+            preparedStatement.setString(parameterIndex, column.asString());
+        }
+    };
+
+    private static final ColumnSetter NUMBER_EMPTY_AS_NULL = new ColumnSetter() {
+        @Override
+        public void set(PreparedStatement preparedStatement, int parameterIndex, Column column) throws SQLException {
+            String strValue = column.asString();
+            preparedStatement.setString(parameterIndex, "".equals(strValue) ? null : strValue);
+        }
+    };
+
+    private static final ColumnSetter TINYINT = new ColumnSetter() {
+        @Override
+        public void set(PreparedStatement preparedStatement, int parameterIndex, Column column) throws SQLException {
+            Long longValue = column.asLong();
+            preparedStatement.setString(parameterIndex, null == longValue ? null : longValue.toString());
+        }
+    };
+
+    private static final ColumnSetter YEAR = new ColumnSetter() {
+        @Override
+        public void set(PreparedStatement preparedStatement, int parameterIndex, Column column) throws SQLException {
+            if (column.asBigInteger() == null) {
+                preparedStatement.setString(parameterIndex, null);
+            } else {
+                preparedStatement.setInt(parameterIndex, column.asBigInteger().intValue());
+            }
+        }
+    };
+
+    private static final ColumnSetter DATE = new ColumnSetter() {
+        @Override
+        public void set(PreparedStatement preparedStatement, int parameterIndex, Column column) throws SQLException {
+            Date utilDate = asDate(column, "Date");
+            preparedStatement.setDate(parameterIndex, null == utilDate ? null : new java.sql.Date(utilDate.getTime()));
+        }
+    };
+
+    private static final ColumnSetter TIME = new ColumnSetter() {
+        @Override
+        public void set(PreparedStatement preparedStatement, int parameterIndex, Column column) throws SQLException {
+            Date utilDate = asDate(column, "TIME");
+            preparedStatement.setTime(parameterIndex, null == utilDate ? null : new java.sql.Time(utilDate.getTime()));
+        }
+    };
+
+    private static final ColumnSetter TIMESTAMP = new ColumnSetter() {
+        @Override
+        public void set(PreparedStatement preparedStatement, int parameterIndex, Column column) throws SQLException {
+            Date utilDate = asDate(column, "TIMESTAMP");
+            preparedStatement.setTimestamp(parameterIndex,
+                    null == utilDate ? null : new java.sql.Timestamp(utilDate.getTime()));
+        }
+    };
+
+    private static final ColumnSetter BYTES = new ColumnSetter() {
+        @Override
+        public void set(PreparedStatement preparedStatement, int parameterIndex, Column column) throws SQLException {
+            preparedStatement.setBytes(parameterIndex, column.asBytes());
+        }
+    };
+
+    private static final ColumnSetter BOOLEAN = new ColumnSetter() {
+        @Override
+        public void set(PreparedStatement preparedStatement, int parameterIndex, Column column) throws SQLException {
+            preparedStatement.setBoolean(parameterIndex, column.asBoolean());
+        }
+    };
+}
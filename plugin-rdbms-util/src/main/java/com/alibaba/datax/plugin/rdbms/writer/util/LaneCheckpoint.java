@@ -0,0 +1,69 @@
+package com.alibaba.datax.plugin.rdbms.writer.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 多连接并行写入时计算可以向 TaskCheckpoint 确认的断点
+ * <p/>
+ * record 按接收顺序从 1 开始编号，分配到各个 lane 后，每个 lane 的 batch 按顺序提交，但 lane 之间的提交顺序不确定。
+ * 前 n 条 record 都已提交，当且仅当所有未提交的 record(各 lane 正在填充的 buffer 以及已发出但尚未提交的 batch)的编号都大于 n，
+ * 因此断点为这些 record 中最小编号减一。同一个 lane 内 buffer 与 batch 的起始编号递增，只需要记录每个 batch 的第一条 record。
+ * <p/>
+ * bufferStarted、batchFlushed 由接收 record 的线程调用，batchCommitted 由各 lane 的写入线程调用。
+ */
+public final class LaneCheckpoint {
+
+    // 各 lane 正在填充的 buffer 中第一条 record 的编号，buffer 为空时为 0
+    private final long[] bufferStarts;
+
+    // 各 lane 已发出但尚未提交的 batch 中第一条 record 的编号
+    private final Deque<Long>[] inFlightStarts;
+
+    // 最近一次 batchFlushed 时已接收的 record 数
+    private long receivedRecords;
+
+    @SuppressWarnings("unchecked")
+    public LaneCheckpoint(int laneNumber) {
+        this.bufferStarts = new long[laneNumber];
+        this.inFlightStarts = new Deque[laneNumber];
+        for (int i = 0; i < laneNumber; i++) {
+            this.inFlightStarts[i] = new ArrayDeque<Long>();
+        }
+    }
+
+    /**
+     * 第 firstRecord 条 record 放入了 lane 的空 buffer
+     */
+    public synchronized void bufferStarted(int lane, long firstRecord) {
+        this.bufferStarts[lane] = firstRecord;
+    }
+
+    /**
+     * lane 的 buffer 作为一个 batch 发出，此时共接收了 receivedRecords 条 record
+     */
+    public synchronized void batchFlushed(int lane, long receivedRecords) {
+        this.inFlightStarts[lane].addLast(this.bufferStarts[lane]);
+        this.bufferStarts[lane] = 0;
+        this.receivedRecords = Math.max(this.receivedRecords, receivedRecords);
+    }
+
+    /**
+     * lane 中最早发出的 batch 已提交，返回此时可以确认的断点
+     */
+    public synchronized long batchCommitted(int lane) {
+        this.inFlightStarts[lane].pollFirst();
+
+        long firstUncommitted = this.receivedRecords + 1;
+        for (int i = 0; i < this.bufferStarts.length; i++) {
+            if (this.bufferStarts[i] > 0) {
+                firstUncommitted = Math.min(firstUncommitted, this.bufferStarts[i]);
+            }
+            Long inFlightStart = this.inFlightStarts[i].peekFirst();
+            if (null != inFlightStart) {
+                firstUncommitted = Math.min(firstUncommitted, inFlightStart);
+            }
+        }
+        return firstUncommitted - 1;
+    }
+}
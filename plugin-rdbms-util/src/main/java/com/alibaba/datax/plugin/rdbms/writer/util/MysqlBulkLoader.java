@@ -0,0 +1,100 @@
+package com.alibaba.datax.plugin.rdbms.writer.util;
+
+import com.alibaba.datax.plugin.rdbms.util.DBUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+/**
+ * 通过 LOAD DATA LOCAL INFILE 写入 MySQL，文件内容直接来自内存中的输入流，不落盘
+ * <p/>
+ * 需要 jdbcUrl 带有 allowLoadLocalInfile=true。MySQL 驱动由 mysqlwriter 提供，plugin-rdbms-util 只在测试时依赖，
+ * 因此 setLocalInfileInputStream 通过反射调用，兼容 5.x(com.mysql.jdbc.Statement) 与 8.x(com.mysql.cj.jdbc.JdbcStatement) 驱动。
+ * <p/>
+ * LOCAL 方式下 MySQL 把重复键和数据错误(截断、类型转换)都降级为 warning 并继续导入，这些行不会作为脏数据收集；
+ * 这里把影响行数与 warning 打印出来，避免数据被静默丢弃。
+ */
+public final class MysqlBulkLoader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MysqlBulkLoader.class);
+
+    private static final String[] STATEMENT_CLASS_NAMES = {
+            "com.mysql.jdbc.Statement", "com.mysql.cj.jdbc.JdbcStatement"};
+
+    private static final int MAX_LOGGED_WARNINGS = 10;
+
+    private MysqlBulkLoader() {
+    }
+
+    /**
+     * @param rowCount 本次导入的行数，用于计算被忽略的行数
+     * @return LOAD DATA 的影响行数
+     */
+    public static long load(Connection connection, String loadSql, InputStream data, int rowCount) throws SQLException {
+        Statement statement = null;
+        try {
+            statement = connection.createStatement();
+            setLocalInfileInputStream(statement, data);
+            long affectedRows = statement.executeUpdate(loadSql);
+            logWarnings(statement, loadSql, affectedRows, rowCount);
+            return affectedRows;
+        } finally {
+            DBUtil.closeDBResources(statement, null);
+        }
+    }
+
+    static void setLocalInfileInputStream(Statement statement, InputStream data) throws SQLException {
+        ClassLoader classLoader = statement.getClass().getClassLoader();
+        for (String className : STATEMENT_CLASS_NAMES) {
+            Class<?> statementClass;
+            try {
+                statementClass = Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException e) {
+                continue;
+            }
+            if (!statementClass.isInstance(statement) && !statement.isWrapperFor(statementClass)) {
+                continue;
+            }
+            Object mysqlStatement = statementClass.isInstance(statement) ? statement : statement.unwrap(statementClass);
+            try {
+                Method method = statementClass.getMethod("setLocalInfileInputStream", InputStream.class);
+                method.invoke(mysqlStatement, data);
+                return;
+            } catch (Exception e) {
+                throw new SQLException(String.format("调用 %s.setLocalInfileInputStream 失败: %s",
+                        className, e.getMessage()), e);
+            }
+        }
+        throw new SQLException(String.format("bulkLoad 需要 MySQL Connector/J 驱动, 当前 Statement 类型为 %s.",
+                statement.getClass().getName()));
+    }
+
+    private static void logWarnings(Statement statement, String loadSql, long affectedRows, int rowCount)
+            throws SQLException {
+        // IGNORE 时影响行数即实际写入的行数；REPLACE 时被替换的行计为 2，不能据此判断是否有行被忽略
+        boolean ignore = loadSql.contains(" IGNORE ");
+        if (ignore && affectedRows < rowCount) {
+            LOG.warn("LOAD DATA 导入 {} 行, 实际写入 {} 行, {} 行因重复键或数据错误被 MySQL 忽略, 这些行不会作为脏数据收集.",
+                    rowCount, affectedRows, rowCount - affectedRows);
+        }
+
+        SQLWarning warning = statement.getWarnings();
+        int warningCount = 0;
+        while (null != warning) {
+            if (warningCount < MAX_LOGGED_WARNINGS) {
+                LOG.warn("LOAD DATA warning: {}", warning.getMessage());
+            }
+            warningCount++;
+            warning = warning.getNextWarning();
+        }
+        if (warningCount > MAX_LOGGED_WARNINGS) {
+            LOG.warn("LOAD DATA 共有 {} 条 warning, 只打印了前 {} 条.", warningCount, MAX_LOGGED_WARNINGS);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.alibaba.datax.common.util.ListUtil;
 import com.alibaba.datax.plugin.rdbms.util.*;
 import com.alibaba.datax.plugin.rdbms.writer.Constant;
 import com.alibaba.datax.plugin.rdbms.writer.Key;
+import com.alibaba.datax.plugin.rdbms.writer.LoadMode;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -149,6 +150,10 @@ public final class OriginalConfPretreatmentUtil {
         // 默认为：insert 方式
         String writeMode = originalConfig.getString(Key.WRITE_MODE, "INSERT");
 
+        // 提前校验 loadMode 与数据库类型、writeMode 是否匹配
+        LoadMode loadMode = LoadMode.parse(originalConfig.getString(Key.LOAD_MODE), dataBaseType, writeMode);
+        LOG.info("loadMode is [{}].", loadMode.getValue());
+
         List<String> valueHolders = new ArrayList<String>(columns.size());
         for (int i = 0; i < columns.size(); i++) {
             valueHolders.add("?");
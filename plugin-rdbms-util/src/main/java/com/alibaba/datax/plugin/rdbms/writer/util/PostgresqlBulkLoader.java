@@ -0,0 +1,32 @@
+package com.alibaba.datax.plugin.rdbms.writer.util;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 通过 CopyManager 执行 COPY ... FROM STDIN 写入 PostgreSQL
+ * <p/>
+ * 驱动由 postgresqlwriter 提供，单独成类，避免其他插件加载 org.postgresql 中的类。
+ */
+public final class PostgresqlBulkLoader {
+
+    private PostgresqlBulkLoader() {
+    }
+
+    public static long load(Connection connection, String copySql, InputStream data) throws SQLException {
+        PGConnection pgConnection = connection instanceof PGConnection
+                ? (PGConnection) connection
+                : connection.unwrap(PGConnection.class);
+        CopyManager copyManager = pgConnection.getCopyAPI();
+        try {
+            return copyManager.copyIn(copySql, data);
+        } catch (IOException e) {
+            throw new SQLException("COPY 数据流读取失败: " + e.getMessage(), e);
+        }
+    }
+}
@@ -15,6 +15,7 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.*;
 
 public final class WriterUtil {
@@ -109,6 +110,11 @@ public final class WriterUtil {
     }
 
     public static String getWriteTemplate(List<String> columnHolders, List<String> valueHolders, String writeMode, DataBaseType dataBaseType, boolean forceUseUpdate) {
+        return getWriteTemplate(columnHolders, valueHolders, writeMode, dataBaseType, forceUseUpdate, 1);
+    }
+
+    // rowNumber > 1 时生成一条语句写入多行的 VALUES(...),(...) 形式，用于 multiValues 写入方式
+    public static String getWriteTemplate(List<String> columnHolders, List<String> valueHolders, String writeMode, DataBaseType dataBaseType, boolean forceUseUpdate, int rowNumber) {
         boolean isWriteModeLegal = writeMode.trim().toLowerCase().startsWith("insert")
                 || writeMode.trim().toLowerCase().startsWith("replace")
                 || writeMode.trim().toLowerCase().startsWith("update");
@@ -126,8 +132,7 @@ public final class WriterUtil {
 
             writeDataSqlTemplate = new StringBuilder()
                     .append("INSERT INTO %s (").append(StringUtils.join(columnHolders, ","))
-                    .append(") VALUES(").append(StringUtils.join(valueHolders, ","))
-                    .append(")")
+                    .append(") VALUES").append(valuesString(valueHolders, rowNumber))
                     .append(onDuplicateKeyUpdateString(columnHolders))
                     .toString();
         } else {
@@ -138,13 +143,65 @@ public final class WriterUtil {
             }
             writeDataSqlTemplate = new StringBuilder().append(writeMode)
                     .append(" INTO %s (").append(StringUtils.join(columnHolders, ","))
-                    .append(") VALUES(").append(StringUtils.join(valueHolders, ","))
-                    .append(")").toString();
+                    .append(") VALUES").append(valuesString(valueHolders, rowNumber))
+                    .toString();
         }
 
         return writeDataSqlTemplate;
     }
 
+    private static String valuesString(List<String> valueHolders, int rowNumber) {
+        String oneRow = "(" + StringUtils.join(valueHolders, ",") + ")";
+        StringBuilder sb = new StringBuilder(oneRow.length() * rowNumber + rowNumber);
+        for (int i = 0; i < rowNumber; i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append(oneRow);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * bulkLoad 写入方式使用的语句，数据格式见 BulkLoadEncoder
+     * <p/>
+     * PostgreSQL：COPY ... FROM STDIN；
+     * MySQL：LOAD DATA LOCAL INFILE，insert 对应 IGNORE(LOCAL 方式下重复数据总是被忽略)，replace 对应 REPLACE，
+     * BIT 列先读入用户变量再 CAST 为数值。
+     */
+    public static String getBulkLoadSql(List<String> columnHolders, List<Integer> columnSqlTypes, String table,
+                                        String writeMode, DataBaseType dataBaseType) {
+        if (dataBaseType == DataBaseType.PostgreSQL) {
+            return new StringBuilder().append("COPY ").append(table)
+                    .append(" (").append(StringUtils.join(columnHolders, ","))
+                    .append(") FROM STDIN").toString();
+        }
+
+        StringBuilder sb = new StringBuilder("LOAD DATA LOCAL INFILE 'datax.txt' ");
+        sb.append(null != writeMode && writeMode.trim().toLowerCase().startsWith("replace") ? "REPLACE" : "IGNORE");
+        sb.append(" INTO TABLE ").append(table).append(" CHARACTER SET utf8mb4")
+                .append(" FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (");
+
+        List<String> bitSets = new ArrayList<String>();
+        for (int i = 0; i < columnHolders.size(); i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            if (columnSqlTypes.get(i) == Types.BIT) {
+                String variable = "@datax_" + i;
+                sb.append(variable);
+                bitSets.add(columnHolders.get(i) + "=CAST(" + variable + " AS UNSIGNED)");
+            } else {
+                sb.append(columnHolders.get(i));
+            }
+        }
+        sb.append(")");
+        if (!bitSets.isEmpty()) {
+            sb.append(" SET ").append(StringUtils.join(bitSets, ","));
+        }
+        return sb.toString();
+    }
+
     public static String onDuplicateKeyUpdateString(List<String> columnHolders){
         if (columnHolders == null || columnHolders.size() < 1) {
             return "";
@@ -0,0 +1,230 @@
+package com.alibaba.datax.plugin.rdbms.reader;
+
+import com.alibaba.datax.common.element.Column;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.plugin.RecordSender;
+import com.alibaba.datax.common.plugin.TaskCheckpoint;
+import com.alibaba.datax.common.plugin.TaskPluginCollector;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.plugin.rdbms.util.DataBaseType;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CommonRdbmsReaderTest {
+
+    private static final String JDBC_URL = "jdbc:datax-resume-test:db";
+
+    private static final String QUERY_SQL = "select name,id from t where (1 = 1)";
+
+    private static volatile Connection connection;
+
+    private final List<String> queries = new ArrayList<String>();
+
+    @BeforeClass
+    public static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(new FakeDriver());
+    }
+
+    private static Configuration sliceConfig() {
+        Configuration configuration = Configuration.newDefault();
+        configuration.set(Key.JDBC_URL, JDBC_URL);
+        configuration.set(Key.USERNAME, "datax");
+        configuration.set(Key.PASSWORD, "pwd");
+        configuration.set(Key.TABLE, "t");
+        configuration.set(Key.QUERY_SQL, QUERY_SQL);
+        configuration.set(Constant.RESUME_KEY, "id");
+        return configuration;
+    }
+
+    /**
+     * 读取一个切片，发送给 writer 的每条 record 都按框架 exchanger 的方式计入 checkpoint
+     */
+    private RecordSender read(DataBaseType dataBaseType, Configuration sliceConfig,
+                              final TaskCheckpoint checkpoint) {
+        RecordSender recordSender = mock(RecordSender.class);
+        when(recordSender.createRecord()).thenReturn(mock(Record.class));
+        if (null != checkpoint) {
+            doAnswer(new Answer<Void>() {
+                @Override
+                public Void answer(InvocationOnMock invocation) {
+                    checkpoint.recordSent(1);
+                    return null;
+                }
+            }).when(recordSender).sendToWriter(any(Record.class));
+        }
+
+        CommonRdbmsReader.Task task = new CommonRdbmsReader.Task(dataBaseType);
+        task.init(sliceConfig);
+        task.setTaskCheckpoint(checkpoint);
+        task.startRead(sliceConfig, recordSender, mock(TaskPluginCollector.class), 1000);
+        return recordSender;
+    }
+
+    @Test
+    public void testRetryResumesFromCommittedPosition() throws SQLException {
+        mockConnection(2500, Types.BIGINT);
+        TaskCheckpoint checkpoint = new TaskCheckpoint();
+
+        RecordSender recordSender = read(DataBaseType.MySql, sliceConfig(), checkpoint);
+        assertEquals(QUERY_SQL + " ORDER BY id", this.queries.get(0));
+        verify(recordSender, times(2500)).sendToWriter(any(Record.class));
+        // 第1024、2048行发送前记录位置，writer 确认了前2100条
+        checkpoint.commit(2100);
+        assertEquals("2048", checkpoint.getCommittedPosition());
+
+        checkpoint.restart();
+        mockConnection(10, Types.BIGINT);
+        read(DataBaseType.MySql, sliceConfig(), checkpoint);
+        assertEquals(QUERY_SQL + " AND id >= 2048 ORDER BY id", this.queries.get(1));
+    }
+
+    @Test
+    public void testStringKeyIsQuotedAndNullsSortFirstOnPostgresql() throws SQLException {
+        mockConnection(1024, Types.VARCHAR);
+        TaskCheckpoint checkpoint = new TaskCheckpoint();
+
+        read(DataBaseType.PostgreSQL, sliceConfig(), checkpoint);
+        assertEquals(QUERY_SQL + " ORDER BY id NULLS FIRST", this.queries.get(0));
+        checkpoint.commit(1024);
+        assertEquals("'k''1024'", checkpoint.getCommittedPosition());
+
+        checkpoint.restart();
+        read(DataBaseType.PostgreSQL, sliceConfig(), checkpoint);
+        assertEquals(QUERY_SQL + " AND id >= 'k''1024' ORDER BY id NULLS FIRST", this.queries.get(1));
+    }
+
+    @Test
+    public void testUnsupportedKeyTypeIsNotMarked() throws SQLException {
+        mockConnection(2048, Types.TIMESTAMP);
+        TaskCheckpoint checkpoint = new TaskCheckpoint();
+
+        read(DataBaseType.MySql, sliceConfig(), checkpoint);
+        checkpoint.commit(2048);
+        assertNull(checkpoint.getCommittedPosition());
+    }
+
+    @Test
+    public void testResumeKeyColumnIsNotSentToWriter() throws SQLException {
+        // 没有设置 TaskCheckpoint 时不排序，但追加的排序列仍然不发送给 writer
+        mockConnection(3, Types.BIGINT);
+        Record record = mock(Record.class);
+        RecordSender recordSender = mock(RecordSender.class);
+        when(recordSender.createRecord()).thenReturn(record);
+
+        CommonRdbmsReader.Task task = new CommonRdbmsReader.Task(DataBaseType.MySql);
+        Configuration sliceConfig = sliceConfig();
+        task.init(sliceConfig);
+        task.startRead(sliceConfig, recordSender, mock(TaskPluginCollector.class), 1000);
+
+        assertEquals(QUERY_SQL, this.queries.get(0));
+        verify(record, times(3)).addColumn(any(Column.class));
+    }
+
+    /**
+     * 每次查询返回 rows 行：第1列 name 为 VARCHAR，第2列为排序列 id，取值为 1..rows(字符串类型时为 k'1..k'rows)
+     */
+    private void mockConnection(final int rows, final int keyType) throws SQLException {
+        final ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnType(1)).thenReturn(Types.VARCHAR);
+        when(metaData.getColumnType(2)).thenReturn(keyType);
+
+        Connection mockConnection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(mockConnection.createStatement(anyInt(), anyInt())).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenAnswer(new Answer<ResultSet>() {
+            @Override
+            public ResultSet answer(InvocationOnMock invocation) throws SQLException {
+                queries.add((String) invocation.getArguments()[0]);
+                return resultSet(metaData, rows, keyType == Types.VARCHAR ? "k'" : "");
+            }
+        });
+        connection = mockConnection;
+    }
+
+    private static ResultSet resultSet(ResultSetMetaData metaData, final int rows, final String keyPrefix)
+            throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        final int[] cursor = {0};
+        when(resultSet.next()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                return ++cursor[0] <= rows;
+            }
+        });
+        when(resultSet.getString(anyInt())).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) {
+                int index = (Integer) invocation.getArguments()[0];
+                return index == 2 ? keyPrefix + cursor[0] : "name" + cursor[0];
+            }
+        });
+        return resultSet;
+    }
+
+    public static class FakeDriver implements Driver {
+        @Override
+        public Connection connect(String url, Properties info) {
+            return acceptsURL(url) ? connection : null;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return JDBC_URL.equals(url);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.alibaba.datax.plugin.rdbms.reader.util;
+
+import com.alibaba.datax.common.element.Column;
+import org.junit.Test;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ColumnExtractorTest {
+
+    private static ColumnExtractor compileOne(int sqlType, String typeName, boolean signed) throws Exception {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnType(1)).thenReturn(sqlType);
+        when(metaData.getColumnTypeName(1)).thenReturn(typeName);
+        when(metaData.isSigned(1)).thenReturn(signed);
+        return ColumnExtractor.compile(metaData, 1, null)[1];
+    }
+
+    @Test
+    public void testFloatKeepsDatabaseString() throws Exception {
+        // Oracle FLOAT(126) 实际为 NUMBER，超出 double 的精度
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn("0.12345678901234567890123");
+
+        Column column = compileOne(Types.FLOAT, "FLOAT", true).extract(rs, 1);
+        assertEquals("0.12345678901234567890123", column.asString());
+        verify(rs, never()).getDouble(1);
+    }
+
+    @Test
+    public void testDoubleReadsPrimitive() throws Exception {
+        ColumnExtractor extractor = compileOne(Types.DOUBLE, "DOUBLE", true);
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getDouble(1)).thenReturn(1.5d);
+        assertEquals(1.5d, extractor.extract(rs, 1).asDouble(), 0.0d);
+
+        ResultSet nullRs = mock(ResultSet.class);
+        when(nullRs.wasNull()).thenReturn(true);
+        assertNull(extractor.extract(nullRs, 1).getRawData());
+
+        ResultSet nanRs = mock(ResultSet.class);
+        when(nanRs.getDouble(1)).thenReturn(Double.NaN);
+        when(nanRs.getString(1)).thenReturn("NaN");
+        assertEquals("NaN", extractor.extract(nanRs, 1).asString());
+    }
+
+    @Test
+    public void testNullBoolAndYearKeepOldValues() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getBoolean(1)).thenReturn(false);
+        when(rs.getInt(1)).thenReturn(0);
+        when(rs.wasNull()).thenReturn(true);
+
+        assertEquals(Boolean.FALSE, compileOne(Types.BIT, "BIT", false).extract(rs, 1).asBoolean());
+        assertEquals(0L, compileOne(Types.DATE, "YEAR", false).extract(rs, 1).asLong().longValue());
+    }
+
+    @Test
+    public void testIntegerNullAndUnsignedBigint() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(0L);
+        when(rs.wasNull()).thenReturn(true);
+        assertNull(compileOne(Types.INTEGER, "INT", true).extract(rs, 1).getRawData());
+
+        ResultSet unsignedRs = mock(ResultSet.class);
+        when(unsignedRs.getString(1)).thenReturn("18446744073709551615");
+        assertEquals("18446744073709551615",
+                compileOne(Types.BIGINT, "BIGINT UNSIGNED", false).extract(unsignedRs, 1).asString());
+    }
+}
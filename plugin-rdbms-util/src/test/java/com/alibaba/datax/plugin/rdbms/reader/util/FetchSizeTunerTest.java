@@ -0,0 +1,97 @@
+package com.alibaba.datax.plugin.rdbms.reader.util;
+
+import com.alibaba.datax.plugin.rdbms.reader.Constant;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FetchSizeTunerTest {
+
+    /**
+     * 读取rows行，返回最后一行是否触发了fetchSize的调整
+     */
+    private static boolean read(FetchSizeTuner tuner, int rows, long recordBytes, long fetchNanos, long sendNanos) {
+        boolean changed = false;
+        for (int i = 0; i < rows; i++) {
+            changed = tuner.record(recordBytes, fetchNanos, sendNanos);
+        }
+        return changed;
+    }
+
+    @Test
+    public void testFetchSizeDoublesWhenDatabaseIsTheBottleneck() {
+        FetchSizeTuner tuner = new FetchSizeTuner(true, 100, 0);
+        assertFalse(read(tuner, 99, 100, 10, 1));
+        assertEquals(100, tuner.getFetchSize());
+
+        assertTrue(tuner.record(100, 10, 1));
+        assertEquals(200, tuner.getFetchSize());
+    }
+
+    @Test
+    public void testFetchSizeShrinksUnderBackPressure() {
+        // sendToWriter阻塞的时间比rs.next更长，下游处理不过来
+        FetchSizeTuner tuner = new FetchSizeTuner(true, 100, 0);
+        assertTrue(read(tuner, 100, 100, 1, 10));
+        assertEquals(75, tuner.getFetchSize());
+    }
+
+    @Test
+    public void testWideRowsAreCappedByFetchBufferSize() {
+        // 1m的缓冲区，每行64k，一次最多fetch 16行
+        FetchSizeTuner tuner = new FetchSizeTuner(true, 1024, 1024 * 1024);
+        assertTrue(read(tuner, 1024, 64 * 1024, 10, 1));
+        assertEquals(16, tuner.getFetchSize());
+    }
+
+    @Test
+    public void testFetchSizeStaysWithinBounds() {
+        FetchSizeTuner large = new FetchSizeTuner(true, Constant.MAX_ADAPTIVE_FETCH_SIZE, Long.MAX_VALUE);
+        assertFalse(read(large, Constant.MAX_ADAPTIVE_FETCH_SIZE, 1, 10, 1));
+        assertEquals(Constant.MAX_ADAPTIVE_FETCH_SIZE, large.getFetchSize());
+
+        FetchSizeTuner small = new FetchSizeTuner(true, Constant.MIN_ADAPTIVE_FETCH_SIZE, 0);
+        assertFalse(read(small, Constant.MIN_ADAPTIVE_FETCH_SIZE, 100, 1, 10));
+        assertEquals(Constant.MIN_ADAPTIVE_FETCH_SIZE, small.getFetchSize());
+    }
+
+    @Test
+    public void testStreamingFetchSizeIsNotTuned() {
+        // MySQL 的逐行流式读取
+        FetchSizeTuner tuner = new FetchSizeTuner(true, Integer.MIN_VALUE, 0);
+        assertFalse(read(tuner, 1000, 100, 10, 1));
+        assertEquals(Integer.MIN_VALUE, tuner.getFetchSize());
+    }
+
+    @Test
+    public void testDisabledTunerOnlyCollectsStatistics() {
+        FetchSizeTuner tuner = new FetchSizeTuner(false, 100, 0);
+        assertFalse(read(tuner, 250, 40, 3, 2));
+        assertEquals(100, tuner.getFetchSize());
+
+        Map<String, Object> statistics = tuner.finish();
+        assertEquals(250L, statistics.get("records"));
+        assertEquals(250L * 40, statistics.get("bytes"));
+        assertEquals(250L * 3, statistics.get("fetchNanos"));
+        assertEquals(250L * 2, statistics.get("sendNanos"));
+        assertEquals(0, statistics.get("adjustCount"));
+    }
+
+    @Test
+    public void testStatisticsIncludeAdjustedWindows() {
+        FetchSizeTuner tuner = new FetchSizeTuner(true, 100, 0);
+        read(tuner, 100, 10, 10, 1);
+        read(tuner, 200, 10, 10, 1);
+        read(tuner, 50, 10, 10, 1);
+
+        Map<String, Object> statistics = tuner.finish();
+        assertEquals(350L, statistics.get("records"));
+        assertEquals(400, statistics.get("fetchSize"));
+        assertEquals(400, statistics.get("maxFetchSize"));
+        assertEquals(2, statistics.get("adjustCount"));
+    }
+}
@@ -0,0 +1,232 @@
+package com.alibaba.datax.plugin.rdbms.reader.util;
+
+import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.plugin.rdbms.reader.Constant;
+import com.alibaba.datax.plugin.rdbms.reader.Key;
+import com.alibaba.datax.plugin.rdbms.util.DBUtilErrorCode;
+import com.alibaba.datax.plugin.rdbms.util.DataBaseType;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IncrementalWatermarkTest {
+
+    private static final String JDBC_URL = "jdbc:datax-watermark-test:db";
+
+    private static volatile Connection connection;
+
+    private final List<String> queries = new ArrayList<String>();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(new FakeDriver());
+    }
+
+    private Configuration config(File stateFile) {
+        Configuration configuration = Configuration.newDefault();
+        configuration.set(Constant.IS_TABLE_MODE, true);
+        configuration.set(Key.INCREMENTAL_COLUMN, " id ");
+        configuration.set(Key.STATE_FILE, stateFile.getAbsolutePath());
+        return configuration;
+    }
+
+    private IncrementalWatermark load(File stateFile) {
+        return IncrementalWatermark.load(config(stateFile), DataBaseType.MySql);
+    }
+
+    private String buildWhere(IncrementalWatermark watermark, String where) {
+        return watermark.buildWhere(JDBC_URL, "datax", "pwd", "t", where);
+    }
+
+    @Test
+    public void testNotConfigured() {
+        assertNull(IncrementalWatermark.load(Configuration.newDefault(), DataBaseType.MySql));
+    }
+
+    @Test
+    public void testQuerySqlModeIsRejected() {
+        Configuration configuration = config(new File(this.folder.getRoot(), "state.json"));
+        configuration.set(Constant.IS_TABLE_MODE, false);
+        assertRejected(configuration, DBUtilErrorCode.ILLEGAL_VALUE);
+    }
+
+    @Test
+    public void testStateFileIsRequired() {
+        Configuration configuration = config(new File(this.folder.getRoot(), "state.json"));
+        configuration.remove(Key.STATE_FILE);
+        assertRejected(configuration, DBUtilErrorCode.REQUIRED_VALUE);
+    }
+
+    @Test
+    public void testSuccessiveRunsReadOnlyTheDelta() throws SQLException {
+        File stateFile = new File(this.folder.getRoot(), "state.json");
+
+        mockMax("100", Types.BIGINT);
+        IncrementalWatermark first = load(stateFile);
+        assertEquals("(deleted = 0) AND (id <= 100)", buildWhere(first, "deleted = 0"));
+        assertEquals("SELECT MAX(id) FROM t WHERE (deleted = 0)", this.queries.get(0));
+        first.commit();
+        assertTrue(stateFile.isFile());
+
+        mockMax("250", Types.BIGINT);
+        IncrementalWatermark second = load(stateFile);
+        assertEquals("id > 100 AND id <= 250", buildWhere(second, null));
+    }
+
+    @Test
+    public void testFailedRunKeepsPreviousWatermark() throws SQLException {
+        File stateFile = new File(this.folder.getRoot(), "state.json");
+        mockMax("100", Types.BIGINT);
+        IncrementalWatermark first = load(stateFile);
+        buildWhere(first, null);
+        first.commit();
+
+        // 作业失败时不会执行post，高水位不提交
+        mockMax("250", Types.BIGINT);
+        buildWhere(load(stateFile), null);
+
+        mockMax("300", Types.BIGINT);
+        assertEquals("id > 100 AND id <= 300", buildWhere(load(stateFile), null));
+        assertFalse(new File(this.folder.getRoot(), "state.json.tmp").exists());
+    }
+
+    @Test
+    public void testEmptyTableReadsNothingAndKeepsWatermark() throws SQLException {
+        File stateFile = new File(this.folder.getRoot(), "state.json");
+        mockMax("100", Types.BIGINT);
+        IncrementalWatermark first = load(stateFile);
+        buildWhere(first, null);
+        first.commit();
+
+        mockMax(null, Types.BIGINT);
+        IncrementalWatermark empty = load(stateFile);
+        assertEquals(" 1 = 0 ", buildWhere(empty, null));
+        empty.commit();
+
+        mockMax("120", Types.BIGINT);
+        assertEquals("id > 100 AND id <= 120", buildWhere(load(stateFile), null));
+    }
+
+    @Test
+    public void testTimestampWatermarkIsQuoted() throws SQLException {
+        mockMax("2024-01-02 03:04:05.0", Types.TIMESTAMP);
+        IncrementalWatermark watermark = load(new File(this.folder.getRoot(), "state.json"));
+        assertEquals("id <= '2024-01-02 03:04:05.0'", buildWhere(watermark, null));
+    }
+
+    @Test
+    public void testUnsupportedColumnTypeIsRejected() throws SQLException {
+        mockMax("abc", Types.BLOB);
+        IncrementalWatermark watermark = load(new File(this.folder.getRoot(), "state.json"));
+        try {
+            buildWhere(watermark, null);
+            fail();
+        } catch (DataXException e) {
+            assertEquals(DBUtilErrorCode.ILLEGAL_VALUE, e.getErrorCode());
+        }
+    }
+
+    private static void assertRejected(Configuration configuration, DBUtilErrorCode errorCode) {
+        try {
+            IncrementalWatermark.load(configuration, DataBaseType.MySql);
+            fail();
+        } catch (DataXException e) {
+            assertEquals(errorCode, e.getErrorCode());
+        }
+    }
+
+    /**
+     * MAX(incrementalColumn) 查询返回 max，max 为 null 表示表中没有数据
+     */
+    private void mockMax(final String max, int columnType) throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnType(1)).thenReturn(columnType);
+        final ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.getObject(1)).thenReturn(max);
+        when(resultSet.getString(1)).thenReturn(max);
+
+        Connection mockConnection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(mockConnection.createStatement(anyInt(), anyInt())).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenAnswer(new Answer<ResultSet>() {
+            @Override
+            public ResultSet answer(InvocationOnMock invocation) {
+                queries.add((String) invocation.getArguments()[0]);
+                return resultSet;
+            }
+        });
+        connection = mockConnection;
+    }
+
+    public static class FakeDriver implements Driver {
+        @Override
+        public Connection connect(String url, Properties info) {
+            return acceptsURL(url) ? connection : null;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return JDBC_URL.equals(url);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
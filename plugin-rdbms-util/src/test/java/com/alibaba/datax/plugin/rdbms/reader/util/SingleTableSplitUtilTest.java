@@ -0,0 +1,249 @@
+package com.alibaba.datax.plugin.rdbms.reader.util;
+
+import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.plugin.rdbms.reader.Constant;
+import com.alibaba.datax.plugin.rdbms.reader.Key;
+import com.alibaba.datax.plugin.rdbms.util.DataBaseType;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SingleTableSplitUtilTest {
+
+    private static final String JDBC_URL = "jdbc:datax-split-test:db";
+
+    private static volatile Connection connection;
+
+    private final List<String> queries = new ArrayList<String>();
+
+    @BeforeClass
+    public static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(new FakeDriver());
+    }
+
+    @After
+    public void tearDown() {
+        SingleTableSplitUtil.DATABASE_TYPE = null;
+    }
+
+    @Test
+    public void testParseSplitPk() {
+        assertArrayEquals(new String[]{"tenant_id", "id"}, SingleTableSplitUtil.parseSplitPk(" tenant_id , id ,,"));
+        assertArrayEquals(new String[]{"id"}, SingleTableSplitUtil.parseSplitPk("id"));
+        assertEquals(0, SingleTableSplitUtil.parseSplitPk(null).length);
+    }
+
+    @Test
+    public void testSampleSplitIsOnlyForMysqlAndPostgresql() {
+        Configuration sampling = Configuration.newDefault();
+        sampling.set(Key.SPLIT_PK, "id");
+        sampling.set(Key.SPLIT_MODE, "randomSampling");
+        Configuration composite = Configuration.newDefault();
+        composite.set(Key.SPLIT_PK, "tenant_id,id");
+        Configuration plain = Configuration.newDefault();
+        plain.set(Key.SPLIT_PK, "id");
+
+        SingleTableSplitUtil.DATABASE_TYPE = DataBaseType.MySql;
+        assertTrue(SingleTableSplitUtil.isSampleSplit(sampling));
+        assertTrue(SingleTableSplitUtil.isSampleSplit(composite));
+        assertFalse(SingleTableSplitUtil.isSampleSplit(plain));
+
+        SingleTableSplitUtil.DATABASE_TYPE = DataBaseType.PostgreSQL;
+        assertTrue(SingleTableSplitUtil.isSampleSplit(composite));
+
+        SingleTableSplitUtil.DATABASE_TYPE = DataBaseType.Oracle;
+        assertFalse(SingleTableSplitUtil.isSampleSplit(sampling));
+        assertFalse(SingleTableSplitUtil.isSampleSplit(composite));
+    }
+
+    @Test
+    public void testSkewedKeysAreSplitOnSampleQuantiles() throws SQLException {
+        // 样本中540行落在[0,540)，60行落在100000之后；按MIN/MAX等分时几乎所有数据都会落在第一个分片
+        List<String[]> sample = new ArrayList<String[]>();
+        for (int i = 0; i < 600; i++) {
+            sample.add(new String[]{String.valueOf(i < 540 ? i : 100000 + i)});
+        }
+        mockConnection(sample, sample, false, Types.BIGINT);
+        SingleTableSplitUtil.DATABASE_TYPE = DataBaseType.MySql;
+        Configuration configuration = splitConfig();
+
+        List<String> ranges = SingleTableSplitUtil.genSplitSqlBySample("id", "t", null, configuration, 4);
+
+        assertEquals(Arrays.asList(" (id < 150) ", " (150 <= id AND id < 300) ",
+                " (300 <= id AND id < 450) ", " (450 <= id) "), ranges);
+        // 样本足够多，不需要再探测
+        assertEquals(Arrays.asList("SELECT id FROM t WHERE (id IS NOT NULL) AND RAND() < 0.001 ORDER BY id"),
+                this.queries);
+        assertEquals(Constant.PK_TYPE_MONTECARLO, configuration.getString(Constant.PK_TYPE));
+        verify(connection).close();
+    }
+
+    @Test
+    public void testSmallTableUsesProbedRows() throws SQLException {
+        List<String[]> sample = new ArrayList<String[]>();
+        List<String[]> all = new ArrayList<String[]>();
+        for (int i = 0; i < 20; i++) {
+            all.add(new String[]{String.valueOf(i * 10)});
+            if (i % 2 == 0) {
+                sample.add(all.get(i));
+            }
+        }
+        mockConnection(sample, all, false, Types.INTEGER);
+        SingleTableSplitUtil.DATABASE_TYPE = DataBaseType.MySql;
+
+        List<String> ranges = SingleTableSplitUtil.genSplitSqlBySample("id", "t", null, splitConfig(), 4);
+
+        // 探测只取到20行，即为全表数据，分位点为第5、10、15行
+        assertEquals(Arrays.asList(" (id < 50) ", " (50 <= id AND id < 100) ",
+                " (100 <= id AND id < 150) ", " (150 <= id) "), ranges);
+        assertEquals("SELECT id FROM t WHERE (id IS NOT NULL) ORDER BY id LIMIT 400", this.queries.get(1));
+    }
+
+    @Test
+    public void testPostgresqlFallsBackToRandomFilterWithoutTableSample() throws SQLException {
+        List<String[]> rows = Arrays.asList(new String[]{"a", "1"}, new String[]{"a", "2"},
+                new String[]{"o'k", "1"}, new String[]{"o'k", "2"}, new String[]{"z", "1"});
+        mockConnection(rows, rows, true, Types.VARCHAR, Types.INTEGER);
+        SingleTableSplitUtil.DATABASE_TYPE = DataBaseType.PostgreSQL;
+
+        List<String> ranges = SingleTableSplitUtil.genSplitSqlBySample("tenant_id,id", "t", "deleted = 0",
+                splitConfig(), 2);
+
+        String notNull = "tenant_id IS NOT NULL AND id IS NOT NULL";
+        assertEquals(Arrays.asList(
+                " (" + notNull + " AND (tenant_id,id) < ('o''k',1)) ",
+                " (" + notNull + " AND ('o''k',1) <= (tenant_id,id)) "), ranges);
+        assertEquals("SELECT tenant_id,id FROM t TABLESAMPLE SYSTEM (0.1) WHERE (" + notNull
+                + ") AND (deleted = 0) ORDER BY tenant_id,id", this.queries.get(0));
+        assertEquals("SELECT tenant_id,id FROM t WHERE (" + notNull
+                + ") AND (deleted = 0) AND random() < 0.001 ORDER BY tenant_id,id", this.queries.get(1));
+        verify(connection).rollback();
+    }
+
+    @Test
+    public void testSingleSplitReadsAllNotNullRows() {
+        SingleTableSplitUtil.DATABASE_TYPE = DataBaseType.MySql;
+        assertEquals(Arrays.asList(" (id IS NOT NULL) "),
+                SingleTableSplitUtil.genSplitSqlBySample("id", "t", null, splitConfig(), 1));
+    }
+
+    private static Configuration splitConfig() {
+        Configuration configuration = Configuration.newDefault();
+        configuration.set(Key.JDBC_URL, JDBC_URL);
+        configuration.set(Key.USERNAME, "datax");
+        configuration.set(Key.PASSWORD, "pwd");
+        configuration.set(Key.SAMPLE_PERCENTAGE, 0.1);
+        return configuration;
+    }
+
+    /**
+     * 抽样sql返回sampleRows，ORDER BY ... LIMIT 探测返回probeRows；failTableSample为true时TABLESAMPLE报错
+     */
+    private void mockConnection(final List<String[]> sampleRows, final List<String[]> probeRows,
+                                final boolean failTableSample, final int... columnTypes) throws SQLException {
+        Connection mockConnection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(mockConnection.createStatement(anyInt(), anyInt())).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenAnswer(new Answer<ResultSet>() {
+            @Override
+            public ResultSet answer(InvocationOnMock invocation) throws SQLException {
+                String sql = (String) invocation.getArguments()[0];
+                queries.add(sql);
+                if (failTableSample && sql.contains("TABLESAMPLE")) {
+                    throw new SQLException("syntax error at or near \"TABLESAMPLE\"");
+                }
+                return resultSet(sql.contains(" LIMIT ") ? probeRows : sampleRows, columnTypes);
+            }
+        });
+        connection = mockConnection;
+    }
+
+    private static ResultSet resultSet(final List<String[]> rows, int... columnTypes) throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        for (int i = 0; i < columnTypes.length; i++) {
+            when(metaData.getColumnType(i + 1)).thenReturn(columnTypes[i]);
+            when(metaData.getColumnName(i + 1)).thenReturn("c" + i);
+        }
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        final int[] cursor = {-1};
+        when(resultSet.next()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                return ++cursor[0] < rows.size();
+            }
+        });
+        when(resultSet.getString(anyInt())).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) {
+                return rows.get(cursor[0])[(Integer) invocation.getArguments()[0] - 1];
+            }
+        });
+        return resultSet;
+    }
+
+    public static class FakeDriver implements Driver {
+        @Override
+        public Connection connect(String url, Properties info) {
+            return acceptsURL(url) ? connection : null;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return JDBC_URL.equals(url);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
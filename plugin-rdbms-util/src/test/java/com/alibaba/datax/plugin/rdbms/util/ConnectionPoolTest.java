@@ -0,0 +1,288 @@
+package com.alibaba.datax.plugin.rdbms.util;
+
+import com.alibaba.datax.common.util.Configuration;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConnectionPoolTest {
+
+    private static final String URL_PREFIX = "jdbc:datax-pool-test:";
+
+    private static final String SCOPE = "job-1";
+
+    private static final List<Connection> CREATED = new CopyOnWriteArrayList<Connection>();
+
+    private static int urlSeq;
+
+    private String jdbcUrl;
+
+    @BeforeClass
+    public static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(new FakeDriver());
+    }
+
+    @After
+    public void tearDown() {
+        ConnectionPool.closeAll(SCOPE);
+        CREATED.clear();
+    }
+
+    /**
+     * 每个用例使用不同的jdbcUrl，避免共用job级别的连接池
+     */
+    private ConnectionPool pool(int maxSize) {
+        this.jdbcUrl = URL_PREFIX + (urlSeq++);
+        return ConnectionPool.getPool(SCOPE, DataBaseType.MySql, this.jdbcUrl, "datax", "pwd",
+                Configuration.newDefault(), "test", maxSize);
+    }
+
+    @Test
+    public void testPoolIsSharedPerUrlAndUser() {
+        ConnectionPool pool = pool(2);
+        assertSame(pool, ConnectionPool.getPool(SCOPE, DataBaseType.MySql, this.jdbcUrl, "datax", "pwd",
+                Configuration.newDefault(), "test", 8));
+        assertNotSame(pool, ConnectionPool.getPool(SCOPE, DataBaseType.MySql, this.jdbcUrl, "other", "pwd",
+                Configuration.newDefault(), "test", 2));
+    }
+
+    @Test
+    public void testReleasedConnectionIsReused() throws SQLException {
+        ConnectionPool pool = pool(2);
+        Connection first = pool.borrow();
+        assertTrue(pool.isPooled(first));
+        pool.release(first, true);
+        assertFalse(pool.isPooled(first));
+
+        assertSame(first, pool.borrow());
+        assertEquals(1, CREATED.size());
+        verify(first, never()).close();
+    }
+
+    @Test
+    public void testReleasedConnectionIsResetToAutoCommit() throws SQLException {
+        ConnectionPool pool = pool(1);
+        Connection connection = pool.borrow();
+        when(connection.getAutoCommit()).thenReturn(false);
+        pool.release(connection, true);
+
+        verify(connection).rollback();
+        verify(connection).setAutoCommit(true);
+        assertSame(connection, pool.borrow());
+    }
+
+    @Test
+    public void testFailedConnectionIsClosedNotReused() throws SQLException {
+        ConnectionPool pool = pool(1);
+        Connection first = pool.borrow();
+        pool.release(first, false);
+        verify(first).close();
+
+        Connection second = pool.borrow();
+        assertNotSame(first, second);
+        assertEquals(2, CREATED.size());
+    }
+
+    @Test
+    public void testInvalidIdleConnectionIsReplaced() throws SQLException {
+        ConnectionPool pool = pool(1);
+        Connection first = pool.borrow();
+        pool.release(first, true);
+        when(first.isValid(anyInt())).thenReturn(false);
+
+        Connection second = pool.borrow();
+        assertNotSame(first, second);
+        verify(first).close();
+    }
+
+    @Test
+    public void testPreparedStatementIsCachedPerConnection() throws SQLException {
+        ConnectionPool pool = pool(2);
+        Connection connection = pool.borrow();
+        PreparedStatement insert = pool.prepareStatement(connection, "insert into t values(?)");
+        assertSame(insert, pool.prepareStatement(connection, "insert into t values(?)"));
+        assertNotSame(insert, pool.prepareStatement(connection, "replace into t values(?)"));
+        verify(connection, times(1)).prepareStatement("insert into t values(?)");
+
+        // 归还后再次借出，statement仍然可以复用
+        pool.release(connection, true);
+        assertSame(insert, pool.prepareStatement(pool.borrow(), "insert into t values(?)"));
+
+        // 不在池中的连接每次新建statement
+        Connection unpooled = newConnection();
+        pool.prepareStatement(unpooled, "insert into t values(?)");
+        pool.prepareStatement(unpooled, "insert into t values(?)");
+        verify(unpooled, times(2)).prepareStatement("insert into t values(?)");
+    }
+
+    @Test
+    public void testDestroyedConnectionClosesCachedStatements() throws SQLException {
+        ConnectionPool pool = pool(1);
+        Connection connection = pool.borrow();
+        PreparedStatement statement = pool.prepareStatement(connection, "insert into t values(?)");
+        pool.release(connection, false);
+        verify(statement).close();
+    }
+
+    @Test
+    public void testCloseAllClosesIdleConnections() throws SQLException {
+        ConnectionPool pool = pool(2);
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        PreparedStatement statement = pool.prepareStatement(first, "insert into t values(?)");
+        pool.release(first, true);
+        pool.release(second, true);
+
+        ConnectionPool.closeAll(SCOPE);
+        verify(first).close();
+        verify(second).close();
+        verify(statement).close();
+    }
+
+    @Test
+    public void testPoolsAreNotSharedOrClosedAcrossJobs() throws SQLException {
+        ConnectionPool pool = pool(2);
+        ConnectionPool otherJobPool = ConnectionPool.getPool("job-2", DataBaseType.MySql, this.jdbcUrl,
+                "datax", "pwd", Configuration.newDefault(), "test", 2);
+        assertNotSame(pool, otherJobPool);
+
+        Connection connection = otherJobPool.borrow();
+        otherJobPool.release(connection, true);
+        // 本 job 结束只关闭自己的连接池
+        ConnectionPool.closeAll(SCOPE);
+        verify(connection, never()).close();
+        assertSame(otherJobPool, ConnectionPool.getPool("job-2", DataBaseType.MySql, this.jdbcUrl,
+                "datax", "pwd", Configuration.newDefault(), "test", 2));
+
+        ConnectionPool.closeAll("job-2");
+        verify(connection).close();
+    }
+
+    @Test
+    public void testConnectionClosedByCallerIsReclaimed() throws SQLException {
+        ConnectionPool pool = pool(1);
+        Connection first = pool.borrow();
+        // 调用方直接关闭而没有归还，不能一直占用唯一的名额
+        when(first.isClosed()).thenReturn(true);
+
+        long start = System.currentTimeMillis();
+        Connection second = pool.borrow();
+        assertNotSame(first, second);
+        assertTrue(pool.isPooled(second));
+        assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(Constant.TIMEOUT_SECONDS));
+    }
+
+    @Test
+    public void testBorrowWaitsForRelease() throws Exception {
+        final ConnectionPool pool = pool(1);
+        Connection first = pool.borrow();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Connection> waiting = executor.submit(new Callable<Connection>() {
+                @Override
+                public Connection call() {
+                    return pool.borrow();
+                }
+            });
+            Thread.sleep(200);
+            assertFalse(waiting.isDone());
+
+            pool.release(first, true);
+            assertSame(first, waiting.get(5, TimeUnit.SECONDS));
+            assertEquals(1, CREATED.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Connection newConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenAnswer(new Answer<PreparedStatement>() {
+            @Override
+            public PreparedStatement answer(InvocationOnMock invocation) {
+                return mock(PreparedStatement.class);
+            }
+        });
+        return connection;
+    }
+
+    /**
+     * 只接受测试jdbcUrl的驱动，每次connect返回一个新的mock连接
+     */
+    public static class FakeDriver implements Driver {
+        @Override
+        public Connection connect(String url, Properties info) throws SQLException {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            Connection connection = newConnection();
+            CREATED.add(connection);
+            return connection;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url != null && url.startsWith(URL_PREFIX);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
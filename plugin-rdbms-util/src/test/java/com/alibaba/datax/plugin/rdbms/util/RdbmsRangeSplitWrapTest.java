@@ -0,0 +1,52 @@
+package com.alibaba.datax.plugin.rdbms.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class RdbmsRangeSplitWrapTest {
+
+    @Test
+    public void testQuantileRangesAreContiguous() {
+        assertEquals(Arrays.asList(" (id < 100) ", " (100 <= id AND id < 250) ", " (250 <= id) "),
+                RdbmsRangeSplitWrap.wrapQuantileRange(Arrays.asList(new String[]{"100"}, new String[]{"250"}),
+                        new String[]{"id"}));
+    }
+
+    @Test
+    public void testCompositeKeyUsesRowValueComparison() {
+        String notNull = "tenant_id IS NOT NULL AND id IS NOT NULL AND ";
+        assertEquals(Arrays.asList(
+                        " (" + notNull + "(tenant_id,id) < ('a',10)) ",
+                        " (" + notNull + "('a',10) <= (tenant_id,id)) "),
+                RdbmsRangeSplitWrap.wrapQuantileRange(Collections.singletonList(new String[]{"'a'", "10"}),
+                        new String[]{"tenant_id", "id"}));
+    }
+
+    @Test
+    public void testNoQuantilePointReadsAllNotNullRows() {
+        assertEquals(Collections.singletonList(" (tenant_id IS NOT NULL AND id IS NOT NULL) "),
+                RdbmsRangeSplitWrap.wrapQuantileRange(null, new String[]{"tenant_id", "id"}));
+        assertEquals(Collections.singletonList(" (id IS NOT NULL) "),
+                RdbmsRangeSplitWrap.wrapQuantileRange(Collections.<String[]>emptyList(), new String[]{"id"}));
+    }
+
+    @Test
+    public void testNullRangeComplementsQuantileRanges() {
+        assertEquals(" (id IS NULL) ", RdbmsRangeSplitWrap.wrapNullRange(new String[]{"id"}));
+        assertEquals(" (tenant_id IS NULL OR id IS NULL) ",
+                RdbmsRangeSplitWrap.wrapNullRange(new String[]{"tenant_id", "id"}));
+    }
+
+    @Test
+    public void testSqlConstantIsEscaped() {
+        assertEquals("42", RdbmsRangeSplitWrap.toSqlConstant("42", "", DataBaseType.MySql));
+        assertEquals("NULL", RdbmsRangeSplitWrap.toSqlConstant(null, "'", DataBaseType.MySql));
+        assertEquals("'o''k\\\\'", RdbmsRangeSplitWrap.toSqlConstant("o'k\\", "'", DataBaseType.MySql));
+        // PostgreSQL 默认 standard_conforming_strings=on，反斜杠不需要转义
+        assertEquals("'o''k\\'", RdbmsRangeSplitWrap.toSqlConstant("o'k\\", "'", DataBaseType.PostgreSQL));
+    }
+}
@@ -0,0 +1,375 @@
+package com.alibaba.datax.plugin.rdbms.writer;
+
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.common.plugin.RecordReceiver;
+import com.alibaba.datax.common.plugin.TaskCheckpoint;
+import com.alibaba.datax.common.plugin.TaskPluginCollector;
+import com.alibaba.datax.plugin.rdbms.util.DBUtilErrorCode;
+import com.alibaba.datax.plugin.rdbms.util.DataBaseType;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CommonRdbmsWriterTest {
+
+    private static final String INSERT_SQL = "insert into t values(?)";
+
+    private FakeTask task;
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        this.task = new FakeTask();
+        this.connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(this.connection.prepareStatement(INSERT_SQL)).thenReturn(statement);
+        // 逐行写入时，按当前填充的record决定是否失败
+        when(statement.execute()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws SQLException {
+                task.write(Arrays.asList(task.current));
+                return false;
+            }
+        });
+    }
+
+    private static List<Record> records(int count) {
+        List<Record> records = new ArrayList<Record>();
+        for (int i = 0; i < count; i++) {
+            records.add(mock(Record.class));
+        }
+        return records;
+    }
+
+    @Test
+    public void testSuccessfulBatchIsWrittenOnce() throws SQLException {
+        List<Record> buffer = records(8);
+        this.task.doBatchInsert(this.connection, buffer);
+
+        assertEquals(Arrays.asList(8), this.task.batchSizes);
+        assertEquals(buffer, this.task.written);
+        assertTrue(this.task.dirtyRecords.isEmpty());
+        verify(this.connection, never()).rollback();
+    }
+
+    @Test
+    public void testOnlyFailedRowIsWrittenOneByOne() throws SQLException {
+        List<Record> buffer = records(8);
+        Record bad = buffer.get(5);
+        this.task.badRecords.add(bad);
+        this.task.doBatchInsert(this.connection, buffer);
+
+        // 8 -> [0,4) [4,8) -> [4,6) [6,8) -> [4] [5]，只有[5]逐行写入
+        assertEquals(Arrays.asList(8, 4, 4, 2, 2, 1, 1), this.task.batchSizes);
+        assertEquals(Arrays.asList(bad), this.task.dirtyRecords);
+        assertEquals(7, this.task.written.size());
+        assertFalse(this.task.written.contains(bad));
+        verify(this.connection, times(4)).rollback();
+        verify(this.connection, times(1)).prepareStatement(INSERT_SQL);
+    }
+
+    @Test
+    public void testRetriesGrowLogarithmically() throws SQLException {
+        List<Record> buffer = records(1024);
+        this.task.badRecords.add(buffer.get(700));
+        this.task.doBatchInsert(this.connection, buffer);
+
+        // 每一层拆分最多重试两个一半，共log2(1024)=10层
+        assertTrue(this.task.batchSizes.toString(), this.task.batchSizes.size() <= 1 + 2 * 10);
+        assertEquals(1, this.task.dirtyRecords.size());
+        assertEquals(1023, this.task.written.size());
+    }
+
+    @Test
+    public void testAllRowsFailed() throws SQLException {
+        List<Record> buffer = records(4);
+        this.task.badRecords.addAll(buffer);
+        this.task.doBatchInsert(this.connection, buffer);
+
+        assertEquals(buffer, this.task.dirtyRecords);
+        assertTrue(this.task.written.isEmpty());
+    }
+
+    /**
+     * 只带metaData的连接，startWriteWithConnection获取目的表字段信息时使用
+     */
+    private static Connection metaDataConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.getMetaData()).thenReturn(mock(ResultSetMetaData.class));
+        return connection;
+    }
+
+    @Test
+    public void testAsyncFlushWritesBatchesInOrderOnFlusherThread() throws Exception {
+        FlushRecordingTask asyncTask = new FlushRecordingTask(3, 2);
+        List<Record> buffer = records(10);
+        Connection asyncConnection = metaDataConnection();
+
+        asyncTask.startWriteWithConnection(new ListReceiver(buffer), asyncTask.taskPluginCollector, asyncConnection);
+
+        assertEquals(buffer, asyncTask.written);
+        assertEquals(Arrays.asList(3, 3, 3, 1), asyncTask.batchSizes);
+        for (String threadName : asyncTask.threadNames) {
+            assertTrue(threadName, threadName.endsWith("-flusher"));
+        }
+        verify(asyncConnection).close();
+    }
+
+    @Test
+    public void testInFlightBatchesAreBounded() throws Exception {
+        // 1个在途batch：一个buffer在写，一个buffer在填充，读取线程随后阻塞
+        final FlushRecordingTask asyncTask = new FlushRecordingTask(2, 1);
+        asyncTask.blockFlush = new CountDownLatch(1);
+        final ListReceiver receiver = new ListReceiver(records(20));
+        final Connection asyncConnection = metaDataConnection();
+
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                asyncTask.startWriteWithConnection(receiver, asyncTask.taskPluginCollector, asyncConnection);
+            }
+        });
+        writer.start();
+        Thread.sleep(300);
+        assertEquals(4, receiver.received.get());
+
+        asyncTask.blockFlush.countDown();
+        writer.join(5000);
+        assertFalse(writer.isAlive());
+        assertEquals(20, receiver.received.get());
+        assertEquals(20, asyncTask.written.size());
+    }
+
+    @Test
+    public void testFlusherErrorIsRethrownOnReadingThread() throws Exception {
+        FlushRecordingTask asyncTask = new FlushRecordingTask(2, 1);
+        List<Record> buffer = records(10);
+        asyncTask.failAt = buffer.get(0);
+        Connection asyncConnection = metaDataConnection();
+
+        try {
+            asyncTask.startWriteWithConnection(new ListReceiver(buffer), asyncTask.taskPluginCollector, asyncConnection);
+            fail();
+        } catch (DataXException e) {
+            assertEquals(DBUtilErrorCode.WRITE_DATA_ERROR, e.getErrorCode());
+        }
+        // 出错后不再提交后续的batch
+        assertTrue(asyncTask.written.isEmpty());
+        verify(asyncConnection).close();
+    }
+
+    /**
+     * 模拟reader在发送每条record后都记录位置，位置即已发送的条数
+     */
+    private static TaskCheckpoint sentCheckpoint(int records) {
+        TaskCheckpoint checkpoint = new TaskCheckpoint();
+        for (int i = 1; i <= records; i++) {
+            checkpoint.recordSent(1);
+            checkpoint.mark(String.valueOf(i));
+        }
+        return checkpoint;
+    }
+
+    @Test
+    public void testCheckpointIsCommittedAfterEachBatch() throws Exception {
+        FlushRecordingTask syncTask = new FlushRecordingTask(3, 1);
+        syncTask.asyncFlush = false;
+        List<Record> buffer = records(10);
+        TaskCheckpoint checkpoint = sentCheckpoint(10);
+        syncTask.setTaskCheckpoint(checkpoint);
+
+        syncTask.startWriteWithConnection(new ListReceiver(buffer), syncTask.taskPluginCollector,
+                metaDataConnection());
+
+        assertEquals("10", checkpoint.getCommittedPosition());
+    }
+
+    @Test
+    public void testFailedBatchIsNotCommitted() throws Exception {
+        FlushRecordingTask syncTask = new FlushRecordingTask(3, 1);
+        syncTask.asyncFlush = false;
+        List<Record> buffer = records(10);
+        // 第三个batch[6,9)失败，只确认前两个batch
+        syncTask.failAt = buffer.get(7);
+        TaskCheckpoint checkpoint = sentCheckpoint(10);
+        syncTask.setTaskCheckpoint(checkpoint);
+
+        try {
+            syncTask.startWriteWithConnection(new ListReceiver(buffer), syncTask.taskPluginCollector,
+                    metaDataConnection());
+            fail();
+        } catch (DataXException e) {
+            assertEquals(DBUtilErrorCode.WRITE_DATA_ERROR, e.getErrorCode());
+        }
+        assertEquals("6", checkpoint.getCommittedPosition());
+    }
+
+    @Test
+    public void testAsyncFlushCommitsCheckpointAfterBatchIsWritten() throws Exception {
+        FlushRecordingTask asyncTask = new FlushRecordingTask(3, 2);
+        List<Record> buffer = records(10);
+        asyncTask.failAt = buffer.get(4);
+        TaskCheckpoint checkpoint = sentCheckpoint(10);
+        asyncTask.setTaskCheckpoint(checkpoint);
+
+        try {
+            asyncTask.startWriteWithConnection(new ListReceiver(buffer), asyncTask.taskPluginCollector,
+                    metaDataConnection());
+            fail();
+        } catch (DataXException e) {
+            assertEquals(DBUtilErrorCode.WRITE_DATA_ERROR, e.getErrorCode());
+        }
+        assertEquals("3", checkpoint.getCommittedPosition());
+    }
+
+    /**
+     * 用badRecords模拟违反约束的行，batch中只要包含其中一行整个batch就失败
+     */
+    private static class FakeTask extends CommonRdbmsWriter.Task {
+        private final Set<Record> badRecords = new HashSet<Record>();
+
+        private final List<Integer> batchSizes = new ArrayList<Integer>();
+
+        private final List<Record> written = new ArrayList<Record>();
+
+        private final List<Record> dirtyRecords = new ArrayList<Record>();
+
+        private Record current;
+
+        FakeTask() {
+            super(DataBaseType.MySql);
+            this.writeRecordSql = INSERT_SQL;
+            this.taskPluginCollector = new TaskPluginCollector() {
+                @Override
+                public void collectDirtyRecord(Record dirtyRecord, Throwable t, String errorMessage) {
+                    dirtyRecords.add(dirtyRecord);
+                }
+
+                @Override
+                public void collectMessage(String key, String value) {
+                }
+            };
+        }
+
+        @Override
+        protected void executeBatchInsert(Connection connection, List<Record> buffer) throws SQLException {
+            this.batchSizes.add(buffer.size());
+            write(buffer);
+        }
+
+        @Override
+        protected PreparedStatement fillPreparedStatement(PreparedStatement preparedStatement, Record record) {
+            this.current = record;
+            return preparedStatement;
+        }
+
+        private void write(List<Record> buffer) throws SQLException {
+            for (Record record : buffer) {
+                if (this.badRecords.contains(record)) {
+                    throw new SQLException("Duplicate entry for key 'PRIMARY'");
+                }
+            }
+            this.written.addAll(buffer);
+        }
+    }
+
+    /**
+     * 异步刷写时记录每个batch及执行线程，blockFlush不为null时刷写阻塞到countDown
+     */
+    private static class FlushRecordingTask extends CommonRdbmsWriter.Task {
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<Integer>();
+
+        private final List<Record> written = new CopyOnWriteArrayList<Record>();
+
+        private final List<String> threadNames = new CopyOnWriteArrayList<String>();
+
+        private volatile CountDownLatch blockFlush;
+
+        private volatile Record failAt;
+
+        FlushRecordingTask(int batchSize, int maxInFlightBatches) {
+            super(DataBaseType.MySql);
+            this.table = "t";
+            this.columns = new ArrayList<String>();
+            this.batchSize = batchSize;
+            this.batchByteSize = Integer.MAX_VALUE;
+            this.asyncFlush = true;
+            this.maxInFlightBatches = maxInFlightBatches;
+            this.taskPluginCollector = mock(TaskPluginCollector.class);
+        }
+
+        @Override
+        protected void doBatchInsert(Connection connection, List<Record> buffer) throws SQLException {
+            if (null != this.blockFlush) {
+                try {
+                    this.blockFlush.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (buffer.contains(this.failAt)) {
+                throw new SQLException("Lost connection to MySQL server");
+            }
+            this.threadNames.add(Thread.currentThread().getName());
+            this.batchSizes.add(buffer.size());
+            this.written.addAll(buffer);
+        }
+    }
+
+    private static class ListReceiver implements RecordReceiver {
+        private final List<Record> records;
+
+        private final AtomicInteger received = new AtomicInteger();
+
+        ListReceiver(List<Record> records) {
+            this.records = records;
+        }
+
+        @Override
+        public Record getFromReader() {
+            int index = this.received.get();
+            if (index >= this.records.size()) {
+                return null;
+            }
+            this.received.incrementAndGet();
+            return this.records.get(index);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
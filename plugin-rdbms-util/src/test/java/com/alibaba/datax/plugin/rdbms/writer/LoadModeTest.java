@@ -0,0 +1,40 @@
+package com.alibaba.datax.plugin.rdbms.writer;
+
+import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.plugin.rdbms.util.DataBaseType;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class LoadModeTest {
+
+    @Test
+    public void testDefaultIsBatch() {
+        assertEquals(LoadMode.BATCH, LoadMode.parse(null, DataBaseType.Oracle, "insert"));
+        assertEquals(LoadMode.BATCH, LoadMode.parse(" ", DataBaseType.MySql, "insert"));
+        assertEquals(LoadMode.BATCH, LoadMode.parse("Batch", DataBaseType.Oracle, "update"));
+    }
+
+    @Test
+    public void testParseIgnoresCase() {
+        assertEquals(LoadMode.BULK_LOAD, LoadMode.parse("bulkload", DataBaseType.MySql, "replace"));
+        assertEquals(LoadMode.MULTI_VALUES, LoadMode.parse(" multiValues ", DataBaseType.PostgreSQL, null));
+    }
+
+    @Test
+    public void testUnsupportedCombinationsAreRejected() {
+        assertRejected("copy", DataBaseType.MySql, "insert");
+        assertRejected("bulkLoad", DataBaseType.Oracle, "insert");
+        assertRejected("bulkLoad", DataBaseType.MySql, "update (id)");
+    }
+
+    private static void assertRejected(String loadMode, DataBaseType dataBaseType, String writeMode) {
+        try {
+            LoadMode.parse(loadMode, dataBaseType, writeMode);
+            fail();
+        } catch (DataXException e) {
+            // 期望的配置错误
+        }
+    }
+}
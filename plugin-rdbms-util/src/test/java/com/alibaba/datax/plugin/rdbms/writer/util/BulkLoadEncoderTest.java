@@ -0,0 +1,99 @@
+package com.alibaba.datax.plugin.rdbms.writer.util;
+
+import com.alibaba.datax.common.element.BoolColumn;
+import com.alibaba.datax.common.element.BytesColumn;
+import com.alibaba.datax.common.element.Column;
+import com.alibaba.datax.common.element.LongColumn;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.element.StringColumn;
+import com.alibaba.datax.plugin.rdbms.util.DataBaseType;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BulkLoadEncoderTest {
+
+    private static Record newRecord(Column... columns) {
+        Record record = mock(Record.class);
+        for (int i = 0; i < columns.length; i++) {
+            when(record.getColumn(i)).thenReturn(columns[i]);
+        }
+        when(record.getColumnNumber()).thenReturn(columns.length);
+        return record;
+    }
+
+    private static BulkLoadEncoder newEncoder(DataBaseType dataBaseType, boolean emptyAsNull, Integer... sqlTypes) {
+        List<String> names = new ArrayList<String>();
+        List<String> typeNames = new ArrayList<String>();
+        for (int i = 0; i < sqlTypes.length; i++) {
+            names.add("c" + i);
+            typeNames.add("unused");
+        }
+        return new BulkLoadEncoder(dataBaseType, names, Arrays.asList(sqlTypes), typeNames, emptyAsNull);
+    }
+
+    private static byte[] encode(BulkLoadEncoder encoder, Record... records) throws Exception {
+        encoder.encode(Arrays.asList(records));
+        byte[] bytes = IOUtils.toByteArray(encoder.getInputStream());
+        assertEquals(bytes.length, encoder.getByteSize());
+        return bytes;
+    }
+
+    @Test
+    public void testEscapeSeparatorsAndNull() throws Exception {
+        BulkLoadEncoder encoder = newEncoder(DataBaseType.MySql, false, Types.VARCHAR, Types.VARCHAR, Types.BIGINT);
+        byte[] bytes = encode(encoder,
+                newRecord(new StringColumn("a\tb\\c"), new StringColumn("x\r\ny\u0000"), new LongColumn(12L)),
+                newRecord(new StringColumn(null), new StringColumn("中文"), new LongColumn((Long) null)));
+        assertEquals("a\\tb\\\\c\tx\\r\\ny\\0\t12\n\\N\t中文\t\\N\n", new String(bytes, "UTF-8"));
+    }
+
+    @Test
+    public void testEmptyAsNullOnlyForNumbers() throws Exception {
+        BulkLoadEncoder encoder = newEncoder(DataBaseType.MySql, true, Types.VARCHAR, Types.DECIMAL);
+        byte[] bytes = encode(encoder, newRecord(new StringColumn(""), new StringColumn("")));
+        assertEquals("\t\\N\n", new String(bytes, "UTF-8"));
+    }
+
+    @Test
+    public void testBinaryIsEscapedForMysqlAndHexForPostgresql() throws Exception {
+        byte[] value = {0x01, '\t', (byte) 0xFF};
+
+        byte[] mysql = encode(newEncoder(DataBaseType.MySql, false, Types.VARBINARY),
+                newRecord(new BytesColumn(value)));
+        assertArrayEquals(new byte[]{0x01, '\\', 't', (byte) 0xFF, '\n'}, mysql);
+
+        byte[] postgresql = encode(newEncoder(DataBaseType.PostgreSQL, false, Types.BINARY),
+                newRecord(new BytesColumn(value)));
+        assertEquals("\\\\x0109ff\n", new String(postgresql, "UTF-8"));
+    }
+
+    @Test
+    public void testMysqlBitIsWrittenAsNumber() throws Exception {
+        BulkLoadEncoder encoder = newEncoder(DataBaseType.MySql, false, Types.BIT, Types.BIT, Types.BIT);
+        byte[] bytes = encode(encoder,
+                newRecord(new BoolColumn(true), new BoolColumn(false), new BoolColumn((Boolean) null)));
+        assertEquals("1\t0\t\\N\n", new String(bytes, "UTF-8"));
+    }
+
+    @Test
+    public void testBufferIsReusedBetweenBatches() throws Exception {
+        BulkLoadEncoder encoder = newEncoder(DataBaseType.MySql, false, Types.VARCHAR);
+        char[] large = new char[100 * 1024];
+        Arrays.fill(large, 'a');
+        encode(encoder, newRecord(new StringColumn(new String(large))));
+        assertEquals(large.length + 1, encoder.getByteSize());
+
+        byte[] bytes = encode(encoder, newRecord(new StringColumn("b")));
+        assertEquals("b\n", new String(bytes, "UTF-8"));
+    }
+}
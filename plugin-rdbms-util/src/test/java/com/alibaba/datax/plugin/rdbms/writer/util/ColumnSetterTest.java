@@ -0,0 +1,58 @@
+package com.alibaba.datax.plugin.rdbms.writer.util;
+
+import com.alibaba.datax.common.element.BoolColumn;
+import com.alibaba.datax.common.element.LongColumn;
+import com.alibaba.datax.common.element.StringColumn;
+import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.plugin.rdbms.util.DataBaseType;
+import org.junit.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class ColumnSetterTest {
+
+    @Test
+    public void testEmptyNumberIsNullOnlyWithEmptyAsNull() throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        ColumnSetter.compile("c", Types.INTEGER, "INT", DataBaseType.MySql, true)
+                .set(ps, 1, new StringColumn(""));
+        verify(ps).setString(1, null);
+
+        ColumnSetter.compile("c", Types.INTEGER, "INT", DataBaseType.MySql, false)
+                .set(ps, 2, new StringColumn(""));
+        verify(ps).setString(2, "");
+    }
+
+    @Test
+    public void testYearAndBitDependOnTypeNameAndDatabase() throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        ColumnSetter.compile("y", Types.DATE, "YEAR", DataBaseType.MySql, false)
+                .set(ps, 1, new LongColumn(2024));
+        verify(ps).setInt(1, 2024);
+
+        ColumnSetter.compile("b", Types.BIT, "BIT", DataBaseType.MySql, false)
+                .set(ps, 2, new BoolColumn(true));
+        verify(ps).setBoolean(2, true);
+
+        ColumnSetter.compile("b", Types.BIT, "bit", DataBaseType.PostgreSQL, false)
+                .set(ps, 3, new BoolColumn(true));
+        verify(ps).setString(3, "true");
+    }
+
+    @Test
+    public void testUnsupportedTypeFailsOnSetWithColumnName() throws Exception {
+        ColumnSetter setter = ColumnSetter.compile("geo", Types.OTHER, "GEOMETRY", DataBaseType.MySql, false);
+        try {
+            setter.set(mock(PreparedStatement.class), 1, new StringColumn("x"));
+            fail();
+        } catch (DataXException e) {
+            assertTrue(e.getMessage().contains("geo"));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.alibaba.datax.plugin.rdbms.writer.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LaneCheckpointTest {
+
+    @Test
+    public void testCheckpointWaitsForSlowerLane() {
+        LaneCheckpoint checkpoint = new LaneCheckpoint(2);
+        // record 1、3 进入 lane 0，record 2、4 进入 lane 1
+        checkpoint.bufferStarted(0, 1);
+        checkpoint.bufferStarted(1, 2);
+        checkpoint.batchFlushed(0, 3);
+        checkpoint.batchFlushed(1, 4);
+
+        // lane 1 先提交，record 1 仍未提交
+        assertEquals(0L, checkpoint.batchCommitted(1));
+        assertEquals(4L, checkpoint.batchCommitted(0));
+    }
+
+    @Test
+    public void testUnflushedBufferHoldsCheckpoint() {
+        LaneCheckpoint checkpoint = new LaneCheckpoint(2);
+        checkpoint.bufferStarted(0, 1);
+        checkpoint.bufferStarted(1, 2);
+        checkpoint.batchFlushed(0, 5);
+        // record 2~4 还在 lane 1 的 buffer 中
+        assertEquals(1L, checkpoint.batchCommitted(0));
+
+        checkpoint.batchFlushed(1, 5);
+        assertEquals(5L, checkpoint.batchCommitted(1));
+    }
+
+    @Test
+    public void testInFlightBatchesOfOneLaneCommitInOrder() {
+        LaneCheckpoint checkpoint = new LaneCheckpoint(2);
+        checkpoint.bufferStarted(0, 1);
+        checkpoint.batchFlushed(0, 2);
+        checkpoint.bufferStarted(0, 3);
+        checkpoint.batchFlushed(0, 4);
+        checkpoint.bufferStarted(1, 5);
+
+        assertEquals(2L, checkpoint.batchCommitted(0));
+        assertEquals(4L, checkpoint.batchCommitted(0));
+
+        checkpoint.batchFlushed(1, 5);
+        assertEquals(5L, checkpoint.batchCommitted(1));
+    }
+}
@@ -0,0 +1,61 @@
+package com.alibaba.datax.plugin.rdbms.writer.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MysqlBulkLoaderTest {
+
+    private static final String LOAD_SQL = "LOAD DATA LOCAL INFILE 'datax.txt' IGNORE INTO TABLE t (a)";
+
+    @Test
+    public void testLoadSetsLocalInfileStreamReflectively() throws Exception {
+        com.mysql.jdbc.Statement statement = mock(com.mysql.jdbc.Statement.class);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeUpdate(LOAD_SQL)).thenReturn(2);
+        SQLWarning warning = new SQLWarning("Duplicate entry '1' for key 'PRIMARY'");
+        warning.setNextWarning(new SQLWarning("Data truncated for column 'a' at row 3"));
+        when(statement.getWarnings()).thenReturn(warning);
+
+        InputStream data = new ByteArrayInputStream("1\n1\nabc\n".getBytes("UTF-8"));
+        // 3行中有2行写入, 其余的行只体现为 warning
+        assertEquals(2L, MysqlBulkLoader.load(connection, LOAD_SQL, data, 3));
+        verify(statement).setLocalInfileInputStream(data);
+        verify(statement).close();
+    }
+
+    @Test
+    public void testLoadUnwrapsPooledStatement() throws Exception {
+        com.mysql.jdbc.Statement mysqlStatement = mock(com.mysql.jdbc.Statement.class);
+        Statement pooled = mock(Statement.class);
+        when(pooled.isWrapperFor(com.mysql.jdbc.Statement.class)).thenReturn(true);
+        when(pooled.unwrap(com.mysql.jdbc.Statement.class)).thenReturn(mysqlStatement);
+
+        InputStream data = new ByteArrayInputStream(new byte[0]);
+        MysqlBulkLoader.setLocalInfileInputStream(pooled, data);
+        verify(mysqlStatement).setLocalInfileInputStream(data);
+    }
+
+    @Test
+    public void testNonMysqlStatementIsRejected() throws Exception {
+        Statement statement = mock(Statement.class);
+        try {
+            MysqlBulkLoader.setLocalInfileInputStream(statement, new ByteArrayInputStream(new byte[0]));
+            fail();
+        } catch (SQLException e) {
+            // 非 MySQL 驱动不能使用 LOAD DATA LOCAL INFILE
+        }
+    }
+}
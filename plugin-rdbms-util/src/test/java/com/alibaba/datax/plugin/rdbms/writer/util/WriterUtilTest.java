@@ -0,0 +1,33 @@
+package com.alibaba.datax.plugin.rdbms.writer.util;
+
+import com.alibaba.datax.plugin.rdbms.util.DataBaseType;
+import org.junit.Test;
+
+import java.sql.Types;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class WriterUtilTest {
+
+    @Test
+    public void testMysqlBulkLoadSql() {
+        String insertSql = WriterUtil.getBulkLoadSql(Arrays.asList("id", "name"),
+                Arrays.asList(Types.BIGINT, Types.VARCHAR), "t", "insert", DataBaseType.MySql);
+        assertEquals("LOAD DATA LOCAL INFILE 'datax.txt' IGNORE INTO TABLE t CHARACTER SET utf8mb4"
+                + " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (id,name)", insertSql);
+
+        String replaceSql = WriterUtil.getBulkLoadSql(Arrays.asList("id", "flag"),
+                Arrays.asList(Types.BIGINT, Types.BIT), "t", " Replace ", DataBaseType.MySql);
+        assertEquals("LOAD DATA LOCAL INFILE 'datax.txt' REPLACE INTO TABLE t CHARACTER SET utf8mb4"
+                + " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (id,@datax_1)"
+                + " SET flag=CAST(@datax_1 AS UNSIGNED)", replaceSql);
+    }
+
+    @Test
+    public void testPostgresqlBulkLoadSql() {
+        String copySql = WriterUtil.getBulkLoadSql(Arrays.asList("id", "name"),
+                Arrays.asList(Types.BIGINT, Types.VARCHAR), "public.t", "insert", DataBaseType.PostgreSQL);
+        assertEquals("COPY public.t (id,name) FROM STDIN", copySql);
+    }
+}
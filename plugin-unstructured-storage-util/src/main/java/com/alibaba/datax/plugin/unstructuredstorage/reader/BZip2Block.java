@@ -0,0 +1,154 @@
+package com.alibaba.datax.plugin.unstructuredstorage.reader;
+
+import com.alibaba.datax.common.exception.DataXException;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+
+/**
+ * bzip2 流中的一个压缩块，从块起始标记(0x314159265359)开始，到下一个块起始标记或者流结束标记为止，按位存放。
+ * <p/>
+ * bzip2 的块之间相互独立，且块头中带有该块的 CRC，因此在块前补上流头 "BZh" + 块大小、
+ * 在块后补上流结束标记和 CRC(单个块时流的 CRC 就等于块的 CRC) 即构成一个合法的 bzip2 流，可以单独解压。
+ * <p/>
+ * 块起始标记是按位查找的，压缩数据中偶尔会出现同样的 48 位而被误认为块边界，此时被切开的两段都无法解压，
+ * 由调用方把解压失败的块与下一块合并(merge)后重新解压。
+ */
+public class BZip2Block {
+
+	static final long BLOCK_MAGIC = 0x314159265359L;
+
+	static final long END_OF_STREAM_MAGIC = 0x177245385090L;
+
+	static final long MAGIC_MASK = 0xFFFFFFFFFFFFL;
+
+	private final byte level;
+
+	// 按位存放，bits[0] 的最高位是块起始标记的第一位
+	private final byte[] bits;
+
+	private final long bitLength;
+
+	BZip2Block(byte level, byte[] bits, long bitLength) {
+		this.level = level;
+		this.bits = bits;
+		this.bitLength = bitLength;
+	}
+
+	/**
+	 * 从 source 中取出 [startBit, endBit) 这一段，source[0] 的最高位为第 0 位
+	 */
+	static BZip2Block copyOf(byte level, byte[] source, long startBit,
+			long endBit) {
+		BitWriter writer = new BitWriter((int) ((endBit - startBit + 7) >>> 3));
+		writer.writeBits(source, startBit, endBit - startBit);
+		return new BZip2Block(level, writer.buffer, endBit - startBit);
+	}
+
+	BZip2Block merge(BZip2Block next) {
+		BitWriter writer = new BitWriter(
+				(int) ((this.bitLength + next.bitLength + 7) >>> 3));
+		writer.writeBits(this.bits, 0, this.bitLength);
+		writer.writeBits(next.bits, 0, next.bitLength);
+		return new BZip2Block(this.level, writer.buffer, this.bitLength
+				+ next.bitLength);
+	}
+
+	/**
+	 * 解压这一块，数据不是一个完整的块(包括块边界误判)时抛出 READ_FILE_IO_ERROR，cause 为解压时的异常
+	 */
+	byte[] decompress() {
+		if (this.bitLength < 80) {
+			throw DataXException.asDataXException(
+					UnstructuredStorageReaderErrorCode.READ_FILE_IO_ERROR,
+					String.format("bzip2 块不完整, 只有 [%s] 位", this.bitLength));
+		}
+		BitWriter writer = new BitWriter((int) ((this.bitLength + 7) >>> 3) + 16);
+		writer.writeBits(new byte[] { 'B', 'Z', 'h', this.level }, 0, 32);
+		writer.writeBits(this.bits, 0, this.bitLength);
+		writer.writeLong(END_OF_STREAM_MAGIC, 48);
+		// 块起始标记之后的 32 位是块的 CRC
+		writer.writeBits(this.bits, 48, 32);
+		BZip2CompressorInputStream in = null;
+		try {
+			in = new BZip2CompressorInputStream(new ByteArrayInputStream(
+					writer.buffer, 0, writer.byteLength()));
+			return IOUtils.toByteArray(in);
+		} catch (Exception e) {
+			throw DataXException.asDataXException(
+					UnstructuredStorageReaderErrorCode.READ_FILE_IO_ERROR,
+					"bzip2 块解压失败", e);
+		} finally {
+			IOUtils.closeQuietly(in);
+		}
+	}
+
+	static class BitWriter {
+		private byte[] buffer;
+
+		private long bitPosition;
+
+		BitWriter(int capacity) {
+			this.buffer = new byte[Math.max(capacity, 16)];
+		}
+
+		int byteLength() {
+			return (int) ((this.bitPosition + 7) >>> 3);
+		}
+
+		void writeLong(long value, int bitCount) {
+			for (int i = bitCount - 1; i >= 0; i--) {
+				this.writeBit((int) (value >>> i) & 1);
+			}
+		}
+
+		void writeBits(byte[] source, long startBit, long bitCount) {
+			this.ensureCapacity(this.bitPosition + bitCount);
+			long p = startBit;
+			long end = startBit + bitCount;
+			// 目标按字节对齐后整字节拷贝
+			while (p < end && 0 != (this.bitPosition & 7)) {
+				this.writeBit(bitAt(source, p++));
+			}
+			int shift = (int) (p & 7);
+			while (end - p >= 8) {
+				int index = (int) (p >>> 3);
+				int value;
+				if (0 == shift) {
+					value = source[index] & 0xFF;
+				} else {
+					value = ((source[index] & 0xFF) << shift | (source[index + 1] & 0xFF) >>> (8 - shift)) & 0xFF;
+				}
+				this.buffer[(int) (this.bitPosition >>> 3)] = (byte) value;
+				this.bitPosition += 8;
+				p += 8;
+			}
+			while (p < end) {
+				this.writeBit(bitAt(source, p++));
+			}
+		}
+
+		private void writeBit(int bit) {
+			this.ensureCapacity(this.bitPosition + 1);
+			if (0 != bit) {
+				int index = (int) (this.bitPosition >>> 3);
+				this.buffer[index] |= (byte) (0x80 >>> (int) (this.bitPosition & 7));
+			}
+			this.bitPosition++;
+		}
+
+		private void ensureCapacity(long bits) {
+			int bytes = (int) ((bits + 7) >>> 3);
+			if (bytes > this.buffer.length) {
+				this.buffer = Arrays.copyOf(this.buffer,
+						Math.max(bytes, this.buffer.length * 2));
+			}
+		}
+
+		private static int bitAt(byte[] source, long position) {
+			return (source[(int) (position >>> 3)] >>> (7 - (int) (position & 7))) & 1;
+		}
+	}
+}
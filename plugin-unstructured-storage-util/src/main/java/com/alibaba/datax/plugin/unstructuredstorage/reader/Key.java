@@ -28,4 +28,7 @@ public class Key {
 
 	public static final String CSV_READER_CONFIG = "csvReaderConfig";
 
+	// 后台解压的线程数, 默认0表示在读取线程中解压; 大于1时 bzip2 按块并行解压
+	public static final String DECOMPRESS_THREADS = "decompressThreads";
+
 }
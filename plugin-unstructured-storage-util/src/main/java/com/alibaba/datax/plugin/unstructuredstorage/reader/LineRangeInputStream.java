@@ -0,0 +1,93 @@
+package com.alibaba.datax.plugin.unstructuredstorage.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * 只读取文件中 [start, end) 这一字节范围所拥有的行，用于把一个大文件切分给多个 task 并行读取。
+ * <p/>
+ * 行首字节落在 [start, end) 内的行属于该范围：start 不为 0 时先定位到 start - 1，
+ * 丢弃直到第一个换行符为止的数据(这部分属于上一个范围)，
+ * 之后一直读到行首不小于 end 的那一行之前，即越过 end 后遇到的第一个换行符为止。
+ * 相邻范围据此恰好不重不漏。
+ * <p/>
+ * 仅适用于以 \n 结尾的行、且字段内不含换行符的未压缩文本，编码需要保证 \n 为单字节 0x0A(如 UTF-8、GBK)。
+ */
+public class LineRangeInputStream extends InputStream {
+
+    private final InputStream in;
+
+    private final long end;
+
+    // 下一个返回的字节在文件中的位置
+    private long pos;
+
+    private boolean finished;
+
+    /**
+     * @param in    位于文件开头的输入流
+     * @param start 范围起始位置(包含)
+     * @param end   范围结束位置(不包含)
+     */
+    public LineRangeInputStream(InputStream in, long start, long end)
+            throws IOException {
+        this.in = in;
+        this.end = end;
+        if (start > 0) {
+            IOUtils.skipFully(in, start - 1);
+            this.pos = start - 1;
+            int b;
+            do {
+                b = in.read();
+                if (-1 == b) {
+                    this.finished = true;
+                    break;
+                }
+                this.pos++;
+            } while ('\n' != b);
+        }
+        if (this.pos >= end) {
+            this.finished = true;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int n = this.read(one, 0, 1);
+        return -1 == n ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (this.finished) {
+            return -1;
+        }
+        if (0 == len) {
+            return 0;
+        }
+        int n = this.in.read(b, off, len);
+        if (-1 == n) {
+            this.finished = true;
+            return -1;
+        }
+        // 位置不小于 end - 1 的第一个换行符结束本范围的最后一行
+        long scanFrom = Math.max(this.pos, this.end - 1);
+        for (long p = scanFrom; p < this.pos + n; p++) {
+            if ('\n' == b[off + (int) (p - this.pos)]) {
+                n = (int) (p - this.pos + 1);
+                this.finished = true;
+                break;
+            }
+        }
+        this.pos += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+}
@@ -0,0 +1,591 @@
+package com.alibaba.datax.plugin.unstructuredstorage.reader;
+
+import com.alibaba.datax.common.element.Column;
+import com.alibaba.datax.common.element.LongColumn;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.element.StringColumn;
+import com.alibaba.datax.common.exception.DataXException;
+import com.alibaba.datax.common.plugin.RecordSender;
+import com.alibaba.datax.common.plugin.TaskPluginCollector;
+import com.alibaba.datax.common.util.Configuration;
+import org.apache.commons.io.Charsets;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 本地未压缩文本文件的快速读取：通过 FileChannel.map 分段映射文件，直接在字节上查找分隔符、换行符和引号，
+ * 只解码 column 中用到的字段，整数字段直接从字节解析为 LongColumn，
+ * 不再经过 BufferedReader/InputStreamReader 解码整行以及 CsvReader 生成的 String[]。
+ * <p/>
+ * 解析规则与 readFromStream 使用的 CsvReader 默认配置保持一致：
+ * \r、\n、\r\n 都是行结束符且跳过空行；字段首尾的空格和制表符被去掉；
+ * 以双引号开头的字段为引用字段，可以包含分隔符和换行符，"" 表示一个双引号，结束引号之后到分隔符之前的字符被忽略。
+ * 类型转换、nullFormat 以及脏数据的处理与 transportOneRecord 相同。
+ * <p/>
+ * 仅支持 UTF-8/ASCII 编码、单字节分隔符且没有 csvReaderConfig 的情况，见 isSupported，其它情况调用方继续使用 readFromStream。
+ * <p/>
+ * 映射的内存在切换窗口以及读取结束时主动释放，不等待 GC 回收，避免读取大量文件时映射长时间占用虚拟内存和文件句柄。
+ */
+public class MappedTextFileReader {
+	private static final Logger LOG = LoggerFactory
+			.getLogger(MappedTextFileReader.class);
+
+	// 每次映射的字节数，一行超过该大小时按行加倍
+	private static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+	private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+	// JDK 9+ 通过 Unsafe.invokeCleaner 释放映射，为 null 时使用 JDK 8 的 DirectBuffer.cleaner()
+	private static final Object UNSAFE;
+
+	private static final Method INVOKE_CLEANER;
+
+	static {
+		Object unsafe = null;
+		Method invokeCleaner = null;
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			invokeCleaner = unsafeClass.getMethod("invokeCleaner",
+					ByteBuffer.class);
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			unsafe = theUnsafe.get(null);
+		} catch (Exception e) {
+			invokeCleaner = null;
+		}
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = invokeCleaner;
+	}
+
+	private final String fileName;
+
+	private final FileChannel channel;
+
+	private final Charset charset;
+
+	private final byte delimiter;
+
+	private final byte[] nullFormatBytes;
+
+	private final String nullFormat;
+
+	private final List<ColumnEntry> columns;
+
+	// 每个 column 对应的字段下标，常量列为 -1
+	private final int[] columnIndexes;
+
+	private final boolean[] longColumns;
+
+	private final RecordSender recordSender;
+
+	private final TaskPluginCollector taskPluginCollector;
+
+	// 本次读取的范围 [regionStart, regionEnd)
+	private long regionStart;
+
+	private long regionEnd;
+
+	private MappedByteBuffer window;
+
+	private long windowStart;
+
+	private int windowLimit;
+
+	private int windowSize = DEFAULT_WINDOW_SIZE;
+
+	// 当前行各字段在窗口内的位置，引用字段不含首尾的引号
+	private int fieldCount;
+
+	private int[] fieldStarts = new int[16];
+
+	private int[] fieldEnds = new int[16];
+
+	private boolean[] fieldQuoted = new boolean[16];
+
+	private byte[] scratch = new byte[1024];
+
+	private MappedTextFileReader(String fileName, FileChannel channel,
+			Configuration readerSliceConfig, RecordSender recordSender,
+			TaskPluginCollector taskPluginCollector) {
+		this.fileName = fileName;
+		this.channel = channel;
+		this.charset = Charsets.toCharset(readerSliceConfig.getString(
+				Key.ENCODING, Constant.DEFAULT_ENCODING));
+		this.delimiter = (byte) readerSliceConfig.getChar(Key.FIELD_DELIMITER,
+				Constant.DEFAULT_FIELD_DELIMITER).charValue();
+		// warn: no default value '\N'
+		this.nullFormat = readerSliceConfig.getString(Key.NULL_FORMAT);
+		this.nullFormatBytes = null == this.nullFormat ? null
+				: this.nullFormat.getBytes(this.charset);
+		this.columns = UnstructuredStorageReaderUtil.getListColumnEntry(
+				readerSliceConfig, Key.COLUMN);
+		int columnNumber = null == this.columns ? 0 : this.columns.size();
+		this.columnIndexes = new int[columnNumber];
+		this.longColumns = new boolean[columnNumber];
+		for (int i = 0; i < columnNumber; i++) {
+			ColumnEntry columnConfig = this.columns.get(i);
+			this.columnIndexes[i] = null == columnConfig.getIndex() ? -1
+					: columnConfig.getIndex();
+			this.longColumns[i] = "long".equalsIgnoreCase(columnConfig
+					.getType());
+		}
+		this.recordSender = recordSender;
+		this.taskPluginCollector = taskPluginCollector;
+	}
+
+	/**
+	 * 未压缩、UTF-8/ASCII 编码、单字节分隔符且没有配置 csvReaderConfig 时才能使用映射读取
+	 */
+	public static boolean isSupported(Configuration readerSliceConfig) {
+		if (StringUtils.isNotBlank(readerSliceConfig.getString(Key.COMPRESS))) {
+			return false;
+		}
+		if (StringUtils.isNotBlank(readerSliceConfig
+				.getString(Key.CSV_READER_CONFIG))
+				|| (null != UnstructuredStorageReaderUtil.csvReaderConfigMap && !UnstructuredStorageReaderUtil.csvReaderConfigMap
+						.isEmpty())) {
+			return false;
+		}
+		String encoding = readerSliceConfig.getString(Key.ENCODING,
+				Constant.DEFAULT_ENCODING);
+		if (StringUtils.isBlank(encoding)) {
+			encoding = Constant.DEFAULT_ENCODING;
+		}
+		Charset charset;
+		try {
+			charset = Charsets.toCharset(encoding.trim());
+		} catch (Exception e) {
+			return false;
+		}
+		if (!Charsets.UTF_8.equals(charset)
+				&& !Charsets.US_ASCII.equals(charset)) {
+			return false;
+		}
+		String delimiterInStr = readerSliceConfig.getString(Key.FIELD_DELIMITER);
+		if (null != delimiterInStr && 1 != delimiterInStr.length()) {
+			return false;
+		}
+		char delimiter = readerSliceConfig.getChar(Key.FIELD_DELIMITER,
+				Constant.DEFAULT_FIELD_DELIMITER);
+		return delimiter < 0x80 && '"' != delimiter && '\r' != delimiter
+				&& '\n' != delimiter;
+	}
+
+	/**
+	 * 读取文件中行首位于 [start, end) 的行，规则与 LineRangeInputStream 相同；读取整个文件时 start 为 0，end 为 Long.MAX_VALUE
+	 */
+	public static void read(String fileName, long start, long end,
+			Configuration readerSliceConfig, RecordSender recordSender,
+			TaskPluginCollector taskPluginCollector) {
+		FileInputStream inputStream = null;
+		MappedTextFileReader reader = null;
+		try {
+			inputStream = new FileInputStream(fileName);
+			reader = new MappedTextFileReader(fileName,
+					inputStream.getChannel(), readerSliceConfig, recordSender,
+					taskPluginCollector);
+			reader.doRead(start, end, readerSliceConfig.getBool(
+					Key.SKIP_HEADER, Constant.DEFAULT_SKIP_HEADER));
+		} catch (FileNotFoundException fnfe) {
+			throw DataXException.asDataXException(
+					UnstructuredStorageReaderErrorCode.FILE_NOT_EXISTS,
+					String.format("无法找到文件 : [%s]", fileName), fnfe);
+		} catch (IOException ioe) {
+			throw DataXException.asDataXException(
+					UnstructuredStorageReaderErrorCode.READ_FILE_IO_ERROR,
+					String.format("读取文件错误 : [%s]", fileName), ioe);
+		} finally {
+			if (null != reader) {
+				reader.unmapWindow();
+			}
+			IOUtils.closeQuietly(inputStream);
+		}
+	}
+
+	private void doRead(long start, long end, boolean skipHeader)
+			throws IOException {
+		long fileSize = this.channel.size();
+		this.regionStart = 0;
+		if (start > 0) {
+			// 跳过 start 之前开始的行
+			this.regionStart = this.indexOf(start - 1, fileSize, false) + 1;
+		}
+		if (this.regionStart >= end || this.regionStart >= fileSize) {
+			return;
+		}
+		this.regionEnd = fileSize;
+		if (end < fileSize) {
+			// 读到位置不小于 end - 1 的第一个换行符为止
+			this.regionEnd = Math.min(fileSize, this.indexOf(
+					Math.max(end - 1, this.regionStart), fileSize, false) + 1);
+		}
+		if (skipHeader) {
+			// 与 BufferedReader.readLine 一样以 \r、\n 或 \r\n 结束表头
+			long headerEnd = this.indexOf(this.regionStart, this.regionEnd, true);
+			if (headerEnd + 1 < this.regionEnd && '\r' == this.byteAt(headerEnd)
+					&& '\n' == this.byteAt(headerEnd + 1)) {
+				headerEnd++;
+			}
+			LOG.info(String.format("Header line of %s bytes has been skiped.",
+					headerEnd - this.regionStart));
+			this.regionStart = Math.min(headerEnd + 1, this.regionEnd);
+		}
+		LOG.info(String.format("reading [%s] with mapped buffer, range [%s, %s)",
+				this.fileName, this.regionStart, this.regionEnd));
+
+		this.map(this.regionStart);
+		int i = 0;
+		while (true) {
+			if (i >= this.windowLimit) {
+				if (this.isLastWindow()) {
+					break;
+				}
+				this.map(this.windowStart + i);
+				i = 0;
+				continue;
+			}
+			byte b = this.window.get(i);
+			if ('\r' == b || '\n' == b) {
+				// 行结束符以及空行
+				i++;
+				continue;
+			}
+			int next = this.parseLine(i);
+			if (next < 0) {
+				// 窗口内没有完整的一行：从行首重新映射，行首已经在窗口开头时说明一行比窗口还大，扩大窗口
+				if (0 == i) {
+					if (this.windowSize >= Integer.MAX_VALUE / 2) {
+						throw DataXException.asDataXException(
+								UnstructuredStorageReaderErrorCode.READ_FILE_IO_ERROR,
+								String.format("文件 [%s] 中存在超过1G字节的行, 无法读取.",
+										this.fileName));
+					}
+					this.windowSize *= 2;
+				}
+				this.map(this.windowStart + i);
+				i = 0;
+				continue;
+			}
+			this.transportOneRecord();
+			i = next;
+		}
+	}
+
+	private void map(long position) throws IOException {
+		long length = Math.min(this.windowSize, this.regionEnd - position);
+		// 切换窗口时上一个窗口中的字段都已经处理完毕
+		this.unmapWindow();
+		this.window = this.channel.map(FileChannel.MapMode.READ_ONLY,
+				position, length);
+		this.windowStart = position;
+		this.windowLimit = (int) length;
+	}
+
+	/**
+	 * 释放当前窗口的映射，之后不能再访问 window
+	 */
+	private void unmapWindow() {
+		MappedByteBuffer buffer = this.window;
+		if (null == buffer) {
+			return;
+		}
+		this.window = null;
+		this.windowLimit = 0;
+		try {
+			if (null != INVOKE_CLEANER) {
+				INVOKE_CLEANER.invoke(UNSAFE, buffer);
+				return;
+			}
+			Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(buffer);
+			if (null != cleaner) {
+				cleaner.getClass().getMethod("clean").invoke(cleaner);
+			}
+		} catch (Exception e) {
+			// 无法主动释放时由 GC 回收
+			LOG.debug(String.format("释放文件 [%s] 的映射失败: %s", this.fileName,
+					e.getMessage()));
+		}
+	}
+
+	private boolean isLastWindow() {
+		return this.windowStart + this.windowLimit >= this.regionEnd;
+	}
+
+	/**
+	 * 解析从窗口下标 i 开始的一行，返回行结束符(或窗口末尾)的下标；窗口内没有完整的一行时返回 -1
+	 */
+	private int parseLine(int i) {
+		int limit = this.windowLimit;
+		MappedByteBuffer buffer = this.window;
+		this.fieldCount = 0;
+		while (true) {
+			int start = i;
+			while (start < limit && this.isBlank(buffer.get(start))) {
+				start++;
+			}
+			int p;
+			if (start < limit && '"' == buffer.get(start)) {
+				p = start + 1;
+				boolean closed = false;
+				while (p < limit) {
+					if ('"' == buffer.get(p)) {
+						if (p + 1 < limit && '"' == buffer.get(p + 1)) {
+							p += 2;
+							continue;
+						}
+						closed = true;
+						break;
+					}
+					p++;
+				}
+				if (!closed || p + 1 == limit) {
+					// 无法确定引号是否结束，需要后面的数据
+					if (!this.isLastWindow()) {
+						return -1;
+					}
+				}
+				this.addField(start + 1, p, true);
+				// 结束引号之后到分隔符之前的字符被忽略
+				p = Math.min(p + 1, limit);
+				while (p < limit && !this.isFieldEnd(buffer.get(p))) {
+					p++;
+				}
+			} else {
+				p = start;
+				while (p < limit && !this.isFieldEnd(buffer.get(p))) {
+					p++;
+				}
+				int end = p;
+				while (end > start && this.isBlank(buffer.get(end - 1))) {
+					end--;
+				}
+				this.addField(start, end, false);
+			}
+
+			if (p >= limit) {
+				return this.isLastWindow() ? limit : -1;
+			}
+			if (this.delimiter != buffer.get(p)) {
+				return p;
+			}
+			i = p + 1;
+		}
+	}
+
+	private boolean isBlank(byte b) {
+		return (' ' == b || '\t' == b) && this.delimiter != b;
+	}
+
+	private boolean isFieldEnd(byte b) {
+		return this.delimiter == b || '\r' == b || '\n' == b;
+	}
+
+	private void addField(int start, int end, boolean quoted) {
+		if (this.fieldCount == this.fieldStarts.length) {
+			int length = this.fieldCount * 2;
+			this.fieldStarts = Arrays.copyOf(this.fieldStarts, length);
+			this.fieldEnds = Arrays.copyOf(this.fieldEnds, length);
+			this.fieldQuoted = Arrays.copyOf(this.fieldQuoted, length);
+		}
+		this.fieldStarts[this.fieldCount] = start;
+		this.fieldEnds[this.fieldCount] = end;
+		this.fieldQuoted[this.fieldCount] = quoted;
+		this.fieldCount++;
+	}
+
+	private void transportOneRecord() {
+		Record record = this.recordSender.createRecord();
+		// 创建都为String类型column的record
+		if (null == this.columns || this.columns.isEmpty()) {
+			for (int i = 0; i < this.fieldCount; i++) {
+				record.addColumn(new StringColumn(this.isNull(i) ? null : this
+						.decodeField(i)));
+			}
+			this.recordSender.sendToWriter(record);
+			return;
+		}
+
+		try {
+			for (int i = 0; i < this.columnIndexes.length; i++) {
+				ColumnEntry columnConfig = this.columns.get(i);
+				int columnIndex = this.columnIndexes[i];
+				Column columnGenerated = null;
+				if (columnIndex < 0) {
+					String columnValue = columnConfig.getValue();
+					if (columnValue.equals(this.nullFormat)) {
+						columnValue = null;
+					}
+					columnGenerated = UnstructuredStorageReaderUtil
+							.convertColumn(columnConfig, columnValue);
+				} else {
+					if (columnIndex >= this.fieldCount) {
+						String message = String
+								.format("您尝试读取的列越界,源文件该行有 [%s] 列,您尝试读取第 [%s] 列, 数据详情[%s]",
+										this.fieldCount, columnIndex + 1,
+										StringUtils.join(this.decodeAllFields(), ","));
+						LOG.warn(message);
+						throw new IndexOutOfBoundsException(message);
+					}
+					if (this.isNull(columnIndex)) {
+						columnGenerated = UnstructuredStorageReaderUtil
+								.convertColumn(columnConfig, null);
+					} else {
+						if (this.longColumns[i]) {
+							columnGenerated = this.parseLong(columnIndex);
+						}
+						if (null == columnGenerated) {
+							columnGenerated = UnstructuredStorageReaderUtil
+									.convertColumn(columnConfig,
+											this.decodeField(columnIndex));
+						}
+					}
+				}
+				record.addColumn(columnGenerated);
+			}
+			this.recordSender.sendToWriter(record);
+		} catch (IllegalArgumentException iae) {
+			this.taskPluginCollector
+					.collectDirtyRecord(record, iae.getMessage());
+		} catch (IndexOutOfBoundsException ioe) {
+			this.taskPluginCollector
+					.collectDirtyRecord(record, ioe.getMessage());
+		} catch (Exception e) {
+			if (e instanceof DataXException) {
+				throw (DataXException) e;
+			}
+			// 每一种转换失败都是脏数据处理,包括数字格式 & 日期格式
+			this.taskPluginCollector.collectDirtyRecord(record, e.getMessage());
+		}
+	}
+
+	/**
+	 * 不超过18位的十进制整数直接从字节解析，其它情况返回 null，由调用方按字符串转换
+	 */
+	private Column parseLong(int field) {
+		if (this.fieldQuoted[field]) {
+			return null;
+		}
+		int start = this.fieldStarts[field];
+		int end = this.fieldEnds[field];
+		int length = end - start;
+		boolean negative = false;
+		if (length > 0) {
+			byte first = this.window.get(start);
+			if ('-' == first || '+' == first) {
+				negative = '-' == first;
+				start++;
+			}
+		}
+		int digits = end - start;
+		if (digits <= 0 || digits > 18) {
+			return null;
+		}
+		long result = 0;
+		for (int p = start; p < end; p++) {
+			byte b = this.window.get(p);
+			if (b < '0' || b > '9') {
+				return null;
+			}
+			result = result * 10 + (b - '0');
+		}
+		return new LongColumn(negative ? -result : result, length);
+	}
+
+	private boolean isNull(int field) {
+		// it's all ok if nullFormat is null
+		if (null == this.nullFormatBytes) {
+			return false;
+		}
+		if (this.fieldQuoted[field]) {
+			return this.nullFormat.equals(this.decodeField(field));
+		}
+		int start = this.fieldStarts[field];
+		if (this.fieldEnds[field] - start != this.nullFormatBytes.length) {
+			return false;
+		}
+		for (int p = 0; p < this.nullFormatBytes.length; p++) {
+			if (this.nullFormatBytes[p] != this.window.get(start + p)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String decodeField(int field) {
+		int start = this.fieldStarts[field];
+		int length = this.fieldEnds[field] - start;
+		if (this.scratch.length < length) {
+			this.scratch = new byte[Math.max(length, this.scratch.length * 2)];
+		}
+		ByteBuffer buffer = this.window.duplicate();
+		buffer.position(start);
+		buffer.get(this.scratch, 0, length);
+		if (this.fieldQuoted[field]) {
+			// "" 还原为一个双引号
+			int n = 0;
+			for (int p = 0; p < length; p++) {
+				this.scratch[n++] = this.scratch[p];
+				if ('"' == this.scratch[p] && p + 1 < length
+						&& '"' == this.scratch[p + 1]) {
+					p++;
+				}
+			}
+			length = n;
+		}
+		return new String(this.scratch, 0, length, this.charset);
+	}
+
+	private List<String> decodeAllFields() {
+		List<String> fields = new ArrayList<String>(this.fieldCount);
+		for (int i = 0; i < this.fieldCount; i++) {
+			fields.add(this.decodeField(i));
+		}
+		return fields;
+	}
+
+	/**
+	 * 返回 [from, to) 内第一个换行符的位置，crIsEnd 时 \r 也视为换行符，没有时返回 to
+	 */
+	private long indexOf(long from, long to, boolean crIsEnd) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+		long position = from;
+		while (position < to) {
+			buffer.clear();
+			int n = this.channel.read(buffer, position);
+			if (n <= 0) {
+				break;
+			}
+			for (int p = 0; p < n && position + p < to; p++) {
+				byte b = buffer.get(p);
+				if ('\n' == b || (crIsEnd && '\r' == b)) {
+					return position + p;
+				}
+			}
+			position += n;
+		}
+		return to;
+	}
+
+	private byte byteAt(long position) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(1);
+		this.channel.read(buffer, position);
+		return buffer.get(0);
+	}
+}
@@ -0,0 +1,573 @@
+package com.alibaba.datax.plugin.unstructuredstorage.reader;
+
+import com.alibaba.datax.common.exception.DataXException;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * 在独立线程中解压，解压后的数据块通过有界队列按顺序交给读取线程解析，解压与解析并行进行。
+ * <p/>
+ * 格式允许时按块并行解压：
+ * 1. bzip2：decompressThreads 大于 1 时按位查找块起始标记切分出各个块，每块补上流头和流尾后单独解压，见 BZip2Block；
+ * 2. BGZF(每个 gzip 成员的扩展字段中带有压缩块大小，如 bgzip 生成的文件)：按块大小切分各个成员后分别 inflate。
+ * 其它格式(普通 gzip、zstd、lzo、snappy、zip)以及单线程的 bzip2 只有一个解压线程。
+ * <p/>
+ * gzip 依次解压所有成员(多个 gzip 文件直接拼接而成的文件)，而 decompressThreads 为 0 时与原来一样只解压第一个成员；
+ * bzip2 与原来一样只解压第一个流。
+ */
+public class ParallelDecompressInputStream extends InputStream {
+	private static final Logger LOG = LoggerFactory
+			.getLogger(ParallelDecompressInputStream.class);
+
+	private static final int CHUNK_SIZE = 1024 * 1024;
+
+	private static final int SCAN_BUFFER_SIZE = 1024 * 1024;
+
+	private final BlockingQueue<Chunk> chunks;
+
+	private final ExecutorService decoders;
+
+	private final Thread producer;
+
+	private volatile boolean closed = false;
+
+	private boolean finished = false;
+
+	private byte[] current;
+
+	private int position;
+
+	/**
+	 * @param decompressThreads 块并行解压的线程数，不支持按块解压的格式只使用一个解压线程
+	 */
+	public ParallelDecompressInputStream(final String compress,
+			final InputStream inputStream, int decompressThreads, String context) {
+		this.chunks = new ArrayBlockingQueue<Chunk>(Math.max(2,
+				decompressThreads * 2));
+		final String threadName = "decompress-" + compress;
+		// 单线程时 bzip2 直接使用 BZip2CompressorInputStream，不按块切分
+		final boolean splitBZip2 = "bzip2".equalsIgnoreCase(compress)
+				&& decompressThreads > 1;
+		if (splitBZip2 || "gzip".equalsIgnoreCase(compress)) {
+			this.decoders = Executors.newFixedThreadPool(decompressThreads,
+					new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable runnable) {
+							Thread thread = new Thread(runnable, threadName);
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+		} else {
+			this.decoders = null;
+		}
+		LOG.info(String.format(
+				"decompress [%s] as [%s] in background, decompressThreads [%s]",
+				context, compress, null == this.decoders ? 1 : decompressThreads));
+
+		this.producer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					if (splitBZip2) {
+						produceBZip2(inputStream);
+					} else if ("gzip".equalsIgnoreCase(compress)) {
+						produceGzip(inputStream);
+					} else {
+						produceStream(UnstructuredStorageReaderUtil
+								.createDecompressStream(compress, inputStream));
+					}
+					put(Chunk.END);
+				} catch (InterruptedException e) {
+					// 读取线程已经关闭
+				} catch (Throwable e) {
+					try {
+						put(Chunk.failed(e));
+					} catch (InterruptedException ie) {
+						// 读取线程已经关闭
+					}
+				} finally {
+					IOUtils.closeQuietly(inputStream);
+				}
+			}
+		}, threadName);
+		this.producer.setDaemon(true);
+		this.producer.start();
+	}
+
+	@Override
+	public int read() throws IOException {
+		byte[] one = new byte[1];
+		int n = this.read(one, 0, 1);
+		return -1 == n ? -1 : one[0] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (0 == len) {
+			return 0;
+		}
+		while (null == this.current || this.position >= this.current.length) {
+			if (this.finished || !this.nextChunk()) {
+				return -1;
+			}
+		}
+		int n = Math.min(len, this.current.length - this.position);
+		System.arraycopy(this.current, this.position, b, off, n);
+		this.position += n;
+		return n;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		this.producer.interrupt();
+		if (null != this.decoders) {
+			this.decoders.shutdownNow();
+		}
+		this.chunks.clear();
+	}
+
+	private boolean nextChunk() throws IOException {
+		Chunk chunk = this.take();
+		if (chunk.isEnd()) {
+			this.finished = true;
+			return false;
+		}
+		chunk.rethrow();
+		byte[] data;
+		try {
+			data = chunk.await();
+		} catch (DataXException e) {
+			if (null == chunk.block) {
+				throw e;
+			}
+			data = this.mergeBZip2Blocks(chunk.block, e);
+		}
+		this.current = data;
+		this.position = 0;
+		return true;
+	}
+
+	/**
+	 * bzip2 块边界误判时被切开的块无法单独解压：依次与后面的块合并后重新解压，直到成功；
+	 * 没有可以合并的块时抛出最后一次解压的异常
+	 */
+	private byte[] mergeBZip2Blocks(BZip2Block block, DataXException error)
+			throws IOException {
+		while (true) {
+			Chunk next = this.take();
+			if (next.isEnd() || null == next.block) {
+				this.finished = true;
+				next.rethrow();
+				throw error;
+			}
+			block = block.merge(next.block);
+			try {
+				return block.decompress();
+			} catch (DataXException e) {
+				error = e;
+			}
+		}
+	}
+
+	private Chunk take() throws IOException {
+		try {
+			return this.chunks.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("读取解压数据时被中断", e);
+		}
+	}
+
+	private void put(Chunk chunk) throws InterruptedException {
+		if (this.closed) {
+			throw new InterruptedException();
+		}
+		this.chunks.put(chunk);
+	}
+
+	private void produceStream(InputStream in) throws Exception {
+		while (true) {
+			byte[] buffer = new byte[CHUNK_SIZE];
+			int n = IOUtils.read(in, buffer);
+			if (n > 0) {
+				this.put(Chunk.completed(n < buffer.length ? Arrays.copyOf(
+						buffer, n) : buffer));
+			}
+			if (n < buffer.length) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * BGZF 按块并行解压，其它 gzip 文件由 GzipCompressorInputStream 依次解压所有成员
+	 */
+	private void produceGzip(InputStream inputStream) throws Exception {
+		BufferedInputStream in = new BufferedInputStream(inputStream);
+		in.mark(18);
+		byte[] header = new byte[18];
+		int n = IOUtils.read(in, header);
+		in.reset();
+		if (n < header.length || !isBgzfHeader(header)) {
+			this.produceStream(new GzipCompressorInputStream(in, true));
+			return;
+		}
+
+		while (true) {
+			header = new byte[12];
+			n = IOUtils.read(in, header);
+			if (0 == n) {
+				return;
+			}
+			if (n < header.length || (header[0] & 0xFF) != 0x1f
+					|| (header[1] & 0xFF) != 0x8b || header[2] != 8
+					|| 0 == (header[3] & 4)) {
+				throw new IOException("BGZF 文件中存在非法的 gzip 成员头");
+			}
+			int extraLength = littleEndianShort(header, 10);
+			byte[] extra = readFully(in, extraLength);
+			int blockSize = -1;
+			for (int p = 0; p + 4 <= extraLength;) {
+				int subfieldLength = littleEndianShort(extra, p + 2);
+				if ('B' == extra[p] && 'C' == extra[p + 1] && 2 == subfieldLength) {
+					blockSize = littleEndianShort(extra, p + 4) + 1;
+				}
+				p += 4 + subfieldLength;
+			}
+			if (blockSize < 0) {
+				throw new IOException("BGZF 文件中存在没有块大小的 gzip 成员");
+			}
+			// 压缩数据 + CRC32 + ISIZE
+			final byte[] body = readFully(in, blockSize - 12 - extraLength);
+			this.put(Chunk.submit(this.decoders, new Callable<byte[]>() {
+				@Override
+				public byte[] call() throws Exception {
+					return inflateBgzfBlock(body);
+				}
+			}, null));
+		}
+	}
+
+	private static boolean isBgzfHeader(byte[] header) {
+		return (header[0] & 0xFF) == 0x1f && (header[1] & 0xFF) == 0x8b
+				&& header[2] == 8 && 0 != (header[3] & 4)
+				&& littleEndianShort(header, 10) >= 6 && 'B' == header[12]
+				&& 'C' == header[13] && 2 == littleEndianShort(header, 14);
+	}
+
+	private static byte[] inflateBgzfBlock(byte[] body) throws IOException {
+		int length = body.length;
+		if (length < 8) {
+			throw new EOFException("BGZF 块不完整");
+		}
+		long crc = littleEndianInt(body, length - 8);
+		int size = (int) littleEndianInt(body, length - 4);
+		byte[] data = new byte[size];
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(body, 0, length - 8);
+			int n = 0;
+			while (n < size) {
+				int inflated = inflater.inflate(data, n, size - n);
+				if (0 == inflated
+						&& (inflater.finished() || inflater.needsInput() || inflater
+								.needsDictionary())) {
+					break;
+				}
+				n += inflated;
+			}
+			if (n != size) {
+				throw new IOException("BGZF 块解压后的长度与 ISIZE 不一致");
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("BGZF 块数据损坏", e);
+		} finally {
+			inflater.end();
+		}
+		CRC32 crc32 = new CRC32();
+		crc32.update(data, 0, size);
+		if (crc32.getValue() != crc) {
+			throw new IOException("BGZF 块 CRC 校验失败");
+		}
+		return data;
+	}
+
+	/**
+	 * 按位查找块起始标记和流结束标记，把第一个 bzip2 流切分成块后并行解压
+	 */
+	private void produceBZip2(InputStream in) throws Exception {
+		byte[] header = readFully(in, 4);
+		if ('B' != header[0] || 'Z' != header[1] || 'h' != header[2]
+				|| header[3] < '1' || header[3] > '9') {
+			throw new IOException("不是合法的 bzip2 文件");
+		}
+		byte level = header[3];
+
+		// buffer[0] 对应压缩数据(流头之后)的第 baseBit 位
+		byte[] buffer = new byte[SCAN_BUFFER_SIZE];
+		int length = 0;
+		long baseBit = 0;
+		// 当前块起始标记的位置，-1 表示还没有遇到块
+		long blockStartBit = -1;
+		// 疑似流结束标记的位置，确认之前 -1
+		long endOfStreamBit = -1;
+		long register = 0;
+		long scannedBytes = 0;
+
+		while (true) {
+			if (length == buffer.length) {
+				// 丢弃当前块之前的数据，仍然不够时扩容
+				int keepFrom = blockStartBit < 0 ? length - 8
+						: (int) ((blockStartBit - baseBit) >>> 3);
+				if (endOfStreamBit >= 0) {
+					keepFrom = Math.min(keepFrom,
+							(int) ((endOfStreamBit - baseBit) >>> 3));
+				}
+				keepFrom = Math.max(0, keepFrom);
+				if (keepFrom > 0) {
+					System.arraycopy(buffer, keepFrom, buffer, 0, length - keepFrom);
+					length -= keepFrom;
+					baseBit += (long) keepFrom << 3;
+				}
+				if (length == buffer.length) {
+					buffer = Arrays.copyOf(buffer, buffer.length * 2);
+				}
+			}
+			int n = in.read(buffer, length, buffer.length - length);
+			if (n < 0) {
+				break;
+			}
+			for (int p = length; p < length + n; p++) {
+				register = (register << 8) | (buffer[p] & 0xFF);
+				scannedBytes++;
+				if (scannedBytes < 6) {
+					continue;
+				}
+				long byteEndBit = baseBit + ((long) (p + 1) << 3);
+				if (endOfStreamBit >= 0
+						&& byteEndBit >= alignedEndOfStream(endOfStreamBit) + 32) {
+					if (isEndOfStream(buffer, baseBit, endOfStreamBit)) {
+						if (blockStartBit >= 0) {
+							this.put(this.submitBZip2Block(BZip2Block.copyOf(
+									level, buffer, blockStartBit - baseBit,
+									endOfStreamBit - baseBit)));
+						}
+						// 只解压第一个流，与 BZip2CompressorInputStream 的默认行为一致
+						return;
+					}
+					endOfStreamBit = -1;
+				}
+				for (int shift = Math.min(7, (int) (scannedBytes * 8 - 48)); shift >= 0; shift--) {
+					long candidate = (register >>> shift) & BZip2Block.MAGIC_MASK;
+					if (BZip2Block.BLOCK_MAGIC != candidate
+							&& BZip2Block.END_OF_STREAM_MAGIC != candidate) {
+						continue;
+					}
+					long magicStartBit = byteEndBit - shift - 48;
+					if (endOfStreamBit >= 0) {
+						// 等待确认流结束标记
+						continue;
+					}
+					if (BZip2Block.END_OF_STREAM_MAGIC == candidate) {
+						// 压缩数据中也可能出现同样的 48 位，看到后面的数据后才能确认
+						endOfStreamBit = magicStartBit;
+						continue;
+					}
+					if (blockStartBit >= 0) {
+						this.put(this.submitBZip2Block(BZip2Block.copyOf(level,
+								buffer, blockStartBit - baseBit, magicStartBit
+										- baseBit)));
+					}
+					blockStartBit = magicStartBit;
+				}
+			}
+			length += n;
+		}
+		long totalBits = baseBit + ((long) length << 3);
+		long blockEndBit = totalBits;
+		if (endOfStreamBit >= 0 && totalBits - endOfStreamBit >= 80
+				&& totalBits <= alignedEndOfStream(endOfStreamBit)) {
+			blockEndBit = endOfStreamBit;
+		}
+		// 没有流结束标记的截断文件：最后一块交给解压时报错
+		if (blockStartBit >= 0) {
+			this.put(this.submitBZip2Block(BZip2Block.copyOf(level, buffer,
+					blockStartBit - baseBit, blockEndBit - baseBit)));
+		}
+	}
+
+	/**
+	 * 流结束标记(48位)和流的 CRC(32位)之后补齐到整字节
+	 */
+	private static long alignedEndOfStream(long endOfStreamBit) {
+		return (endOfStreamBit + 80 + 7) & ~7L;
+	}
+
+	/**
+	 * 真正的流结束标记之后是补齐用的 0 以及下一个流的流头 "BZh" + 块大小
+	 */
+	private static boolean isEndOfStream(byte[] buffer, long baseBit,
+			long endOfStreamBit) {
+		long alignedEnd = alignedEndOfStream(endOfStreamBit);
+		for (long bit = endOfStreamBit + 80; bit < alignedEnd; bit++) {
+			int index = (int) ((bit - baseBit) >>> 3);
+			if (0 != ((buffer[index] >>> (7 - (int) (bit & 7))) & 1)) {
+				return false;
+			}
+		}
+		int index = (int) ((alignedEnd - baseBit) >>> 3);
+		return 'B' == buffer[index] && 'Z' == buffer[index + 1]
+				&& 'h' == buffer[index + 2] && buffer[index + 3] >= '1'
+				&& buffer[index + 3] <= '9';
+	}
+
+	private Chunk submitBZip2Block(final BZip2Block block) {
+		return Chunk.submit(this.decoders, new Callable<byte[]>() {
+			@Override
+			public byte[] call() throws Exception {
+				return block.decompress();
+			}
+		}, block);
+	}
+
+	private static byte[] readFully(InputStream in, int length)
+			throws IOException {
+		if (length < 0) {
+			throw new IOException("压缩文件格式错误");
+		}
+		byte[] bytes = new byte[length];
+		IOUtils.readFully(in, bytes);
+		return bytes;
+	}
+
+	private static int littleEndianShort(byte[] bytes, int offset) {
+		return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+	}
+
+	private static long littleEndianInt(byte[] bytes, int offset) {
+		return (littleEndianShort(bytes, offset) | (long) littleEndianShort(
+				bytes, offset + 2) << 16) & 0xFFFFFFFFL;
+	}
+
+	private static class Chunk {
+		static final Chunk END = new Chunk(null, null, null);
+
+		private final Future<byte[]> future;
+
+		// bzip2 解压失败时用于与下一块合并
+		private final BZip2Block block;
+
+		private final Throwable error;
+
+		private Chunk(Future<byte[]> future, BZip2Block block, Throwable error) {
+			this.future = future;
+			this.block = block;
+			this.error = error;
+		}
+
+		static Chunk completed(final byte[] data) {
+			return new Chunk(new CompletedFuture(data), null, null);
+		}
+
+		static Chunk submit(ExecutorService decoders, Callable<byte[]> task,
+				BZip2Block block) {
+			return new Chunk(decoders.submit(task), block, null);
+		}
+
+		static Chunk failed(Throwable error) {
+			return new Chunk(null, null, error);
+		}
+
+		boolean isEnd() {
+			return this == END;
+		}
+
+		void rethrow() throws IOException {
+			if (null == this.error) {
+				return;
+			}
+			if (this.error instanceof DataXException) {
+				throw (DataXException) this.error;
+			}
+			if (this.error instanceof IOException) {
+				throw (IOException) this.error;
+			}
+			throw new IOException(this.error.getMessage(), this.error);
+		}
+
+		byte[] await() throws IOException {
+			try {
+				return this.future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("读取解压数据时被中断", e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof DataXException) {
+					throw (DataXException) cause;
+				}
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+				throw new IOException(cause.getMessage(), cause);
+			}
+		}
+	}
+
+	private static class CompletedFuture implements Future<byte[]> {
+		private final byte[] data;
+
+		CompletedFuture(byte[] data) {
+			this.data = data;
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			return false;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return false;
+		}
+
+		@Override
+		public boolean isDone() {
+			return true;
+		}
+
+		@Override
+		public byte[] get() {
+			return this.data;
+		}
+
+		@Override
+		public byte[] get(long timeout, java.util.concurrent.TimeUnit unit) {
+			return this.data;
+		}
+	}
+}
@@ -9,6 +9,7 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
 import com.alibaba.fastjson.TypeReference;
 import com.csvreader.CsvReader;
+import com.github.luben.zstd.ZstdInputStream;
 import org.apache.commons.beanutils.BeanUtils;
 import io.airlift.compress.snappy.SnappyCodec;
 import io.airlift.compress.snappy.SnappyFramedInputStream;
@@ -114,103 +115,23 @@ public class UnstructuredStorageReaderUtil {
 		int bufferSize = readerSliceConfig.getInt(Key.BUFFER_SIZE,
 				Constant.DEFAULT_BUFFER_SIZE);
 
+		int decompressThreads = readerSliceConfig.getInt(
+				Key.DECOMPRESS_THREADS, Constant.DEFAULT_DECOMPRESS_THREADS);
+
 		// compress logic
 		try {
+			InputStream decompressedStream;
 			if (null == compress) {
-				reader = new BufferedReader(new InputStreamReader(inputStream,
-						encoding), bufferSize);
+				decompressedStream = inputStream;
+			} else if (decompressThreads > 0) {
+				decompressedStream = new ParallelDecompressInputStream(compress,
+						inputStream, decompressThreads, context);
 			} else {
-				// TODO compress
-				if ("lzo_deflate".equalsIgnoreCase(compress)) {
-					LzoInputStream lzoInputStream = new LzoInputStream(
-							inputStream, new LzoDecompressor1x_safe());
-					reader = new BufferedReader(new InputStreamReader(
-							lzoInputStream, encoding));
-				} else if ("lzo".equalsIgnoreCase(compress)) {
-					LzoInputStream lzopInputStream = new ExpandLzopInputStream(
-							inputStream);
-					reader = new BufferedReader(new InputStreamReader(
-							lzopInputStream, encoding));
-				} else if ("gzip".equalsIgnoreCase(compress)) {
-					CompressorInputStream compressorInputStream = new GzipCompressorInputStream(
-							inputStream);
-					reader = new BufferedReader(new InputStreamReader(
-							compressorInputStream, encoding), bufferSize);
-				} else if ("bzip2".equalsIgnoreCase(compress)) {
-					CompressorInputStream compressorInputStream = new BZip2CompressorInputStream(
-							inputStream);
-					reader = new BufferedReader(new InputStreamReader(
-							compressorInputStream, encoding), bufferSize);
-				} else if ("hadoop-snappy".equalsIgnoreCase(compress)) {
-					CompressionCodec snappyCodec = new SnappyCodec();
-					InputStream snappyInputStream = snappyCodec.createInputStream(
-							inputStream);
-					reader = new BufferedReader(new InputStreamReader(
-							snappyInputStream, encoding));
-				} else if ("framing-snappy".equalsIgnoreCase(compress)) {
-					InputStream snappyInputStream = new SnappyFramedInputStream(
-							inputStream);
-					reader = new BufferedReader(new InputStreamReader(
-							snappyInputStream, encoding));
-				}/* else if ("lzma".equalsIgnoreCase(compress)) {
-					CompressorInputStream compressorInputStream = new LZMACompressorInputStream(
-							inputStream);
-					reader = new BufferedReader(new InputStreamReader(
-							compressorInputStream, encoding));
-				} *//*else if ("pack200".equalsIgnoreCase(compress)) {
-					CompressorInputStream compressorInputStream = new Pack200CompressorInputStream(
-							inputStream);
-					reader = new BufferedReader(new InputStreamReader(
-							compressorInputStream, encoding));
-				} *//*else if ("xz".equalsIgnoreCase(compress)) {
-					CompressorInputStream compressorInputStream = new XZCompressorInputStream(
-							inputStream);
-					reader = new BufferedReader(new InputStreamReader(
-							compressorInputStream, encoding));
-				} else if ("ar".equalsIgnoreCase(compress)) {
-					ArArchiveInputStream arArchiveInputStream = new ArArchiveInputStream(
-							inputStream);
-					reader = new BufferedReader(new InputStreamReader(
-							arArchiveInputStream, encoding));
-				} else if ("arj".equalsIgnoreCase(compress)) {
-					ArjArchiveInputStream arjArchiveInputStream = new ArjArchiveInputStream(
-							inputStream);
-					reader = new BufferedReader(new InputStreamReader(
-							arjArchiveInputStream, encoding));
-				} else if ("cpio".equalsIgnoreCase(compress)) {
-					CpioArchiveInputStream cpioArchiveInputStream = new CpioArchiveInputStream(
-							inputStream);
-					reader = new BufferedReader(new InputStreamReader(
-							cpioArchiveInputStream, encoding));
-				} else if ("dump".equalsIgnoreCase(compress)) {
-					DumpArchiveInputStream dumpArchiveInputStream = new DumpArchiveInputStream(
-							inputStream);
-					reader = new BufferedReader(new InputStreamReader(
-							dumpArchiveInputStream, encoding));
-				} else if ("jar".equalsIgnoreCase(compress)) {
-					JarArchiveInputStream jarArchiveInputStream = new JarArchiveInputStream(
-							inputStream);
-					reader = new BufferedReader(new InputStreamReader(
-							jarArchiveInputStream, encoding));
-				} else if ("tar".equalsIgnoreCase(compress)) {
-					TarArchiveInputStream tarArchiveInputStream = new TarArchiveInputStream(
-							inputStream);
-					reader = new BufferedReader(new InputStreamReader(
-							tarArchiveInputStream, encoding));
-				}*/
-				else if ("zip".equalsIgnoreCase(compress)) {
-					ZipCycleInputStream zipCycleInputStream = new ZipCycleInputStream(
-							inputStream);
-					reader = new BufferedReader(new InputStreamReader(
-							zipCycleInputStream, encoding), bufferSize);
-				} else {
-					throw DataXException
-							.asDataXException(
-									UnstructuredStorageReaderErrorCode.ILLEGAL_VALUE,
-									String.format("仅支持 gzip, bzip2, zip, lzo, lzo_deflate, hadoop-snappy, framing-snappy" +
-											"文件压缩格式 , 不支持您配置的文件压缩格式: [%s]", compress));
-				}
+				decompressedStream = createDecompressStream(compress,
+						inputStream);
 			}
+			reader = new BufferedReader(new InputStreamReader(
+					decompressedStream, encoding), bufferSize);
 			UnstructuredStorageReaderUtil.doReadFromStream(reader, context,
 					readerSliceConfig, recordSender, taskPluginCollector);
 		} catch (UnsupportedEncodingException uee) {
@@ -236,6 +157,85 @@ public class UnstructuredStorageReaderUtil {
 
 	}
 
+	/**
+	 * 按 compress 创建解压后的输入流，与 readFromStream 原来的单线程解压方式相同
+	 * */
+	static InputStream createDecompressStream(String compress,
+			InputStream inputStream) throws IOException {
+		if ("lzo_deflate".equalsIgnoreCase(compress)) {
+			LzoInputStream lzoInputStream = new LzoInputStream(
+					inputStream, new LzoDecompressor1x_safe());
+			return lzoInputStream;
+		} else if ("lzo".equalsIgnoreCase(compress)) {
+			LzoInputStream lzopInputStream = new ExpandLzopInputStream(
+					inputStream);
+			return lzopInputStream;
+		} else if ("gzip".equalsIgnoreCase(compress)) {
+			CompressorInputStream compressorInputStream = new GzipCompressorInputStream(
+					inputStream);
+			return compressorInputStream;
+		} else if ("bzip2".equalsIgnoreCase(compress)) {
+			CompressorInputStream compressorInputStream = new BZip2CompressorInputStream(
+					inputStream);
+			return compressorInputStream;
+		} else if ("hadoop-snappy".equalsIgnoreCase(compress)) {
+			CompressionCodec snappyCodec = new SnappyCodec();
+			return snappyCodec.createInputStream(inputStream);
+		} else if ("framing-snappy".equalsIgnoreCase(compress)) {
+			InputStream snappyInputStream = new SnappyFramedInputStream(
+					inputStream);
+			return snappyInputStream;
+		}/* else if ("lzma".equalsIgnoreCase(compress)) {
+			CompressorInputStream compressorInputStream = new LZMACompressorInputStream(
+					inputStream);
+			return compressorInputStream;
+		} *//*else if ("pack200".equalsIgnoreCase(compress)) {
+			CompressorInputStream compressorInputStream = new Pack200CompressorInputStream(
+					inputStream);
+			return compressorInputStream;
+		} *//*else if ("xz".equalsIgnoreCase(compress)) {
+			CompressorInputStream compressorInputStream = new XZCompressorInputStream(
+					inputStream);
+			return compressorInputStream;
+		} else if ("ar".equalsIgnoreCase(compress)) {
+			ArArchiveInputStream arArchiveInputStream = new ArArchiveInputStream(
+					inputStream);
+			return arArchiveInputStream;
+		} else if ("arj".equalsIgnoreCase(compress)) {
+			ArjArchiveInputStream arjArchiveInputStream = new ArjArchiveInputStream(
+					inputStream);
+			return arjArchiveInputStream;
+		} else if ("cpio".equalsIgnoreCase(compress)) {
+			CpioArchiveInputStream cpioArchiveInputStream = new CpioArchiveInputStream(
+					inputStream);
+			return cpioArchiveInputStream;
+		} else if ("dump".equalsIgnoreCase(compress)) {
+			DumpArchiveInputStream dumpArchiveInputStream = new DumpArchiveInputStream(
+					inputStream);
+			return dumpArchiveInputStream;
+		} else if ("jar".equalsIgnoreCase(compress)) {
+			JarArchiveInputStream jarArchiveInputStream = new JarArchiveInputStream(
+					inputStream);
+			return jarArchiveInputStream;
+		} else if ("tar".equalsIgnoreCase(compress)) {
+			TarArchiveInputStream tarArchiveInputStream = new TarArchiveInputStream(
+					inputStream);
+			return tarArchiveInputStream;
+		}*/
+		else if ("zip".equalsIgnoreCase(compress)) {
+			ZipCycleInputStream zipCycleInputStream = new ZipCycleInputStream(
+					inputStream);
+			return zipCycleInputStream;
+		} else if ("zstd".equalsIgnoreCase(compress)) {
+			return new ZstdInputStream(inputStream);
+		}
+		throw DataXException
+				.asDataXException(
+						UnstructuredStorageReaderErrorCode.ILLEGAL_VALUE,
+						String.format("仅支持 gzip, bzip2, zip, lzo, lzo_deflate, hadoop-snappy, framing-snappy, zstd" +
+								"文件压缩格式 , 不支持您配置的文件压缩格式: [%s]", compress));
+	}
+
 	public static void doReadFromStream(BufferedReader reader, String context,
 										Configuration readerSliceConfig, RecordSender recordSender,
 										TaskPluginCollector taskPluginCollector) {
@@ -361,7 +361,6 @@ public class UnstructuredStorageReaderUtil {
 		} else {
 			try {
 				for (ColumnEntry columnConfig : columnConfigs) {
-					String columnType = columnConfig.getType();
 					Integer columnIndex = columnConfig.getIndex();
 					String columnConst = columnConfig.getValue();
 
@@ -395,79 +394,11 @@ public class UnstructuredStorageReaderUtil {
 					} else {
 						columnValue = columnConst;
 					}
-					Type type = Type.valueOf(columnType.toUpperCase());
 					// it's all ok if nullFormat is null
 					if (columnValue.equals(nullFormat)) {
 						columnValue = null;
 					}
-					switch (type) {
-						case STRING:
-							columnGenerated = new StringColumn(columnValue);
-							break;
-						case LONG:
-							try {
-								columnGenerated = new LongColumn(columnValue);
-							} catch (Exception e) {
-								throw new IllegalArgumentException(String.format(
-										"类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
-										"LONG"));
-							}
-							break;
-						case DOUBLE:
-							try {
-								columnGenerated = new DoubleColumn(columnValue);
-							} catch (Exception e) {
-								throw new IllegalArgumentException(String.format(
-										"类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
-										"DOUBLE"));
-							}
-							break;
-						case BOOLEAN:
-							try {
-								columnGenerated = new BoolColumn(columnValue);
-							} catch (Exception e) {
-								throw new IllegalArgumentException(String.format(
-										"类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
-										"BOOLEAN"));
-							}
-
-							break;
-						case DATE:
-							try {
-								if (columnValue == null) {
-									Date date = null;
-									columnGenerated = new DateColumn(date);
-								} else {
-									String formatString = columnConfig.getFormat();
-									//if (null != formatString) {
-									if (StringUtils.isNotBlank(formatString)) {
-										// 用户自己配置的格式转换, 脏数据行为出现变化
-										DateFormat format = columnConfig
-												.getDateFormat();
-										columnGenerated = new DateColumn(
-												format.parse(columnValue));
-									} else {
-										// 框架尝试转换
-										columnGenerated = new DateColumn(
-												new StringColumn(columnValue)
-														.asDate());
-									}
-								}
-							} catch (Exception e) {
-								throw new IllegalArgumentException(String.format(
-										"类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
-										"DATE"));
-							}
-							break;
-						default:
-							String errorMessage = String.format(
-									"您配置的列类型暂不支持 : [%s]", columnType);
-							LOG.error(errorMessage);
-							throw DataXException
-									.asDataXException(
-											UnstructuredStorageReaderErrorCode.NOT_SUPPORT_TYPE,
-											errorMessage);
-					}
+					columnGenerated = convertColumn(columnConfig, columnValue);
 
 					record.addColumn(columnGenerated);
 
@@ -491,6 +422,76 @@ public class UnstructuredStorageReaderUtil {
 		return record;
 	}
 
+	/**
+	 * 按 column 配置的类型把一个字段值(已经处理过 nullFormat)转换为 Column，转换失败抛出 IllegalArgumentException
+	 * */
+	static Column convertColumn(ColumnEntry columnConfig, String columnValue) {
+		String columnType = columnConfig.getType();
+		Type type = Type.valueOf(columnType.toUpperCase());
+		switch (type) {
+			case STRING:
+				return new StringColumn(columnValue);
+			case LONG:
+				try {
+					return new LongColumn(columnValue);
+				} catch (Exception e) {
+					throw new IllegalArgumentException(String.format(
+							"类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
+							"LONG"));
+				}
+			case DOUBLE:
+				try {
+					return new DoubleColumn(columnValue);
+				} catch (Exception e) {
+					throw new IllegalArgumentException(String.format(
+							"类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
+							"DOUBLE"));
+				}
+			case BOOLEAN:
+				try {
+					return new BoolColumn(columnValue);
+				} catch (Exception e) {
+					throw new IllegalArgumentException(String.format(
+							"类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
+							"BOOLEAN"));
+				}
+			case DATE:
+				try {
+					if (columnValue == null) {
+						Date date = null;
+						return new DateColumn(date);
+					} else {
+						String formatString = columnConfig.getFormat();
+						//if (null != formatString) {
+						if (StringUtils.isNotBlank(formatString)) {
+							// 用户自己配置的格式转换, 脏数据行为出现变化
+							DateFormat format = columnConfig
+									.getDateFormat();
+							return new DateColumn(
+									format.parse(columnValue));
+						} else {
+							// 框架尝试转换
+							return new DateColumn(
+									new StringColumn(columnValue)
+											.asDate());
+						}
+					}
+				} catch (Exception e) {
+					throw new IllegalArgumentException(String.format(
+							"类型转换错误, 无法将[%s] 转换为[%s]", columnValue,
+							"DATE"));
+				}
+			default:
+				String errorMessage = String.format(
+						"您配置的列类型暂不支持 : [%s]", columnType);
+				LOG.error(errorMessage);
+				throw DataXException
+						.asDataXException(
+								UnstructuredStorageReaderErrorCode.NOT_SUPPORT_TYPE,
+								errorMessage);
+		}
+	}
+
 	public static List<ColumnEntry> getListColumnEntry(
 			Configuration configuration, final String path) {
 		List<JSONObject> lists = configuration.getList(path, JSONObject.class);
@@ -554,10 +555,10 @@ public class UnstructuredStorageReaderUtil {
 			compress = compress.toLowerCase().trim();
 			boolean compressTag = "gzip".equals(compress) || "bzip2".equals(compress) || "zip".equals(compress)
 					|| "lzo".equals(compress) || "lzo_deflate".equals(compress) || "hadoop-snappy".equals(compress)
-					|| "framing-snappy".equals(compress);
+					|| "framing-snappy".equals(compress) || "zstd".equals(compress);
 			if (!compressTag) {
 				throw DataXException.asDataXException(UnstructuredStorageReaderErrorCode.ILLEGAL_VALUE,
-						String.format("仅支持 gzip, bzip2, zip, lzo, lzo_deflate, hadoop-snappy, framing-snappy " +
+						String.format("仅支持 gzip, bzip2, zip, lzo, lzo_deflate, hadoop-snappy, framing-snappy, zstd " +
 								"文件压缩格式, 不支持您配置的文件压缩格式: [%s]", compress));
 			}
 		}else{
@@ -0,0 +1,97 @@
+package com.alibaba.datax.plugin.unstructuredstorage.reader;
+
+import com.alibaba.datax.common.exception.DataXException;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+public class BZip2BlockTest {
+
+    static byte[] newText(int size, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(size + 64);
+        while (sb.length() < size) {
+            sb.append(random.nextInt(1000000)).append(',').append(Long.toHexString(random.nextLong())).append('\n');
+        }
+        return sb.substring(0, size).getBytes();
+    }
+
+    static byte[] bzip2(byte[] data, int blockSize) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BZip2CompressorOutputStream bzip2 = new BZip2CompressorOutputStream(out, blockSize);
+        bzip2.write(data);
+        bzip2.close();
+        return out.toByteArray();
+    }
+
+    /**
+     * 单块 bzip2 流中流结束标记的位置
+     */
+    private static long endOfStreamBit(byte[] compressed) {
+        long register = 0;
+        for (long bit = 0; bit < (long) compressed.length * 8; bit++) {
+            int value = (compressed[(int) (bit >>> 3)] >>> (7 - (int) (bit & 7))) & 1;
+            register = ((register << 1) | value) & BZip2Block.MAGIC_MASK;
+            if (bit >= 47 + 32 && BZip2Block.END_OF_STREAM_MAGIC == register) {
+                return bit - 47;
+            }
+        }
+        throw new AssertionError("no end of stream magic");
+    }
+
+    /**
+     * 解压失败时返回异常，不完整的块没有 cause
+     */
+    private static DataXException decompressError(BZip2Block block) {
+        try {
+            block.decompress();
+        } catch (DataXException e) {
+            assertEquals(UnstructuredStorageReaderErrorCode.READ_FILE_IO_ERROR, e.getErrorCode());
+            return e;
+        }
+        fail();
+        return null;
+    }
+
+    @Test
+    public void testSingleBlockRoundTrip() throws Exception {
+        byte[] data = newText(20000, 1L);
+        byte[] compressed = bzip2(data, 1);
+        long end = endOfStreamBit(compressed);
+
+        // 跳过 "BZh1" 流头
+        BZip2Block block = BZip2Block.copyOf(compressed[3], compressed, 32, end);
+        assertArrayEquals(data, block.decompress());
+    }
+
+    @Test
+    public void testFalseBoundaryIsRepairedByMerge() throws Exception {
+        byte[] data = newText(20000, 2L);
+        byte[] compressed = bzip2(data, 1);
+        long end = endOfStreamBit(compressed);
+
+        // 模拟在压缩数据中间误认的块边界，切分点不按字节对齐
+        long falseBoundary = 32 + (end - 32) / 2 + 3;
+        BZip2Block first = BZip2Block.copyOf(compressed[3], compressed, 32, falseBoundary);
+        BZip2Block second = BZip2Block.copyOf(compressed[3], compressed, falseBoundary, end);
+        // 解压失败的原因来自 BZip2CompressorInputStream
+        assertNotNull(decompressError(first).getCause());
+        assertNotNull(decompressError(second).getCause());
+        assertArrayEquals(data, first.merge(second).decompress());
+    }
+
+    @Test
+    public void testTruncatedBlockIsRejected() throws Exception {
+        byte[] compressed = bzip2(newText(1000, 3L), 1);
+        decompressError(BZip2Block.copyOf(compressed[3], compressed, 32, 32 + 79));
+        assertNotNull(decompressError(BZip2Block.copyOf(compressed[3], compressed, 32,
+                endOfStreamBit(compressed) - 8)).getCause());
+    }
+}
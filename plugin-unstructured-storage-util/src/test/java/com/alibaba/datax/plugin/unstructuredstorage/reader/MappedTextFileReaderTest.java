@@ -0,0 +1,176 @@
+package com.alibaba.datax.plugin.unstructuredstorage.reader;
+
+import com.alibaba.datax.common.element.Column;
+import com.alibaba.datax.common.element.Record;
+import com.alibaba.datax.common.plugin.RecordSender;
+import com.alibaba.datax.common.plugin.TaskPluginCollector;
+import com.alibaba.datax.common.util.Configuration;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 映射读取与 readFromStream(CsvReader) 读取同一个文件，结果必须完全一致
+ */
+public class MappedTextFileReaderTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        this.file = File.createTempFile("mapped-reader", ".csv");
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(this.file);
+    }
+
+    private static Configuration newConfig(String columnJson) {
+        Configuration configuration = Configuration.from(null == columnJson ? "{}"
+                : "{\"column\":" + columnJson + "}");
+        configuration.set(Key.FIELD_DELIMITER, ",");
+        configuration.set(Key.ENCODING, "UTF-8");
+        return configuration;
+    }
+
+    private void assertSameAsCsvReader(String content, Configuration configuration) throws Exception {
+        FileUtils.writeStringToFile(this.file, content, "UTF-8");
+        assertTrue(MappedTextFileReader.isSupported(configuration));
+
+        CollectingSender expected = new CollectingSender();
+        CollectingCollector expectedDirty = new CollectingCollector();
+        UnstructuredStorageReaderUtil.readFromStream(new FileInputStream(this.file), this.file.getName(),
+                configuration.clone(), expected, expectedDirty);
+
+        CollectingSender actual = new CollectingSender();
+        CollectingCollector actualDirty = new CollectingCollector();
+        MappedTextFileReader.read(this.file.getAbsolutePath(), 0L, Long.MAX_VALUE, configuration.clone(),
+                actual, actualDirty);
+
+        assertTrue(!expected.rows.isEmpty());
+        assertEquals(expected.rows, actual.rows);
+        assertEquals(expectedDirty.dirtyRows, actualDirty.dirtyRows);
+    }
+
+    @Test
+    public void testQuotedFields() throws Exception {
+        assertSameAsCsvReader("1,\"a,b\",\"say \"\"hi\"\"\"\n"
+                + "2,\"\",  plain  \n"
+                + "3,\"中文\",last,\n", newConfig(null));
+    }
+
+    @Test
+    public void testEmbeddedNewlines() throws Exception {
+        assertSameAsCsvReader("1,\"line1\nline2\",a\n"
+                + "2,\"crlf\r\ninside\",b\n"
+                + "\n"
+                + "3,tail,c", newConfig(null));
+    }
+
+    @Test
+    public void testCrlfAndSkipHeader() throws Exception {
+        Configuration configuration = newConfig(null);
+        configuration.set(Key.SKIP_HEADER, true);
+        assertSameAsCsvReader("id,name\r\n1,a\r\n\r\n2,b\r3,c\r\n", configuration);
+    }
+
+    @Test
+    public void testTypedColumnsAndNullFormat() throws Exception {
+        Configuration configuration = newConfig("[{\"index\":0,\"type\":\"long\"},"
+                + "{\"index\":1,\"type\":\"string\"},{\"value\":\"const\",\"type\":\"string\"},"
+                + "{\"index\":2,\"type\":\"long\"}]");
+        configuration.set(Key.NULL_FORMAT, "\\N");
+        assertSameAsCsvReader("1,a,-5\n"
+                + "\"2\",\\N,+7\n"
+                + "12345678901234567890,\"\\N\",x\n"
+                + "4,short\n", configuration);
+    }
+
+    private static class CollectingSender implements RecordSender {
+        private final List<List<String>> rows = new ArrayList<List<String>>();
+
+        @Override
+        public Record createRecord() {
+            return new ListRecord();
+        }
+
+        @Override
+        public void sendToWriter(Record record) {
+            List<String> row = new ArrayList<String>();
+            for (int i = 0; i < record.getColumnNumber(); i++) {
+                Column column = record.getColumn(i);
+                row.add(column.getType() + ":" + column.asString());
+            }
+            this.rows.add(row);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void terminate() {
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+
+    private static class CollectingCollector extends TaskPluginCollector {
+        private final List<Integer> dirtyRows = new ArrayList<Integer>();
+
+        @Override
+        public void collectDirtyRecord(Record dirtyRecord, Throwable t, String errorMessage) {
+            this.dirtyRows.add(dirtyRecord.getColumnNumber());
+        }
+
+        @Override
+        public void collectMessage(String key, String value) {
+        }
+    }
+
+    private static class ListRecord implements Record {
+        private final List<Column> columns = new ArrayList<Column>();
+
+        @Override
+        public void addColumn(Column column) {
+            this.columns.add(column);
+        }
+
+        @Override
+        public void setColumn(int i, Column column) {
+            this.columns.set(i, column);
+        }
+
+        @Override
+        public Column getColumn(int i) {
+            return this.columns.get(i);
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return this.columns.size();
+        }
+
+        @Override
+        public int getByteSize() {
+            return 0;
+        }
+
+        @Override
+        public int getMemorySize() {
+            return 0;
+        }
+    }
+}
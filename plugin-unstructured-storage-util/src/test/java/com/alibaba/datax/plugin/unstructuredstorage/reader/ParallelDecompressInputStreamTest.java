@@ -0,0 +1,146 @@
+package com.alibaba.datax.plugin.unstructuredstorage.reader;
+
+import com.alibaba.datax.common.exception.DataXException;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+public class ParallelDecompressInputStreamTest {
+
+    private static byte[] readAll(String compress, byte[] compressed, int decompressThreads) throws IOException {
+        InputStream in = new ParallelDecompressInputStream(compress, new ByteArrayInputStream(compressed),
+                decompressThreads, "test");
+        try {
+            return IOUtils.toByteArray(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.write(part, 0, part.length);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GzipCompressorOutputStream gzip = new GzipCompressorOutputStream(out);
+        gzip.write(data);
+        gzip.close();
+        return out.toByteArray();
+    }
+
+    /**
+     * 按 bgzip 的格式生成一个 BGZF 成员：扩展字段 BC 中存放整个成员的大小减一
+     */
+    private static byte[] bgzfMember(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(data);
+        deflater.finish();
+        byte[] deflated = new byte[data.length + 1024];
+        int length = 0;
+        while (!deflater.finished()) {
+            length += deflater.deflate(deflated, length, deflated.length - length);
+        }
+        deflater.end();
+
+        int blockSize = 18 + length + 8;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[] { 0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0 }, 0, 16);
+        writeLittleEndian(out, blockSize - 1, 2);
+        out.write(deflated, 0, length);
+        CRC32 crc32 = new CRC32();
+        crc32.update(data);
+        writeLittleEndian(out, crc32.getValue(), 4);
+        writeLittleEndian(out, data.length, 4);
+        return out.toByteArray();
+    }
+
+    private static void writeLittleEndian(ByteArrayOutputStream out, long value, int bytes) {
+        for (int i = 0; i < bytes; i++) {
+            out.write((int) (value >>> (8 * i)) & 0xFF);
+        }
+    }
+
+    @Test
+    public void testMultiBlockBZip2() throws Exception {
+        // 100k 的块大小下约 5 个块
+        byte[] data = BZip2BlockTest.newText(450 * 1024, 7L);
+        byte[] compressed = BZip2BlockTest.bzip2(data, 1);
+        assertArrayEquals(data, readAll("bzip2", compressed, 4));
+        // 单线程时不按块切分
+        assertArrayEquals(data, readAll("bzip2", compressed, 1));
+    }
+
+    @Test
+    public void testCorruptBZip2BlockFailsWithCause() throws Exception {
+        byte[] compressed = BZip2BlockTest.bzip2(BZip2BlockTest.newText(250 * 1024, 15L), 1);
+        // 破坏第一个块中间的数据
+        compressed[compressed.length / 4] ^= 0x55;
+        try {
+            readAll("bzip2", compressed, 2);
+            fail();
+        } catch (DataXException e) {
+            assertEquals(UnstructuredStorageReaderErrorCode.READ_FILE_IO_ERROR, e.getErrorCode());
+            assertNotNull(e.getCause());
+        }
+    }
+
+    @Test
+    public void testBZip2ReadsFirstStreamOnly() throws Exception {
+        byte[] first = BZip2BlockTest.newText(150 * 1024, 8L);
+        byte[] second = BZip2BlockTest.newText(1024, 9L);
+        byte[] compressed = concat(BZip2BlockTest.bzip2(first, 1), BZip2BlockTest.bzip2(second, 1));
+        assertArrayEquals(first, readAll("bzip2", compressed, 2));
+    }
+
+    @Test
+    public void testConcatenatedGzipMembers() throws Exception {
+        byte[] first = BZip2BlockTest.newText(3000, 10L);
+        byte[] second = BZip2BlockTest.newText(5000, 11L);
+        byte[] compressed = concat(gzip(first), gzip(second));
+        byte[] expected = concat(first, second);
+
+        assertArrayEquals(expected, readAll("gzip", compressed, 2));
+        // decompressThreads 为 0 时与原来一样只解压第一个成员
+        assertArrayEquals(first, IOUtils.toByteArray(UnstructuredStorageReaderUtil
+                .createDecompressStream("gzip", new ByteArrayInputStream(compressed))));
+    }
+
+    @Test
+    public void testBgzfMembers() throws Exception {
+        byte[] first = BZip2BlockTest.newText(60000, 12L);
+        byte[] second = BZip2BlockTest.newText(30000, 13L);
+        // bgzip 以一个空成员作为文件结束标记
+        byte[] compressed = concat(bgzfMember(first), bgzfMember(second), bgzfMember(new byte[0]));
+        assertArrayEquals(concat(first, second), readAll("gzip", compressed, 3));
+    }
+
+    @Test
+    public void testCorruptBgzfMemberFails() throws Exception {
+        byte[] compressed = bgzfMember(BZip2BlockTest.newText(10000, 14L));
+        // 破坏 CRC
+        compressed[compressed.length - 8] ^= 1;
+        try {
+            readAll("gzip", compressed, 2);
+            fail();
+        } catch (IOException e) {
+            // CRC 校验失败
+        }
+    }
+}
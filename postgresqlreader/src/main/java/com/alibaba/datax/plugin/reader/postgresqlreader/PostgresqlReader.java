@@ -41,7 +41,7 @@ public class PostgresqlReader extends Reader {
 
         @Override
         public void post() {
-            this.commonRdbmsReaderMaster.post(this.originalConfig);
+            this.commonRdbmsReaderMaster.post(this.originalConfig, super.getJobPluginCollector());
         }
 
         @Override
@@ -67,6 +67,7 @@ public class PostgresqlReader extends Reader {
         public void startRead(RecordSender recordSender) {
             int fetchSize = this.readerSliceConfig.getInt(com.alibaba.datax.plugin.rdbms.reader.Constant.FETCH_SIZE);
 
+            this.commonRdbmsReaderSlave.setTaskCheckpoint(super.getTaskCheckpoint());
             this.commonRdbmsReaderSlave.startRead(this.readerSliceConfig, recordSender,
                     super.getTaskPluginCollector(), fetchSize);
         }
@@ -82,6 +82,7 @@ public class PostgresqlWriter extends Writer {
 		}
 
 		public void startWrite(RecordReceiver recordReceiver) {
+			this.commonRdbmsWriterSlave.setTaskCheckpoint(super.getTaskCheckpoint());
 			this.commonRdbmsWriterSlave.startWrite(recordReceiver, this.writerSliceConfig, super.getTaskPluginCollector());
 		}
 
@@ -53,7 +53,7 @@ public class RdbmsReader extends Reader {
 
         @Override
         public void post() {
-            this.commonRdbmsReaderMaster.post(this.originalConfig);
+            this.commonRdbmsReaderMaster.post(this.originalConfig, super.getJobPluginCollector());
         }
 
         @Override
@@ -81,6 +81,7 @@ public class RdbmsReader extends Reader {
             int fetchSize = this.readerSliceConfig
                     .getInt(com.alibaba.datax.plugin.rdbms.reader.Constant.FETCH_SIZE);
 
+            this.commonRdbmsReaderSlave.setTaskCheckpoint(super.getTaskCheckpoint());
             this.commonRdbmsReaderSlave.startRead(this.readerSliceConfig,
                     recordSender, super.getTaskPluginCollector(), fetchSize);
         }
@@ -83,6 +83,7 @@ public class RdbmsWriter extends Writer {
         }
 
         public void startWrite(RecordReceiver recordReceiver) {
+            this.commonRdbmsWriterSlave.setTaskCheckpoint(super.getTaskCheckpoint());
             this.commonRdbmsWriterSlave.startWrite(recordReceiver,
                     this.writerSliceConfig, super.getTaskPluginCollector());
         }
@@ -26,6 +26,11 @@ public class SubCommonRdbmsWriter extends CommonRdbmsWriter {
             super(dataBaseType);
         }
 
+        @Override
+        protected boolean usePrecompiledSetters() {
+            return false;
+        }
+
         @Override
         protected PreparedStatement fillPreparedStatementColumnType(
                 PreparedStatement preparedStatement, int columnIndex,
@@ -162,6 +162,7 @@ public class StreamWriter extends Writer {
                             } else {
                         /* do nothing */
                             }
+                            record.release();
                         }
                         writer.flush();
 
@@ -197,6 +198,7 @@ public class StreamWriter extends Writer {
                     }
                    writer.write(recordToString(record));
                    count++;
+                   record.release();
                 }
                 writer.flush();
             } catch (Exception e) {
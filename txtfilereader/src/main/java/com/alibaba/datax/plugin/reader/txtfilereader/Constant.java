@@ -6,4 +6,9 @@ package com.alibaba.datax.plugin.reader.txtfilereader;
 public class Constant {
 	public static final String SOURCE_FILES = "sourceFiles";
 
+	// 按字节范围切分时 slice 只包含一个文件, 读取 [rangeStart, rangeEnd) 内开始的行
+	public static final String RANGE_START = "rangeStart";
+
+	public static final String RANGE_END = "rangeEnd";
+
 }
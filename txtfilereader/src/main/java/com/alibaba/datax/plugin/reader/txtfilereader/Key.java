@@ -5,4 +5,10 @@ package com.alibaba.datax.plugin.reader.txtfilereader;
  */
 public class Key {
 	public static final String PATH = "path";
+
+	// 大于该字节数的未压缩文件按行边界切分为多个字节范围并行读取, 默认0不切分
+	public static final String SPLIT_SIZE = "splitSize";
+
+	// 本地UTF-8/ASCII未压缩文件是否通过FileChannel.map直接在字节上解析, 默认false
+	public static final String MMAP_READ = "mmapRead";
 }
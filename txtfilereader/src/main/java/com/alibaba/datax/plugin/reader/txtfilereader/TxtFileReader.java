@@ -4,6 +4,8 @@ import com.alibaba.datax.common.exception.DataXException;
 import com.alibaba.datax.common.plugin.RecordSender;
 import com.alibaba.datax.common.spi.Reader;
 import com.alibaba.datax.common.util.Configuration;
+import com.alibaba.datax.plugin.unstructuredstorage.reader.LineRangeInputStream;
+import com.alibaba.datax.plugin.unstructuredstorage.reader.MappedTextFileReader;
 import com.alibaba.datax.plugin.unstructuredstorage.reader.UnstructuredStorageReaderErrorCode;
 import com.alibaba.datax.plugin.unstructuredstorage.reader.UnstructuredStorageReaderUtil;
 import com.google.common.collect.Sets;
@@ -18,6 +20,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.ArrayList;
@@ -157,14 +160,14 @@ public class TxtFileReader extends Reader {
 								null);
 			} else {
 				Set<String> supportedCompress = Sets
-						.newHashSet("gzip", "bzip2", "zip");
+						.newHashSet("gzip", "bzip2", "zip", "zstd");
 				compress = compress.toLowerCase().trim();
 				if (!supportedCompress.contains(compress)) {
 					throw DataXException
 							.asDataXException(
 									TxtFileReaderErrorCode.ILLEGAL_VALUE,
 									String.format(
-											"仅支持 gzip, bzip2, zip 文件压缩格式 , 不支持您配置的文件压缩格式: [%s]",
+											"仅支持 gzip, bzip2, zip, zstd 文件压缩格式 , 不支持您配置的文件压缩格式: [%s]",
 											compress));
 				}
 				this.originConfig
@@ -224,6 +227,14 @@ public class TxtFileReader extends Reader {
                                         this.originConfig.getString(Key.PATH)));
             }
 
+			long splitSize = this.originConfig.getLong(Key.SPLIT_SIZE, 0L);
+			if (splitSize > 0) {
+				if (this.isRangeSplittable()) {
+					return this.splitByRange(adviceNumber, splitSize);
+				}
+				LOG.warn("压缩文件或者换行符不是单字节的编码无法按字节范围切分, 忽略您配置的splitSize, 每个文件由一个task读取.");
+			}
+
 			List<List<String>> splitedSourceFiles = this.splitSourceFiles(
 					this.sourceFiles, splitNumber);
 			for (List<String> files : splitedSourceFiles) {
@@ -235,6 +246,71 @@ public class TxtFileReader extends Reader {
 			return readerSplitConfigs;
 		}
 
+		private boolean isRangeSplittable() {
+			if (null != this.originConfig
+					.getString(com.alibaba.datax.plugin.unstructuredstorage.reader.Key.COMPRESS)) {
+				return false;
+			}
+			String encoding = this.originConfig
+					.getString(com.alibaba.datax.plugin.unstructuredstorage.reader.Key.ENCODING);
+			byte[] newline = "\n".getBytes(Charsets.toCharset(encoding));
+			return 1 == newline.length && '\n' == newline[0];
+		}
+
+		// 大于splitSize的文件按字节范围切分, 范围大小不小于splitSize, 并尽量按channel数均分这些大文件的数据量;
+		// 其余的小文件与不切分时一样按adviceNumber分组, 不会每个文件单独成为一个task
+		private List<Configuration> splitByRange(int adviceNumber,
+				long splitSize) {
+			List<String> smallFiles = new ArrayList<String>();
+			List<String> largeFiles = new ArrayList<String>();
+			long largeSize = 0;
+			for (String file : this.sourceFiles) {
+				long fileSize = new File(file).length();
+				if (fileSize > splitSize) {
+					largeFiles.add(file);
+					largeSize += fileSize;
+				} else {
+					smallFiles.add(file);
+				}
+			}
+			long rangeSize = Math.max(splitSize,
+					(largeSize + adviceNumber - 1) / adviceNumber);
+
+			List<Configuration> readerSplitConfigs = new ArrayList<Configuration>();
+			if (!smallFiles.isEmpty()) {
+				for (List<String> files : this.splitSourceFiles(smallFiles,
+						adviceNumber)) {
+					Configuration splitedConfig = this.originConfig.clone();
+					splitedConfig.set(Constant.SOURCE_FILES, files);
+					readerSplitConfigs.add(splitedConfig);
+				}
+			}
+
+			for (String file : largeFiles) {
+				long fileSize = new File(file).length();
+				long rangeCount = (fileSize + rangeSize - 1) / rangeSize;
+				long step = (fileSize + rangeCount - 1) / rangeCount;
+				for (long start = 0; start < fileSize; start += step) {
+					Configuration splitedConfig = this.originConfig.clone();
+					splitedConfig.set(Constant.SOURCE_FILES, Arrays.asList(file));
+					splitedConfig.set(Constant.RANGE_START, start);
+					// 最后一个范围读到文件末尾, 与整文件读取时一样包含切分之后追加的数据
+					splitedConfig.set(Constant.RANGE_END,
+							start + step >= fileSize ? Long.MAX_VALUE : start + step);
+					if (start > 0) {
+						splitedConfig
+								.set(com.alibaba.datax.plugin.unstructuredstorage.reader.Key.SKIP_HEADER,
+										false);
+					}
+					readerSplitConfigs.add(splitedConfig);
+				}
+				LOG.info(String.format(
+						"file [%s] of %s bytes is split into %s ranges.", file,
+						fileSize, rangeCount));
+			}
+			return readerSplitConfigs;
+		}
+
 		// validate the path, path must be a absolute path
 		private List<String> buildSourceTargets() {
 			// for eath path
@@ -395,11 +471,35 @@ public class TxtFileReader extends Reader {
 		@Override
 		public void startRead(RecordSender recordSender) {
 			LOG.debug("start read source files...");
+			Long rangeStart = this.readerSliceConfig.getLong(Constant.RANGE_START);
+			boolean mappedRead = this.readerSliceConfig.getBool(Key.MMAP_READ,
+					false)
+					&& MappedTextFileReader.isSupported(this.readerSliceConfig);
 			for (String fileName : this.sourceFiles) {
 				LOG.info(String.format("reading file : [%s]", fileName));
+				// 管道等特殊文件无法映射, 仍然按流读取
+				if (mappedRead && new File(fileName).isFile()) {
+					MappedTextFileReader.read(fileName,
+							null == rangeStart ? 0L : rangeStart,
+							null == rangeStart ? Long.MAX_VALUE
+									: this.readerSliceConfig
+											.getLong(Constant.RANGE_END),
+							this.readerSliceConfig, recordSender,
+							this.getTaskPluginCollector());
+					recordSender.flush();
+					continue;
+				}
 				InputStream inputStream;
 				try {
 					inputStream = new FileInputStream(fileName);
+					if (null != rangeStart) {
+						long rangeEnd = this.readerSliceConfig
+								.getLong(Constant.RANGE_END);
+						LOG.info(String.format("reading range : [%s, %s)",
+								rangeStart, rangeEnd));
+						inputStream = new LineRangeInputStream(inputStream,
+								rangeStart, rangeEnd);
+					}
 					UnstructuredStorageReaderUtil.readFromStream(inputStream,
 							fileName, this.readerSliceConfig, recordSender,
 							this.getTaskPluginCollector());
@@ -411,6 +511,12 @@ public class TxtFileReader extends Reader {
 					LOG.error(message);
 					throw DataXException.asDataXException(
 							TxtFileReaderErrorCode.OPEN_FILE_ERROR, message);
+				} catch (IOException e) {
+					String message = String.format("定位待读取的文件范围失败 : [%s]",
+							fileName);
+					LOG.error(message);
+					throw DataXException.asDataXException(
+							TxtFileReaderErrorCode.READ_FILE_IO_ERROR, message, e);
 				}
 			}
 			LOG.debug("end read source files...");
@@ -0,0 +1,96 @@
+package com.alibaba.datax.plugin.reader.txtfilereader;
+
+import com.alibaba.datax.common.util.Configuration;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TxtFileReaderSplitTest {
+
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        this.dir = Files.createTempDirectory("txtfilereader-split").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(this.dir);
+    }
+
+    private void writeFile(String name, int lines) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            sb.append("line-").append(i % 10).append(",x\n");
+        }
+        FileUtils.writeStringToFile(new File(this.dir, name), sb.toString(), "UTF-8");
+    }
+
+    private List<Configuration> split(long splitSize, int adviceNumber) {
+        Configuration configuration = Configuration.newDefault();
+        configuration.set(Key.PATH, Arrays.asList(this.dir.getAbsolutePath()));
+        configuration.set("fieldDelimiter", ",");
+        configuration.set("splitSize", splitSize);
+
+        TxtFileReader.Job job = new TxtFileReader.Job();
+        job.setPluginJobConf(configuration);
+        job.init();
+        job.prepare();
+        return job.split(adviceNumber);
+    }
+
+    @Test
+    public void testSmallFilesAreGroupedByAdviceNumber() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            writeFile("small-" + i + ".csv", 2);
+        }
+
+        List<Configuration> splits = split(1024, 3);
+        assertEquals(3, splits.size());
+        for (Configuration split : splits) {
+            assertEquals(2, split.getList(Constant.SOURCE_FILES, String.class).size());
+            assertNull(split.getLong(Constant.RANGE_START));
+        }
+    }
+
+    @Test
+    public void testOnlyLargeFilesAreSplitByRange() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            writeFile("small-" + i + ".csv", 2);
+        }
+        // 每行 9 字节, 共 900 字节
+        writeFile("large.csv", 100);
+
+        List<Configuration> splits = split(100, 3);
+        int groups = 0;
+        int ranges = 0;
+        long lastRangeEnd = 0;
+        for (Configuration split : splits) {
+            List<String> files = split.getList(Constant.SOURCE_FILES, String.class);
+            Long rangeStart = split.getLong(Constant.RANGE_START);
+            if (null == rangeStart) {
+                groups++;
+                assertEquals(2, files.size());
+                continue;
+            }
+            ranges++;
+            assertEquals(1, files.size());
+            assertEquals(lastRangeEnd, rangeStart.longValue());
+            lastRangeEnd = split.getLong(Constant.RANGE_END);
+        }
+        assertEquals(3, groups);
+        // 范围大小取 max(100, 900 / 3)
+        assertEquals(3, ranges);
+        assertEquals(Long.MAX_VALUE, lastRangeEnd);
+    }
+}